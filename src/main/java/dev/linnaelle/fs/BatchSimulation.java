@@ -0,0 +1,262 @@
+package dev.linnaelle.fs;
+
+import dev.linnaelle.fs.dao.*;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.services.CatalogueService;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.services.EcritureDiffereeService;
+import dev.linnaelle.fs.simulation.ExecuteurFermes;
+import dev.linnaelle.fs.utils.DatabaseManager;
+import dev.linnaelle.fs.utils.Horloge;
+import dev.linnaelle.fs.utils.HorlogePasFixe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Simulation sans interface de nombreuses fermes synthétiques, pour dimensionner le matériel
+ * et repérer les régressions de performance.
+ * Les fermes sont créées par les DAO, simulées pas à pas sous une horloge manuelle et écrites périodiquement
+ * par {@link EcritureDiffereeService}, comme en jeu. Le temps simulé ne dépend donc pas de la vitesse de la machine.
+ *
+ * Usage : {@code BatchSimulation [fermes=100] [heures=1] [threads=0] [sauvegardeMinutes=5]}
+ */
+public class BatchSimulation {
+
+    private static final long ORIGINE = 1_700_000_000_000L;
+    private static final long PAS = 1000L;
+
+    private static final int CHAMPS_CULTURES = 4;
+    private static final int VACHES = 20;
+    // Assez d'herbe pour que le troupeau produise pendant toute la simulation
+    private static final int STOCK_HERBE = 1_000_000;
+
+    private final int nombreFermes;
+    private final int heures;
+    private final int parallelisme;
+    private final int sauvegardeMinutes;
+
+    private final JoueurDao joueurDao = new JoueurDao();
+    private final FermeDao fermeDao = new FermeDao();
+    private final ChampDao champDao = new ChampDao();
+    private final FermeAnimaleDao fermeAnimaleDao = new FermeAnimaleDao();
+    private final AnimalDao animalDao = new AnimalDao();
+    private final StructureProductionDao structureDao = new StructureProductionDao();
+
+    private final List<Ferme> fermes = new ArrayList<>();
+
+    public BatchSimulation(int nombreFermes, int heures, int parallelisme, int sauvegardeMinutes) {
+        this.nombreFermes = nombreFermes;
+        this.heures = heures;
+        this.parallelisme = parallelisme;
+        this.sauvegardeMinutes = sauvegardeMinutes;
+    }
+
+    public static void main(String[] args) {
+        int nombreFermes;
+        int heures;
+        int parallelisme;
+        int sauvegardeMinutes;
+        try {
+            nombreFermes = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+            heures = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+            parallelisme = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+            sauvegardeMinutes = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        } catch (NumberFormatException e) {
+            System.err.println("[ERROR] Argument invalide: " + e.getMessage());
+            System.err.println("Usage: BatchSimulation [fermes] [heures] [threads] [sauvegardeMinutes]");
+            return;
+        }
+
+        if (nombreFermes <= 0 || heures <= 0 || sauvegardeMinutes <= 0) {
+            System.err.println("[ERROR] Les fermes, les heures et l'intervalle de sauvegarde doivent être positifs");
+            return;
+        }
+
+        HorlogePasFixe horloge = new HorlogePasFixe(ORIGINE, PAS);
+        Horloge.setInstance(horloge);
+
+        DatabaseManager.getInstance().initializeDatabase();
+        DataInitializer.initializeData();
+        try {
+            new BatchSimulation(nombreFermes, heures, parallelisme, sauvegardeMinutes).executer(horloge);
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    /**
+     * Crée les fermes, les simule puis affiche le rapport.
+     * @param horloge L'horloge du jeu, avancée d'un pas à chaque tick.
+     */
+    public void executer(HorlogePasFixe horloge) {
+        long debutCreation = System.nanoTime();
+        Difficulte difficulte = new DifficulteDao().findByNom("normal");
+        for (int i = 0; i < nombreFermes; i++) {
+            Ferme ferme = creerFerme(i, difficulte);
+            if (ferme != null) {
+                fermes.add(ferme);
+            }
+        }
+        System.out.println(String.format("[INFO] %d fermes créées en %.1f ms",
+                fermes.size(), (System.nanoTime() - debutCreation) / 1_000_000.0));
+
+        ExecuteurFermes executeur = new ExecuteurFermes(parallelisme);
+        EcritureDiffereeService ecrituresDifferees = EcritureDiffereeService.getInstance();
+        for (Ferme ferme : fermes) {
+            int indice = executeur.ajouterFerme(ferme);
+            ecrituresDifferees.suivre(ferme, (action, delaiMillis) -> executeur.executer(indice, action, delaiMillis));
+        }
+        // Vidages au rythme du temps simulé, déclenchés par la boucle
+        ecrituresDifferees.demarrer(0);
+        ecrituresDifferees.vider();
+
+        int ticks = heures * 3600;
+        int ticksParSauvegarde = sauvegardeMinutes * 60;
+        long[] dureesTicks = new long[ticks];
+        long miseAJourEntites = 0;
+        long ecritures = 0;
+        long dureeSauvegardesNanos = 0;
+        long entitesParTick = compterEntites();
+
+        long debut = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            long temps = horloge.avancer();
+            long debutTick = System.nanoTime();
+            executeur.executerTick(temps);
+            dureesTicks[t] = System.nanoTime() - debutTick;
+            miseAJourEntites += entitesParTick;
+
+            if ((t + 1) % ticksParSauvegarde == 0 || t == ticks - 1) {
+                long debutSauvegarde = System.nanoTime();
+                ecritures += ecrituresDifferees.vider();
+                // Les lignes des fermes partent ensemble dans la file de l'écrivain, qui les valide en un commit
+                List<CompletableFuture<Integer>> lignesFermes = new ArrayList<>();
+                for (Ferme ferme : fermes) {
+                    lignesFermes.add(DatabaseManager.soumettre(conn -> fermeDao.update(conn, ferme)));
+                }
+                for (CompletableFuture<Integer> lignes : lignesFermes) {
+                    ecritures += lignes.join();
+                }
+                dureeSauvegardesNanos += System.nanoTime() - debutSauvegarde;
+                entitesParTick = compterEntites();
+            }
+        }
+        double secondes = (System.nanoTime() - debut) / 1_000_000_000.0;
+        ecrituresDifferees.arreter();
+        for (Ferme ferme : fermes) {
+            ecrituresDifferees.oublier(ferme);
+        }
+        executeur.arreter();
+
+        Arrays.sort(dureesTicks);
+        afficherRapport(ticks, secondes, miseAJourEntites, ecritures, dureeSauvegardesNanos / 1_000_000_000.0,
+                dureesTicks, executeur);
+    }
+
+    /**
+     * Crée une ferme synthétique en base : un enclos de vaches, des champs de blé,
+     * une serre, une laiterie et une usine à fumier.
+     */
+    private Ferme creerFerme(int numero, Difficulte difficulte) {
+        long maintenant = Horloge.getInstance().maintenant();
+
+        Joueur joueur = new Joueur("Batch " + numero, difficulte);
+        joueur.setTempsJeu(maintenant);
+        if (joueurDao.save(joueur) == null) {
+            System.err.println("[ERROR] Impossible de créer le joueur batch " + numero);
+            return null;
+        }
+
+        Ferme ferme = new Ferme("Ferme batch " + numero, joueur.getId());
+        ferme.setRevenu(difficulte != null ? difficulte.getGoldDepart() : 0.0);
+        ferme.setDerniereSimulation(maintenant);
+        fermeDao.save(ferme);
+        if (ferme.getId() == 0) {
+            System.err.println("[ERROR] Impossible de créer la ferme batch " + numero);
+            return null;
+        }
+
+        Champ enclos = new Champ(ferme.getId(), 1);
+        champDao.save(enclos);
+        FermeAnimale troupeau = new FermeAnimale(enclos.getId(), "vache", VACHES);
+        fermeAnimaleDao.save(troupeau);
+        for (int i = 0; i < VACHES; i++) {
+            Animal vache = new Animal(troupeau.getId(), "vache", STOCK_HERBE);
+            animalDao.save(vache);
+            troupeau.addAnimal(vache);
+        }
+        enclos.setFermeAnimale(troupeau);
+        ferme.getChamps().add(enclos);
+
+        for (int i = 0; i < CHAMPS_CULTURES; i++) {
+            Champ champ = new Champ(ferme.getId(), i + 2);
+            champ.labourer(maintenant);
+            champ.semer("ble", maintenant);
+            champDao.save(champ);
+            ferme.getChamps().add(champ);
+        }
+
+        CatalogueService catalogue = CatalogueService.getInstance();
+        Serre serre = new Serre(ferme.getId(), "serre", catalogue.getUsineInfo("serre").getPrixAchat());
+        serre.demarrer();
+        structureDao.saveSerre(serre);
+        ferme.getStructures().add(serre);
+
+        for (String type : new String[] { "laiterie", "usine_fumier" }) {
+            Usine usine = new Usine(ferme.getId(), type, catalogue.getUsineInfo(type).getPrixAchat());
+            usine.demarrer();
+            structureDao.saveUsine(usine);
+            ferme.getStructures().add(usine);
+        }
+
+        return ferme;
+    }
+
+    /**
+     * Entités avancées à chaque pas : animaux vivants, champs et structures.
+     */
+    private long compterEntites() {
+        long total = 0;
+        for (Ferme ferme : fermes) {
+            total += ferme.getChamps().size() + ferme.getStructures().size();
+            for (Champ champ : ferme.getChamps()) {
+                FermeAnimale troupeau = champ.getFermeAnimale();
+                if (troupeau != null) {
+                    total += troupeau.compterVivants();
+                }
+            }
+        }
+        return total;
+    }
+
+    private void afficherRapport(int ticks, double secondes, long miseAJourEntites, long ecritures,
+                                 double secondesSauvegarde, long[] dureesTriees, ExecuteurFermes executeur) {
+        Runtime runtime = Runtime.getRuntime();
+        long tasUtilise = runtime.totalMemory() - runtime.freeMemory();
+
+        System.out.println("=== SIMULATION BATCH ===");
+        System.out.println("Fermes: " + fermes.size() + " sur " + executeur.getParallelisme() + " threads");
+        System.out.println("Temps simulé: " + heures + " h (" + ticks + " ticks), écriture toutes les "
+                + sauvegardeMinutes + " min");
+        System.out.println("Erreurs: " + executeur.getErreurs());
+        System.out.println(String.format("Durée murale: %.2f s, dont %.2f s d'écriture", secondes, secondesSauvegarde));
+        System.out.println(String.format("Ticks/s: %.1f", ticks / secondes));
+        System.out.println(String.format("Mises à jour d'entités/s: %.0f", miseAJourEntites / secondes));
+        System.out.println(String.format("Écritures en base/s: %.0f (%d lignes)", ecritures / secondes, ecritures));
+        System.out.println(String.format("Tas utilisé: %.1f Mo (max %.1f Mo)",
+                tasUtilise / (1024.0 * 1024.0), runtime.maxMemory() / (1024.0 * 1024.0)));
+        System.out.println(String.format("Latence d'un tick (p50/p99/max): %.3f / %.3f / %.3f ms",
+                percentile(dureesTriees, 50), percentile(dureesTriees, 99), percentile(dureesTriees, 100)));
+    }
+
+    private static double percentile(long[] triees, double percentile) {
+        if (triees.length == 0) {
+            return 0.0;
+        }
+        int rang = (int) Math.ceil(percentile / 100.0 * triees.length) - 1;
+        return triees[Math.max(0, Math.min(rang, triees.length - 1))] / 1_000_000.0;
+    }
+}
@@ -2,59 +2,75 @@ package dev.linnaelle.fs.dao;
 
 import dev.linnaelle.fs.utils.DatabaseManager;
 import dev.linnaelle.fs.entities.Animal;
+import dev.linnaelle.fs.entities.FermeAnimale;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-public class AnimalDao {
+public class AnimalDao extends DaoBase {
     /**
      * Sauvegarde un animal dans la base de données.
      * @param animal L'animal à sauvegarder.
      * @return L'animal sauvegardé avec son ID généré, ou null en cas d'erreur.
      */
     public Animal save(Animal animal) {
-        String sql = "INSERT INTO Animal (ferme_animale_id, type, stock_herbe, vivant, deficit) VALUES (?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, animal.getFermeAnimaleId());
-            stmt.setString(2, animal.getType());
-            stmt.setInt(3, animal.getStockHerbe());
-            stmt.setBoolean(4, animal.isVivant());
-            stmt.setBoolean(5, animal.isDeficit());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                try (Statement lastIdStmt = conn.createStatement();
-                    ResultSet rs = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        animal.setId(rs.getInt(1));
-                    }
-                }
+        return saveAll(List.of(animal)) ? animal : null;
+    }
+    
+    /**
+     * Sauvegarde des animaux en une seule insertion, dans une même transaction.
+     * @param animaux Les animaux à sauvegarder, qui reçoivent leur ID généré.
+     * @return true si tous ont été sauvegardés, false en cas d'erreur.
+     */
+    public boolean saveAll(List<Animal> animaux) {
+        try {
+            if (DatabaseManager.ecrire(conn -> saveAll(conn, animaux)) == animaux.size()) {
+                return true;
             }
-            
         } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la sauvegarde de l'animal: " + e.getMessage());
+            System.err.println("[ERROR] Erreur lors de la sauvegarde des animaux: " + e.getMessage());
         }
         
-        return null;
+        return false;
+    }
+    
+    /**
+     * Insère des animaux sur la connexion de l'écrivain, en une requête par lot de 500.
+     * @param conn La connexion de l'écrivain.
+     * @param animaux Les animaux à insérer, qui reçoivent leur ID généré.
+     * @return Le nombre de lignes insérées.
+     * @throws SQLException Si une insertion échoue ; l'écrivain annule alors le travail.
+     */
+    public int saveAll(Connection conn, List<Animal> animaux) throws SQLException {
+        String sql = "INSERT INTO Animal (ferme_animale_id, type, stock_herbe, vivant, deficit)";
+        
+        return insererTout(conn, sql, 5, animaux, (stmt, i, animal) -> {
+            stmt.setInt(i, animal.getFermeAnimaleId());
+            stmt.setString(i + 1, animal.getType());
+            stmt.setInt(i + 2, animal.getStockHerbe());
+            stmt.setBoolean(i + 3, animal.isVivant());
+            stmt.setBoolean(i + 4, animal.isDeficit());
+        }, Animal::setId);
     }
     
     /**
-     * Recherche un animal par son ID.
+     * Recherche un animal par son ID. Dans une {@link Session}, un animal d'un troupeau déjà chargé est rendu sans requête.
      * @param id L'ID de l'animal à rechercher.
      * @return L'animal trouvé, ou null si aucun animal n'est trouvé.
      */
     public Animal findById(int id) {
         String sql = "SELECT * FROM Animal WHERE id = ?";
         
+        Animal suivi = vueSuivie(enSession(FermeAnimale.class, troupeau -> troupeau.indiceAnimal(id) >= 0), id);
+        if (suivi != null) {
+            return suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -62,7 +78,7 @@ public class AnimalDao {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return mapToAnimal(rs);
+                return lireAnimal(rs);
             }
             
         } catch (SQLException e) {
@@ -88,7 +104,7 @@ public class AnimalDao {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                animaux.add(mapToAnimal(rs));
+                animaux.add(lireAnimal(rs));
             }
             
         } catch (SQLException e) {
@@ -114,7 +130,7 @@ public class AnimalDao {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                animaux.add(mapToAnimal(rs));
+                animaux.add(lireAnimal(rs));
             }
             
         } catch (SQLException e) {
@@ -140,7 +156,7 @@ public class AnimalDao {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                animaux.add(mapToAnimal(rs));
+                animaux.add(lireAnimal(rs));
             }
             
         } catch (SQLException e) {
@@ -158,21 +174,68 @@ public class AnimalDao {
     public boolean update(Animal animal) {
         String sql = "UPDATE Animal SET stock_herbe = ?, vivant = ?, deficit = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                PreparedStatement stmt = preparer(conn, sql);
+                stmt.setInt(1, animal.getStockHerbe());
+                stmt.setBoolean(2, animal.isVivant());
+                stmt.setBoolean(3, animal.isDeficit());
+                stmt.setInt(4, animal.getId());
+                
+                return stmt.executeUpdate() > 0;
+            });
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors de la mise à jour de l'animal: " + e.getMessage());
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Met à jour plusieurs animaux dans la transaction de l'appelant, en un seul lot.
+     * @param conn La connexion qui porte la transaction.
+     * @param animaux Les animaux à mettre à jour.
+     * @return Le nombre de lignes écrites.
+     * @throws SQLException Si une requête échoue ; l'appelant annule la transaction.
+     */
+    public int updateAll(Connection conn, Collection<Animal> animaux) throws SQLException {
+        String sql = "UPDATE Animal SET stock_herbe = ?, vivant = ?, deficit = ? WHERE id = ?";
+        
+        PreparedStatement stmt = preparer(conn, sql);
+        for (Animal animal : animaux) {
             stmt.setInt(1, animal.getStockHerbe());
             stmt.setBoolean(2, animal.isVivant());
             stmt.setBoolean(3, animal.isDeficit());
             stmt.setInt(4, animal.getId());
-            
-            return stmt.executeUpdate() > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la mise à jour de l'animal: " + e.getMessage());
+            stmt.addBatch();
         }
+        return compterLignes(stmt.executeBatch());
+    }
+    
+    /**
+     * Met à jour les animaux d'un troupeau dans la transaction de l'appelant, en un seul lot,
+     * en lisant directement ses colonnes : aucune vue {@link Animal} n'est créée.
+     * @param conn La connexion qui porte la transaction.
+     * @param troupeau Le troupeau à écrire.
+     * @param modifiesSeulement true pour n'écrire que les animaux changés depuis le dernier enregistrement.
+     * @return Le nombre de lignes écrites.
+     * @throws SQLException Si une requête échoue ; l'appelant annule la transaction.
+     */
+    public int updateAll(Connection conn, FermeAnimale troupeau, boolean modifiesSeulement) throws SQLException {
+        String sql = "UPDATE Animal SET stock_herbe = ?, vivant = ?, deficit = ? WHERE id = ?";
         
-        return false;
+        PreparedStatement stmt = preparer(conn, sql);
+        int i = modifiesSeulement ? troupeau.prochainAnimalModifie(0) : 0;
+        int taille = troupeau.getNombreAnimaux();
+        while (i >= 0 && i < taille) {
+            stmt.setInt(1, troupeau.getStockHerbe(i));
+            stmt.setBoolean(2, troupeau.isVivant(i));
+            stmt.setBoolean(3, troupeau.isDeficit(i));
+            stmt.setInt(4, troupeau.getIdAnimal(i));
+            stmt.addBatch();
+            i = modifiesSeulement ? troupeau.prochainAnimalModifie(i + 1) : i + 1;
+        }
+        return compterLignes(stmt.executeBatch());
     }
     
     /**
@@ -183,12 +246,13 @@ public class AnimalDao {
     public boolean delete(int id) {
         String sql = "DELETE FROM Animal WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression de l'animal: " + e.getMessage());
         }
@@ -229,12 +293,13 @@ public class AnimalDao {
     public boolean supprimerAnimauxMorts(int fermeAnimaleId) {
         String sql = "DELETE FROM Animal WHERE ferme_animale_id = ? AND vivant = 0";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, fermeAnimaleId);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, fermeAnimaleId);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression des animaux morts: " + e.getMessage());
         }
@@ -242,7 +307,30 @@ public class AnimalDao {
         return false;
     }
     
-    private Animal mapToAnimal(ResultSet rs) throws SQLException {
+    /**
+     * Lit une ligne en rendant l'animal vivant de la {@link Session} ouverte : un animal d'un troupeau déjà chargé
+     * garde son état en mémoire.
+     */
+    private Animal lireAnimal(ResultSet rs) throws SQLException {
+        Animal animal = mapToAnimal(rs);
+        animal.marquerEnregistre();
+        Animal suivi = vueSuivie(enSession(FermeAnimale.class, animal.getFermeAnimaleId()), animal.getId());
+        return suivi != null ? suivi : animal;
+    }
+    
+    /**
+     * Vue sur la ligne d'un animal dans un troupeau suivi par la {@link Session}.
+     * @return La vue, ou null si le troupeau n'est pas suivi ou ne contient pas l'animal.
+     */
+    private static Animal vueSuivie(FermeAnimale troupeau, int id) {
+        if (troupeau == null) {
+            return null;
+        }
+        int indice = troupeau.indiceAnimal(id);
+        return indice >= 0 ? troupeau.getAnimaux().get(indice) : null;
+    }
+    
+    Animal mapToAnimal(ResultSet rs) throws SQLException {
         Animal animal = new Animal();
         animal.setId(rs.getInt("id"));
         animal.setFermeAnimaleId(rs.getInt("ferme_animale_id"));
@@ -9,13 +9,15 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO pour accéder aux données du catalogue.
  * Fournit des méthodes pour récupérer les informations sur les cultures, animaux, usines, équipements et articles.
  */
-public class CatalogueDao {
+public class CatalogueDao extends DaoBase {
     /**
      * Récupère les informations sur une culture par son nom.
      * @param nom Le nom de la culture.
@@ -24,14 +26,14 @@ public class CatalogueDao {
     public CultureInfo getCultureInfo(String nom) {
         String sql = "SELECT * FROM CultureInfo WHERE nom = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
+        try (Connection conn = DatabaseManager.get()) {
+            PreparedStatement stmt = preparer(conn, sql);
             stmt.setString(1, nom);
-            ResultSet rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                return mapToCultureInfo(rs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapToCultureInfo(rs);
+                }
             }
             
         } catch (SQLException e) {
@@ -72,14 +74,14 @@ public class CatalogueDao {
     public AnimalInfo getAnimalInfo(String nom) {
         String sql = "SELECT * FROM AnimalInfo WHERE nom = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
+        try (Connection conn = DatabaseManager.get()) {
+            PreparedStatement stmt = preparer(conn, sql);
             stmt.setString(1, nom);
-            ResultSet rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                return mapToAnimalInfo(rs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapToAnimalInfo(rs);
+                }
             }
             
         } catch (SQLException e) {
@@ -120,14 +122,14 @@ public class CatalogueDao {
     public UsineInfo getUsineInfo(String nom) {
         String sql = "SELECT * FROM UsineInfo WHERE nom = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
+        try (Connection conn = DatabaseManager.get()) {
+            PreparedStatement stmt = preparer(conn, sql);
             stmt.setString(1, nom);
-            ResultSet rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                return mapToUsineInfo(rs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapToUsineInfo(rs);
+                }
             }
             
         } catch (SQLException e) {
@@ -168,14 +170,14 @@ public class CatalogueDao {
     public EquipementInfo getEquipementInfo(String nom) {
         String sql = "SELECT * FROM EquipementInfo WHERE nom = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
+        try (Connection conn = DatabaseManager.get()) {
+            PreparedStatement stmt = preparer(conn, sql);
             stmt.setString(1, nom);
-            ResultSet rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                return mapToEquipementInfo(rs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapToEquipementInfo(rs);
+                }
             }
             
         } catch (SQLException e) {
@@ -216,14 +218,14 @@ public class CatalogueDao {
     public ArticleInfo getArticleInfo(String nom) {
         String sql = "SELECT * FROM ArticleInfo WHERE nom = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
+        try (Connection conn = DatabaseManager.get()) {
+            PreparedStatement stmt = preparer(conn, sql);
             stmt.setString(1, nom);
-            ResultSet rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                return mapToArticleInfo(rs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapToArticleInfo(rs);
+                }
             }
             
         } catch (SQLException e) {
@@ -281,9 +283,25 @@ public class CatalogueDao {
         animal.setConsoHerbe(rs.getInt("conso_herbe"));
         animal.setStockHerbe(rs.getInt("stock_herbe"));
         
-        String produitsStr = rs.getString("articles_produits");
-        List<String> produits = Arrays.asList(produitsStr.split(","));
+        // "lait:20,fumier:5" ; un article sans quantité en produit une unité par seconde
+        List<String> produits = new ArrayList<>();
+        Map<String, Integer> production = new LinkedHashMap<>();
+        for (String produit : rs.getString("articles_produits").split(",")) {
+            String[] parties = produit.split(":");
+            String article = parties[0].trim();
+            int quantite = 1;
+            if (parties.length == 2) {
+                try {
+                    quantite = Integer.parseInt(parties[1].trim());
+                } catch (NumberFormatException e) {
+                    System.err.println("[ERROR] Format invalide pour la production de " + animal.getNom() + ": " + produit);
+                }
+            }
+            produits.add(article);
+            production.put(article, quantite);
+        }
         animal.setArticlesProduits(produits);
+        animal.setProduction(production);
         
         return animal;
     }
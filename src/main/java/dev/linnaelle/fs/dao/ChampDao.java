@@ -8,58 +8,72 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-public class ChampDao {
+public class ChampDao extends DaoBase {
     /**
      * Saves a Champ entity to the database.
      * @param champ The Champ entity to save.
      * @return The saved Champ entity, or null if the save operation failed.
      */
     public Champ save(Champ champ) {
-        String sql = "INSERT INTO Champ (ferme_id, name, numero, type_culture, temps_action, etat, prix_achat) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, champ.getFermeId());
-            stmt.setString(2, champ.getName());
-            stmt.setInt(3, champ.getNumero());
-            stmt.setString(4, champ.getTypeCulture());
-            stmt.setLong(5, champ.getTempsAction());
-            stmt.setString(6, champ.getEtat().name());
-            stmt.setDouble(7, champ.getPrixAchat());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                try (Statement lastIdStmt = conn.createStatement();
-                    ResultSet rs = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        champ.setId(rs.getInt(1));
-                    }
-
-                    return champ;
-                }
+        return saveAll(List.of(champ)) ? champ : null;
+    }
+    
+    /**
+     * Saves Champ entities in one multi-row insert, within one transaction.
+     * @param champs The Champ entities to save; each receives its generated ID.
+     * @return true if all of them were saved, false otherwise.
+     */
+    public boolean saveAll(List<Champ> champs) {
+        try {
+            if (DatabaseManager.ecrire(conn -> saveAll(conn, champs)) == champs.size()) {
+                suivreTout(Champ.class, champs, Champ::getId);
+                return true;
             }
-            
         } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la sauvegarde du champ: " + e.getMessage());
+            System.err.println("[ERROR] Erreur lors de la sauvegarde des champs: " + e.getMessage());
         }
         
-        return null;
+        return false;
+    }
+    
+    /**
+     * Inserts Champ entities on the writer connection, one statement per chunk of 500 rows.
+     * @param conn The writer connection.
+     * @param champs The Champ entities to insert; each receives its generated ID.
+     * @return The number of rows inserted.
+     * @throws SQLException If an insert fails; the writer then rolls the job back.
+     */
+    public int saveAll(Connection conn, List<Champ> champs) throws SQLException {
+        String sql = "INSERT INTO Champ (ferme_id, name, numero, type_culture, temps_action, etat, prix_achat)";
+        
+        return insererTout(conn, sql, 7, champs, (stmt, i, champ) -> {
+            stmt.setInt(i, champ.getFermeId());
+            stmt.setString(i + 1, champ.getName());
+            stmt.setInt(i + 2, champ.getNumero());
+            stmt.setString(i + 3, champ.getTypeCulture());
+            stmt.setLong(i + 4, champ.getTempsAction());
+            stmt.setString(i + 5, champ.getEtat().name());
+            stmt.setDouble(i + 6, champ.getPrixAchat());
+        }, Champ::setId);
     }
     
     /**
-     * Finds a Champ entity by its ID.
+     * Finds a Champ entity by its ID. Within a {@link Session}, a Champ already loaded is returned without a query.
      * @param id The ID of the Champ to find.
      * @return The Champ entity if found, or null if not found.
      */
     public Champ findById(int id) {
         String sql = "SELECT * FROM Champ WHERE id = ?";
         
+        Champ suivi = enSession(Champ.class, id);
+        if (suivi != null) {
+            return suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -67,7 +81,7 @@ public class ChampDao {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return mapToChamp(rs);
+                return lireChamp(rs);
             }
             
         } catch (SQLException e) {
@@ -93,7 +107,7 @@ public class ChampDao {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                champs.add(mapToChamp(rs));
+                champs.add(lireChamp(rs));
             }
             
         } catch (SQLException e) {
@@ -121,7 +135,7 @@ public class ChampDao {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                champs.add(mapToChamp(rs));
+                champs.add(lireChamp(rs));
             }
             
         } catch (SQLException e) {
@@ -139,23 +153,46 @@ public class ChampDao {
     public boolean update(Champ champ) {
         String sql = "UPDATE Champ SET name = ?, type_culture = ?, temps_action = ?, etat = ?, prix_achat = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                PreparedStatement stmt = preparer(conn, sql);
+                stmt.setString(1, champ.getName());
+                stmt.setString(2, champ.getTypeCulture());
+                stmt.setLong(3, champ.getTempsAction());
+                stmt.setString(4, champ.getEtat().name());
+                stmt.setDouble(5, champ.getPrixAchat());
+                stmt.setInt(6, champ.getId());
+                
+                return stmt.executeUpdate() > 0;
+            });
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors de la mise à jour du champ: " + e.getMessage());
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Updates several Champ entities within the caller's transaction, in a single batch.
+     * @param conn The connection holding the transaction.
+     * @param champs The Champ entities to update.
+     * @return The number of rows written.
+     * @throws SQLException If a statement fails; the caller rolls back.
+     */
+    public int updateAll(Connection conn, Collection<Champ> champs) throws SQLException {
+        String sql = "UPDATE Champ SET name = ?, type_culture = ?, temps_action = ?, etat = ?, prix_achat = ? WHERE id = ?";
+        
+        PreparedStatement stmt = preparer(conn, sql);
+        for (Champ champ : champs) {
             stmt.setString(1, champ.getName());
             stmt.setString(2, champ.getTypeCulture());
             stmt.setLong(3, champ.getTempsAction());
             stmt.setString(4, champ.getEtat().name());
             stmt.setDouble(5, champ.getPrixAchat());
             stmt.setInt(6, champ.getId());
-            
-            return stmt.executeUpdate() > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la mise à jour du champ: " + e.getMessage());
+            stmt.addBatch();
         }
-        
-        return false;
+        return compterLignes(stmt.executeBatch());
     }
     
     /**
@@ -166,12 +203,14 @@ public class ChampDao {
     public boolean delete(int id) {
         String sql = "DELETE FROM Champ WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    oublier(Champ.class, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression du champ: " + e.getMessage());
         }
@@ -223,7 +262,7 @@ public class ChampDao {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                champs.add(mapToChamp(rs));
+                champs.add(lireChamp(rs));
             }
             
         } catch (SQLException e) {
@@ -233,7 +272,16 @@ public class ChampDao {
         return champs;
     }
     
-    private Champ mapToChamp(ResultSet rs) throws SQLException {
+    /**
+     * Maps a row to the live Champ of the open {@link Session}: a Champ already loaded keeps its in-memory state.
+     */
+    private Champ lireChamp(ResultSet rs) throws SQLException {
+        Champ champ = mapToChamp(rs);
+        champ.marquerEnregistre();
+        return suivre(Champ.class, champ.getId(), champ);
+    }
+    
+    Champ mapToChamp(ResultSet rs) throws SQLException {
         Champ champ = new Champ();
         champ.setId(rs.getInt("id"));
         champ.setFermeId(rs.getInt("ferme_id"));
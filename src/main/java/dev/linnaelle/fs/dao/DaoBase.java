@@ -0,0 +1,194 @@
+package dev.linnaelle.fs.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Base class of the DAOs, holding the statements they compile.
+ * Statements are cached per physical connection, so the long-lived writer connection and the pooled readers
+ * compile each SQL string once instead of on every call.
+ * A cached statement belongs to the cache: callers must not close it, but must close its ResultSet,
+ * otherwise the statement keeps its read transaction open on the connection.
+ */
+abstract class DaoBase {
+
+    // Rows per multi-row INSERT, far below SQLite's limit of 32766 bound parameters
+    private static final int LIGNES_PAR_INSERTION = 500;
+
+    /**
+     * Binds the columns of one entity in a multi-row INSERT.
+     */
+    @FunctionalInterface
+    protected interface Lieur<T> {
+        void lier(PreparedStatement stmt, int premier, T entite) throws SQLException;
+    }
+
+    // Keyed by the driver's connection, not the pool proxy, which closes its statements when returned
+    private static final Map<Connection, Map<String, PreparedStatement>> requetes = new IdentityHashMap<>();
+
+    /**
+     * Returns the compiled statement for this SQL on this connection, preparing it on first use.
+     * Its parameters and pending batch are cleared.
+     * @param conn The connection, pooled or not.
+     * @param sql The SQL to compile.
+     * @return The cached statement, not to be closed by the caller.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    protected static PreparedStatement preparer(Connection conn, String sql) throws SQLException {
+        Connection physique = conn.unwrap(Connection.class);
+        Map<String, PreparedStatement> parConnexion;
+        synchronized (requetes) {
+            parConnexion = requetes.get(physique);
+            if (parConnexion == null) {
+                // A new physical connection usually replaces one retired by the pool
+                requetes.keySet().removeIf(DaoBase::estFermee);
+                parConnexion = new HashMap<>();
+                requetes.put(physique, parConnexion);
+            }
+        }
+
+        // A connection is only used by one thread at a time
+        PreparedStatement stmt = parConnexion.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = physique.prepareStatement(sql);
+            parConnexion.put(sql, stmt);
+        } else {
+            stmt.clearParameters();
+            stmt.clearBatch();
+        }
+        return stmt;
+    }
+
+    /**
+     * Inserts entities with multi-row {@code INSERT ... RETURNING id} statements, one per chunk of
+     * {@value #LIGNES_PAR_INSERTION} rows, and hands each entity its generated id.
+     * Keys grow in insertion order within a statement, so the returned ids are sorted and given out in list order.
+     * Must run on the writer connection.
+     * @param conn The writer connection.
+     * @param insertion The INSERT up to its column list, e.g. {@code INSERT INTO Animal (type, vivant)}.
+     * @param colonnes The number of columns bound per entity.
+     * @param entites The entities to insert, in order.
+     * @param lieur Binds the columns of one entity from a given parameter index.
+     * @param setId Receives each entity's generated id.
+     * @return The number of rows inserted.
+     * @throws SQLException If an insert fails, or returns fewer ids than rows.
+     */
+    protected static <T> int insererTout(Connection conn, String insertion, int colonnes, List<T> entites,
+                                         Lieur<T> lieur, ObjIntConsumer<T> setId) throws SQLException {
+        int lignes = 0;
+        for (int debut = 0; debut < entites.size(); debut += LIGNES_PAR_INSERTION) {
+            List<T> lot = entites.subList(debut, Math.min(debut + LIGNES_PAR_INSERTION, entites.size()));
+            String sql = insertion + " VALUES " + String.join(", ", Collections.nCopies(lot.size(),
+                    "(" + String.join(", ", Collections.nCopies(colonnes, "?")) + ")")) + " RETURNING id";
+
+            // Only single rows and full chunks are cached; other sizes would fill the cache with one-off SQL
+            boolean enCache = lot.size() == 1 || lot.size() == LIGNES_PAR_INSERTION;
+            PreparedStatement stmt = enCache ? preparer(conn, sql) : conn.prepareStatement(sql);
+            try {
+                for (int i = 0; i < lot.size(); i++) {
+                    lieur.lier(stmt, i * colonnes + 1, lot.get(i));
+                }
+
+                int[] ids = new int[lot.size()];
+                int lus = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next() && lus < ids.length) {
+                        ids[lus++] = rs.getInt(1);
+                    }
+                }
+                if (lus != ids.length) {
+                    throw new SQLException(lus + " ids générés pour " + ids.length + " lignes insérées.");
+                }
+
+                Arrays.sort(ids);
+                for (int i = 0; i < ids.length; i++) {
+                    setId.accept(lot.get(i), ids[i]);
+                }
+                lignes += ids.length;
+            } finally {
+                if (!enCache) {
+                    stmt.close();
+                }
+            }
+        }
+        return lignes;
+    }
+
+    /**
+     * Looks a row up in the open {@link Session}, so that a row already loaded is returned without a query.
+     * @param racine The root class of the entity, e.g. {@code Stockage.class} for an Entrepot.
+     * @param id The ID of the row.
+     * @return The tracked instance, or null if no session is open or the row was not loaded in it.
+     */
+    protected static <T> T enSession(Class<T> racine, int id) {
+        Session session = Session.courante();
+        return session != null ? session.trouver(racine, id) : null;
+    }
+
+    /**
+     * Looks a row up in the open {@link Session} by another column than its ID.
+     * @return The first tracked instance matching the criterion, or null.
+     */
+    protected static <T> T enSession(Class<T> racine, Predicate<? super T> critere) {
+        Session session = Session.courante();
+        return session != null ? session.chercher(racine, critere) : null;
+    }
+
+    /**
+     * Hands a loaded or inserted entity to the open {@link Session}.
+     * @return The live instance of the row: the one already tracked if any, otherwise the given entity.
+     */
+    protected static <T> T suivre(Class<? super T> racine, int id, T entite) {
+        Session session = Session.courante();
+        return session != null ? session.suivre(racine, id, entite) : entite;
+    }
+
+    /**
+     * Hands newly inserted entities to the open {@link Session}.
+     */
+    protected static <T> void suivreTout(Class<? super T> racine, List<T> entites, ToIntFunction<? super T> id) {
+        Session session = Session.courante();
+        if (session != null) {
+            for (T entite : entites) {
+                session.suivre(racine, id.applyAsInt(entite), entite);
+            }
+        }
+    }
+
+    /**
+     * Stops tracking a deleted row in the open {@link Session}.
+     */
+    protected static void oublier(Class<?> racine, int id) {
+        Session session = Session.courante();
+        if (session != null) {
+            session.oublier(racine, id);
+        }
+    }
+
+    protected static int compterLignes(int[] resultats) {
+        int lignes = 0;
+        for (int resultat : resultats) {
+            lignes += Math.max(resultat, 0);
+        }
+        return lignes;
+    }
+
+    private static boolean estFermee(Connection conn) {
+        try {
+            return conn.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+}
\ No newline at end of file
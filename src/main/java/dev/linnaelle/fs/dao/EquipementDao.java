@@ -7,52 +7,67 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
-public class EquipementDao {
+public class EquipementDao extends DaoBase {
     /**
      * Saves a new Equipement entity to the database.
      * @param equipement The Equipement entity to save.
      * @return The saved Equipement entity, or null if the save operation failed.
      */
     public Equipement save(Equipement equipement) {
-        String sql = "INSERT INTO Equipement (gestionnaire_id, type, en_utilisation) VALUES (?, ?, ?)";
-        
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, equipement.getGestionnaireId());
-            stmt.setString(2, equipement.getType());
-            stmt.setBoolean(3, equipement.isEnUtilisation());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                try (Statement lastIdStmt = conn.createStatement();
-                    ResultSet rs = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        equipement.setId(rs.getInt(1));
-                    }
-                }
+        return saveAll(List.of(equipement)) ? equipement : null;
+    }
+    
+    /**
+     * Saves Equipement entities in one multi-row insert, within one transaction.
+     * @param equipements The Equipement entities to save; each receives its generated ID.
+     * @return true if all of them were saved, false otherwise.
+     */
+    public boolean saveAll(List<Equipement> equipements) {
+        try {
+            if (DatabaseManager.ecrire(conn -> saveAll(conn, equipements)) == equipements.size()) {
+                suivreTout(Equipement.class, equipements, Equipement::getId);
+                return true;
             }
-            
         } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la sauvegarde de l'équipement: " + e.getMessage());
+            System.err.println("[ERROR] Erreur lors de la sauvegarde des équipements: " + e.getMessage());
         }
         
-        return null;
+        return false;
+    }
+    
+    /**
+     * Inserts Equipement entities on the writer connection, one statement per chunk of 500 rows.
+     * @param conn The writer connection.
+     * @param equipements The Equipement entities to insert; each receives its generated ID.
+     * @return The number of rows inserted.
+     * @throws SQLException If an insert fails; the writer then rolls the job back.
+     */
+    public int saveAll(Connection conn, List<Equipement> equipements) throws SQLException {
+        String sql = "INSERT INTO Equipement (gestionnaire_id, type, en_utilisation)";
+        
+        return insererTout(conn, sql, 3, equipements, (stmt, i, equipement) -> {
+            stmt.setInt(i, equipement.getGestionnaireId());
+            stmt.setString(i + 1, equipement.getType());
+            stmt.setBoolean(i + 2, equipement.isEnUtilisation());
+        }, Equipement::setId);
     }
     
     /**
-     * Finds an Equipement entity by its ID.
+     * Finds an Equipement entity by its ID. Within a {@link Session}, an Equipement already loaded is returned without a query.
      * @param id The ID of the Equipement entity.
      * @return The Equipement entity, or null if not found.
      */
     public Equipement findById(int id) {
         String sql = "SELECT * FROM Equipement WHERE id = ?";
         
+        Equipement suivi = enSession(Equipement.class, id);
+        if (suivi != null) {
+            return suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -60,7 +75,7 @@ public class EquipementDao {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return mapToEquipement(rs);
+                return lireEquipement(rs);
             }
             
         } catch (SQLException e) {
@@ -86,7 +101,7 @@ public class EquipementDao {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                equipements.add(mapToEquipement(rs));
+                equipements.add(lireEquipement(rs));
             }
             
         } catch (SQLException e) {
@@ -114,7 +129,7 @@ public class EquipementDao {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                equipements.add(mapToEquipement(rs));
+                equipements.add(lireEquipement(rs));
             }
             
         } catch (SQLException e) {
@@ -142,7 +157,7 @@ public class EquipementDao {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                equipements.add(mapToEquipement(rs));
+                equipements.add(lireEquipement(rs));
             }
             
         } catch (SQLException e) {
@@ -160,15 +175,16 @@ public class EquipementDao {
     public boolean update(Equipement equipement) {
         String sql = "UPDATE Equipement SET type = ?, en_utilisation = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, equipement.getType());
-            stmt.setBoolean(2, equipement.isEnUtilisation());
-            stmt.setInt(3, equipement.getId());
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, equipement.getType());
+                    stmt.setBoolean(2, equipement.isEnUtilisation());
+                    stmt.setInt(3, equipement.getId());
+                    
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour de l'équipement: " + e.getMessage());
         }
@@ -184,12 +200,14 @@ public class EquipementDao {
     public boolean delete(int id) {
         String sql = "DELETE FROM Equipement WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    oublier(Equipement.class, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression de l'équipement: " + e.getMessage());
         }
@@ -251,7 +269,15 @@ public class EquipementDao {
         return 0;
     }
     
-    private Equipement mapToEquipement(ResultSet rs) throws SQLException {
+    /**
+     * Maps a row to the live Equipement of the open {@link Session}.
+     */
+    private Equipement lireEquipement(ResultSet rs) throws SQLException {
+        Equipement equipement = mapToEquipement(rs);
+        return suivre(Equipement.class, equipement.getId(), equipement);
+    }
+    
+    Equipement mapToEquipement(ResultSet rs) throws SQLException {
         Equipement equipement = new Equipement();
         equipement.setId(rs.getInt("id"));
         equipement.setGestionnaireId(rs.getInt("gestionnaire_id"));
@@ -0,0 +1,127 @@
+package dev.linnaelle.fs.dao;
+
+import dev.linnaelle.fs.utils.DatabaseManager;
+import dev.linnaelle.fs.entities.FermeAnimale;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+public class FermeAnimaleDao extends DaoBase {
+    private AnimalDao animalDao;
+
+    public FermeAnimaleDao() {
+        this.animalDao = new AnimalDao();
+    }
+
+    /**
+     * Sauvegarde une ferme animale dans la base de données.
+     * Les animaux déjà rattachés reçoivent l'ID de la ferme animale, mais ne sont pas sauvegardés.
+     * @param fermeAnimale La ferme animale à sauvegarder.
+     * @return La ferme animale sauvegardée avec son ID généré, ou null en cas d'erreur.
+     */
+    public FermeAnimale save(FermeAnimale fermeAnimale) {
+        return saveAll(List.of(fermeAnimale)) ? fermeAnimale : null;
+    }
+
+    /**
+     * Sauvegarde des fermes animales en une seule insertion, dans une même transaction.
+     * @param fermesAnimales Les fermes animales à sauvegarder, qui reçoivent leur ID généré.
+     * @return true si tous ont été sauvegardés, false en cas d'erreur.
+     */
+    public boolean saveAll(List<FermeAnimale> fermesAnimales) {
+        try {
+            if (DatabaseManager.ecrire(conn -> saveAll(conn, fermesAnimales)) == fermesAnimales.size()) {
+                suivreTout(FermeAnimale.class, fermesAnimales, FermeAnimale::getId);
+                return true;
+            }
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors de la sauvegarde des fermes animales: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Insère des fermes animales sur la connexion de l'écrivain, en une requête par lot de 500.
+     * @param conn La connexion de l'écrivain.
+     * @param fermesAnimales Les fermes animales à insérer, qui reçoivent leur ID généré.
+     * @return Le nombre de lignes insérées.
+     * @throws SQLException Si une insertion échoue ; l'écrivain annule alors le travail.
+     */
+    public int saveAll(Connection conn, List<FermeAnimale> fermesAnimales) throws SQLException {
+        String sql = "INSERT INTO FermeAnimale (champ_id, type_animal, capacite_max)";
+
+        return insererTout(conn, sql, 3, fermesAnimales, (stmt, i, fermeAnimale) -> {
+            stmt.setInt(i, fermeAnimale.getChampId());
+            stmt.setString(i + 1, fermeAnimale.getTypeAnimal());
+            stmt.setInt(i + 2, fermeAnimale.getCapaciteMax());
+        }, FermeAnimale::setId);
+    }
+
+    /**
+     * Recherche la ferme animale d'un champ, avec ses animaux. Dans une {@link Session}, une ferme animale
+     * déjà chargée est rendue sans requête.
+     * @param champId L'ID du champ.
+     * @return La ferme animale trouvée, ou null si le champ n'en a pas.
+     */
+    public FermeAnimale findByChampId(int champId) {
+        String sql = "SELECT * FROM FermeAnimale WHERE champ_id = ?";
+
+        FermeAnimale suivie = enSession(FermeAnimale.class, fermeAnimale -> fermeAnimale.getChampId() == champId);
+        if (suivie != null) {
+            return suivie;
+        }
+
+        try (Connection conn = DatabaseManager.get();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, champId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                FermeAnimale fermeAnimale = mapToFermeAnimale(rs);
+                fermeAnimale.setAnimaux(animalDao.findByFermeAnimaleId(fermeAnimale.getId()));
+                fermeAnimale.marquerEnregistre();
+                return suivre(FermeAnimale.class, fermeAnimale.getId(), fermeAnimale);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors de la recherche de la ferme animale: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Supprime une ferme animale de la base de données par son ID.
+     * @param id L'ID de la ferme animale à supprimer.
+     * @return true si la suppression a réussi, false sinon.
+     */
+    public boolean delete(int id) {
+        String sql = "DELETE FROM FermeAnimale WHERE id = ?";
+
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    oublier(FermeAnimale.class, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors de la suppression de la ferme animale: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    private FermeAnimale mapToFermeAnimale(ResultSet rs) throws SQLException {
+        FermeAnimale fermeAnimale = new FermeAnimale(rs.getInt("champ_id"), rs.getString("type_animal"),
+                rs.getInt("capacite_max"));
+        fermeAnimale.setId(rs.getInt("id"));
+        return fermeAnimale;
+    }
+}
\ No newline at end of file
@@ -1,25 +1,33 @@
 package dev.linnaelle.fs.dao;
 
 import dev.linnaelle.fs.utils.DatabaseManager;
+import dev.linnaelle.fs.utils.Horloge;
 import dev.linnaelle.fs.entities.*;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-public class FermeDao {
+public class FermeDao extends DaoBase {
     private StockageDao stockageDao;
     private StructureProductionDao structureDao;
     private ChampDao champDao;
-    private GestionnaireEquipementDao equipementDao;
+    private GestionnaireEquipementDao gestionnaireDao;
+    private EquipementDao equipementDao;
+    private AnimalDao animalDao;
     
     public FermeDao() {
         this.stockageDao = new StockageDao();
         this.structureDao = new StructureProductionDao();
         this.champDao = new ChampDao();
-        this.equipementDao = new GestionnaireEquipementDao();
+        this.gestionnaireDao = new GestionnaireEquipementDao();
+        this.equipementDao = new EquipementDao();
+        this.animalDao = new AnimalDao();
     }
     
     /**
@@ -28,44 +36,82 @@ public class FermeDao {
      * @return The saved Ferme entity with its generated ID, or null if the save failed.
      */
     public Ferme save(Ferme ferme) {
-        String sql = "INSERT INTO Ferme (joueur_id, name, revenu) VALUES (?, ?, ?)";
+        return saveAll(List.of(ferme)) ? ferme : null;
+    }
+    
+    /**
+     * Saves new Ferme entities in one multi-row insert, then creates their default stockages
+     * and equipment managers, all within one transaction.
+     * @param fermes The Ferme entities to save; each receives its generated ID.
+     * @return true if all of them were saved, false otherwise.
+     */
+    public boolean saveAll(List<Ferme> fermes) {
+        String sql = "INSERT INTO Ferme (joueur_id, name, revenu, derniere_simulation)";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, ferme.getJoueurId());
-            stmt.setString(2, ferme.getName());
-            stmt.setDouble(3, ferme.getRevenu());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                try (Statement lastIdStmt = conn.createStatement();
-                     ResultSet generatedKeys = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
-                    
-                    if (generatedKeys.next()) {
-                        ferme.setId(generatedKeys.getInt(1));
-                    }
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                int lignes = insererTout(conn, sql, 4, fermes, (stmt, i, ferme) -> {
+                    stmt.setInt(i, ferme.getJoueurId());
+                    stmt.setString(i + 1, ferme.getName());
+                    stmt.setDouble(i + 2, ferme.getRevenu());
+                    stmt.setLong(i + 3, ferme.getDerniereSimulation());
+                }, Ferme::setId);
+                
+                List<GestionnaireEquipement> gestionnaires = new ArrayList<>();
+                for (Ferme ferme : fermes) {
                     createDefaultStockages(ferme);
-                    createGestionnaireEquipement(ferme);
+                    GestionnaireEquipement gestionnaire = new GestionnaireEquipement(ferme.getId());
+                    ferme.setEquipements(gestionnaire);
+                    gestionnaires.add(gestionnaire);
+                }
+                gestionnaireDao.saveAll(conn, gestionnaires);
+                return lignes == fermes.size();
+            }) && suivreTout(fermes);
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors de la sauvegarde des fermes: " + e.getMessage());
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Saves bought Animal entities and writes the farm's revenue within one transaction,
+     * so that an order is either fully paid and stored, or not at all.
+     * @param ferme The Ferme entity, whose revenue has already been debited.
+     * @param animaux The new Animal entities, each with its FermeAnimale ID; each receives its generated ID.
+     * @return true if all of them were saved, false otherwise.
+     */
+    public boolean saveAnimaux(Ferme ferme, List<Animal> animaux) {
+        try {
+            if (DatabaseManager.ecrire(conn -> {
+                int lignes = animalDao.saveAll(conn, animaux);
+                if (update(conn, ferme) == 0) {
+                    throw new SQLException("Ferme introuvable: " + ferme.getId());
                 }
+                return lignes;
+            }) == animaux.size()) {
+                return true;
             }
-            
         } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la sauvegarde de la ferme: " + e.getMessage());
+            System.err.println("[ERROR] Erreur lors de la sauvegarde des animaux achetés: " + e.getMessage());
         }
         
-        return null;
+        return false;
     }
     
     /**
-     * Finds a Ferme entity by its ID.
+     * Finds a Ferme entity by its ID. Within a {@link Session}, a Ferme already loaded is returned without a query.
      * @param id The ID of the Ferme entity.
      * @return The Ferme entity, or null if not found.
      */
     public Ferme findById(int id) {
         String sql = "SELECT * FROM Ferme WHERE id = ?";
         
+        Ferme suivie = enSession(Ferme.class, id);
+        if (suivie != null) {
+            return suivie;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -74,8 +120,8 @@ public class FermeDao {
             
             if (rs.next()) {
                 Ferme ferme = mapToFerme(rs);
-                loadFermeDetails(ferme);
-                return ferme;
+                loadFermeDetails(conn, ferme);
+                return suivreAgregat(ferme);
             }
             
         } catch (SQLException e) {
@@ -87,12 +133,18 @@ public class FermeDao {
     
     /**
      * Finds a Ferme entity by the ID of the associated Joueur.
+     * Within a {@link Session}, a Ferme already loaded is returned without a query.
      * @param joueurId The ID of the Joueur.
      * @return The Ferme entity, or null if not found.
      */
     public Ferme findByJoueurId(int joueurId) {
         String sql = "SELECT * FROM Ferme WHERE joueur_id = ?";
         
+        Ferme suivie = enSession(Ferme.class, ferme -> ferme.getJoueurId() == joueurId);
+        if (suivie != null) {
+            return suivie;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -101,8 +153,8 @@ public class FermeDao {
             
             if (rs.next()) {
                 Ferme ferme = mapToFerme(rs);
-                loadFermeDetails(ferme);
-                return ferme;
+                loadFermeDetails(conn, ferme);
+                return suivreAgregat(ferme);
             }
             
         } catch (SQLException e) {
@@ -118,17 +170,8 @@ public class FermeDao {
      * @return True if the update was successful, false otherwise.
      */
     public boolean update(Ferme ferme) {
-        String sql = "UPDATE Ferme SET name = ?, revenu = ? WHERE id = ?";
-        
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, ferme.getName());
-            stmt.setDouble(2, ferme.getRevenu());
-            stmt.setInt(3, ferme.getId());
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> update(conn, ferme) > 0);
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour de la ferme: " + e.getMessage());
         }
@@ -136,6 +179,25 @@ public class FermeDao {
         return false;
     }
     
+    /**
+     * Updates a Ferme row within the caller's transaction. Its components are not written.
+     * @param conn The connection holding the transaction.
+     * @param ferme The Ferme entity to update.
+     * @return The number of rows written.
+     * @throws SQLException If the statement fails; the caller rolls back.
+     */
+    public int update(Connection conn, Ferme ferme) throws SQLException {
+        String sql = "UPDATE Ferme SET name = ?, revenu = ?, derniere_simulation = ? WHERE id = ?";
+        
+        PreparedStatement stmt = preparer(conn, sql);
+        stmt.setString(1, ferme.getName());
+        stmt.setDouble(2, ferme.getRevenu());
+        stmt.setLong(3, ferme.getDerniereSimulation());
+        stmt.setInt(4, ferme.getId());
+        
+        return stmt.executeUpdate();
+    }
+    
     /**
      * Deletes a Ferme entity from the database by its ID.
      * @param id The ID of the Ferme entity to delete.
@@ -144,12 +206,14 @@ public class FermeDao {
     public boolean delete(int id) {
         String sql = "DELETE FROM Ferme WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    oublier(Ferme.class, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression de la ferme: " + e.getMessage());
         }
@@ -177,26 +241,307 @@ public class FermeDao {
     }
     
     /**
-     * Creates a GestionnaireEquipement for the Ferme.
-     * @param ferme The Ferme entity for which to create the gestionnaire.
+     * Loads the whole aggregate of a Ferme: stockages with their articles, structures, champs with their
+     * FermeAnimale and animals, and the equipment manager with its equipment.
+     * Each part is fetched by one query on ferme_id over the caller's connection (five queries, animals included),
+     * so loading a ferme, its own row included, always costs the same six queries whatever its number of champs,
+     * animals or articles.
+     * @param conn The connection used to read the Ferme row.
+     * @param ferme The Ferme entity to load details for.
      */
-    private void createGestionnaireEquipement(Ferme ferme) {
-        GestionnaireEquipement gestionnaire = new GestionnaireEquipement(ferme.getId());
-        gestionnaire = equipementDao.save(gestionnaire);
-        ferme.setEquipements(gestionnaire);
+    private void loadFermeDetails(Connection conn, Ferme ferme) throws SQLException {
+        loadStockages(conn, ferme);
+        loadStructures(conn, ferme);
+        loadChamps(conn, ferme);
+        loadEquipements(conn, ferme);
+        marquerEnregistre(ferme);
     }
     
     /**
-     * Loads the details of a Ferme entity, including its stockages, structures, and champs.
-     * @param ferme The Ferme entity to load details for.
+     * Hands a loaded Ferme and all its parts to the open {@link Session}. A part already tracked, because it was
+     * loaded on its own earlier in the session, is more recent than the fresh copy and replaces it in the aggregate.
+     * @param ferme The freshly loaded Ferme.
+     * @return The live Ferme.
      */
-    private void loadFermeDetails(Ferme ferme) {
-        ferme.setStockPrincipal(stockageDao.findStockPrincipalByFermeId(ferme.getId()));
-        ferme.setEntrepot(stockageDao.findEntrepotByFermeId(ferme.getId()));
-        ferme.setReservoirEau(stockageDao.findReservoirEauByFermeId(ferme.getId()));
-        ferme.setStructures(structureDao.findAllByFermeId(ferme.getId()));
-        ferme.setChamps(champDao.findByFermeId(ferme.getId()));
-        ferme.setEquipements(equipementDao.findByFermeId(ferme.getId()));
+    private Ferme suivreAgregat(Ferme ferme) {
+        Session session = Session.courante();
+        if (session == null) {
+            return ferme;
+        }
+        Ferme suivie = session.suivre(Ferme.class, ferme.getId(), ferme);
+        if (suivie != ferme) {
+            return suivie;
+        }
+        
+        if (ferme.getStockPrincipal() != null) {
+            ferme.setStockPrincipal(session.suivre(Stockage.class, ferme.getStockPrincipal().getId(), ferme.getStockPrincipal()));
+        }
+        if (ferme.getEntrepot() != null) {
+            ferme.setEntrepot(session.suivre(Stockage.class, ferme.getEntrepot().getId(), ferme.getEntrepot()));
+        }
+        if (ferme.getReservoirEau() != null) {
+            ferme.setReservoirEau(session.suivre(Stockage.class, ferme.getReservoirEau().getId(), ferme.getReservoirEau()));
+        }
+        ferme.getStructures().replaceAll(structure -> session.suivre(StructureProduction.class, structure.getId(), structure));
+        
+        List<Champ> champs = ferme.getChamps();
+        for (int i = 0; i < champs.size(); i++) {
+            Champ champ = champs.get(i);
+            Champ suivi = session.suivre(Champ.class, champ.getId(), champ);
+            if (suivi.getFermeAnimale() == null) {
+                suivi.setFermeAnimale(champ.getFermeAnimale());
+            }
+            champs.set(i, suivi);
+            
+            FermeAnimale troupeau = suivi.getFermeAnimale();
+            if (troupeau != null) {
+                suivi.setFermeAnimale(session.suivre(FermeAnimale.class, troupeau.getId(), troupeau));
+            }
+        }
+        
+        GestionnaireEquipement gestionnaire = ferme.getEquipements();
+        if (gestionnaire != null) {
+            gestionnaire = session.suivre(GestionnaireEquipement.class, gestionnaire.getId(), gestionnaire);
+            ferme.setEquipements(gestionnaire);
+            for (List<Equipement> equipements : gestionnaire.getInventaire().values()) {
+                equipements.replaceAll(equipement -> session.suivre(Equipement.class, equipement.getId(), equipement));
+            }
+        }
+        return ferme;
+    }
+    
+    /**
+     * Hands newly saved Ferme entities and the parts created with them to the open {@link Session}.
+     * @return true, so that it can end a successful save.
+     */
+    private boolean suivreTout(List<Ferme> fermes) {
+        for (Ferme ferme : fermes) {
+            suivreAgregat(ferme);
+        }
+        return true;
+    }
+    
+    private void loadStockages(Connection conn, Ferme ferme) throws SQLException {
+        String sql = """
+            SELECT s.id, s.capacite_max, sp.stockage_id AS principal, e.stockage_id AS entrepot,
+                   r.stockage_id AS reservoir, r.capacite, r.quantite, r.dernier_remplissage,
+                   a.article, a.quantite AS quantite_article
+            FROM Stockage s
+            LEFT JOIN StockPrincipal sp ON sp.stockage_id = s.id
+            LEFT JOIN Entrepot e ON e.stockage_id = s.id
+            LEFT JOIN ReservoirEau r ON r.stockage_id = s.id
+            LEFT JOIN ArticlesStockage a ON a.stockage_id = s.id
+            WHERE s.ferme_id = ?
+            ORDER BY s.id
+            """;
+        
+        ferme.setStockPrincipal(null);
+        ferme.setEntrepot(null);
+        ferme.setReservoirEau(null);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, ferme.getId());
+            ResultSet rs = stmt.executeQuery();
+            
+            Stockage stockage = null;
+            while (rs.next()) {
+                int id = rs.getInt("id");
+                if (stockage == null || stockage.getId() != id) {
+                    stockage = mapToStockage(rs, ferme);
+                }
+                
+                String article = rs.getString("article");
+                if (article != null && stockage != null) {
+                    stockage.charger(article, rs.getInt("quantite_article"));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Creates the Stockage of a row and attaches it to the Ferme, unless the ferme already has one of that kind.
+     * @return The Stockage, or null if the row is not a known kind of stockage.
+     */
+    private Stockage mapToStockage(ResultSet rs, Ferme ferme) throws SQLException {
+        Stockage stockage;
+        if (rs.getObject("principal") != null) {
+            if (ferme.getStockPrincipal() != null) {
+                return null;
+            }
+            StockPrincipal stockPrincipal = new StockPrincipal();
+            ferme.setStockPrincipal(stockPrincipal);
+            stockage = stockPrincipal;
+        } else if (rs.getObject("entrepot") != null) {
+            if (ferme.getEntrepot() != null) {
+                return null;
+            }
+            Entrepot entrepot = new Entrepot();
+            ferme.setEntrepot(entrepot);
+            stockage = entrepot;
+        } else if (rs.getObject("reservoir") != null) {
+            if (ferme.getReservoirEau() != null) {
+                return null;
+            }
+            ReservoirEau reservoir = new ReservoirEau();
+            reservoir.setCapacite(rs.getInt("capacite"));
+            reservoir.setQuantite(rs.getInt("quantite"));
+            reservoir.setDernierRemplissage(rs.getLong("dernier_remplissage"));
+            ferme.setReservoirEau(reservoir);
+            stockage = reservoir;
+        } else {
+            return null;
+        }
+        
+        stockage.setId(rs.getInt("id"));
+        stockage.setFermeId(ferme.getId());
+        stockage.setCapaciteMax(rs.getInt("capacite_max"));
+        return stockage;
+    }
+    
+    private void loadStructures(Connection conn, Ferme ferme) throws SQLException {
+        String sql = """
+            SELECT sp.*, u.structure_id AS usine, se.structure_id AS serre, se.dernier_recolte
+            FROM StructureProduction sp
+            LEFT JOIN Usine u ON u.structure_id = sp.id
+            LEFT JOIN Serre se ON se.structure_id = sp.id
+            WHERE sp.ferme_id = ? AND (u.structure_id IS NOT NULL OR se.structure_id IS NOT NULL)
+            ORDER BY u.structure_id IS NULL, sp.id
+            """;
+        
+        List<StructureProduction> structures = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, ferme.getId());
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                StructureProduction structure;
+                if (rs.getObject("usine") != null) {
+                    structure = new Usine();
+                } else {
+                    Serre serre = new Serre();
+                    serre.setDernierRecolte(rs.getLong("dernier_recolte"));
+                    structure = serre;
+                }
+                structureDao.mapToStructureProduction(rs, structure);
+                structures.add(structure);
+            }
+        }
+        ferme.setStructures(structures);
+    }
+    
+    private void loadChamps(Connection conn, Ferme ferme) throws SQLException {
+        String sqlChamps = """
+            SELECT c.*, fa.id AS ferme_animale_id, fa.type_animal, fa.capacite_max AS capacite_animaux
+            FROM Champ c
+            LEFT JOIN FermeAnimale fa ON fa.champ_id = c.id
+            WHERE c.ferme_id = ?
+            ORDER BY c.numero, fa.id
+            """;
+        String sqlAnimaux = """
+            SELECT a.*
+            FROM Animal a
+            JOIN FermeAnimale fa ON fa.id = a.ferme_animale_id
+            JOIN Champ c ON c.id = fa.champ_id
+            WHERE c.ferme_id = ?
+            ORDER BY a.ferme_animale_id, a.id
+            """;
+        
+        List<Champ> champs = new ArrayList<>();
+        Map<Integer, FermeAnimale> troupeaux = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sqlChamps)) {
+            stmt.setInt(1, ferme.getId());
+            ResultSet rs = stmt.executeQuery();
+            
+            Champ champ = null;
+            while (rs.next()) {
+                int id = rs.getInt("id");
+                if (champ == null || champ.getId() != id) {
+                    champ = champDao.mapToChamp(rs);
+                    champs.add(champ);
+                }
+                
+                int fermeAnimaleId = rs.getInt("ferme_animale_id");
+                if (fermeAnimaleId != 0 && champ.getFermeAnimale() == null) {
+                    FermeAnimale troupeau = new FermeAnimale(id, rs.getString("type_animal"), rs.getInt("capacite_animaux"));
+                    troupeau.setId(fermeAnimaleId);
+                    champ.setFermeAnimale(troupeau);
+                    troupeaux.put(fermeAnimaleId, troupeau);
+                }
+            }
+        }
+        
+        if (!troupeaux.isEmpty()) {
+            long maintenant = Horloge.getInstance().maintenant();
+            try (PreparedStatement stmt = conn.prepareStatement(sqlAnimaux)) {
+                stmt.setInt(1, ferme.getId());
+                ResultSet rs = stmt.executeQuery();
+                
+                while (rs.next()) {
+                    FermeAnimale troupeau = troupeaux.get(rs.getInt("ferme_animale_id"));
+                    if (troupeau != null) {
+                        troupeau.chargerAnimal(rs.getInt("id"), rs.getInt("stock_herbe"),
+                                rs.getBoolean("vivant"), rs.getBoolean("deficit"), maintenant);
+                    }
+                }
+            }
+        }
+        ferme.setChamps(champs);
+    }
+    
+    private void loadEquipements(Connection conn, Ferme ferme) throws SQLException {
+        String sql = """
+            SELECT g.id AS gestionnaire, e.*
+            FROM GestionnaireEquipement g
+            LEFT JOIN Equipement e ON e.gestionnaire_id = g.id
+            WHERE g.ferme_id = ?
+            ORDER BY g.id, e.type, e.id
+            """;
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, ferme.getId());
+            ResultSet rs = stmt.executeQuery();
+            
+            GestionnaireEquipement gestionnaire = null;
+            Map<String, List<Equipement>> inventaire = new HashMap<>();
+            while (rs.next()) {
+                if (gestionnaire == null) {
+                    gestionnaire = new GestionnaireEquipement();
+                    gestionnaire.setId(rs.getInt("gestionnaire"));
+                    gestionnaire.setFermeId(ferme.getId());
+                } else if (gestionnaire.getId() != rs.getInt("gestionnaire")) {
+                    break;
+                }
+                
+                if (rs.getObject("id") != null) {
+                    Equipement equipement = equipementDao.mapToEquipement(rs);
+                    inventaire.computeIfAbsent(equipement.getType(), k -> new ArrayList<>()).add(equipement);
+                }
+            }
+            
+            if (gestionnaire != null) {
+                gestionnaire.setInventaire(inventaire);
+            }
+            ferme.setEquipements(gestionnaire);
+        }
+    }
+    
+    /**
+     * Clears the dirty flags raised by the setters while mapping: a freshly loaded ferme matches the database.
+     */
+    private void marquerEnregistre(Ferme ferme) {
+        for (Stockage stockage : new Stockage[] { ferme.getStockPrincipal(), ferme.getEntrepot(), ferme.getReservoirEau() }) {
+            if (stockage != null) {
+                stockage.marquerEnregistre();
+            }
+        }
+        for (Champ champ : ferme.getChamps()) {
+            champ.marquerEnregistre();
+            if (champ.getFermeAnimale() != null) {
+                champ.getFermeAnimale().marquerEnregistre();
+            }
+        }
+        for (StructureProduction structure : ferme.getStructures()) {
+            structure.marquerEnregistre();
+        }
     }
     
     private Ferme mapToFerme(ResultSet rs) throws SQLException {
@@ -205,6 +550,7 @@ public class FermeDao {
         ferme.setJoueurId(rs.getInt("joueur_id"));
         ferme.setName(rs.getString("name"));
         ferme.setRevenu(rs.getDouble("revenu"));
+        ferme.setDerniereSimulation(rs.getLong("derniere_simulation"));
         
         return ferme;
     }
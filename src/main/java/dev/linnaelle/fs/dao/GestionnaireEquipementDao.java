@@ -8,13 +8,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class GestionnaireEquipementDao {
+public class GestionnaireEquipementDao extends DaoBase {
     
     private EquipementDao equipementDAO;
     
@@ -28,41 +27,56 @@ public class GestionnaireEquipementDao {
      * @return The saved GestionnaireEquipement with its ID set, or null if the save failed.
      */
     public GestionnaireEquipement save(GestionnaireEquipement gestionnaire) {
-        String sql = "INSERT INTO GestionnaireEquipement (ferme_id) VALUES (?)";
-        
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, gestionnaire.getFermeId());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                try (Statement lastIdStmt = conn.createStatement();
-                    ResultSet generatedKeys = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
-
-                    if (generatedKeys.next()) {
-                        gestionnaire.setId(generatedKeys.getInt(1));
-                    }
-                }
-                return gestionnaire;
+        return saveAll(List.of(gestionnaire)) ? gestionnaire : null;
+    }
+    
+    /**
+     * Saves GestionnaireEquipements in one multi-row insert, within one transaction.
+     * @param gestionnaires The GestionnaireEquipements to save; each receives its generated ID.
+     * @return true if all of them were saved, false otherwise.
+     */
+    public boolean saveAll(List<GestionnaireEquipement> gestionnaires) {
+        try {
+            if (DatabaseManager.ecrire(conn -> saveAll(conn, gestionnaires)) == gestionnaires.size()) {
+                suivreTout(GestionnaireEquipement.class, gestionnaires, GestionnaireEquipement::getId);
+                return true;
             }
-            
         } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la sauvegarde du gestionnaire: " + e.getMessage());
+            System.err.println("[ERROR] Erreur lors de la sauvegarde des gestionnaires: " + e.getMessage());
         }
         
-        return null;
+        return false;
+    }
+    
+    /**
+     * Inserts GestionnaireEquipements on the writer connection, one statement per chunk of 500 rows.
+     * @param conn The writer connection.
+     * @param gestionnaires The GestionnaireEquipements to insert; each receives its generated ID.
+     * @return The number of rows inserted.
+     * @throws SQLException If an insert fails; the writer then rolls the job back.
+     */
+    public int saveAll(Connection conn, List<GestionnaireEquipement> gestionnaires) throws SQLException {
+        String sql = "INSERT INTO GestionnaireEquipement (ferme_id)";
+        
+        return insererTout(conn, sql, 1, gestionnaires, (stmt, i, gestionnaire) -> {
+            stmt.setInt(i, gestionnaire.getFermeId());
+        }, GestionnaireEquipement::setId);
     }
 
     /**
      * Finds a GestionnaireEquipement by its ID.
+     * Within a {@link Session}, a GestionnaireEquipement already loaded is returned without a query.
      * @param id The ID of the GestionnaireEquipement.
      * @return The GestionnaireEquipement, or null if not found.
      */
     public GestionnaireEquipement findById(int id) {
         String sql = "SELECT * FROM GestionnaireEquipement WHERE id = ?";
         
+        GestionnaireEquipement suivi = enSession(GestionnaireEquipement.class, id);
+        if (suivi != null) {
+            return suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -72,7 +86,7 @@ public class GestionnaireEquipementDao {
             if (rs.next()) {
                 GestionnaireEquipement gestionnaire = mapToGestionnaire(rs);
                 loadEquipements(gestionnaire);
-                return gestionnaire;
+                return suivre(GestionnaireEquipement.class, gestionnaire.getId(), gestionnaire);
             }
             
         } catch (SQLException e) {
@@ -84,12 +98,18 @@ public class GestionnaireEquipementDao {
     
     /**
      * Finds a GestionnaireEquipement by the associated ferme ID.
+     * Within a {@link Session}, a GestionnaireEquipement already loaded is returned without a query.
      * @param fermeId The ID of the ferme.
      * @return The GestionnaireEquipement, or null if not found.
      */
     public GestionnaireEquipement findByFermeId(int fermeId) {
         String sql = "SELECT * FROM GestionnaireEquipement WHERE ferme_id = ?";
         
+        GestionnaireEquipement suivi = enSession(GestionnaireEquipement.class, gestionnaire -> gestionnaire.getFermeId() == fermeId);
+        if (suivi != null) {
+            return suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -99,7 +119,7 @@ public class GestionnaireEquipementDao {
             if (rs.next()) {
                 GestionnaireEquipement gestionnaire = mapToGestionnaire(rs);
                 loadEquipements(gestionnaire);
-                return gestionnaire;
+                return suivre(GestionnaireEquipement.class, gestionnaire.getId(), gestionnaire);
             }
             
         } catch (SQLException e) {
@@ -124,7 +144,7 @@ public class GestionnaireEquipementDao {
             while (rs.next()) {
                 GestionnaireEquipement gestionnaire = mapToGestionnaire(rs);
                 loadEquipements(gestionnaire);
-                gestionnaires.add(gestionnaire);
+                gestionnaires.add(suivre(GestionnaireEquipement.class, gestionnaire.getId(), gestionnaire));
             }
             
         } catch (SQLException e) {
@@ -142,12 +162,14 @@ public class GestionnaireEquipementDao {
     public boolean delete(int id) {
         String sql = "DELETE FROM GestionnaireEquipement WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    oublier(GestionnaireEquipement.class, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression du gestionnaire: " + e.getMessage());
         }
@@ -8,47 +8,56 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
-public class JoueurDao {
+public class JoueurDao extends DaoBase {
     /**
      * Saves a Joueur to the database.
      * @param joueur The Joueur to save.
      * @return The saved Joueur with its ID set, or null if the save failed.
      */
     public Joueur save(Joueur joueur) {
-        String sql = "INSERT INTO joueur (name, difficulte, temps_jeu) VALUES (?, ?, ?)";
-        
-        try (Connection conn = DatabaseManager.get();
-            PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, joueur.getName());
-            stmt.setString(2, joueur.getDifficulte().getNom());
-            stmt.setLong(3, joueur.getTempsJeu());
-            
-            int result = stmt.executeUpdate();
-            
-            if (result > 0) {
-                try (Statement lastIdStmt = conn.createStatement();
-                    ResultSet rs = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        joueur.setId(rs.getInt(1));
-                    }
-                }
-                return joueur;
+        return saveAll(List.of(joueur)) ? joueur : null;
+    }
+    
+    /**
+     * Saves Joueurs in one multi-row insert, within one transaction.
+     * @param joueurs The Joueurs to save; each receives its generated ID.
+     * @return true if all of them were saved, false otherwise.
+     */
+    public boolean saveAll(List<Joueur> joueurs) {
+        try {
+            if (DatabaseManager.ecrire(conn -> saveAll(conn, joueurs)) == joueurs.size()) {
+                suivreTout(Joueur.class, joueurs, Joueur::getId);
+                return true;
             }
-            
         } catch (SQLException e) {
-            System.err.println("Erreur lors de la sauvegarde du joueur: " + e.getMessage());
+            System.err.println("Erreur lors de la sauvegarde des joueurs: " + e.getMessage());
         }
         
-        return null;
+        return false;
     }
     
     /**
-     * Finds a Joueur by its ID.
+     * Inserts Joueurs on the writer connection, one statement per chunk of 500 rows.
+     * @param conn The writer connection.
+     * @param joueurs The Joueurs to insert; each receives its generated ID.
+     * @return The number of rows inserted.
+     * @throws SQLException If an insert fails; the writer then rolls the job back.
+     */
+    public int saveAll(Connection conn, List<Joueur> joueurs) throws SQLException {
+        String sql = "INSERT INTO joueur (name, difficulte, temps_jeu)";
+        
+        return insererTout(conn, sql, 3, joueurs, (stmt, i, joueur) -> {
+            stmt.setString(i, joueur.getName());
+            stmt.setString(i + 1, joueur.getDifficulte().getNom());
+            stmt.setLong(i + 2, joueur.getTempsJeu());
+        }, Joueur::setId);
+    }
+    
+    /**
+     * Finds a Joueur by its ID. Within a {@link Session}, a Joueur already loaded is returned without a query.
      * @param id The ID of the Joueur.
      * @return The Joueur, or null if not found.
      */
@@ -60,6 +69,11 @@ public class JoueurDao {
             WHERE j.id = ?
             """;
         
+        Joueur suivi = enSession(Joueur.class, id);
+        if (suivi != null) {
+            return suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -78,7 +92,7 @@ public class JoueurDao {
     }
     
     /**
-     * Finds a Joueur by its name.
+     * Finds a Joueur by its name. Within a {@link Session}, a Joueur already loaded is returned without a query.
      * @param name The name of the Joueur.
      * @return The Joueur, or null if not found.
      */ 
@@ -90,6 +104,11 @@ public class JoueurDao {
             WHERE j.name = ?
             """;
         
+        Joueur suivi = enSession(Joueur.class, joueur -> joueur.getName().equals(name));
+        if (suivi != null) {
+            return suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -141,18 +160,8 @@ public class JoueurDao {
      * @return true if the update was successful, false otherwise.
      */
     public boolean update(Joueur joueur) {
-        String sql = "UPDATE Joueur SET name = ?, temps_jeu = ?, difficulte = ? WHERE id = ?";
-        
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, joueur.getName());
-            stmt.setLong(2, joueur.getTempsJeu());
-            stmt.setString(3, joueur.getDifficulte().getNom());
-            stmt.setInt(4, joueur.getId());
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> update(conn, joueur) > 0);
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour du joueur: " + e.getMessage());
         }
@@ -160,6 +169,25 @@ public class JoueurDao {
         return false;
     }
     
+    /**
+     * Updates a Joueur within the caller's transaction.
+     * @param conn The connection holding the transaction.
+     * @param joueur The Joueur to update.
+     * @return The number of rows written.
+     * @throws SQLException If the statement fails; the caller rolls back.
+     */
+    public int update(Connection conn, Joueur joueur) throws SQLException {
+        String sql = "UPDATE Joueur SET name = ?, temps_jeu = ?, difficulte = ? WHERE id = ?";
+        
+        PreparedStatement stmt = preparer(conn, sql);
+        stmt.setString(1, joueur.getName());
+        stmt.setLong(2, joueur.getTempsJeu());
+        stmt.setString(3, joueur.getDifficulte().getNom());
+        stmt.setInt(4, joueur.getId());
+        
+        return stmt.executeUpdate();
+    }
+    
     /**
      * Deletes a Joueur by its ID.
      * @param id The ID of the Joueur to delete.
@@ -168,12 +196,14 @@ public class JoueurDao {
     public boolean delete(int id) {
         String sql = "DELETE FROM Joueur WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    oublier(Joueur.class, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression du joueur: " + e.getMessage());
         }
@@ -194,6 +224,6 @@ public class JoueurDao {
         difficulte.setMultiplicateurVente(rs.getDouble("multiplicateurVente"));
         joueur.setDifficulte(difficulte);
         
-        return joueur;
+        return suivre(Joueur.class, joueur.getId(), joueur);
     }
 }
\ No newline at end of file
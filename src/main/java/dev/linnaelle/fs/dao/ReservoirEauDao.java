@@ -2,17 +2,20 @@ package dev.linnaelle.fs.dao;
 
 import dev.linnaelle.fs.utils.DatabaseManager;
 import dev.linnaelle.fs.entities.ReservoirEau;
+import dev.linnaelle.fs.entities.Stockage;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collection;
 
-public class ReservoirEauDao {
+public class ReservoirEauDao extends DaoBase {
     /**
      * Saves a ReservoirEau to the database.
      * This method creates a parent record in Stockage and an associated child record in ReservoirEau.
+     * The ReservoirEau takes the ID of its Stockage record, which is the ID used by every other method.
      * @param reservoir The ReservoirEau to save.
      * @return The saved ReservoirEau with its ID set, or null if the save failed.
      */
@@ -21,37 +24,31 @@ public class ReservoirEauDao {
         String sqlReservoir = "INSERT INTO ReservoirEau (stockage_id, capacite, quantite, dernier_remplissage) VALUES (?, ?, ?, ?)";
         String sqlGetLastId = "SELECT last_insert_rowid()";
         
-        try (Connection conn = DatabaseManager.get()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement stmtParent = conn.prepareStatement(sqlStockage);
-                PreparedStatement stmtEnfant = conn.prepareStatement(sqlReservoir);
-                PreparedStatement stmtLastId = conn.prepareStatement(sqlGetLastId)) {
-                
-                stmtParent.setInt(1, reservoir.getFermeId());
-                stmtParent.setInt(2, reservoir.getCapaciteMax());
-                stmtParent.executeUpdate();
-                
-                ResultSet rs = stmtLastId.executeQuery();
-                if (rs.next()) {
-                    int stockageId = rs.getInt(1);
-                    
-                    stmtEnfant.setInt(1, stockageId);
-                    stmtEnfant.setInt(2, reservoir.getCapacite());
-                    stmtEnfant.setInt(3, reservoir.getQuantite());
-                    stmtEnfant.setLong(4, reservoir.getDernierRemplissage());
-                    stmtEnfant.executeUpdate();
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmtParent = conn.prepareStatement(sqlStockage);
+                     PreparedStatement stmtEnfant = conn.prepareStatement(sqlReservoir);
+                     PreparedStatement stmtLastId = conn.prepareStatement(sqlGetLastId)) {
+                    stmtParent.setInt(1, reservoir.getFermeId());
+                    stmtParent.setInt(2, reservoir.getCapaciteMax());
+                    stmtParent.executeUpdate();
                     
-                    reservoir.setId(stockageId);
-                    conn.commit();
-                    return reservoir;
+                    ResultSet rs = stmtLastId.executeQuery();
+                    if (rs.next()) {
+                        int stockageId = rs.getInt(1);
+                        
+                        stmtEnfant.setInt(1, stockageId);
+                        stmtEnfant.setInt(2, reservoir.getCapacite());
+                        stmtEnfant.setInt(3, reservoir.getQuantite());
+                        stmtEnfant.setLong(4, reservoir.getDernierRemplissage());
+                        stmtEnfant.executeUpdate();
+                        
+                        reservoir.setId(stockageId);
+                        return reservoir;
+                    }
                 }
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
-            
+                return null;
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la sauvegarde du réservoir d'eau: " + e.getMessage());
         }
@@ -60,12 +57,21 @@ public class ReservoirEauDao {
     }
 
     /**
-     * Finds a ReservoirEau by its ID.
+     * Finds a ReservoirEau by its ID. Within a {@link Session}, a ReservoirEau already loaded is returned without a query.
      * @param id The ID of the ReservoirEau.
      * @return The ReservoirEau, or null if not found.
      */
     public ReservoirEau findById(int id) {
-        String sql = "SELECT * FROM ReservoirEau WHERE id = ?";
+        String sql = """
+            SELECT s.id, s.ferme_id, s.capacite_max, r.capacite, r.quantite, r.dernier_remplissage
+            FROM Stockage s
+            JOIN ReservoirEau r ON r.stockage_id = s.id
+            WHERE s.id = ?
+            """;
+        
+        if (enSession(Stockage.class, id) instanceof ReservoirEau suivi) {
+            return suivi;
+        }
         
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -85,12 +91,22 @@ public class ReservoirEauDao {
     }
     
     /**
-     * Finds a ReservoirEau by its ferme ID.
+     * Finds a ReservoirEau by its ferme ID. Within a {@link Session}, a ReservoirEau already loaded is returned without a query.
      * @param fermeId The ID of the ferme.
      * @return The ReservoirEau, or null if not found.
      */
     public ReservoirEau findByFermeId(int fermeId) {
-        String sql = "SELECT * FROM ReservoirEau WHERE ferme_id = ?";
+        String sql = """
+            SELECT s.id, s.ferme_id, s.capacite_max, r.capacite, r.quantite, r.dernier_remplissage
+            FROM Stockage s
+            JOIN ReservoirEau r ON r.stockage_id = s.id
+            WHERE s.ferme_id = ?
+            """;
+        
+        Stockage suivi = enSession(Stockage.class, stockage -> stockage instanceof ReservoirEau && stockage.getFermeId() == fermeId);
+        if (suivi != null) {
+            return (ReservoirEau) suivi;
+        }
         
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -115,18 +131,18 @@ public class ReservoirEauDao {
      * @return true if the update was successful, false otherwise.
      */
     public boolean update(ReservoirEau reservoir) {
-        String sql = "UPDATE ReservoirEau SET capacite = ?, quantite = ?, dernier_remplissage = ? WHERE id = ?";
+        String sql = "UPDATE ReservoirEau SET capacite = ?, quantite = ?, dernier_remplissage = ? WHERE stockage_id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, reservoir.getCapacite());
-            stmt.setInt(2, reservoir.getQuantite());
-            stmt.setLong(3, reservoir.getDernierRemplissage());
-            stmt.setInt(4, reservoir.getId());
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                PreparedStatement stmt = preparer(conn, sql);
+                stmt.setInt(1, reservoir.getCapacite());
+                stmt.setInt(2, reservoir.getQuantite());
+                stmt.setLong(3, reservoir.getDernierRemplissage());
+                stmt.setInt(4, reservoir.getId());
+                
+                return stmt.executeUpdate() > 0;
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour du réservoir d'eau: " + e.getMessage());
         }
@@ -134,6 +150,27 @@ public class ReservoirEauDao {
         return false;
     }
     
+    /**
+     * Updates several ReservoirEau within the caller's transaction, in a single batch.
+     * @param conn The connection holding the transaction.
+     * @param reservoirs The ReservoirEau to update.
+     * @return The number of rows written.
+     * @throws SQLException If a statement fails; the caller rolls back.
+     */
+    public int updateAll(Connection conn, Collection<ReservoirEau> reservoirs) throws SQLException {
+        String sql = "UPDATE ReservoirEau SET capacite = ?, quantite = ?, dernier_remplissage = ? WHERE stockage_id = ?";
+        
+        PreparedStatement stmt = preparer(conn, sql);
+        for (ReservoirEau reservoir : reservoirs) {
+            stmt.setInt(1, reservoir.getCapacite());
+            stmt.setInt(2, reservoir.getQuantite());
+            stmt.setLong(3, reservoir.getDernierRemplissage());
+            stmt.setInt(4, reservoir.getId());
+            stmt.addBatch();
+        }
+        return compterLignes(stmt.executeBatch());
+    }
+    
     /**
      * Updates the quantity of water in a ReservoirEau.
      * @param id The ID of the ReservoirEau.
@@ -141,16 +178,16 @@ public class ReservoirEauDao {
      * @return true if the update was successful, false otherwise.
      */
     public boolean updateQuantite(int id, int nouvelleQuantite) {
-        String sql = "UPDATE ReservoirEau SET quantite = ? WHERE id = ?";
+        String sql = "UPDATE ReservoirEau SET quantite = ? WHERE stockage_id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, nouvelleQuantite);
-            stmt.setInt(2, id);
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                PreparedStatement stmt = preparer(conn, sql);
+                stmt.setInt(1, nouvelleQuantite);
+                stmt.setInt(2, id);
+                
+                return stmt.executeUpdate() > 0;
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour de la quantité d'eau: " + e.getMessage());
         }
@@ -165,16 +202,17 @@ public class ReservoirEauDao {
      * @return true if the update was successful, false otherwise.
      */
     public boolean updateDernierRemplissage(int id, long temps) {
-        String sql = "UPDATE ReservoirEau SET dernier_remplissage = ? WHERE id = ?";
+        String sql = "UPDATE ReservoirEau SET dernier_remplissage = ? WHERE stockage_id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setLong(1, temps);
-            stmt.setInt(2, id);
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setLong(1, temps);
+                    stmt.setInt(2, id);
+                    
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour du dernier remplissage: " + e.getMessage());
         }
@@ -188,14 +226,16 @@ public class ReservoirEauDao {
      * @return true if the deletion was successful, false otherwise.
      */
     public boolean delete(int id) {
-        String sql = "DELETE FROM ReservoirEau WHERE id = ?";
+        String sql = "DELETE FROM ReservoirEau WHERE stockage_id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    oublier(Stockage.class, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression du réservoir d'eau: " + e.getMessage());
         }
@@ -207,10 +247,12 @@ public class ReservoirEauDao {
         ReservoirEau reservoir = new ReservoirEau();
         reservoir.setId(rs.getInt("id"));
         reservoir.setFermeId(rs.getInt("ferme_id"));
+        reservoir.setCapaciteMax(rs.getInt("capacite_max"));
         reservoir.setCapacite(rs.getInt("capacite"));
         reservoir.setQuantite(rs.getInt("quantite"));
         reservoir.setDernierRemplissage(rs.getLong("dernier_remplissage"));
+        reservoir.marquerEnregistre();
         
-        return reservoir;
+        return suivre(Stockage.class, reservoir.getId(), reservoir);
     }
 }
\ No newline at end of file
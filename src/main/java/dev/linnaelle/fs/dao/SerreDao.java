@@ -18,39 +18,33 @@ public class SerreDao {
         String sqlSerre = "INSERT INTO Serre (structure_id, dernier_recolte) VALUES (?, ?)";
         String sqlGetLastId = "SELECT last_insert_rowid()";
         
-        try (Connection conn = DatabaseManager.get()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement stmtParent = conn.prepareStatement(sqlStructure);
-                PreparedStatement stmtEnfant = conn.prepareStatement(sqlSerre);
-                PreparedStatement stmtLastId = conn.prepareStatement(sqlGetLastId)) {
-                
-                stmtParent.setInt(1, serre.getFermeId());
-                stmtParent.setString(2, serre.getType());
-                stmtParent.setInt(3, serre.isActive() ? 1 : 0);
-                stmtParent.setDouble(4, serre.getPrixAchat());
-                stmtParent.setInt(5, serre.isEnPause() ? 1 : 0);
-                stmtParent.setInt(6, serre.getTauxTraitement());
-                stmtParent.executeUpdate();
-                
-                ResultSet rs = stmtLastId.executeQuery();
-                if (rs.next()) {
-                    int structureId = rs.getInt(1);
-                    
-                    stmtEnfant.setInt(1, structureId);
-                    stmtEnfant.setLong(2, serre.getDernierRecolte());
-                    stmtEnfant.executeUpdate();
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmtParent = conn.prepareStatement(sqlStructure);
+                     PreparedStatement stmtEnfant = conn.prepareStatement(sqlSerre);
+                     PreparedStatement stmtLastId = conn.prepareStatement(sqlGetLastId)) {
+                    stmtParent.setInt(1, serre.getFermeId());
+                    stmtParent.setString(2, serre.getType());
+                    stmtParent.setInt(3, serre.isActive() ? 1 : 0);
+                    stmtParent.setDouble(4, serre.getPrixAchat());
+                    stmtParent.setInt(5, serre.isEnPause() ? 1 : 0);
+                    stmtParent.setInt(6, serre.getTauxTraitement());
+                    stmtParent.executeUpdate();
                     
-                    serre.setId(structureId);
-                    conn.commit();
-                    return serre;
+                    ResultSet rs = stmtLastId.executeQuery();
+                    if (rs.next()) {
+                        int structureId = rs.getInt(1);
+                        
+                        stmtEnfant.setInt(1, structureId);
+                        stmtEnfant.setLong(2, serre.getDernierRecolte());
+                        stmtEnfant.executeUpdate();
+                        
+                        serre.setId(structureId);
+                        return serre;
+                    }
                 }
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
-            
+                return null;
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la sauvegarde de la serre: " + e.getMessage());
         }
@@ -64,7 +58,12 @@ public class SerreDao {
      * @return The Serre, or null if not found.
      */
     public Serre findById(int id) {
-        String sql = "SELECT * FROM StructureProduction WHERE id = ? AND type LIKE '%serre%'";
+        String sql = """
+            SELECT sp.*, s.dernier_recolte
+            FROM StructureProduction sp
+            JOIN Serre s ON s.structure_id = sp.id
+            WHERE sp.id = ?
+            """;
         
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -90,7 +89,12 @@ public class SerreDao {
      */
     public List<Serre> findByFermeId(int fermeId) {
         List<Serre> serres = new ArrayList<>();
-        String sql = "SELECT * FROM StructureProduction WHERE ferme_id = ? AND type LIKE '%serre%'";
+        String sql = """
+            SELECT sp.*, s.dernier_recolte
+            FROM StructureProduction sp
+            JOIN Serre s ON s.structure_id = sp.id
+            WHERE sp.ferme_id = ?
+            """;
         
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -116,7 +120,12 @@ public class SerreDao {
      */
     public List<Serre> findActiveByFermeId(int fermeId) {
         List<Serre> serres = new ArrayList<>();
-        String sql = "SELECT * FROM StructureProduction WHERE ferme_id = ? AND type LIKE '%serre%' AND active = true AND en_pause = false";
+        String sql = """
+            SELECT sp.*, s.dernier_recolte
+            FROM StructureProduction sp
+            JOIN Serre s ON s.structure_id = sp.id
+            WHERE sp.ferme_id = ? AND sp.active = true AND sp.en_pause = false
+            """;
         
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -141,20 +150,25 @@ public class SerreDao {
      * @return true if the update was successful, false otherwise.
      */
     public boolean update(Serre serre) {
-        String sql = "UPDATE StructureProduction SET type = ?, active = ?, en_pause = ?, taux_traitement = ?, dernier_recolte = ? WHERE id = ?";
+        String sqlStructure = "UPDATE StructureProduction SET type = ?, active = ?, en_pause = ?, taux_traitement = ? WHERE id = ?";
+        String sqlSerre = "UPDATE Serre SET dernier_recolte = ? WHERE structure_id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, serre.getType());
-            stmt.setBoolean(2, serre.isActive());
-            stmt.setBoolean(3, serre.isEnPause());
-            stmt.setInt(4, serre.getTauxTraitement());
-            stmt.setLong(5, serre.getDernierRecolte());
-            stmt.setInt(6, serre.getId());
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmtStructure = conn.prepareStatement(sqlStructure);
+                     PreparedStatement stmtSerre = conn.prepareStatement(sqlSerre)) {
+                    stmtStructure.setString(1, serre.getType());
+                    stmtStructure.setBoolean(2, serre.isActive());
+                    stmtStructure.setBoolean(3, serre.isEnPause());
+                    stmtStructure.setInt(4, serre.getTauxTraitement());
+                    stmtStructure.setInt(5, serre.getId());
+                    
+                    stmtSerre.setLong(1, serre.getDernierRecolte());
+                    stmtSerre.setInt(2, serre.getId());
+                    
+                    return stmtStructure.executeUpdate() > 0 && stmtSerre.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour de la serre: " + e.getMessage());
         }
@@ -172,15 +186,16 @@ public class SerreDao {
     public boolean updateStatut(int id, boolean active, boolean enPause) {
         String sql = "UPDATE StructureProduction SET active = ?, en_pause = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setBoolean(1, active);
-            stmt.setBoolean(2, enPause);
-            stmt.setInt(3, id);
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setBoolean(1, active);
+                    stmt.setBoolean(2, enPause);
+                    stmt.setInt(3, id);
+                    
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour du statut de la serre: " + e.getMessage());
         }
@@ -195,16 +210,17 @@ public class SerreDao {
      * @return true if the update was successful, false otherwise.
      */
     public boolean updateDernierRecolte(int id, long temps) {
-        String sql = "UPDATE StructureProduction SET dernier_recolte = ? WHERE id = ?";
+        String sql = "UPDATE Serre SET dernier_recolte = ? WHERE structure_id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setLong(1, temps);
-            stmt.setInt(2, id);
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setLong(1, temps);
+                    stmt.setInt(2, id);
+                    
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour du dernier récolte: " + e.getMessage());
         }
@@ -220,12 +236,13 @@ public class SerreDao {
     public boolean delete(int id) {
         String sql = "DELETE FROM StructureProduction WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression de la serre: " + e.getMessage());
         }
@@ -241,7 +258,12 @@ public class SerreDao {
      */
     public List<Serre> findSerresReadyToHarvest(int fermeId, long tempsCourant) {
         List<Serre> serres = new ArrayList<>();
-        String sql = "SELECT * FROM StructureProduction WHERE ferme_id = ? AND type LIKE '%serre%' AND active = true AND en_pause = false AND dernier_recolte <= ?";
+        String sql = """
+            SELECT sp.*, s.dernier_recolte
+            FROM StructureProduction sp
+            JOIN Serre s ON s.structure_id = sp.id
+            WHERE sp.ferme_id = ? AND sp.active = true AND sp.en_pause = false AND s.dernier_recolte <= ?
+            """;
         
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -0,0 +1,256 @@
+package dev.linnaelle.fs.dao;
+
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Session de jeu : carte d'identité des entités chargées et unité de travail.
+ * Tant qu'une session est ouverte, tous les DAO la consultent : une ligne n'a qu'une instance vivante,
+ * et une recherche d'une entité déjà chargée la rend sans requête. Un champ trouvé par son ID est ainsi
+ * le champ de la ferme en mémoire, et ses modifications ne sont plus perdues au profit d'une copie relue en base.
+ *
+ * Les animaux ne sont pas suivis un à un : seul leur {@link FermeAnimale} l'est, et un animal cherché par son ID
+ * est rendu comme une vue sur la ligne de son troupeau suivi.
+ *
+ * {@link #valider()} écrit en une transaction toutes les entités suivies marquées modifiées ;
+ * {@link #close()} valide puis ferme la session. Une seule session est ouverte à la fois, partagée
+ * par tous les threads : la simulation d'une ferme chargée dans la session travaille sur les mêmes instances.
+ */
+public class Session implements AutoCloseable {
+
+    private static Session courante;
+
+    // Une carte par classe racine : une Usine et une Serre partagent les IDs de StructureProduction
+    private final Map<Class<?>, Map<Integer, Object>> entites;
+    private long lecturesEvitees;
+
+    private Session() {
+        this.entites = new HashMap<>();
+    }
+
+    /**
+     * Ouvre la session que consulteront les DAO.
+     * @return La session ouverte.
+     * @throws IllegalStateException Si une session est déjà ouverte.
+     */
+    public static synchronized Session ouvrir() {
+        if (courante != null) {
+            throw new IllegalStateException("Une session est déjà ouverte");
+        }
+        courante = new Session();
+        return courante;
+    }
+
+    /**
+     * @return La session ouverte, ou null : les DAO lisent alors toujours en base.
+     */
+    public static synchronized Session courante() {
+        return courante;
+    }
+
+    /**
+     * Entité suivie par son ID.
+     * @param racine La classe racine de l'entité, par exemple {@code Stockage.class} pour un entrepôt.
+     * @param id L'ID de la ligne.
+     * @return L'instance suivie, ou null si la ligne n'a pas été chargée dans la session.
+     */
+    public synchronized <T> T trouver(Class<T> racine, int id) {
+        Object entite = carte(racine).get(id);
+        if (entite == null) {
+            return null;
+        }
+        lecturesEvitees++;
+        return racine.cast(entite);
+    }
+
+    /**
+     * Première entité suivie qui vérifie un critère, pour les recherches sur une autre colonne que l'ID.
+     * @param racine La classe racine de l'entité.
+     * @param critere Le critère de recherche.
+     * @return L'instance suivie, ou null si aucune ne convient.
+     */
+    public synchronized <T> T chercher(Class<T> racine, Predicate<? super T> critere) {
+        for (Object entite : carte(racine).values()) {
+            T candidate = racine.cast(entite);
+            if (critere.test(candidate)) {
+                lecturesEvitees++;
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Suit une entité chargée ou insérée. Si sa ligne est déjà suivie, l'instance suivie est plus récente
+     * que la copie chargée : c'est elle qui est rendue.
+     * @param racine La classe racine de l'entité.
+     * @param id L'ID de la ligne.
+     * @param entite L'entité chargée.
+     * @return L'unique instance vivante de la ligne.
+     */
+    public synchronized <T> T suivre(Class<? super T> racine, int id, T entite) {
+        if (entite == null || id == 0) {
+            return entite;
+        }
+
+        Map<Integer, Object> carte = carte(racine);
+        Object suivie = carte.putIfAbsent(id, entite);
+        if (suivie == null || suivie == entite) {
+            return entite;
+        }
+        if (suivie.getClass() != entite.getClass()) {
+            // La ligne a changé de nature (ID réutilisé après une suppression) : la copie chargée la remplace
+            carte.put(id, entite);
+            return entite;
+        }
+
+        @SuppressWarnings("unchecked")
+        T instance = (T) suivie;
+        return instance;
+    }
+
+    /**
+     * Cesse de suivre une ligne supprimée.
+     */
+    public synchronized void oublier(Class<?> racine, int id) {
+        carte(racine).remove(id);
+    }
+
+    /**
+     * Unité de travail : écrit en une seule transaction de l'écrivain les lignes des fermes suivies
+     * et toutes les entités suivies marquées modifiées, puis les marque enregistrées.
+     * Les entités ne doivent pas changer pendant l'appel : valider hors de la simulation ou sous son verrou.
+     * @return Le nombre de lignes écrites, ou -1 si la transaction a échoué ; les entités restent alors modifiées.
+     */
+    public int valider() {
+        List<Ferme> fermes = new ArrayList<>();
+        List<Stockage> stockages = new ArrayList<>();
+        List<ReservoirEau> reservoirs = new ArrayList<>();
+        List<Champ> champs = new ArrayList<>();
+        List<FermeAnimale> troupeaux = new ArrayList<>();
+        List<StructureProduction> structures = new ArrayList<>();
+        synchronized (this) {
+            for (Object entite : carte(Ferme.class).values()) {
+                fermes.add((Ferme) entite);
+            }
+            for (Object entite : carte(Stockage.class).values()) {
+                Stockage stockage = (Stockage) entite;
+                if (stockage instanceof ReservoirEau reservoir && reservoir.isModifie()) {
+                    reservoirs.add(reservoir);
+                } else if (!(stockage instanceof ReservoirEau) && stockage.isModifie()) {
+                    stockages.add(stockage);
+                }
+            }
+            for (Object entite : carte(Champ.class).values()) {
+                if (((Champ) entite).isModifie()) {
+                    champs.add((Champ) entite);
+                }
+            }
+            for (Object entite : carte(FermeAnimale.class).values()) {
+                if (((FermeAnimale) entite).isModifie()) {
+                    troupeaux.add((FermeAnimale) entite);
+                }
+            }
+            for (Object entite : carte(StructureProduction.class).values()) {
+                if (((StructureProduction) entite).isModifie()) {
+                    structures.add((StructureProduction) entite);
+                }
+            }
+        }
+
+        FermeDao fermeDao = new FermeDao();
+        StockageDao stockageDao = new StockageDao();
+        ReservoirEauDao reservoirDao = new ReservoirEauDao();
+        ChampDao champDao = new ChampDao();
+        AnimalDao animalDao = new AnimalDao();
+        StructureProductionDao structureDao = new StructureProductionDao();
+        int lignes;
+        try {
+            lignes = DatabaseManager.ecrire(conn -> {
+                int ecrites = 0;
+                for (Ferme ferme : fermes) {
+                    ecrites += fermeDao.update(conn, ferme);
+                }
+                for (Stockage stockage : stockages) {
+                    ecrites += stockageDao.updateArticles(conn, stockage);
+                }
+                ecrites += reservoirDao.updateAll(conn, reservoirs);
+                ecrites += champDao.updateAll(conn, champs);
+                for (FermeAnimale troupeau : troupeaux) {
+                    ecrites += animalDao.updateAll(conn, troupeau, true);
+                }
+                return ecrites + structureDao.updateAll(conn, structures);
+            });
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors de la validation de la session: " + e.getMessage());
+            // Les articles changés ont pu être oubliés pendant l'écriture : tout le contenu sera réécrit
+            for (Stockage stockage : stockages) {
+                stockage.marquerModifie();
+            }
+            return -1;
+        }
+
+        for (Stockage stockage : stockages) {
+            stockage.marquerEnregistre();
+        }
+        for (ReservoirEau reservoir : reservoirs) {
+            reservoir.marquerEnregistre();
+        }
+        for (Champ champ : champs) {
+            champ.marquerEnregistre();
+        }
+        for (FermeAnimale troupeau : troupeaux) {
+            troupeau.marquerEnregistre();
+        }
+        for (StructureProduction structure : structures) {
+            structure.marquerEnregistre();
+        }
+        return lignes;
+    }
+
+    /**
+     * Valide les entités modifiées puis ferme la session : les DAO relisent de nouveau en base.
+     */
+    @Override
+    public void close() {
+        valider();
+        synchronized (Session.class) {
+            if (courante == this) {
+                courante = null;
+            }
+        }
+        synchronized (this) {
+            entites.clear();
+        }
+    }
+
+    /**
+     * @return Le nombre d'entités suivies, toutes classes confondues.
+     */
+    public synchronized int getTaille() {
+        int taille = 0;
+        for (Map<Integer, Object> carte : entites.values()) {
+            taille += carte.size();
+        }
+        return taille;
+    }
+
+    /**
+     * @return Le nombre de recherches servies par la session, sans requête en base.
+     */
+    public synchronized long getLecturesEvitees() {
+        return lecturesEvitees;
+    }
+
+    private Map<Integer, Object> carte(Class<?> racine) {
+        return entites.computeIfAbsent(racine, k -> new LinkedHashMap<>());
+    }
+}
\ No newline at end of file
@@ -6,7 +6,7 @@ import dev.linnaelle.fs.entities.*;
 import java.sql.*;
 import java.util.*;
 
-public class StockageDao {
+public class StockageDao extends DaoBase {
     /**
      * Saves a StockPrincipal to the database.
      * @param stock The StockPrincipal to save.
@@ -16,40 +16,32 @@ public class StockageDao {
         String sqlStockage = "INSERT INTO Stockage (ferme_id, capacite_max) VALUES (?, ?)";
         String sqlStockPrincipal = "INSERT INTO StockPrincipal (stockage_id) VALUES (?)";
         
-        try (Connection conn = DatabaseManager.get()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement stmtStockage = conn.prepareStatement(sqlStockage);
-                 PreparedStatement stmtStock = conn.prepareStatement(sqlStockPrincipal)) {
-                
-                
-                stmtStockage.setInt(1, stock.getFermeId());
-                stmtStockage.setInt(2, stock.getCapaciteMax());
-                stmtStockage.executeUpdate();
-                
-                int stockageId = 0;
-                try (Statement lastIdStmt = conn.createStatement();
-                    ResultSet rs = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        stockageId = rs.getInt(1);
-                        stock.setId(stockageId);
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmtStockage = conn.prepareStatement(sqlStockage);
+                     PreparedStatement stmtStock = conn.prepareStatement(sqlStockPrincipal)) {
+                    stmtStockage.setInt(1, stock.getFermeId());
+                    stmtStockage.setInt(2, stock.getCapaciteMax());
+                    stmtStockage.executeUpdate();
+                    
+                    int stockageId = 0;
+                    try (Statement lastIdStmt = conn.createStatement();
+                        ResultSet rs = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
+                        if (rs.next()) {
+                            stockageId = rs.getInt(1);
+                            stock.setId(stockageId);
+                        }
                     }
-                }
 
-                if(stockageId > 0) {
-                    stmtStock.setInt(1, stockageId);
-                    stmtStock.executeUpdate();
-                    
-                    conn.commit();
-                    return stock;
-                } else {
-                    conn.rollback();
-                    System.err.println("[ERROR] Erreur lors de la sauvegarde du StockPrincipal: ID non généré.");
+                    if(stockageId > 0) {
+                        stmtStock.setInt(1, stockageId);
+                        stmtStock.executeUpdate();
+                        
+                        return stock;
+                    }
+                    throw new SQLException("ID non généré.");
                 }
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la sauvegarde du StockPrincipal: " + e.getMessage());
         }
@@ -65,36 +57,32 @@ public class StockageDao {
         String sqlStockage = "INSERT INTO Stockage (ferme_id, capacite_max) VALUES (?, ?)";
         String sqlEntrepot = "INSERT INTO Entrepot (stockage_id) VALUES (?)";
         
-        try (Connection conn = DatabaseManager.get()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement stmtStockage = conn.prepareStatement(sqlStockage);
-                 PreparedStatement stmtEntrepot = conn.prepareStatement(sqlEntrepot)) {
-                
-                stmtStockage.setInt(1, entrepot.getFermeId());
-                stmtStockage.setInt(2, entrepot.getCapaciteMax());
-                stmtStockage.executeUpdate();
-                
-                int stockageId = 0;
-                try (Statement lastIdStmt = conn.createStatement();
-                    ResultSet rs = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmtStockage = conn.prepareStatement(sqlStockage);
+                     PreparedStatement stmtEntrepot = conn.prepareStatement(sqlEntrepot)) {
+                    stmtStockage.setInt(1, entrepot.getFermeId());
+                    stmtStockage.setInt(2, entrepot.getCapaciteMax());
+                    stmtStockage.executeUpdate();
                     
-                    if (rs.next()) {
-                        stockageId = rs.getInt(1);
-                        entrepot.setId(stockageId);
+                    int stockageId = 0;
+                    try (Statement lastIdStmt = conn.createStatement();
+                        ResultSet rs = lastIdStmt.executeQuery("SELECT last_insert_rowid()")) {
+                        
+                        if (rs.next()) {
+                            stockageId = rs.getInt(1);
+                            entrepot.setId(stockageId);
+                        }
+                    }
+                    if (stockageId > 0) {
+                        stmtEntrepot.setInt(1, stockageId);
+                        stmtEntrepot.executeUpdate();
+                        
+                        return entrepot;
                     }
                 }
-                if (stockageId > 0) {
-                    stmtEntrepot.setInt(1, stockageId);
-                    stmtEntrepot.executeUpdate();
-                    
-                    conn.commit();
-                    return entrepot;
-                }
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
+                return null;
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la sauvegarde de l'Entrepot: " + e.getMessage());
         }
@@ -103,7 +91,7 @@ public class StockageDao {
     }
     
     /**
-     * Finds a StockPrincipal by ferme ID.
+     * Finds a StockPrincipal by ferme ID. Within a {@link Session}, the one already loaded is returned without a query.
      * @param fermeId The ID of the ferme.
      * @return The StockPrincipal, or null if not found.
      */
@@ -115,6 +103,11 @@ public class StockageDao {
             WHERE s.ferme_id = ?
             """;
         
+        Stockage suivi = enSession(Stockage.class, stockage -> stockage instanceof StockPrincipal && stockage.getFermeId() == fermeId);
+        if (suivi != null) {
+            return (StockPrincipal) suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -130,7 +123,8 @@ public class StockageDao {
                 
                 stock.setArticles(loadArticles(stock.getId()));
                 
-                return stock;
+                stock.marquerEnregistre();
+                return suivre(Stockage.class, stock.getId(), stock);
             }
             
         } catch (SQLException e) {
@@ -141,7 +135,7 @@ public class StockageDao {
     }
     
     /**
-     * Finds an Entrepot by ferme ID.
+     * Finds an Entrepot by ferme ID. Within a {@link Session}, the one already loaded is returned without a query.
      * @param fermeId The ID of the ferme.
      * @return The Entrepot, or null if not found.
      */
@@ -153,6 +147,11 @@ public class StockageDao {
             WHERE s.ferme_id = ?
             """;
         
+        Stockage suivi = enSession(Stockage.class, stockage -> stockage instanceof Entrepot && stockage.getFermeId() == fermeId);
+        if (suivi != null) {
+            return (Entrepot) suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -167,7 +166,8 @@ public class StockageDao {
                 
                 entrepot.setArticles(loadArticles(entrepot.getId()));
                 
-                return entrepot;
+                entrepot.marquerEnregistre();
+                return suivre(Stockage.class, entrepot.getId(), entrepot);
             }
             
         } catch (SQLException e) {
@@ -178,7 +178,7 @@ public class StockageDao {
     }
     
     /**
-     * Finds a ReservoirEau by ferme ID.
+     * Finds a ReservoirEau by ferme ID. Within a {@link Session}, the one already loaded is returned without a query.
      * @param fermeId The ID of the ferme.
      * @return The ReservoirEau, or null if not found.
      */
@@ -190,6 +190,11 @@ public class StockageDao {
             WHERE s.ferme_id = ?
             """;
         
+        Stockage suivi = enSession(Stockage.class, stockage -> stockage instanceof ReservoirEau && stockage.getFermeId() == fermeId);
+        if (suivi != null) {
+            return (ReservoirEau) suivi;
+        }
+        
         try (Connection conn = DatabaseManager.get();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -205,7 +210,8 @@ public class StockageDao {
                 reservoir.setQuantite(rs.getInt("quantite"));
                 reservoir.setDernierRemplissage(rs.getLong("dernier_remplissage"));
                 
-                return reservoir;
+                reservoir.marquerEnregistre();
+                return suivre(Stockage.class, reservoir.getId(), reservoir);
             }
             
         } catch (SQLException e) {
@@ -222,43 +228,146 @@ public class StockageDao {
      * @return true if the update was successful, false otherwise.
      */
     public boolean updateArticles(int stockageId, Map<String, Integer> articles) {
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                updateArticles(conn, stockageId, articles);
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors de la mise à jour des articles: " + e.getMessage());
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Persists the articles of a Stockage changed since its last save.
+     * @param stockage The Stockage to persist.
+     * @return true if the update was successful, false otherwise.
+     * @see #updateArticles(Connection, Stockage)
+     */
+    public boolean updateArticles(Stockage stockage) {
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                updateArticles(conn, stockage);
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors de la mise à jour des articles: " + e.getMessage());
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Updates the articles in a Stockage within the caller's transaction.
+     * @param conn The connection holding the transaction.
+     * @param stockageId The ID of the Stockage.
+     * @param articles A map of article names and their quantities.
+     * @return The number of rows written.
+     * @throws SQLException If a statement fails; the caller rolls back.
+     */
+    public int updateArticles(Connection conn, int stockageId, Map<String, Integer> articles) throws SQLException {
+        String deleteSql = "DELETE FROM ArticlesStockage WHERE stockage_id = ?";
+        String insertSql = "INSERT INTO ArticlesStockage (stockage_id, article, quantite) VALUES (?, ?, ?)";
+        
+        PreparedStatement deleteStmt = preparer(conn, deleteSql);
+        PreparedStatement insertStmt = preparer(conn, insertSql);
+        deleteStmt.setInt(1, stockageId);
+        int lignes = deleteStmt.executeUpdate();
+        
+        for (Map.Entry<String, Integer> entry : articles.entrySet()) {
+            if (entry.getValue() > 0) {
+                insertStmt.setInt(1, stockageId);
+                insertStmt.setString(2, entry.getKey());
+                insertStmt.setInt(3, entry.getValue());
+                insertStmt.addBatch();
+            }
+        }
+        
+        return lignes + compterLignes(insertStmt.executeBatch());
+    }
+    
+    /**
+     * Rewrites the whole content of several Stockages within the caller's transaction,
+     * with one batch of deletes and one batch of inserts.
+     * @param conn The connection holding the transaction.
+     * @param stockages The Stockages to rewrite.
+     * @return The number of rows written.
+     * @throws SQLException If a statement fails; the caller rolls back.
+     */
+    public int updateAllArticles(Connection conn, Collection<? extends Stockage> stockages) throws SQLException {
         String deleteSql = "DELETE FROM ArticlesStockage WHERE stockage_id = ?";
         String insertSql = "INSERT INTO ArticlesStockage (stockage_id, article, quantite) VALUES (?, ?, ?)";
         
-        try (Connection conn = DatabaseManager.get()) {
-            conn.setAutoCommit(false);
+        PreparedStatement deleteStmt = preparer(conn, deleteSql);
+        PreparedStatement insertStmt = preparer(conn, insertSql);
+        for (Stockage stockage : stockages) {
+            deleteStmt.setInt(1, stockage.getId());
+            deleteStmt.addBatch();
             
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql);
-                 PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
-                
-                
-                deleteStmt.setInt(1, stockageId);
-                deleteStmt.executeUpdate();
-                
-                
-                for (Map.Entry<String, Integer> entry : articles.entrySet()) {
-                    if (entry.getValue() > 0) {
-                        insertStmt.setInt(1, stockageId);
-                        insertStmt.setString(2, entry.getKey());
-                        insertStmt.setInt(3, entry.getValue());
-                        insertStmt.addBatch();
-                    }
+            for (Map.Entry<String, Integer> entry : stockage.getArticles().entrySet()) {
+                if (entry.getValue() > 0) {
+                    insertStmt.setInt(1, stockage.getId());
+                    insertStmt.setString(2, entry.getKey());
+                    insertStmt.setInt(3, entry.getValue());
+                    insertStmt.addBatch();
                 }
-                
-                insertStmt.executeBatch();
-                conn.commit();
-                return true;
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
             }
-            
-        } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la mise à jour des articles: " + e.getMessage());
         }
         
-        return false;
+        return compterLignes(deleteStmt.executeBatch()) + compterLignes(insertStmt.executeBatch());
+    }
+    
+    /**
+     * Persists the articles of a Stockage changed since its last save, within the caller's transaction.
+     * Changed articles are upserted and articles that dropped to zero are deleted, so the cost follows the number
+     * of changes rather than the size of the inventory. A Stockage whose whole content was replaced is rewritten.
+     * The Stockage is not marked as saved: the caller does it once the transaction is committed.
+     * @param conn The connection holding the transaction.
+     * @param stockage The Stockage to persist.
+     * @return The number of rows written.
+     * @throws SQLException If a statement fails; the caller rolls back.
+     */
+    public int updateArticles(Connection conn, Stockage stockage) throws SQLException {
+        if (stockage.isContenuRemplace()) {
+            return updateArticles(conn, stockage.getId(), stockage.getArticles());
+        }
+        
+        String upsertSql = """
+            INSERT INTO ArticlesStockage (stockage_id, article, quantite) VALUES (?, ?, ?)
+            ON CONFLICT(stockage_id, article) DO UPDATE SET quantite = excluded.quantite
+            """;
+        String deleteSql = "DELETE FROM ArticlesStockage WHERE stockage_id = ? AND article = ?";
+        
+        PreparedStatement upsertStmt = preparer(conn, upsertSql);
+        PreparedStatement deleteStmt = preparer(conn, deleteSql);
+        boolean upserts = false;
+        boolean deletes = false;
+        for (String article : stockage.getArticlesModifies()) {
+            int quantite = stockage.getQuantite(article);
+            if (quantite > 0) {
+                upsertStmt.setInt(1, stockage.getId());
+                upsertStmt.setString(2, article);
+                upsertStmt.setInt(3, quantite);
+                upsertStmt.addBatch();
+                upserts = true;
+            } else {
+                deleteStmt.setInt(1, stockage.getId());
+                deleteStmt.setString(2, article);
+                deleteStmt.addBatch();
+                deletes = true;
+            }
+        }
+        
+        int lignes = 0;
+        if (upserts) {
+            lignes += compterLignes(upsertStmt.executeBatch());
+        }
+        if (deletes) {
+            lignes += compterLignes(deleteStmt.executeBatch());
+        }
+        return lignes;
     }
     
     private Map<String, Integer> loadArticles(int stockageId) {
@@ -6,56 +6,14 @@ import dev.linnaelle.fs.entities.*;
 import java.sql.*;
 import java.util.*;
 
-public class StructureProductionDao {
+public class StructureProductionDao extends DaoBase {
     /**
      * Saves an Usine to the database.
      * @param usine The Usine to save.
      * @return The saved Usine with its ID set, or null if the save failed.
      */
     public Usine saveUsine(Usine usine) {
-        String sqlStructure = "INSERT INTO StructureProduction (ferme_id, type, active, prix_achat, en_pause, taux_traitement) VALUES (?, ?, ?, ?, ?, ?)";
-        String sqlUsine = "INSERT INTO Usine (structure_id) VALUES (?)";
-        String sqlGetLastId = "SELECT last_insert_rowid()";
-        
-        try (Connection conn = DatabaseManager.get()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement stmtStructure = conn.prepareStatement(sqlStructure);
-                 PreparedStatement stmtUsine = conn.prepareStatement(sqlUsine);
-                 PreparedStatement stmtLastId = conn.prepareStatement(sqlGetLastId)) {
-                
-                
-                stmtStructure.setInt(1, usine.getFermeId());
-                stmtStructure.setString(2, usine.getType());
-                stmtStructure.setBoolean(3, usine.isActive());
-                stmtStructure.setDouble(4, usine.getPrixAchat());
-                stmtStructure.setBoolean(5, usine.isEnPause());
-                stmtStructure.setInt(6, usine.getTauxTraitement());
-                stmtStructure.executeUpdate();
-                
-                ResultSet rs = stmtLastId.executeQuery();
-                if (rs.next()) {
-                    int structureId = rs.getInt(1);
-                    usine.setId(structureId);
-                    
-                    
-                    stmtUsine.setInt(1, structureId);
-                    stmtUsine.executeUpdate();
-                    
-                    conn.commit();
-                    return usine;
-                }
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la sauvegarde de l'Usine: " + e.getMessage());
-        }
-        
-        return null;
+        return saveAll(List.of(usine)) ? usine : null;
     }
 
     /**
@@ -64,48 +22,63 @@ public class StructureProductionDao {
      * @return The saved Serre with its ID set, or null if the save failed.
      */
     public Serre saveSerre(Serre serre) {
-        String sqlStructure = "INSERT INTO StructureProduction (ferme_id, type, active, prix_achat, en_pause, taux_traitement) VALUES (?, ?, ?, ?, ?, ?)";
-        String sqlSerre = "INSERT INTO Serre (structure_id, dernier_recolte) VALUES (?, ?)";
-        String sqlGetLastId = "SELECT last_insert_rowid()";
-        
-        try (Connection conn = DatabaseManager.get()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement stmtStructure = conn.prepareStatement(sqlStructure);
-                 PreparedStatement stmtSerre = conn.prepareStatement(sqlSerre);
-                 PreparedStatement stmtLastId = conn.prepareStatement(sqlGetLastId)) {
-                
-                stmtStructure.setInt(1, serre.getFermeId());
-                stmtStructure.setString(2, serre.getType());
-                stmtStructure.setBoolean(3, serre.isActive());
-                stmtStructure.setDouble(4, serre.getPrixAchat());
-                stmtStructure.setBoolean(5, serre.isEnPause());
-                stmtStructure.setInt(6, serre.getTauxTraitement());
-                stmtStructure.executeUpdate();
-                
-                ResultSet rs = stmtLastId.executeQuery();
-                if (rs.next()) {
-                    int structureId = rs.getInt(1);
-                    serre.setId(structureId);
-                    
-                    stmtSerre.setInt(1, structureId);
-                    stmtSerre.setLong(2, serre.getDernierRecolte());
-                    stmtSerre.executeUpdate();
-                    
-                    conn.commit();
-                    return serre;
-                }
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
+        return saveAll(List.of(serre)) ? serre : null;
+    }
+
+    /**
+     * Saves Usines and Serres in a single transaction, with one multi-row insert per table.
+     * @param structures The structures to save; each one receives its generated ID.
+     * @return true if every structure was saved, false otherwise.
+     */
+    public boolean saveAll(List<StructureProduction> structures) {
+        try {
+            if (DatabaseManager.ecrire(conn -> saveAll(conn, structures)) == structures.size()) {
+                suivreTout(StructureProduction.class, structures, StructureProduction::getId);
+                return true;
             }
-            
         } catch (SQLException e) {
-            System.err.println("[ERROR] Erreur lors de la sauvegarde de la Serre: " + e.getMessage());
+            System.err.println("[ERROR] Erreur lors de la sauvegarde des structures de production: " + e.getMessage());
         }
         
-        return null;
+        return false;
+    }
+
+    /**
+     * Inserts structures on the writer connection: the StructureProduction rows first, then their Usine or Serre rows.
+     * @param conn The writer connection.
+     * @param structures The structures to insert; each one receives its generated ID.
+     * @return The number of structures inserted.
+     * @throws SQLException If an insert fails; the writer then rolls the work back.
+     */
+    public int saveAll(Connection conn, List<StructureProduction> structures) throws SQLException {
+        String sqlStructure = "INSERT INTO StructureProduction (ferme_id, type, active, prix_achat, en_pause, taux_traitement)";
+        String sqlUsine = "INSERT INTO Usine (structure_id) VALUES (?)";
+        String sqlSerre = "INSERT INTO Serre (structure_id, dernier_recolte) VALUES (?, ?)";
+
+        int lignes = insererTout(conn, sqlStructure, 6, structures, (stmt, i, structure) -> {
+            stmt.setInt(i, structure.getFermeId());
+            stmt.setString(i + 1, structure.getType());
+            stmt.setBoolean(i + 2, structure.isActive());
+            stmt.setDouble(i + 3, structure.getPrixAchat());
+            stmt.setBoolean(i + 4, structure.isEnPause());
+            stmt.setInt(i + 5, structure.getTauxTraitement());
+        }, StructureProduction::setId);
+
+        PreparedStatement stmtUsine = preparer(conn, sqlUsine);
+        PreparedStatement stmtSerre = preparer(conn, sqlSerre);
+        for (StructureProduction structure : structures) {
+            if (structure instanceof Serre serre) {
+                stmtSerre.setInt(1, serre.getId());
+                stmtSerre.setLong(2, serre.getDernierRecolte());
+                stmtSerre.addBatch();
+            } else {
+                stmtUsine.setInt(1, structure.getId());
+                stmtUsine.addBatch();
+            }
+        }
+        stmtUsine.executeBatch();
+        stmtSerre.executeBatch();
+        return lignes;
     }
     
     /**
@@ -131,7 +104,8 @@ public class StructureProductionDao {
             while (rs.next()) {
                 Usine usine = new Usine();
                 mapToStructureProduction(rs, usine);
-                usines.add(usine);
+                usine.marquerEnregistre();
+                usines.add(suivre(StructureProduction.class, usine.getId(), usine));
             }
             
         } catch (SQLException e) {
@@ -165,7 +139,8 @@ public class StructureProductionDao {
                 Serre serre = new Serre();
                 mapToStructureProduction(rs, serre);
                 serre.setDernierRecolte(rs.getLong("dernier_recolte"));
-                serres.add(serre);
+                serre.marquerEnregistre();
+                serres.add(suivre(StructureProduction.class, serre.getId(), serre));
             }
             
         } catch (SQLException e) {
@@ -200,18 +175,19 @@ public class StructureProductionDao {
     public boolean updateUsine(Usine usine) {
         String sql = "UPDATE StructureProduction SET type = ?, active = ?, prix_achat = ?, en_pause = ?, taux_traitement = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, usine.getType());
-            stmt.setBoolean(2, usine.isActive());
-            stmt.setDouble(3, usine.getPrixAchat());
-            stmt.setBoolean(4, usine.isEnPause());
-            stmt.setInt(5, usine.getTauxTraitement());
-            stmt.setInt(6, usine.getId());
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, usine.getType());
+                    stmt.setBoolean(2, usine.isActive());
+                    stmt.setDouble(3, usine.getPrixAchat());
+                    stmt.setBoolean(4, usine.isEnPause());
+                    stmt.setInt(5, usine.getTauxTraitement());
+                    stmt.setInt(6, usine.getId());
+                    
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour de l'Usine: " + e.getMessage());
         }
@@ -228,34 +204,25 @@ public class StructureProductionDao {
         String sqlStructure = "UPDATE StructureProduction SET type = ?, active = ?, prix_achat = ?, en_pause = ?, taux_traitement = ? WHERE id = ?";
         String sqlSerre = "UPDATE Serre SET dernier_recolte = ? WHERE structure_id = ?";
         
-        try (Connection conn = DatabaseManager.get()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement stmtStructure = conn.prepareStatement(sqlStructure);
-                 PreparedStatement stmtSerre = conn.prepareStatement(sqlSerre)) {
-                
-                
-                stmtStructure.setString(1, serre.getType());
-                stmtStructure.setBoolean(2, serre.isActive());
-                stmtStructure.setDouble(3, serre.getPrixAchat());
-                stmtStructure.setBoolean(4, serre.isEnPause());
-                stmtStructure.setInt(5, serre.getTauxTraitement());
-                stmtStructure.setInt(6, serre.getId());
-                stmtStructure.executeUpdate();
-                
-                
-                stmtSerre.setLong(1, serre.getDernierRecolte());
-                stmtSerre.setInt(2, serre.getId());
-                stmtSerre.executeUpdate();
-                
-                conn.commit();
-                return true;
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmtStructure = conn.prepareStatement(sqlStructure);
+                     PreparedStatement stmtSerre = conn.prepareStatement(sqlSerre)) {
+                    stmtStructure.setString(1, serre.getType());
+                    stmtStructure.setBoolean(2, serre.isActive());
+                    stmtStructure.setDouble(3, serre.getPrixAchat());
+                    stmtStructure.setBoolean(4, serre.isEnPause());
+                    stmtStructure.setInt(5, serre.getTauxTraitement());
+                    stmtStructure.setInt(6, serre.getId());
+                    stmtStructure.executeUpdate();
+                    
+                    stmtSerre.setLong(1, serre.getDernierRecolte());
+                    stmtSerre.setInt(2, serre.getId());
+                    stmtSerre.executeUpdate();
+                    
+                    return true;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour de la Serre: " + e.getMessage());
         }
@@ -263,6 +230,39 @@ public class StructureProductionDao {
         return false;
     }
     
+    /**
+     * Updates several structures within the caller's transaction, in a single batch per table.
+     * @param conn The connection holding the transaction.
+     * @param structures The Usine and Serre to update.
+     * @return The number of rows written.
+     * @throws SQLException If a statement fails; the caller rolls back.
+     */
+    public int updateAll(Connection conn, Collection<StructureProduction> structures) throws SQLException {
+        String sqlStructure = "UPDATE StructureProduction SET type = ?, active = ?, prix_achat = ?, en_pause = ?, taux_traitement = ? WHERE id = ?";
+        String sqlSerre = "UPDATE Serre SET dernier_recolte = ? WHERE structure_id = ?";
+        
+        PreparedStatement stmtStructure = preparer(conn, sqlStructure);
+        PreparedStatement stmtSerre = preparer(conn, sqlSerre);
+        for (StructureProduction structure : structures) {
+            stmtStructure.setString(1, structure.getType());
+            stmtStructure.setBoolean(2, structure.isActive());
+            stmtStructure.setDouble(3, structure.getPrixAchat());
+            stmtStructure.setBoolean(4, structure.isEnPause());
+            stmtStructure.setInt(5, structure.getTauxTraitement());
+            stmtStructure.setInt(6, structure.getId());
+            stmtStructure.addBatch();
+            
+            if (structure instanceof Serre) {
+                stmtSerre.setLong(1, ((Serre) structure).getDernierRecolte());
+                stmtSerre.setInt(2, structure.getId());
+                stmtSerre.addBatch();
+            }
+        }
+        
+        return compterLignes(stmtStructure.executeBatch())
+                + compterLignes(stmtSerre.executeBatch());
+    }
+    
     /**
      * Deletes a StructureProduction by its ID.
      * @param structureId The ID of the StructureProduction to delete.
@@ -271,12 +271,14 @@ public class StructureProductionDao {
     public boolean delete(int structureId) {
         String sql = "DELETE FROM StructureProduction WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, structureId);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, structureId);
+                    oublier(StructureProduction.class, structureId);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression de la structure: " + e.getMessage());
         }
@@ -284,7 +286,7 @@ public class StructureProductionDao {
         return false;
     }
     
-    private void mapToStructureProduction(ResultSet rs, StructureProduction structure) throws SQLException {
+    void mapToStructureProduction(ResultSet rs, StructureProduction structure) throws SQLException {
         structure.setId(rs.getInt("id"));
         structure.setFermeId(rs.getInt("ferme_id"));
         structure.setType(rs.getString("type"));
@@ -17,38 +17,32 @@ public class UsineDao {
         String sqlUsine = "INSERT INTO Usine (structure_id) VALUES (?)";
         String sqlGetLastId = "SELECT last_insert_rowid()";
         
-        try (Connection conn = DatabaseManager.get()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement stmtParent = conn.prepareStatement(sqlStructure);
-                PreparedStatement stmtEnfant = conn.prepareStatement(sqlUsine);
-                PreparedStatement stmtLastId = conn.prepareStatement(sqlGetLastId)) {
-                
-                stmtParent.setInt(1, usine.getFermeId());
-                stmtParent.setString(2, usine.getType());
-                stmtParent.setInt(3, usine.isActive() ? 1 : 0);
-                stmtParent.setDouble(4, usine.getPrixAchat());
-                stmtParent.setInt(5, usine.isEnPause() ? 1 : 0);
-                stmtParent.setInt(6, usine.getTauxTraitement());
-                stmtParent.executeUpdate();
-                
-                ResultSet rs = stmtLastId.executeQuery();
-                if (rs.next()) {
-                    int structureId = rs.getInt(1);
-                    
-                    stmtEnfant.setInt(1, structureId);
-                    stmtEnfant.executeUpdate();
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmtParent = conn.prepareStatement(sqlStructure);
+                     PreparedStatement stmtEnfant = conn.prepareStatement(sqlUsine);
+                     PreparedStatement stmtLastId = conn.prepareStatement(sqlGetLastId)) {
+                    stmtParent.setInt(1, usine.getFermeId());
+                    stmtParent.setString(2, usine.getType());
+                    stmtParent.setInt(3, usine.isActive() ? 1 : 0);
+                    stmtParent.setDouble(4, usine.getPrixAchat());
+                    stmtParent.setInt(5, usine.isEnPause() ? 1 : 0);
+                    stmtParent.setInt(6, usine.getTauxTraitement());
+                    stmtParent.executeUpdate();
                     
-                    usine.setId(structureId);
-                    conn.commit();
-                    return usine;
+                    ResultSet rs = stmtLastId.executeQuery();
+                    if (rs.next()) {
+                        int structureId = rs.getInt(1);
+                        
+                        stmtEnfant.setInt(1, structureId);
+                        stmtEnfant.executeUpdate();
+                        
+                        usine.setId(structureId);
+                        return usine;
+                    }
                 }
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
-            
+                return null;
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la sauvegarde de l'usine: " + e.getMessage());
         }
@@ -169,17 +163,18 @@ public class UsineDao {
     public boolean update(Usine usine) {
         String sql = "UPDATE StructureProduction SET type = ?, active = ?, en_pause = ?, taux_traitement = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, usine.getType());
-            stmt.setBoolean(2, usine.isActive());
-            stmt.setBoolean(3, usine.isEnPause());
-            stmt.setInt(4, usine.getTauxTraitement());
-            stmt.setInt(5, usine.getId());
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, usine.getType());
+                    stmt.setBoolean(2, usine.isActive());
+                    stmt.setBoolean(3, usine.isEnPause());
+                    stmt.setInt(4, usine.getTauxTraitement());
+                    stmt.setInt(5, usine.getId());
+                    
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour de l'usine: " + e.getMessage());
         }
@@ -197,15 +192,16 @@ public class UsineDao {
     public boolean updateStatut(int id, boolean active, boolean enPause) {
         String sql = "UPDATE StructureProduction SET active = ?, en_pause = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setBoolean(1, active);
-            stmt.setBoolean(2, enPause);
-            stmt.setInt(3, id);
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setBoolean(1, active);
+                    stmt.setBoolean(2, enPause);
+                    stmt.setInt(3, id);
+                    
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour du statut de l'usine: " + e.getMessage());
         }
@@ -222,14 +218,15 @@ public class UsineDao {
     public boolean updateTauxTraitement(int id, int nouveauTaux) {
         String sql = "UPDATE StructureProduction SET taux_traitement = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, nouveauTaux);
-            stmt.setInt(2, id);
-            
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, nouveauTaux);
+                    stmt.setInt(2, id);
+                    
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la mise à jour du taux de traitement: " + e.getMessage());
         }
@@ -245,12 +242,13 @@ public class UsineDao {
     public boolean delete(int id) {
         String sql = "DELETE FROM StructureProduction WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.get();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseManager.ecrire(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la suppression de l'usine: " + e.getMessage());
         }
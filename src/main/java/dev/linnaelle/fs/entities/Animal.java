@@ -2,24 +2,38 @@ package dev.linnaelle.fs.entities;
 
 import java.util.Map;
 import dev.linnaelle.fs.services.CatalogueService;
-import java.util.HashMap;
+import dev.linnaelle.fs.simulation.ProfilAnimal;
+import dev.linnaelle.fs.utils.Horloge;
+import java.util.Collections;
 
+/**
+ * Un animal d'élevage.
+ * Tant qu'il n'est dans aucun enclos, l'animal porte son propre état. Une fois ajouté à une {@link FermeAnimale},
+ * son état vit dans les colonnes du troupeau et l'objet n'en est plus qu'une vue.
+ */
 public class Animal {
     private int id;
     private int fermeAnimaleId;
     private String type;
+    // Identifiant du type dans le catalogue, résolu au premier besoin
+    private int typeId = -1;
     private int stockHerbe;
     private boolean vivant;
     private boolean deficit;
     private long dernierPrelevementEau;
     private long dernierPrelevementHerbe;
+    // Colonnes changées depuis le dernier enregistrement en base
+    private boolean modifie;
+
+    private FermeAnimale troupeau;
+    private int indice;
 
     public Animal() {
         this.stockHerbe = 10;
         this.vivant = true;
         this.deficit = false;
-        this.dernierPrelevementEau = System.currentTimeMillis();
-        this.dernierPrelevementHerbe = System.currentTimeMillis();
+        this.dernierPrelevementEau = Horloge.getInstance().maintenant();
+        this.dernierPrelevementHerbe = Horloge.getInstance().maintenant();
     }
 
     public Animal(int id, String type, int stockHerbe) {
@@ -29,6 +43,42 @@ public class Animal {
         this.stockHerbe = stockHerbe;
     }
 
+    /**
+     * Vue sur la ligne {@code indice} d'un troupeau.
+     */
+    Animal(FermeAnimale troupeau, int indice) {
+        this.fermeAnimaleId = troupeau.getId();
+        this.type = troupeau.getTypeAnimal();
+        this.troupeau = troupeau;
+        this.indice = indice;
+    }
+
+    /**
+     * Rattache l'animal à une ligne de troupeau, qui détient désormais son état.
+     */
+    void attacher(FermeAnimale troupeau, int indice) {
+        this.troupeau = troupeau;
+        this.indice = indice;
+    }
+
+    /**
+     * Recopie l'état de la ligne du troupeau dans l'animal et l'en détache.
+     */
+    void detacher() {
+        this.id = getId();
+        this.stockHerbe = getStockHerbe();
+        this.vivant = isVivant();
+        this.deficit = isDeficit();
+        this.dernierPrelevementEau = getDernierPrelevementEau();
+        this.dernierPrelevementHerbe = getDernierPrelevementHerbe();
+        this.modifie = isModifie();
+        this.troupeau = null;
+    }
+
+    void setIndice(int indice) {
+        this.indice = indice;
+    }
+
     /**
      * Met à jour l'état de l'animal en fonction du temps écoulé et des ressources disponibles.
      * @param tempsCourant Le temps actuel en millisecondes.
@@ -36,9 +86,9 @@ public class Animal {
      * @return Une map contenant les articles produits par l'animal et leur quantité.
      */
     public Map<String, Integer> mettreAJour(long tempsCourant, ReservoirEau reservoir) {
-        Map<String, Integer> production = new HashMap<>();
+        Map<String, Integer> production = Collections.emptyMap();
         
-        if (!vivant) {
+        if (!isVivant()) {
             return production;
         }
 
@@ -46,33 +96,35 @@ public class Animal {
         int consoEau = getConsoEauParSeconde();
         int consoHerbe = getConsoHerbeParSeconde();
         
-        if (tempsCourant - dernierPrelevementEau >= 1000) {
+        if (tempsCourant - getDernierPrelevementEau() >= 1000) {
             if (reservoir.consommer(consoEau)) {
-                dernierPrelevementEau = tempsCourant;
+                setDernierPrelevementEau(tempsCourant);
             } else {
-                deficit = true;
+                setDeficit(true);
                 return production;
             }
         }
 
-        if (tempsCourant - dernierPrelevementHerbe >= 1000) {
-            if (stockHerbe >= consoHerbe) {
-                stockHerbe -= consoHerbe;
-                dernierPrelevementHerbe = tempsCourant;
+        if (tempsCourant - getDernierPrelevementHerbe() >= 1000) {
+            int stock = getStockHerbe();
+            if (stock >= consoHerbe) {
+                stock -= consoHerbe;
+                setStockHerbe(stock);
+                setDernierPrelevementHerbe(tempsCourant);
                 
-                if (stockHerbe <= -5) {
-                    vivant = false;
+                if (stock <= -5) {
+                    setVivant(false);
                     return production;
                 }
                 
-                deficit = stockHerbe < 0;
+                setDeficit(stock < 0);
             } else {
-                stockHerbe -= consoHerbe;
-                deficit = true;
+                setStockHerbe(stock - consoHerbe);
+                setDeficit(true);
             }
         }
 
-        if (!deficit && vivant) {
+        if (!isDeficit() && isVivant()) {
             production = getProductionParSeconde();
         }
 
@@ -83,34 +135,14 @@ public class Animal {
      * Récupère la consommation d'eau par seconde pour ce type d'animal
      */
     public int getConsoEauParSeconde() {
-        AnimalInfo info = CatalogueService.getInstance().getAnimalInfo(this.type);
-        if (info != null) {
-            return info.getConsoEau();
-        }
-        
-        switch (this.type.toLowerCase()) {
-            case "vache": return 3;  
-            case "mouton": return 2; 
-            case "poule": return 1;  
-            default: return 1;
-        }
+        return consoEauParSeconde(getTypeId());
     }
 
     /**
      * Récupère la consommation d'herbe par seconde pour ce type d'animal
      */
     public int getConsoHerbeParSeconde() {
-        AnimalInfo info = CatalogueService.getInstance().getAnimalInfo(this.type);
-        if (info != null) {
-            return info.getConsoHerbe();
-        }
-        
-        switch (this.type.toLowerCase()) {
-            case "vache": return 3;  
-            case "mouton": return 2; 
-            case "poule": return 1;  
-            default: return 1;
-        }
+        return consoHerbeParSeconde(getTypeId());
     }
 
     /**
@@ -118,65 +150,80 @@ public class Animal {
      * @return Une map contenant les articles produits et leur quantité.
      */
     public Map<String, Integer> getProductionParSeconde() {
-        Map<String, Integer> production = new HashMap<>();
-        
-        if (!vivant || deficit) {
-            return production;
+        if (!isVivant() || isDeficit()) {
+            return Collections.emptyMap();
         }
-        
-        
-        AnimalInfo info = CatalogueService.getInstance().getAnimalInfo(this.type);
-        if (info != null && info.getArticlesProduits() != null) {
-            
-            switch (this.type.toLowerCase()) {
-                case "vache":
-                    production.put("lait", 20);    
-                    production.put("fumier", 5);   
-                    break;
-                case "mouton":
-                    production.put("laine", 5);    
-                    production.put("fumier", 5);   
-                    break;
-                case "poule":
-                    production.put("oeuf", 1);     
-                    break;
-                default:
-                    
-                    for (String article : info.getArticlesProduits()) {
-                        production.put(article, 1);
-                    }
-                    break;
-            }
-        } else {
-            
-            switch (this.type.toLowerCase()) {
-                case "vache":
-                    production.put("lait", 20);
-                    production.put("fumier", 5);
-                    break;
-                case "mouton":
-                    production.put("laine", 5);
-                    production.put("fumier", 5);
-                    break;
-                case "poule":
-                    production.put("oeuf", 1);
-                    break;
-                default:
-                    System.err.println("Type d'animal inconnu: " + this.type);
-                    break;
-            }
-        }
-        
-        return production;
+
+        return getProductionNominale();
+    }
+
+    /**
+     * Récupère la production par seconde de ce type d'animal, sans tenir compte de son état.
+     * @return Une map contenant les articles produits et leur quantité.
+     */
+    public Map<String, Integer> getProductionNominale() {
+        ProfilAnimal profil = CatalogueService.getInstance().getProfilAnimal(getTypeId());
+        return profil != null ? profil.getProduction() : Collections.emptyMap();
+    }
+
+    /**
+     * Consommation d'eau par seconde d'un type d'animal.
+     * @param type Le type d'animal.
+     * @return La consommation en litres.
+     */
+    public static int consoEauParSeconde(String type) {
+        return consoEauParSeconde(CatalogueService.getInstance().getAnimalId(type));
+    }
+
+    /**
+     * Consommation d'eau par seconde d'un type d'animal.
+     * @param typeAnimal L'identifiant du type d'animal dans le catalogue.
+     * @return La consommation en litres, 1 pour un type inconnu du catalogue.
+     */
+    public static int consoEauParSeconde(int typeAnimal) {
+        ProfilAnimal profil = CatalogueService.getInstance().getProfilAnimal(typeAnimal);
+        return profil != null ? profil.getConsoEau() : 1;
+    }
+
+    /**
+     * Consommation d'herbe par seconde d'un type d'animal.
+     * @param type Le type d'animal.
+     * @return La consommation en litres.
+     */
+    public static int consoHerbeParSeconde(String type) {
+        return consoHerbeParSeconde(CatalogueService.getInstance().getAnimalId(type));
+    }
+
+    /**
+     * Consommation d'herbe par seconde d'un type d'animal.
+     * @param typeAnimal L'identifiant du type d'animal dans le catalogue.
+     * @return La consommation en litres, 1 pour un type inconnu du catalogue.
+     */
+    public static int consoHerbeParSeconde(int typeAnimal) {
+        ProfilAnimal profil = CatalogueService.getInstance().getProfilAnimal(typeAnimal);
+        return profil != null ? profil.getConsoHerbe() : 1;
+    }
+
+    /**
+     * Production par seconde d'un type d'animal en bonne santé, compilée au chargement du catalogue.
+     * @param type Le type d'animal.
+     * @return Une map non modifiable contenant les articles produits et leur quantité, vide pour un type inconnu.
+     */
+    public static Map<String, Integer> productionNominale(String type) {
+        ProfilAnimal profil = CatalogueService.getInstance().getProfilAnimal(CatalogueService.getInstance().getAnimalId(type));
+        return profil != null ? profil.getProduction() : Collections.emptyMap();
     }
 
-    
     public int getId() {
-        return id;
+        return troupeau != null ? troupeau.getIdAnimal(indice) : id;
     }
 
     public void setId(int id) {
-        this.id = id;
+        if (troupeau != null) {
+            troupeau.setIdAnimal(indice, id);
+        } else {
+            this.id = id;
+        }
     }
 
     public int getFermeAnimaleId() {
@@ -191,58 +238,110 @@ public class Animal {
         return type;
     }
 
+    /**
+     * @return L'identifiant du type de l'animal dans le catalogue.
+     */
+    public int getTypeId() {
+        if (troupeau != null) {
+            return troupeau.getTypeAnimalId();
+        }
+        if (typeId < 0) {
+            typeId = CatalogueService.getInstance().getAnimalId(type);
+        }
+        return typeId;
+    }
+
     public void setType(String type) {
+        this.typeId = -1;
         this.type = type;
     }
 
     public int getStockHerbe() {
-        return stockHerbe;
+        return troupeau != null ? troupeau.getStockHerbe(indice) : stockHerbe;
     }
 
     public void setStockHerbe(int stockHerbe) {
-        this.stockHerbe = stockHerbe;
+        if (troupeau != null) {
+            troupeau.setStockHerbe(indice, stockHerbe);
+        } else {
+            this.stockHerbe = stockHerbe;
+            this.modifie = true;
+        }
     }
 
     public boolean isVivant() {
-        return vivant;
+        return troupeau != null ? troupeau.isVivant(indice) : vivant;
     }
 
     public void setVivant(boolean vivant) {
-        this.vivant = vivant;
+        if (troupeau != null) {
+            troupeau.setVivant(indice, vivant);
+        } else {
+            this.vivant = vivant;
+            this.modifie = true;
+        }
     }
 
     public boolean isDeficit() {
-        return deficit;
+        return troupeau != null ? troupeau.isDeficit(indice) : deficit;
     }
 
     public void setDeficit(boolean deficit) {
-        this.deficit = deficit;
+        if (troupeau != null) {
+            troupeau.setDeficit(indice, deficit);
+        } else {
+            this.deficit = deficit;
+            this.modifie = true;
+        }
     }
 
     public long getDernierPrelevementEau() {
-        return dernierPrelevementEau;
+        return troupeau != null ? troupeau.getDernierPrelevementEau(indice) : dernierPrelevementEau;
     }
 
     public void setDernierPrelevementEau(long dernierPrelevementEau) {
-        this.dernierPrelevementEau = dernierPrelevementEau;
+        if (troupeau != null) {
+            troupeau.setDernierPrelevementEau(indice, dernierPrelevementEau);
+        } else {
+            this.dernierPrelevementEau = dernierPrelevementEau;
+        }
     }
 
     public long getDernierPrelevementHerbe() {
-        return dernierPrelevementHerbe;
+        return troupeau != null ? troupeau.getDernierPrelevementHerbe(indice) : dernierPrelevementHerbe;
     }
 
     public void setDernierPrelevementHerbe(long dernierPrelevementHerbe) {
-        this.dernierPrelevementHerbe = dernierPrelevementHerbe;
+        if (troupeau != null) {
+            troupeau.setDernierPrelevementHerbe(indice, dernierPrelevementHerbe);
+        } else {
+            this.dernierPrelevementHerbe = dernierPrelevementHerbe;
+        }
+    }
+
+    /**
+     * @return true si l'animal a changé depuis son dernier enregistrement en base.
+     */
+    public boolean isModifie() {
+        return troupeau != null ? troupeau.isModifie(indice) : modifie;
+    }
+
+    public void marquerEnregistre() {
+        if (troupeau != null) {
+            troupeau.marquerEnregistre(indice);
+        } else {
+            this.modifie = false;
+        }
     }
 
     @Override
     public String toString() {
         return "Animal{" +
-                "id=" + id +
+                "id=" + getId() +
                 ", type='" + type + '\'' +
-                ", stockHerbe=" + stockHerbe +
-                ", vivant=" + vivant +
-                ", deficit=" + deficit +
+                ", stockHerbe=" + getStockHerbe() +
+                ", vivant=" + isVivant() +
+                ", deficit=" + isDeficit() +
                 '}';
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package dev.linnaelle.fs.entities;
 
 import java.util.List;
+import java.util.Map;
 
 public class AnimalInfo {
     private String nom;
@@ -10,6 +11,8 @@ public class AnimalInfo {
     private int consoHerbe;
     private int stockHerbe;
     private List<String> articlesProduits;
+    // Quantité produite par seconde de chaque article, dans l'ordre de articlesProduits
+    private Map<String, Integer> production;
 
     public AnimalInfo() {}
 
@@ -79,6 +82,14 @@ public class AnimalInfo {
         this.articlesProduits = articlesProduits;
     }
 
+    public Map<String, Integer> getProduction() {
+        return production;
+    }
+
+    public void setProduction(Map<String, Integer> production) {
+        this.production = production;
+    }
+
     @Override
     public String toString() {
         return "AnimalInfo{" +
@@ -12,6 +12,8 @@ public class Champ {
     private EtatChamp etat;
     private double prixAchat;
     private FermeAnimale fermeAnimale;
+    // Colonnes changées depuis le dernier enregistrement en base
+    private boolean modifie;
 
     public Champ() {
         this.etat = EtatChamp.STANDBY;
@@ -40,6 +42,18 @@ public class Champ {
         return tempsCourant >= (tempsAction + 120000);
     }
 
+    /**
+     * Passe le champ à l'état prêt une fois la semence ou la fertilisation terminée.
+     * Ne dépend que du temps : appeler la méthode une fois ou à chaque pas donne le même état.
+     * @param tempsCourant Le temps courant en millisecondes.
+     */
+    public void mettreAJour(long tempsCourant) {
+        if ((etat == EtatChamp.SEME || etat == EtatChamp.FERTILISE) && tempsCourant >= tempsAction) {
+            this.etat = EtatChamp.READY;
+            this.modifie = true;
+        }
+    }
+
     /**
      * Laboure le champ.
      * @param tempsCourant Le temps courant en millisecondes.
@@ -53,6 +67,7 @@ public class Champ {
         
         this.tempsAction = tempsCourant + 30000;
         this.etat = EtatChamp.LABOURE;
+        this.modifie = true;
         return true;
     }
 
@@ -70,6 +85,7 @@ public class Champ {
         this.typeCulture = culture;
         this.tempsAction = tempsCourant + 30000;
         this.etat = EtatChamp.SEME;
+        this.modifie = true;
         return true;
     }
 
@@ -85,6 +101,7 @@ public class Champ {
         
         this.tempsAction = tempsCourant + 30000;
         this.etat = EtatChamp.FERTILISE;
+        this.modifie = true;
         return true;
     }
 
@@ -113,6 +130,7 @@ public class Champ {
         this.etat = EtatChamp.STANDBY;
         this.typeCulture = null;
         this.tempsAction = tempsCourant;
+        this.modifie = true;
         
         return rendementBase + bonus;
     }
@@ -140,6 +158,7 @@ public class Champ {
 
     public void setName(String name) {
         this.name = name;
+        this.modifie = true;
     }
 
     public int getNumero() {
@@ -148,6 +167,7 @@ public class Champ {
 
     public void setNumero(int numero) {
         this.numero = numero;
+        this.modifie = true;
     }
 
     public String getTypeCulture() {
@@ -156,6 +176,7 @@ public class Champ {
 
     public void setTypeCulture(String typeCulture) {
         this.typeCulture = typeCulture;
+        this.modifie = true;
     }
 
     public long getTempsAction() {
@@ -164,6 +185,7 @@ public class Champ {
 
     public void setTempsAction(long tempsAction) {
         this.tempsAction = tempsAction;
+        this.modifie = true;
     }
 
     public EtatChamp getEtat() {
@@ -172,6 +194,7 @@ public class Champ {
 
     public void setEtat(EtatChamp etat) {
         this.etat = etat;
+        this.modifie = true;
     }
 
     public double getPrixAchat() {
@@ -180,6 +203,7 @@ public class Champ {
 
     public void setPrixAchat(double prixAchat) {
         this.prixAchat = prixAchat;
+        this.modifie = true;
     }
 
     public FermeAnimale getFermeAnimale() {
@@ -190,6 +214,21 @@ public class Champ {
         this.fermeAnimale = fermeAnimale;
     }
 
+    /**
+     * @return true si le champ a changé depuis son dernier enregistrement en base.
+     */
+    public boolean isModifie() {
+        return modifie;
+    }
+
+    public void marquerModifie() {
+        this.modifie = true;
+    }
+
+    public void marquerEnregistre() {
+        this.modifie = false;
+    }
+
     @Override
     public String toString() {
         return "Champ{" +
@@ -14,17 +14,18 @@ public class Entrepot extends Stockage {
 
     /**
      * Vérifie si l'article peut être stocké dans l'entrepôt.
-     * @param article Le nom de l'article à stocker.
+     * @param article L'identifiant de l'article à stocker.
      * @return true si l'article peut être stocké, false sinon.
      */
     @Override
-    public boolean peutStocker(String article) {
-        ArticleInfo info = CatalogueService.getInstance().getArticleInfo(article);
+    public boolean peutStocker(int article) {
+        CatalogueService catalogue = CatalogueService.getInstance();
+        ArticleInfo info = catalogue.getArticleInfo(article);
 
         if (info != null) {
             return true;
         } else {
-            System.err.println("Article inconnu: " + article);
+            System.err.println("Article inconnu: " + catalogue.getArticleNom(article));
             return false;
         }
     }
@@ -1,5 +1,7 @@
 package dev.linnaelle.fs.entities;
 
+import dev.linnaelle.fs.utils.Horloge;
+
 import java.util.List;
 import java.util.ArrayList;
 
@@ -8,6 +10,7 @@ public class Ferme {
     private int joueurId;
     private String name;
     private double revenu;
+    private long derniereSimulation;
     
     private StockPrincipal stockPrincipal;
     private Entrepot entrepot;
@@ -25,6 +28,7 @@ public class Ferme {
         this.reservoirEau = new ReservoirEau();
         this.equipements = new GestionnaireEquipement(this.id);
         this.revenu = 0.0;
+        this.derniereSimulation = Horloge.getInstance().maintenant();
     }
 
     public Ferme(String name, int joueurId) {
@@ -65,6 +69,14 @@ public class Ferme {
         this.revenu = revenu;
     }
 
+    public long getDerniereSimulation() {
+        return derniereSimulation;
+    }
+
+    public void setDerniereSimulation(long derniereSimulation) {
+        this.derniereSimulation = derniereSimulation;
+    }
+
     public StockPrincipal getStockPrincipal() {
         return stockPrincipal;
     }
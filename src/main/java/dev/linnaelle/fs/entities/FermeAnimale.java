@@ -1,17 +1,48 @@
 package dev.linnaelle.fs.entities;
 
+import dev.linnaelle.fs.services.CatalogueService;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.ArrayList;
 
+/**
+ * Enclos d'animaux d'un même type.
+ * Le troupeau est stocké en colonnes (un tableau par attribut, l'animal i à l'indice i de chacun)
+ * pour que la mise à jour par pas soit une simple boucle sur des tableaux primitifs.
+ * Les objets {@link Animal} ne sont que des vues sur ces colonnes, créées à la demande.
+ */
 public class FermeAnimale {
+    private static final int TAILLE_INITIALE = 8;
+
     private int id;
     private int champId;
     private String typeAnimal;
+    // Identifiant du type dans le catalogue, résolu au premier besoin
+    private int typeAnimalId = -1;
     private int capaciteMax;
-    private List<Animal> animaux;
+
+    private int taille;
+    private int[] ids;
+    private int[] stocksHerbe;
+    private long[] prelevementsEau;
+    private long[] prelevementsHerbe;
+    private final BitSet vivants;
+    private final BitSet deficits;
+    // Lignes changées depuis le dernier enregistrement en base
+    private final BitSet modifies;
+    private Animal[] vues;
 
     public FermeAnimale() {
-        this.animaux = new ArrayList<>();
+        this.ids = new int[TAILLE_INITIALE];
+        this.stocksHerbe = new int[TAILLE_INITIALE];
+        this.prelevementsEau = new long[TAILLE_INITIALE];
+        this.prelevementsHerbe = new long[TAILLE_INITIALE];
+        this.vivants = new BitSet();
+        this.deficits = new BitSet();
+        this.modifies = new BitSet();
+        this.vues = new Animal[TAILLE_INITIALE];
     }
 
     public FermeAnimale(int champId, String typeAnimal, int capaciteMax) {
@@ -27,26 +58,79 @@ public class FermeAnimale {
      * @return true si l'animal a été ajouté, false sinon.
      */
     public boolean addAnimal(Animal animal) {
-        if (animaux.size() >= capaciteMax) {
+        if (taille >= capaciteMax) {
             return false;
         }
-        
+
         if (!typeAnimal.equals(animal.getType())) {
             // Supprimer si l'on souhaite mélanger les types d'animaux
             return false;
         }
-        
-        animaux.add(animal);
+
+        attacher(animal);
         return true;
     }
 
+    /**
+     * Ajoute des animaux neufs directement dans les colonnes, sans créer d'objet {@link Animal}.
+     * @param nombre Le nombre d'animaux souhaité.
+     * @param stockHerbe Le stock d'herbe initial de chaque animal.
+     * @param tempsCourant Le temps courant en millisecondes, pris comme dernier prélèvement.
+     * @return Le nombre d'animaux réellement ajoutés, limité par la capacité de l'enclos.
+     */
+    public int ajouterAnimaux(int nombre, int stockHerbe, long tempsCourant) {
+        int ajoutes = Math.max(0, Math.min(nombre, capaciteMax - taille));
+        assurerCapacite(taille + ajoutes);
+
+        int debut = taille;
+        int fin = taille + ajoutes;
+        Arrays.fill(ids, debut, fin, 0);
+        Arrays.fill(stocksHerbe, debut, fin, stockHerbe);
+        Arrays.fill(prelevementsEau, debut, fin, tempsCourant);
+        Arrays.fill(prelevementsHerbe, debut, fin, tempsCourant);
+        vivants.set(debut, fin);
+        deficits.clear(debut, fin);
+        modifies.clear(debut, fin);
+        taille = fin;
+
+        return ajoutes;
+    }
+
+    /**
+     * Ajoute une ligne lue en base directement dans les colonnes, sans créer d'objet {@link Animal}.
+     * La ligne n'est pas marquée modifiée.
+     * @param idAnimal L'ID de l'animal.
+     * @param stockHerbe Son stock d'herbe.
+     * @param vivant true s'il est vivant.
+     * @param deficit true s'il est en déficit.
+     * @param tempsCourant Le temps courant en millisecondes, pris comme dernier prélèvement.
+     */
+    public void chargerAnimal(int idAnimal, int stockHerbe, boolean vivant, boolean deficit, long tempsCourant) {
+        assurerCapacite(taille + 1);
+
+        int i = taille++;
+        ids[i] = idAnimal;
+        stocksHerbe[i] = stockHerbe;
+        prelevementsEau[i] = tempsCourant;
+        prelevementsHerbe[i] = tempsCourant;
+        vivants.set(i, vivant);
+        deficits.set(i, deficit);
+        modifies.clear(i);
+    }
+
     /**
      * Supprime un animal de la ferme.
      * @param animal L'animal à supprimer.
      * @return true si l'animal a été supprimé, false sinon.
      */
     public boolean removeAnimal(Animal animal) {
-        return animaux.remove(animal);
+        for (int i = 0; i < taille; i++) {
+            if (vues[i] == animal) {
+                supprimer(i);
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -54,21 +138,262 @@ public class FermeAnimale {
      * @param tempsCourant Le temps courant en millisecondes.
      */
     public void mettreAJour(long tempsCourant) {
-        for (Animal animal : new ArrayList<>(animaux)) {
-            if (!animal.isVivant()) {
-                animaux.remove(animal);
+        for (int i = taille - 1; i >= 0; i--) {
+            if (!vivants.get(i)) {
+                supprimer(i);
+            }
+        }
+    }
+
+    /**
+     * Fait boire, manger et produire tout le troupeau pour un pas de simulation,
+     * avec les mêmes règles que {@link Animal#mettreAJour(long, ReservoirEau)} appliquée à chaque animal dans l'ordre.
+     * @param tempsCourant Le temps courant en millisecondes.
+     * @param reservoir Le réservoir d'eau de la ferme.
+     * @return Le nombre d'animaux qui produisent pendant ce pas.
+     */
+    public int simuler(long tempsCourant, ReservoirEau reservoir) {
+        if (taille == 0) {
+            return 0;
+        }
+
+        int consoEau = Animal.consoEauParSeconde(getTypeAnimalId());
+        int consoHerbe = Animal.consoHerbeParSeconde(getTypeAnimalId());
+        int productifs = 0;
+
+        for (int i = vivants.nextSetBit(0); i >= 0 && i < taille; i = vivants.nextSetBit(i + 1)) {
+            if (tempsCourant - prelevementsEau[i] >= 1000) {
+                if (reservoir.consommer(consoEau)) {
+                    prelevementsEau[i] = tempsCourant;
+                } else {
+                    deficits.set(i);
+                    modifies.set(i);
+                    continue;
+                }
+            }
+
+            if (tempsCourant - prelevementsHerbe[i] >= 1000) {
+                modifies.set(i);
+                if (stocksHerbe[i] >= consoHerbe) {
+                    stocksHerbe[i] -= consoHerbe;
+                    prelevementsHerbe[i] = tempsCourant;
+
+                    if (stocksHerbe[i] <= -5) {
+                        vivants.clear(i);
+                        continue;
+                    }
+
+                    deficits.set(i, stocksHerbe[i] < 0);
+                } else {
+                    stocksHerbe[i] -= consoHerbe;
+                    deficits.set(i);
+                }
+            }
+
+            if (!deficits.get(i)) {
+                productifs++;
             }
         }
+
+        return productifs;
     }
 
     public int getNombreAnimaux() {
-        return animaux.size();
+        return taille;
+    }
+
+    /**
+     * @return Le nombre d'animaux vivants, compté sur la colonne sans créer de vue.
+     */
+    public int compterVivants() {
+        int vivantsComptes = 0;
+        for (int i = vivants.nextSetBit(0); i >= 0 && i < taille; i = vivants.nextSetBit(i + 1)) {
+            vivantsComptes++;
+        }
+        return vivantsComptes;
+    }
+
+    /**
+     * @return true si au moins un animal a changé depuis le dernier enregistrement en base.
+     */
+    public boolean isModifie() {
+        return !modifies.isEmpty();
+    }
+
+    /**
+     * Prochain animal changé depuis le dernier enregistrement, pour n'écrire que ceux-là.
+     * @param depuis L'indice à partir duquel chercher.
+     * @return L'indice de l'animal dans {@link #getAnimaux()}, ou -1 s'il n'y en a plus.
+     */
+    public int prochainAnimalModifie(int depuis) {
+        int i = modifies.nextSetBit(depuis);
+        return i >= 0 && i < taille ? i : -1;
+    }
+
+    public void marquerModifie() {
+        modifies.set(0, taille);
+    }
+
+    public void marquerEnregistre() {
+        modifies.clear();
+    }
+
+    boolean isModifie(int i) {
+        return modifies.get(i);
+    }
+
+    void marquerEnregistre(int i) {
+        modifies.clear(i);
+    }
+
+    private void attacher(Animal animal) {
+        assurerCapacite(taille + 1);
+
+        int i = taille++;
+        ids[i] = animal.getId();
+        stocksHerbe[i] = animal.getStockHerbe();
+        prelevementsEau[i] = animal.getDernierPrelevementEau();
+        prelevementsHerbe[i] = animal.getDernierPrelevementHerbe();
+        vivants.set(i, animal.isVivant());
+        deficits.set(i, animal.isDeficit());
+        modifies.set(i, animal.isModifie());
+        vues[i] = animal;
+
+        animal.setFermeAnimaleId(id);
+        animal.attacher(this, i);
+    }
+
+    /**
+     * Retire la ligne i en décalant les suivantes, pour garder l'ordre du troupeau.
+     */
+    private void supprimer(int i) {
+        if (vues[i] != null) {
+            vues[i].detacher();
+        }
+
+        int suivants = taille - i - 1;
+        System.arraycopy(ids, i + 1, ids, i, suivants);
+        System.arraycopy(stocksHerbe, i + 1, stocksHerbe, i, suivants);
+        System.arraycopy(prelevementsEau, i + 1, prelevementsEau, i, suivants);
+        System.arraycopy(prelevementsHerbe, i + 1, prelevementsHerbe, i, suivants);
+        System.arraycopy(vues, i + 1, vues, i, suivants);
+        for (int j = i; j < taille - 1; j++) {
+            vivants.set(j, vivants.get(j + 1));
+            deficits.set(j, deficits.get(j + 1));
+            modifies.set(j, modifies.get(j + 1));
+            if (vues[j] != null) {
+                vues[j].setIndice(j);
+            }
+        }
+
+        taille--;
+        vivants.clear(taille);
+        deficits.clear(taille);
+        modifies.clear(taille);
+        vues[taille] = null;
+    }
+
+    private void assurerCapacite(int minimum) {
+        if (minimum <= ids.length) {
+            return;
+        }
+
+        int nouvelleTaille = Math.max(minimum, ids.length * 2);
+        ids = Arrays.copyOf(ids, nouvelleTaille);
+        stocksHerbe = Arrays.copyOf(stocksHerbe, nouvelleTaille);
+        prelevementsEau = Arrays.copyOf(prelevementsEau, nouvelleTaille);
+        prelevementsHerbe = Arrays.copyOf(prelevementsHerbe, nouvelleTaille);
+        vues = Arrays.copyOf(vues, nouvelleTaille);
+    }
+
+    private Animal vue(int i) {
+        if (vues[i] == null) {
+            vues[i] = new Animal(this, i);
+        }
+        return vues[i];
+    }
+
+    /**
+     * @param idAnimal L'ID d'un animal.
+     * @return L'indice de sa ligne dans le troupeau, ou -1 s'il n'en fait pas partie.
+     */
+    public int indiceAnimal(int idAnimal) {
+        for (int i = 0; i < taille; i++) {
+            if (ids[i] == idAnimal) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Accès par ligne, pour parcourir le troupeau sans créer de vue.
+     * @param i L'indice de l'animal, entre 0 et {@link #getNombreAnimaux()} exclu.
+     */
+    public int getIdAnimal(int i) {
+        return ids[i];
+    }
+
+    void setIdAnimal(int i, int id) {
+        ids[i] = id;
+    }
+
+    public int getStockHerbe(int i) {
+        return stocksHerbe[i];
+    }
+
+    void setStockHerbe(int i, int stockHerbe) {
+        stocksHerbe[i] = stockHerbe;
+        modifies.set(i);
+    }
+
+    public boolean isVivant(int i) {
+        return vivants.get(i);
+    }
+
+    void setVivant(int i, boolean vivant) {
+        vivants.set(i, vivant);
+        modifies.set(i);
+    }
+
+    public boolean isDeficit(int i) {
+        return deficits.get(i);
+    }
+
+    void setDeficit(int i, boolean deficit) {
+        deficits.set(i, deficit);
+        modifies.set(i);
+    }
+
+    long getDernierPrelevementEau(int i) {
+        return prelevementsEau[i];
+    }
+
+    void setDernierPrelevementEau(int i, long temps) {
+        prelevementsEau[i] = temps;
+    }
+
+    long getDernierPrelevementHerbe(int i) {
+        return prelevementsHerbe[i];
+    }
+
+    void setDernierPrelevementHerbe(int i, long temps) {
+        prelevementsHerbe[i] = temps;
     }
 
     public int getId() {
         return id;
     }
 
+    public void setId(int id) {
+        this.id = id;
+        for (int i = 0; i < taille; i++) {
+            if (vues[i] != null) {
+                vues[i].setFermeAnimaleId(id);
+            }
+        }
+    }
+
     public int getChampId() {
         return champId;
     }
@@ -81,7 +406,18 @@ public class FermeAnimale {
         return typeAnimal;
     }
 
+    /**
+     * @return L'identifiant du type d'animal dans le catalogue.
+     */
+    public int getTypeAnimalId() {
+        if (typeAnimalId < 0) {
+            typeAnimalId = CatalogueService.getInstance().getAnimalId(typeAnimal);
+        }
+        return typeAnimalId;
+    }
+
     public void setTypeAnimal(String typeAnimal) {
+        this.typeAnimalId = -1;
         this.typeAnimal = typeAnimal;
     }
 
@@ -93,12 +429,34 @@ public class FermeAnimale {
         this.capaciteMax = capaciteMax;
     }
 
+    /**
+     * Liste des animaux de l'enclos, en lecture seule : utiliser {@link #addAnimal} et {@link #removeAnimal}.
+     * Les éléments sont des vues sur le troupeau, leurs modifications sont donc répercutées.
+     */
     public List<Animal> getAnimaux() {
-        return animaux;
+        return new AbstractList<Animal>() {
+            @Override
+            public Animal get(int index) {
+                if (index < 0 || index >= taille) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", taille: " + taille);
+                }
+                return vue(index);
+            }
+
+            @Override
+            public int size() {
+                return taille;
+            }
+        };
     }
 
     public void setAnimaux(List<Animal> animaux) {
-        this.animaux = animaux;
+        for (int i = taille - 1; i >= 0; i--) {
+            supprimer(i);
+        }
+        for (Animal animal : animaux) {
+            attacher(animal);
+        }
     }
 
     @Override
@@ -109,4 +467,4 @@ public class FermeAnimale {
                 ", nbAnimaux=" + capaciteMax +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package dev.linnaelle.fs.entities;
 
+import dev.linnaelle.fs.utils.Horloge;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,7 +32,7 @@ public class GestionnaireEquipement {
         }
         
         return equipements.stream()
-                .anyMatch(equip -> equip.estLibre(System.currentTimeMillis()));
+                .anyMatch(equip -> equip.estLibre(Horloge.getInstance().maintenant()));
     }
 
     /**
@@ -45,7 +47,7 @@ public class GestionnaireEquipement {
             return null;
         }
         
-        long tempsCourant = System.currentTimeMillis();
+        long tempsCourant = Horloge.getInstance().maintenant();
         for (Equipement equipement : equipements) {
             if (equipement.estLibre(tempsCourant)) {
                 equipement.utiliser(duree, tempsCourant);
@@ -1,6 +1,11 @@
 package dev.linnaelle.fs.entities;
 
+import dev.linnaelle.fs.services.CatalogueService;
+import dev.linnaelle.fs.utils.Horloge;
+
 public class ReservoirEau extends Stockage {
+    public static final long INTERVALLE_REMPLISSAGE = 300000;
+
     private int capacite;
     private int quantite;
     private long dernierRemplissage;
@@ -13,17 +18,17 @@ public class ReservoirEau extends Stockage {
         super(fermeId, capacite);
         this.capacite = capacite;
         this.quantite = capacite;
-        this.dernierRemplissage = System.currentTimeMillis();
+        this.dernierRemplissage = Horloge.getInstance().maintenant();
     }
 
     /**
      * Vérifie si le réservoir peut stocker un article donné.
-     * @param article L'article à vérifier.
+     * @param article L'identifiant de l'article à vérifier.
      * @return true si le réservoir peut stocker l'article, false sinon.
      */
     @Override
-    public boolean peutStocker(String article) {
-        return "eau".equals(article);
+    public boolean peutStocker(int article) {
+        return article >= 0 && article == CatalogueService.getInstance().getArticleId("eau");
     }
 
     /**
@@ -34,6 +39,7 @@ public class ReservoirEau extends Stockage {
     public boolean consommer(int quantiteConsommee) {
         if (this.quantite >= quantiteConsommee) {
             this.quantite -= quantiteConsommee;
+            this.modifie = true;
             return true;
         }
         return false;
@@ -44,9 +50,10 @@ public class ReservoirEau extends Stockage {
      * @param tempsCourant Le temps actuel en millisecondes.
      */
     public void remplir(long tempsCourant) {
-        if (tempsCourant - dernierRemplissage >= 300000) {
+        if (tempsCourant - dernierRemplissage >= INTERVALLE_REMPLISSAGE) {
             this.quantite = this.capacite;
             this.dernierRemplissage = tempsCourant;
+            this.modifie = true;
         }
     }
 
@@ -56,6 +63,7 @@ public class ReservoirEau extends Stockage {
 
     public void setCapacite(int capacite) {
         this.capacite = capacite;
+        this.modifie = true;
     }
 
     public int getQuantite() {
@@ -64,6 +72,7 @@ public class ReservoirEau extends Stockage {
 
     public void setQuantite(int quantite) {
         this.quantite = quantite;
+        this.modifie = true;
     }
 
     public long getDernierRemplissage() {
@@ -72,6 +81,7 @@ public class ReservoirEau extends Stockage {
 
     public void setDernierRemplissage(long dernierRemplissage) {
         this.dernierRemplissage = dernierRemplissage;
+        this.modifie = true;
     }
 
     @Override
@@ -1,6 +1,14 @@
 package dev.linnaelle.fs.entities;
 
+import dev.linnaelle.fs.services.CatalogueService;
+import dev.linnaelle.fs.utils.Horloge;
+import dev.linnaelle.fs.simulation.AccumulateurProduction;
+
 public class Serre extends StructureProduction {
+    public static final int CONSO_EAU = 15;
+    public static final long INTERVALLE_RECOLTE = 300000;
+    public static final int QUANTITE_RECOLTE = 1500;
+
     private long dernierRecolte;
 
     public Serre() {
@@ -10,7 +18,7 @@ public class Serre extends StructureProduction {
 
     public Serre(int fermeId, String type, double prixAchat) {
         super(fermeId, type, prixAchat);
-        this.dernierRecolte = System.currentTimeMillis();
+        this.dernierRecolte = Horloge.getInstance().maintenant();
     }
 
     /**
@@ -26,15 +34,44 @@ public class Serre extends StructureProduction {
             return;
         }
 
-        if (!consommer(reservoir, "eau", 15)) {
+        if (reservoir == null || !reservoir.consommer(CONSO_EAU)) {
+            pauseAutomatique();
+            return;
+        }
+
+        if (tempsCourant - dernierRecolte >= INTERVALLE_RECOLTE) {
+            if (stock.capaciteLibre() >= QUANTITE_RECOLTE) {
+                stock.ajouter("fraises", QUANTITE_RECOLTE);
+                dernierRecolte = tempsCourant;
+                modifie = true;
+            } else {
+                pauseAutomatique();
+            }
+        }
+    }
+
+    /**
+     * Variante de {@link #produire(long, ReservoirEau, Stockage)} pour la boucle de simulation :
+     * la récolte est déposée dans l'accumulateur du pas au lieu d'être ajoutée au stock.
+     * @param tempsCourant Le temps courant en millisecondes.
+     * @param reservoir Le réservoir d'eau à utiliser.
+     * @param production L'accumulateur de production du pas en cours.
+     */
+    public void produire(long tempsCourant, ReservoirEau reservoir, AccumulateurProduction production) {
+        if (!active || enPause) {
+            return;
+        }
+
+        if (reservoir == null || !reservoir.consommer(CONSO_EAU)) {
             pauseAutomatique();
             return;
         }
 
-        if (tempsCourant - dernierRecolte >= 300000) {
-            if (stock.capaciteLibre() >= 1500) {
-                stock.ajouter("fraises", 1500);
+        if (tempsCourant - dernierRecolte >= INTERVALLE_RECOLTE) {
+            if (production.capaciteLibrePrincipal() >= QUANTITE_RECOLTE) {
+                production.ajouterPrincipal(CatalogueService.getInstance().getArticleId("fraises"), QUANTITE_RECOLTE);
                 dernierRecolte = tempsCourant;
+                modifie = true;
             } else {
                 pauseAutomatique();
             }
@@ -47,6 +84,7 @@ public class Serre extends StructureProduction {
 
     public void setDernierRecolte(long dernierRecolte) {
         this.dernierRecolte = dernierRecolte;
+        this.modifie = true;
     }
 
     @Override
@@ -1,16 +1,31 @@
 package dev.linnaelle.fs.entities;
 
-import java.util.HashMap;
+import dev.linnaelle.fs.services.CatalogueService;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 public abstract class Stockage {
     protected int id;
     protected int fermeId;
     protected int capaciteMax;
-    protected Map<String, Integer> articles;
+    // Quantités indexées par identifiant d'article du catalogue
+    protected int[] quantites;
+    // Somme des quantités, tenue à jour à chaque changement
+    protected int total;
+    // Contenu changé depuis le dernier enregistrement en base
+    protected boolean modifie;
+    // Articles changés depuis le dernier enregistrement, sauf si tout le contenu est à réécrire
+    protected BitSet articlesModifies;
+    protected boolean contenuRemplace;
 
     public Stockage() {
-        this.articles = new HashMap<>();
+        this.quantites = new int[0];
+        this.articlesModifies = new BitSet();
     }
 
     public Stockage(int fermeId, int capaciteMax) {
@@ -19,7 +34,15 @@ public abstract class Stockage {
         this.capaciteMax = capaciteMax;
     }
 
-    public abstract boolean peutStocker(String article);
+    /**
+     * Vérifie si l'article peut être stocké.
+     * @param article L'identifiant de l'article dans le catalogue.
+     */
+    public abstract boolean peutStocker(int article);
+
+    public boolean peutStocker(String article) {
+        return peutStocker(CatalogueService.getInstance().getArticleId(article));
+    }
 
     /**
      * Ajoute une quantité d'un article au stockage.
@@ -28,15 +51,25 @@ public abstract class Stockage {
      * @return true si l'ajout a réussi, false sinon (par exemple, si la capacité est dépassée).
      */
     public boolean ajouter(String article, int quantite) {
-        if (!peutStocker(article)) {
+        return ajouter(CatalogueService.getInstance().getArticleId(article), quantite);
+    }
+
+    /**
+     * Ajoute une quantité d'un article au stockage.
+     * @param article L'identifiant de l'article dans le catalogue.
+     * @param quantite La quantité à ajouter.
+     * @return true si l'ajout a réussi, false sinon (par exemple, si la capacité est dépassée).
+     */
+    public boolean ajouter(int article, int quantite) {
+        if (article < 0 || !peutStocker(article)) {
             return false;
         }
         
-        int quantiteActuelle = articles.getOrDefault(article, 0);
-        int nouvelleQuantite = quantiteActuelle + quantite;
+        int nouvelleQuantite = getQuantite(article) + quantite;
         
         if (nouvelleQuantite <= capaciteMax) {
-            articles.put(article, nouvelleQuantite);
+            changerQuantite(article, nouvelleQuantite);
+            modifierArticle(article);
             return true;
         }
         
@@ -50,23 +83,68 @@ public abstract class Stockage {
      * @return true si le retrait a réussi, false sinon (par exemple, si la quantité est insuffisante).
      */
     public boolean retirer(String article, int quantite) {
-        int quantiteActuelle = articles.getOrDefault(article, 0);
+        return retirer(CatalogueService.getInstance().getArticleId(article), quantite);
+    }
+
+    /**
+     * Retire une quantité d'un article du stockage.
+     * @param article L'identifiant de l'article dans le catalogue.
+     * @param quantite La quantité à retirer.
+     * @return true si le retrait a réussi, false sinon (par exemple, si la quantité est insuffisante).
+     */
+    public boolean retirer(int article, int quantite) {
+        int quantiteActuelle = getQuantite(article);
         
-        if (quantiteActuelle >= quantite) {
-            articles.put(article, quantiteActuelle - quantite);
+        if (article >= 0 && quantiteActuelle >= quantite) {
+            changerQuantite(article, quantiteActuelle - quantite);
+            modifierArticle(article);
             return true;
         }
         
         return false;
     }
 
+    /**
+     * Retire tous les articles du stockage.
+     */
+    public void vider() {
+        for (int article = 0; article < quantites.length; article++) {
+            if (quantites[article] != 0) {
+                modifierArticle(article);
+            }
+        }
+        quantites = new int[0];
+        total = 0;
+    }
+
     /**
      * Retourne la quantité d'un article dans le stockage.
      * @param article L'article dont on veut connaître la quantité.
      * @return La quantité de l'article, ou 0 si l'article n'est pas présent.
      */
     public int getQuantite(String article) {
-        return articles.getOrDefault(article, 0);
+        return getQuantite(CatalogueService.getInstance().getArticleId(article));
+    }
+
+    /**
+     * Retourne la quantité d'un article dans le stockage.
+     * @param article L'identifiant de l'article dans le catalogue.
+     * @return La quantité de l'article, ou 0 si l'article n'est pas présent.
+     */
+    public int getQuantite(int article) {
+        return article >= 0 && article < quantites.length ? quantites[article] : 0;
+    }
+
+    /**
+     * Place la quantité d'un article lue en base, sans marquer le stockage modifié.
+     * @param article Le nom de l'article.
+     * @param quantite La quantité enregistrée.
+     */
+    public void charger(String article, int quantite) {
+        int id = CatalogueService.getInstance().getArticleId(article);
+        if (id >= 0) {
+            changerQuantite(id, quantite);
+        }
     }
 
     /**
@@ -74,8 +152,7 @@ public abstract class Stockage {
      * @return La capacité libre en fonction des articles stockés.
      */
     public int capaciteLibre() {
-        int totalUtilise = articles.values().stream().mapToInt(Integer::intValue).sum();
-        return capaciteMax - totalUtilise;
+        return capaciteMax - total;
     }
 
     public int getId() {
@@ -102,11 +179,80 @@ public abstract class Stockage {
         this.capaciteMax = capaciteMax;
     }
 
+    /**
+     * Contenu du stockage par nom d'article, pour les DAO et l'affichage.
+     * @return Une copie des articles présents : la modifier ne change pas le stockage.
+     */
     public Map<String, Integer> getArticles() {
+        CatalogueService catalogue = CatalogueService.getInstance();
+        Map<String, Integer> articles = new LinkedHashMap<>();
+        for (int article = 0; article < quantites.length; article++) {
+            if (quantites[article] != 0) {
+                articles.put(catalogue.getArticleNom(article), quantites[article]);
+            }
+        }
         return articles;
     }
 
     public void setArticles(Map<String, Integer> articles) {
-        this.articles = articles;
+        this.quantites = new int[0];
+        this.total = 0;
+        for (Map.Entry<String, Integer> article : articles.entrySet()) {
+            charger(article.getKey(), article.getValue());
+        }
+        marquerModifie();
+    }
+
+    /**
+     * @return true si le stockage a changé depuis son dernier enregistrement en base.
+     */
+    public boolean isModifie() {
+        return modifie;
+    }
+
+    /**
+     * Articles dont la quantité a changé depuis le dernier enregistrement.
+     * N'a de sens que si {@link #isContenuRemplace()} est faux.
+     */
+    public Set<String> getArticlesModifies() {
+        CatalogueService catalogue = CatalogueService.getInstance();
+        Set<String> noms = new HashSet<>();
+        for (int article = articlesModifies.nextSetBit(0); article >= 0; article = articlesModifies.nextSetBit(article + 1)) {
+            noms.add(catalogue.getArticleNom(article));
+        }
+        return noms;
+    }
+
+    /**
+     * @return true si le contenu doit être réécrit en entier : il a été remplacé, ou une écriture a été annulée.
+     */
+    public boolean isContenuRemplace() {
+        return contenuRemplace;
+    }
+
+    public void marquerModifie() {
+        this.modifie = true;
+        this.contenuRemplace = true;
+    }
+
+    public void marquerEnregistre() {
+        this.modifie = false;
+        this.contenuRemplace = false;
+        this.articlesModifies.clear();
+    }
+
+    private void modifierArticle(int article) {
+        modifie = true;
+        if (!contenuRemplace) {
+            articlesModifies.set(article);
+        }
+    }
+
+    private void changerQuantite(int article, int quantite) {
+        if (article >= quantites.length) {
+            quantites = Arrays.copyOf(quantites, Math.max(article + 1, CatalogueService.getInstance().getNombreArticles()));
+        }
+        total += quantite - quantites[article];
+        quantites[article] = quantite;
     }
 }
\ No newline at end of file
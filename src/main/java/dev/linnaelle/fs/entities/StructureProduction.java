@@ -8,6 +8,8 @@ public abstract class StructureProduction {
     protected double prixAchat;
     protected boolean enPause;
     protected int tauxTraitement;
+    // Colonnes changées depuis le dernier enregistrement en base
+    protected boolean modifie;
 
     public StructureProduction() {}
 
@@ -27,6 +29,7 @@ public abstract class StructureProduction {
     public boolean demarrer() {
         this.active = true;
         this.enPause = false;
+        this.modifie = true;
         return true;
     }
 
@@ -35,6 +38,7 @@ public abstract class StructureProduction {
      */
     public void arreter() {
         this.active = false;
+        this.modifie = true;
     }
 
     /**
@@ -43,6 +47,7 @@ public abstract class StructureProduction {
      */
     public boolean pauseAutomatique() {
         this.enPause = true;
+        this.modifie = true;
         return true;
     }
 
@@ -87,6 +92,7 @@ public abstract class StructureProduction {
 
     public void setType(String type) {
         this.type = type;
+        this.modifie = true;
     }
 
     public boolean isActive() {
@@ -95,6 +101,7 @@ public abstract class StructureProduction {
 
     public void setActive(boolean active) {
         this.active = active;
+        this.modifie = true;
     }
 
     public double getPrixAchat() {
@@ -103,6 +110,7 @@ public abstract class StructureProduction {
 
     public void setPrixAchat(double prixAchat) {
         this.prixAchat = prixAchat;
+        this.modifie = true;
     }
 
     public boolean isEnPause() {
@@ -111,6 +119,7 @@ public abstract class StructureProduction {
 
     public void setEnPause(boolean enPause) {
         this.enPause = enPause;
+        this.modifie = true;
     }
 
     public int getTauxTraitement() {
@@ -119,5 +128,21 @@ public abstract class StructureProduction {
 
     public void setTauxTraitement(int tauxTraitement) {
         this.tauxTraitement = tauxTraitement;
+        this.modifie = true;
+    }
+
+    /**
+     * @return true si la structure a changé depuis son dernier enregistrement en base.
+     */
+    public boolean isModifie() {
+        return modifie;
+    }
+
+    public void marquerModifie() {
+        this.modifie = true;
+    }
+
+    public void marquerEnregistre() {
+        this.modifie = false;
     }
 }
\ No newline at end of file
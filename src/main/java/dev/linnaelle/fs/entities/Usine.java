@@ -1,13 +1,19 @@
 package dev.linnaelle.fs.entities;
 
-import java.util.Map;
-import java.util.HashMap;
 import dev.linnaelle.fs.services.CatalogueService;
-import dev.linnaelle.fs.dao.CatalogueDao;
+import dev.linnaelle.fs.services.EcritureDiffereeService;
 import dev.linnaelle.fs.dao.StockageDao;
+import dev.linnaelle.fs.simulation.AccumulateurProduction;
+import dev.linnaelle.fs.simulation.GrapheProduction;
+import dev.linnaelle.fs.simulation.GrapheProduction.Recette;
 
 public class Usine extends StructureProduction {
 
+    private Recette recette;
+    private String typeRecette;
+    // Graphe d'où vient la recette : un rechargement du catalogue en publie un nouveau
+    private GrapheProduction grapheRecette;
+
     public Usine() {
         super();
     }
@@ -27,48 +33,45 @@ public class Usine extends StructureProduction {
             return false;
         }
 
-        UsineInfo info = CatalogueService.getInstance().getUsineInfo(this.type);
+        Recette recette = getRecette();
         
-        if (info == null) {
+        if (recette == null) {
             return false; 
         }
 
-        Map<String, Integer> intrantsRequis = CatalogueService.getInstance().getUsineIntrants(this.type);
-        for (Map.Entry<String, Integer> intrant : intrantsRequis.entrySet()) {
-            String ressource = intrant.getKey();
-            int quantite = intrant.getValue();
-
-            if (stock.getQuantite(ressource) < quantite) {
+        for (int i = 0; i < recette.getNombreIntrants(); i++) {
+            if (stock.getQuantite(recette.getIntrant(i)) < recette.getQuantite(i)) {
                 pauseAutomatique();
                 return false; 
             }
         }
 
-        String articleProduit = info.getArticleProduit();
-        int quantiteBase = intrantsRequis.values().stream()
-                                        .mapToInt(Integer::intValue)
-                                        .sum();
-        int quantiteProduite = (int) (quantiteBase * info.getMultiplicateur());
+        String articleProduit = recette.getNomProduit();
+        int quantiteProduite = (int) (recette.getQuantiteTotaleIntrants() * recette.getMultiplicateur());
 
-        if (!entrepot.peutStocker(articleProduit) || entrepot.capaciteLibre() < quantiteProduite) {
+        if (!entrepot.peutStocker(recette.getProduit()) || entrepot.capaciteLibre() < quantiteProduite) {
             pauseAutomatique();
             return false;
         }
 
-        for (Map.Entry<String, Integer> intrant : intrantsRequis.entrySet()) {
-            stock.retirer(intrant.getKey(), intrant.getValue());
+        for (int i = 0; i < recette.getNombreIntrants(); i++) {
+            stock.retirer(recette.getIntrant(i), recette.getQuantite(i));
         }
 
-        entrepot.ajouter(articleProduit, quantiteProduite);
+        entrepot.ajouter(recette.getProduit(), quantiteProduite);
         System.out.println("Production de " + quantiteProduite + " " + articleProduit + " dans l'usine " + this.type);
         this.active = true;
         this.enPause = false;
+        this.modifie = true;
         
         return true;
     }
 
     /**
      * Produit un article spécifique selon le type d'usine.
+     * L'entrepôt est celui de la ferme chargée dans la session ouverte, relu en base sinon,
+     * et les deux stocks sont confiés à l'écriture différée après chaque production :
+     * la boucle de simulation utilise {@link #produire(long, Entrepot, AccumulateurProduction)}.
      * @param tempsCourant Le temps courant pour la production.
      * @param reservoir Le réservoir d'eau à utiliser pour la production.
      * @param stock Le stockage où stocker le produit fini.
@@ -81,122 +84,216 @@ public class Usine extends StructureProduction {
         
         StockPrincipal stockPrincipal = (StockPrincipal) stock;
         
-        StockageDao stockageDao = new StockageDao();
-        Entrepot entrepot = stockageDao.findEntrepotByFermeId(this.fermeId);
+        EcritureDiffereeService ecritures = EcritureDiffereeService.getInstance();
+        // Hors session, un entrepôt en attente d'écriture est plus récent que celui de la base
+        Entrepot entrepot = ecritures.enAttente(new StockageDao().findEntrepotByFermeId(this.fermeId));
         
         if (entrepot == null) {
             pauseAutomatique();
             return;
         }
         
-        long intervalleTraitement = 120000L * (100 / Math.max(tauxTraitement, 1));
+        if (estCycleActif(tempsCourant) && traiterCycle(stockPrincipal, entrepot)) {
+            ecritures.marquer(stockPrincipal);
+            ecritures.marquer(entrepot);
+        }
+    }
+
+    /**
+     * Produit à partir des stocks en mémoire de la ferme, sans accès à la base.
+     * Les intrants et le produit fini passent par l'accumulateur du pas en cours.
+     * @param tempsCourant Le temps courant pour la production.
+     * @param entrepot L'entrepôt où stocker le produit fini.
+     * @param production L'accumulateur de production du pas en cours.
+     */
+    public void produire(long tempsCourant, Entrepot entrepot, AccumulateurProduction production) {
+        if (!active || enPause) { return; }
+        
+        if (entrepot == null) {
+            pauseAutomatique();
+            return;
+        }
         
+        if (estCycleActif(tempsCourant)) {
+            traiterCycle(null, entrepot, production);
+        }
+    }
+
+    /**
+     * Durée d'un cycle de traitement, qui dépend du taux de traitement de l'usine.
+     * @return La durée d'un cycle en millisecondes.
+     */
+    public long getIntervalleTraitement() {
+        return 120000L * Math.max(1, 100 / Math.max(tauxTraitement, 1));
+    }
+
+    /**
+     * Vérifie si l'usine traite pendant le cycle qui contient le temps donné.
+     * Une usine ne traite qu'un cycle sur {@code intervalle / 10s}, décalé selon son identifiant.
+     * @param tempsCourant Le temps courant en millisecondes.
+     * @return true si le cycle courant est un cycle de traitement.
+     */
+    public boolean estCycleActif(long tempsCourant) {
+        long intervalleTraitement = getIntervalleTraitement();
         long cycleId = tempsCourant / intervalleTraitement;
-        long offsetUsine = this.getId() % 10;
+        return (cycleId + getDecalageCycle()) % getPeriodeCycles() == 0;
+    }
+
+    /**
+     * Calcule le début du prochain cycle de traitement.
+     * @param tempsCourant Le temps courant en millisecondes.
+     * @return tempsCourant si le cycle courant est actif, sinon le début du prochain cycle actif.
+     */
+    public long prochainCycleActif(long tempsCourant) {
+        if (estCycleActif(tempsCourant)) {
+            return tempsCourant;
+        }
+
+        long intervalleTraitement = getIntervalleTraitement();
+        long periode = getPeriodeCycles();
+        long cycleId = tempsCourant / intervalleTraitement;
+        long attente = Math.floorMod(-(cycleId + getDecalageCycle()), periode);
+        if (attente == 0) {
+            attente = periode;
+        }
+        return (cycleId + attente) * intervalleTraitement;
+    }
+
+    /**
+     * Compte les pas d'une grille de simulation qui tombent dans un cycle de traitement, sans les parcourir.
+     * La durée d'un cycle doit être un multiple du pas.
+     * @param temps Le temps de départ de la grille, en millisecondes.
+     * @param pas Le pas de la grille, en millisecondes.
+     * @param nombre Le nombre de pas considérés : les instants {@code temps + k * pas}, k de 1 à nombre.
+     * @return Le nombre de ces instants pour lesquels {@link #estCycleActif(long)} est vrai.
+     */
+    public long compterPasActifs(long temps, long pas, long nombre) {
+        return pasActifsJusqua(temps, pas, temps + nombre * pas) - pasActifsJusqua(temps, pas, temps);
+    }
+
+    /**
+     * Instants de la grille compris dans un cycle de traitement, depuis le temps 0 jusqu'à {@code limite} incluse.
+     * Chaque période de cycles contient un seul cycle de traitement, toujours au même rang.
+     */
+    private long pasActifsJusqua(long temps, long pas, long limite) {
+        long intervalleTraitement = getIntervalleTraitement();
+        long periode = getPeriodeCycles();
+        long dureePeriode = intervalleTraitement * periode;
+        long periodes = Math.floorDiv(limite, dureePeriode);
+
+        long debut = periodes * dureePeriode + Math.floorMod(-getDecalageCycle(), periode) * intervalleTraitement;
+        long fin = Math.min(limite, debut + intervalleTraitement - 1);
+        long dansPeriode = fin < debut ? 0 : Math.floorDiv(fin - temps, pas) - Math.floorDiv(debut - 1 - temps, pas);
+        return periodes * (intervalleTraitement / pas) + dansPeriode;
+    }
+
+    private long getPeriodeCycles() {
+        return Math.max(1, getIntervalleTraitement() / 10000);
+    }
+
+    private long getDecalageCycle() {
+        return this.getId() % 10;
+    }
+
+    /**
+     * Exécute un cycle de traitement : vérifie les intrants et la place en entrepôt,
+     * puis transforme les intrants. Met l'usine en pause si le cycle est impossible.
+     * @param stockPrincipal Le stock principal où prendre les intrants.
+     * @param entrepot L'entrepôt où stocker le produit fini.
+     * @return true si une production a eu lieu, false sinon.
+     */
+    public boolean traiterCycle(StockPrincipal stockPrincipal, Entrepot entrepot) {
+        return traiterCycle(stockPrincipal, entrepot, null);
+    }
+
+    /**
+     * Cycle de traitement lisant et écrivant les stocks directement si {@code production} est null,
+     * à travers l'accumulateur du pas sinon.
+     */
+    private boolean traiterCycle(StockPrincipal stockPrincipal, Entrepot entrepot, AccumulateurProduction production) {
+        Recette recette = getRecette();
         
-        if ((cycleId + offsetUsine) % Math.max(1, intervalleTraitement / 10000) == 0) {
-            CatalogueDao catalogueDao = new CatalogueDao();
-            UsineInfo info = catalogueDao.getUsineInfo(this.type);
-            
-            if (info == null) {
-                System.err.println("[ERREUR] Informations introuvables pour l'usine: " + this.type);
-                pauseAutomatique();
-                return;
-            }
-            
-            Map<String, Integer> intrantsRequis = parseIntrants(info.getIntrantsRequis());
-            
-            if (intrantsRequis.isEmpty()) {
-                System.err.println("[ERREUR] Aucun intrant défini pour: " + this.type);
-                pauseAutomatique();
-                return;
-            }
-            
-            for (Map.Entry<String, Integer> intrant : intrantsRequis.entrySet()) {
-                String article = intrant.getKey();
-                int quantiteRequise = intrant.getValue();
-                
-                if (stockPrincipal.getQuantite(article) < quantiteRequise) {
-                    System.out.println("[PAUSE] " + this.type + " - Pas assez de " + article + 
-                                    " (requis: " + quantiteRequise + "L, disponible: " + 
-                                    stockPrincipal.getQuantite(article) + "L)");
-                    pauseAutomatique();
-                    return;
-                }
-            }
-            
-            String articleProduit = info.getArticleProduit();
-            int quantiteBase = intrantsRequis.values().stream().findFirst().orElse(0);
-            int quantiteProduite = (int) (quantiteBase * info.getMultiplicateur());
-            
-            if (!entrepot.peutStocker(articleProduit)) {
-                System.err.println("[ERREUR] L'entrepôt ne peut pas stocker: " + articleProduit);
-                pauseAutomatique();
-                return;
-            }
+        if (recette == null) {
+            System.err.println("[ERREUR] Informations introuvables pour l'usine: " + this.type);
+            pauseAutomatique();
+            return false;
+        }
+        
+        if (recette.getNombreIntrants() == 0) {
+            System.err.println("[ERREUR] Aucun intrant défini pour: " + this.type);
+            pauseAutomatique();
+            return false;
+        }
+        
+        for (int i = 0; i < recette.getNombreIntrants(); i++) {
+            int quantiteRequise = recette.getQuantite(i);
+            int disponible = production != null
+                    ? production.getQuantitePrincipal(recette.getIntrant(i))
+                    : stockPrincipal.getQuantite(recette.getIntrant(i));
             
-            if (entrepot.capaciteLibre() < quantiteProduite) {
-                System.out.println("[PAUSE] " + this.type + " - Entrepôt plein (requis: " + 
-                                quantiteProduite + "L, libre: " + entrepot.capaciteLibre() + "L)");
+            if (disponible < quantiteRequise) {
+                System.out.println("[PAUSE] " + this.type + " - Pas assez de " + recette.getNomIntrant(i) + 
+                                " (requis: " + quantiteRequise + "L, disponible: " + 
+                                disponible + "L)");
                 pauseAutomatique();
-                return;
-            }
-            
-            boolean consommationReussie = true;
-            for (Map.Entry<String, Integer> intrant : intrantsRequis.entrySet()) {
-                String article = intrant.getKey();
-                int quantite = intrant.getValue();
-                
-                if (!stockPrincipal.retirer(article, quantite)) {
-                    System.err.println("[ERREUR] Impossible de retirer " + quantite + "L de " + article);
-                    consommationReussie = false;
-                    break;
-                }
+                return false;
             }
+        }
+        
+        String articleProduit = recette.getNomProduit();
+        int quantiteProduite = recette.getQuantiteProduite();
+        
+        if (!entrepot.peutStocker(recette.getProduit())) {
+            System.err.println("[ERREUR] L'entrepôt ne peut pas stocker: " + articleProduit);
+            pauseAutomatique();
+            return false;
+        }
+        
+        int capaciteLibre = production != null ? production.capaciteLibreEntrepot() : entrepot.capaciteLibre();
+        if (capaciteLibre < quantiteProduite) {
+            System.out.println("[PAUSE] " + this.type + " - Entrepôt plein (requis: " + 
+                            quantiteProduite + "L, libre: " + capaciteLibre + "L)");
+            pauseAutomatique();
+            return false;
+        }
+        
+        for (int i = 0; i < recette.getNombreIntrants(); i++) {
+            int quantite = recette.getQuantite(i);
+            boolean retire = production != null
+                    ? production.retirerPrincipal(recette.getIntrant(i), quantite)
+                    : stockPrincipal.retirer(recette.getIntrant(i), quantite);
             
-            if (consommationReussie) {
-                if (entrepot.ajouter(articleProduit, quantiteProduite)) {
-                    System.out.println("[PRODUCTION] " + this.type + " a produit " + 
-                                    quantiteProduite + "L de " + articleProduit);
-                    try {
-                        stockageDao.updateArticles(stockPrincipal.getId(), stockPrincipal.getArticles());
-                        stockageDao.updateArticles(entrepot.getId(), entrepot.getArticles());
-                    } catch (Exception e) {
-                        System.err.println("[ERREUR] Sauvegarde impossible: " + e.getMessage());
-                    }
-                } else {
-                    System.err.println("[ERREUR] Impossible d'ajouter " + quantiteProduite + 
-                                    "L de " + articleProduit + " à l'entrepôt");
-                }
+            if (!retire) {
+                System.err.println("[ERREUR] Impossible de retirer " + quantite + "L de " + recette.getNomIntrant(i));
+                return false;
             }
         }
+        
+        if (production != null) {
+            production.ajouterEntrepot(recette.getProduit(), quantiteProduite);
+        } else if (!entrepot.ajouter(recette.getProduit(), quantiteProduite)) {
+            System.err.println("[ERREUR] Impossible d'ajouter " + quantiteProduite + 
+                            "L de " + articleProduit + " à l'entrepôt");
+            return false;
+        }
+        
+        System.out.println("[PRODUCTION] " + this.type + " a produit " + 
+                        quantiteProduite + "L de " + articleProduit);
+        return true;
     }
 
     /**
-     * Parse les intrants requis pour l'usine à partir d'une chaîne de caractères.
-     * @param intrantsRequis
-     * @return
+     * Recette compilée du type de l'usine, résolue une fois par type et par chargement du catalogue.
+     * @return La recette, ou null si le type est inconnu du catalogue.
      */
-    private Map<String, Integer> parseIntrants(String intrantsRequis) {
-        Map<String, Integer> intrants = new HashMap<>();
-        
-        if (intrantsRequis != null && !intrantsRequis.trim().isEmpty()) {
-            String[] pairs = intrantsRequis.split(",");
-            for (String pair : pairs) {
-                String[] parts = pair.split(":");
-                if (parts.length == 2) {
-                    try {
-                        String article = parts[0].trim();
-                        int quantite = Integer.parseInt(parts[1].trim());
-                        intrants.put(article, quantite);
-                    } catch (NumberFormatException e) {
-                        System.err.println("[ERROR] Format intrants invalide: " + pair);
-                    }
-                }
-            }
+    public Recette getRecette() {
+        GrapheProduction graphe = CatalogueService.getInstance().getGrapheProduction();
+        if (graphe != grapheRecette || typeRecette != type) {
+            recette = graphe.getRecette(type);
+            typeRecette = type;
+            grapheRecette = graphe;
         }
-        
-        return intrants;
+        return recette;
     }
 
     @Override
@@ -3,10 +3,14 @@ package dev.linnaelle.fs.game;
 import dev.linnaelle.fs.dao.*;
 import dev.linnaelle.fs.entities.*;
 import dev.linnaelle.fs.services.*;
+import dev.linnaelle.fs.simulation.MoteurSimulation;
+import dev.linnaelle.fs.simulation.RattrapageSimulation;
 import dev.linnaelle.fs.utils.*;
+import java.util.ArrayList;
 import java.util.Scanner;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 public class GameConsole {
     
@@ -16,19 +20,20 @@ public class GameConsole {
     private EconomieService economie;
     private CatalogueService catalogue;
     private SauvegardeService sauvegarde;
+    private EcritureDiffereeService ecritures;
     private FermeDao fermeDao;
     private ChampDao champDao;
-    private AnimalDao animalDao;
     private JoueurDao joueurDao;
+    private MoteurSimulation moteur;
     
     public GameConsole() {
         this.scanner = new Scanner(System.in);
         this.economie = EconomieService.getInstance();
         this.catalogue = CatalogueService.getInstance();
         this.sauvegarde = SauvegardeService.getInstance();
+        this.ecritures = EcritureDiffereeService.getInstance();
         this.fermeDao = new FermeDao();
         this.champDao = new ChampDao();
-        this.animalDao = new AnimalDao();
         this.joueurDao = new JoueurDao();
         
         // Activer l'affichage en temps réel
@@ -98,12 +103,76 @@ public class GameConsole {
         System.out.println("=== FARM SIMULATOR ===");
         System.out.println();
         
-        if (!selectionnerJoueur()) {
+        // Une session pour toute la partie : services et DAO partagent les instances de la ferme chargée,
+        // et les entités encore modifiées à la fin sont écrites à sa fermeture
+        Session session = Session.ouvrir();
+        try {
+            if (!selectionnerJoueur()) {
+                return;
+            }
+            
+            chargerFerme();
+            demarrerSimulation();
+            boucleJeuPrincipale();
+            arreterSimulation();
+            enregistrerFerme();
+        } finally {
+            session.close();
+        }
+    }
+    
+    private void demarrerSimulation() {
+        if (fermeActuelle == null) {
             return;
         }
         
-        chargerFerme();
-        boucleJeuPrincipale();
+        this.moteur = new MoteurSimulation(fermeActuelle);
+        moteur.demarrer();
+        
+        ecritures.suivre(fermeActuelle, moteur::executer);
+        ecritures.demarrer(ConfigManager.getWriteBehindIntervalSeconds());
+    }
+    
+    private void arreterSimulation() {
+        if (moteur != null) {
+            moteur.arreter();
+            ecritures.arreter();
+            ecritures.oublier(fermeActuelle);
+            moteur = null;
+        }
+    }
+    
+    /**
+     * Enregistre l'état en mémoire de la ferme, dont l'heure de sa dernière simulation,
+     * pour que le prochain chargement rattrape le temps passé hors ligne.
+     */
+    private void enregistrerFerme() {
+        if (fermeActuelle == null || fermeActuelle.getId() == 0) {
+            return;
+        }
+        
+        sauvegarde.sauvegarderFerme(fermeActuelle);
+    }
+    
+    /**
+     * Simule le temps écoulé depuis la dernière session de jeu.
+     */
+    private void rattraperTempsHorsLigne() {
+        long maintenant = Horloge.getInstance().maintenant();
+        
+        if (fermeActuelle.getDerniereSimulation() <= 0) {
+            fermeActuelle.setDerniereSimulation(maintenant);
+            return;
+        }
+        
+        RattrapageSimulation rattrapage = new RattrapageSimulation();
+        long debut = System.nanoTime();
+        long secondes = rattrapage.rattraper(fermeActuelle, maintenant);
+        
+        if (secondes > 0) {
+            System.out.println(String.format("[INFO] %d s hors ligne rattrapées en %.1f ms (%d pas rejoués)",
+                    secondes, (System.nanoTime() - debut) / 1_000_000.0, rattrapage.getPasExacts()));
+        }
     }
     
     private boolean selectionnerJoueur() {
@@ -149,7 +218,7 @@ public class GameConsole {
         this.joueurActuel = new Joueur();
         joueurActuel.setName(nom);
         joueurActuel.setDifficulte(difficulte);
-        joueurActuel.setTempsJeu(System.currentTimeMillis());
+        joueurActuel.setTempsJeu(Horloge.getInstance().maintenant());
         
         boolean savedSuccessfully = joueurDao.save(joueurActuel) != null;
         if (savedSuccessfully) {
@@ -201,6 +270,8 @@ public class GameConsole {
                 if (fermeActuelle.getStructures() == null) {
                     fermeActuelle.setStructures(new java.util.ArrayList<>());
                 }
+                
+                rattraperTempsHorsLigne();
             }
         } else {
             System.out.println("[ERREUR] Aucun joueur actuel pour charger la ferme!");
@@ -310,11 +381,17 @@ public class GameConsole {
         boolean continuer = true;
         
         while (continuer) {
-            afficherStatuts();
+            surFerme(this::afficherStatuts);
             afficherMenuPrincipal();
             
             int choix = lireInt("Choix: ", "Menu principal");
             
+            if (choix == 0) {
+                continuer = false;
+                continue;
+            }
+            
+            // Les menus lisent la console sans tenir la ferme : la simulation continue pendant la saisie
             switch (choix) {
                 case 1:
                     gererChamps();
@@ -332,21 +409,35 @@ public class GameConsole {
                     gererStockage();
                     break;
                 case 6:
-                    sauvegarderPartie();
-                    break;
-                case 0:
-                    continuer = false;
+                    surFerme(this::sauvegarderPartie);
                     break;
                 default:
                     System.out.println("Choix invalide!");
             }
-            
-            simulerTemps();
         }
         
         System.out.println("Merci d'avoir joue!");
     }
     
+    /**
+     * Exécute une action sur la ferme en excluant les pas de simulation.
+     * L'action ne doit jamais lire la console : le verrou ne se tient que le temps de la modification.
+     */
+    private void surFerme(Runnable action) {
+        if (moteur != null) {
+            moteur.executer(action);
+        } else {
+            action.run();
+        }
+    }
+    
+    /**
+     * Lit l'état de la ferme en excluant les pas de simulation, sans lire la console.
+     */
+    private <T> T lireFerme(Supplier<T> lecture) {
+        return moteur != null ? moteur.calculer(lecture) : lecture.get();
+    }
+    
     private void afficherStatuts() {
         System.out.println("\n" + "=".repeat(50));
         System.out.println("Joueur: " + (joueurActuel != null ? joueurActuel.getName() : "AUCUN"));
@@ -374,7 +465,12 @@ public class GameConsole {
         }
         
         if (joueurActuel != null) {
-            System.out.println("Temps de jeu: " + ((System.currentTimeMillis() - joueurActuel.getTempsJeu()) / 1000) + "s");
+            System.out.println("Temps de jeu: " + ((Horloge.getInstance().maintenant() - joueurActuel.getTempsJeu()) / 1000) + "s");
+        }
+        
+        if (moteur != null) {
+            System.out.println(String.format("Simulation: %d ticks (%.2f ms/tick, retard %.0f ms)",
+                    moteur.getTicksExecutes(), moteur.getDureeMoyenneTickMs(), moteur.getRetardMs()));
         }
         System.out.println("=".repeat(50));
     }
@@ -393,20 +489,27 @@ public class GameConsole {
     private void gererChamps() {
         System.out.println("\n=== GESTION DES CHAMPS ===");
         
-        List<Champ> champs = fermeActuelle.getChamps();
-        if (champs == null || champs.isEmpty()) {
+        List<Champ> champs = lireFerme(() -> {
+            List<Champ> liste = fermeActuelle.getChamps();
+            if (liste == null || liste.isEmpty()) {
+                return List.<Champ>of();
+            }
+            
+            System.out.println("Champs disponibles:");
+            for (int i = 0; i < liste.size(); i++) {
+                Champ champ = liste.get(i);
+                System.out.println((i + 1) + ". Champ " + champ.getNumero() + 
+                                 " - État: " + champ.getEtat() + 
+                                 " - Culture: " + (champ.getTypeCulture() != null ? champ.getTypeCulture() : "vide"));
+            }
+            return new ArrayList<>(liste);
+        });
+        
+        if (champs.isEmpty()) {
             System.out.println("Aucun champ disponible. Achetez un champ d'abord!");
             return;
         }
         
-        System.out.println("Champs disponibles:");
-        for (int i = 0; i < champs.size(); i++) {
-            Champ champ = champs.get(i);
-            System.out.println((i + 1) + ". Champ " + champ.getNumero() + 
-                             " - État: " + champ.getEtat() + 
-                             " - Culture: " + (champ.getTypeCulture() != null ? champ.getTypeCulture() : "vide"));
-        }
-        
         System.out.println("\nActions:");
         System.out.println("1. Labourer un champ");
         System.out.println("2. Semer");
@@ -429,26 +532,30 @@ public class GameConsole {
         
         switch (action) {
             case 1:
-                if (champ.labourer(System.currentTimeMillis())) {
-                    System.out.println("Champ labouré!");
-                    champDao.update(champ);
-                } else {
-                    System.out.println("Impossible de labourer ce champ!");
-                }
+                surFerme(() -> {
+                    if (champ.labourer(Horloge.getInstance().maintenant())) {
+                        System.out.println("Champ labouré!");
+                        champDao.update(champ);
+                    } else {
+                        System.out.println("Impossible de labourer ce champ!");
+                    }
+                });
                 break;
             case 2:
                 semer(champ);
                 break;
             case 3:
-                if (champ.fertiliser(System.currentTimeMillis())) {
-                    System.out.println("Champ fertilisé!");
-                    champDao.update(champ);
-                } else {
-                    System.out.println("Impossible de fertiliser ce champ!");
-                }
+                surFerme(() -> {
+                    if (champ.fertiliser(Horloge.getInstance().maintenant())) {
+                        System.out.println("Champ fertilisé!");
+                        champDao.update(champ);
+                    } else {
+                        System.out.println("Impossible de fertiliser ce champ!");
+                    }
+                });
                 break;
             case 4:
-                recolter(champ);
+                surFerme(() -> recolter(champ));
                 break;
         }
     }
@@ -481,12 +588,14 @@ public class GameConsole {
         if (choixCulture >= 0 && choixCulture < typesDesCultures.size()) {
             String nomCulture = typesDesCultures.get(choixCulture);
             
-            if (champ.semer(nomCulture, System.currentTimeMillis())) {
-                System.out.println("Culture " + nomCulture + " semee!");
-                champDao.update(champ);
-            } else {
-                System.out.println("Impossible de semer!");
-            }
+            surFerme(() -> {
+                if (champ.semer(nomCulture, Horloge.getInstance().maintenant())) {
+                    System.out.println("Culture " + nomCulture + " semee!");
+                    champDao.update(champ);
+                } else {
+                    System.out.println("Impossible de semer!");
+                }
+            });
         } else {
             System.out.println("Choix invalide!");
         }
@@ -494,7 +603,7 @@ public class GameConsole {
     
     private void recolter(Champ champ) {
         if (champ.getEtat() == EtatChamp.READY) {
-            int quantite = champ.recolter(System.currentTimeMillis());
+            int quantite = champ.recolter(Horloge.getInstance().maintenant());
             
             if (quantite > 0) {
                 String culture = champ.getTypeCulture();
@@ -515,24 +624,25 @@ public class GameConsole {
     private void gererAnimaux() {
         System.out.println("\n=== GESTION DES ANIMAUX ===");
         
-        List<Champ> champs = fermeActuelle.getChamps();
-        boolean animauxTrouves = false;
-        
-        for (Champ champ : champs) {
-            if (champ.getFermeAnimale() != null && champ.getFermeAnimale().getAnimaux() != null) {
-                FermeAnimale fermeAnimale = champ.getFermeAnimale();
-                System.out.println("Champ " + champ.getNumero() + " - " + fermeAnimale.getTypeAnimal() + ":");
-                
-                for (int i = 0; i < fermeAnimale.getAnimaux().size(); i++) {
-                    Animal animal = fermeAnimale.getAnimaux().get(i);
-                    System.out.println("  " + (i + 1) + ". " + animal.getType() + 
-                                     " - Herbe: " + animal.getStockHerbe() + "L" +
-                                     " - Vivant: " + (animal.isVivant() ? "Oui" : "Non") +
-                                     " - Déficit: " + (animal.isDeficit() ? "Oui" : "Non"));
+        boolean animauxTrouves = lireFerme(() -> {
+            boolean trouves = false;
+            for (Champ champ : fermeActuelle.getChamps()) {
+                if (champ.getFermeAnimale() != null && champ.getFermeAnimale().getAnimaux() != null) {
+                    FermeAnimale fermeAnimale = champ.getFermeAnimale();
+                    System.out.println("Champ " + champ.getNumero() + " - " + fermeAnimale.getTypeAnimal() + ":");
+                    
+                    for (int i = 0; i < fermeAnimale.getAnimaux().size(); i++) {
+                        Animal animal = fermeAnimale.getAnimaux().get(i);
+                        System.out.println("  " + (i + 1) + ". " + animal.getType() + 
+                                         " - Herbe: " + animal.getStockHerbe() + "L" +
+                                         " - Vivant: " + (animal.isVivant() ? "Oui" : "Non") +
+                                         " - Déficit: " + (animal.isDeficit() ? "Oui" : "Non"));
+                    }
+                    trouves = true;
                 }
-                animauxTrouves = true;
             }
-        }
+            return trouves;
+        });
         
         if (!animauxTrouves) {
             System.out.println("Aucun animal trouvé! Achetez des animaux d'abord!");
@@ -552,7 +662,7 @@ public class GameConsole {
                 nourrirAnimaux();
                 break;
             case 2:
-                recolterProduitsAnimaux();
+                surFerme(this::recolterProduitsAnimaux);
                 break;
             case 3:
                 soignerAnimal();
@@ -561,12 +671,19 @@ public class GameConsole {
     }
     
     private void nourrirAnimaux() {
-        int herbeDisponible = fermeActuelle.getStockPrincipal().getQuantite("herbe");
+        int herbeDisponible = lireFerme(() -> fermeActuelle.getStockPrincipal().getQuantite("herbe"));
         
         System.out.println("Herbe disponible en stock: " + herbeDisponible + "L");
-        int quantite = lireInt("Quantité d'herbe à distribuer: ", "Nourrir animaux");
+        int aDistribuer = lireInt("Quantité d'herbe à distribuer: ", "Nourrir animaux");
         
-        if (quantite <= herbeDisponible) {
+        surFerme(() -> {
+            // Le stock a pu changer pendant la saisie
+            if (aDistribuer > fermeActuelle.getStockPrincipal().getQuantite("herbe")) {
+                System.out.println("Pas assez d'herbe en stock!");
+                return;
+            }
+            
+            int quantite = aDistribuer;
             for (Champ champ : fermeActuelle.getChamps()) {
                 if (champ.getFermeAnimale() != null) {
                     for (Animal animal : champ.getFermeAnimale().getAnimaux()) {
@@ -574,17 +691,15 @@ public class GameConsole {
                             int ration = Math.min(quantite, 10 - animal.getStockHerbe());
                             animal.setStockHerbe(animal.getStockHerbe() + ration);
                             quantite -= ration;
-                            animalDao.update(animal);
+                            ecritures.marquer(animal);
                         }
                     }
                 }
             }
             
-            fermeActuelle.getStockPrincipal().retirer("herbe", quantite);
+            fermeActuelle.getStockPrincipal().retirer("herbe", aDistribuer - quantite);
             System.out.println("Animaux nourris!");
-        } else {
-            System.out.println("Pas assez d'herbe en stock!");
-        }
+        });
     }
     
     private void recolterProduitsAnimaux() {
@@ -593,7 +708,7 @@ public class GameConsole {
         for (Champ champ : fermeActuelle.getChamps()) {
             if (champ.getFermeAnimale() != null) {
                 for (Animal animal : champ.getFermeAnimale().getAnimaux()) {
-                    Map<String, Integer> production = animal.mettreAJour(System.currentTimeMillis(), 
+                    Map<String, Integer> production = animal.mettreAJour(Horloge.getInstance().maintenant(), 
                                                                         fermeActuelle.getReservoirEau());
                     
                     for (Map.Entry<String, Integer> produit : production.entrySet()) {
@@ -607,7 +722,7 @@ public class GameConsole {
                         }
                     }
                     
-                    animalDao.update(animal);
+                    ecritures.marquer(animal);
                 }
             }
         }
@@ -620,19 +735,26 @@ public class GameConsole {
     private void gererStructures() {
         System.out.println("\n=== GESTION DES STRUCTURES ===");
         
-        List<StructureProduction> structures = fermeActuelle.getStructures();
-        if (structures == null || structures.isEmpty()) {
+        List<StructureProduction> structures = lireFerme(() -> {
+            List<StructureProduction> liste = fermeActuelle.getStructures();
+            if (liste == null || liste.isEmpty()) {
+                return List.<StructureProduction>of();
+            }
+            
+            for (int i = 0; i < liste.size(); i++) {
+                StructureProduction structure = liste.get(i);
+                System.out.println((i + 1) + ". " + structure.getType() + 
+                                 " - Active: " + (structure.isActive() ? "Oui" : "Non") +
+                                 " - En pause: " + (structure.isEnPause() ? "Oui" : "Non"));
+            }
+            return new ArrayList<>(liste);
+        });
+        
+        if (structures.isEmpty()) {
             System.out.println("Aucune structure disponible!");
             return;
         }
         
-        for (int i = 0; i < structures.size(); i++) {
-            StructureProduction structure = structures.get(i);
-            System.out.println((i + 1) + ". " + structure.getType() + 
-                             " - Active: " + (structure.isActive() ? "Oui" : "Non") +
-                             " - En pause: " + (structure.isEnPause() ? "Oui" : "Non"));
-        }
-        
         System.out.println("\nActions:");
         System.out.println("1. Démarrer/arrêter production");
         System.out.println("2. Voir détails production");
@@ -646,16 +768,18 @@ public class GameConsole {
             if (numStructure >= 0 && numStructure < structures.size()) {
                 StructureProduction structure = structures.get(numStructure);
                 
-                if (structure.isActive()) {
-                    structure.arreter();
-                    System.out.println("Production arrêtée!");
-                } else {
-                    if (structure.demarrer()) {
-                        System.out.println("Production démarrée!");
+                surFerme(() -> {
+                    if (structure.isActive()) {
+                        structure.arreter();
+                        System.out.println("Production arrêtée!");
                     } else {
-                        System.out.println("Impossible de démarrer!");
+                        if (structure.demarrer()) {
+                            System.out.println("Production démarrée!");
+                        } else {
+                            System.out.println("Impossible de démarrer!");
+                        }
                     }
-                }
+                });
             }
         }
     }
@@ -718,13 +842,12 @@ public class GameConsole {
         
         int choix = lireInt("Choix: ", "Type animal");
         
-        String typeAnimal = "";
-        double prix = 0;
+        String typeAnimal;
         
         switch (choix) {
-            case 1: typeAnimal = "vache"; prix = 10; break;
-            case 2: typeAnimal = "mouton"; prix = 5; break;
-            case 3: typeAnimal = "poule"; prix = 1; break;
+            case 1: typeAnimal = "vache"; break;
+            case 2: typeAnimal = "mouton"; break;
+            case 3: typeAnimal = "poule"; break;
             default: 
                 System.out.println("Choix invalide!");
                 return;
@@ -732,21 +855,20 @@ public class GameConsole {
         
         int quantite = lireInt("Quantité: ", "Quantite animaux");
         
-        double coutTotal = prix * quantite;
+        double prixUnitaire = economie.getPrixAchat(typeAnimal, joueurActuel.getDifficulte());
         
-        if (fermeActuelle.getRevenu() >= coutTotal) {
-            fermeActuelle.setRevenu(fermeActuelle.getRevenu() - coutTotal);
-            System.out.println("Acheté " + quantite + " " + typeAnimal + "(s) pour " + coutTotal + " gold!");
-            
-            if (economie.acheterAnimal(fermeActuelle, typeAnimal, quantite, joueurActuel.getDifficulte())) {
-                System.out.println("Animaux achetés avec succès!");
+        surFerme(() -> {
+            // L'achat vérifie les fonds et débite lui-même le revenu, pour les seuls animaux logés
+            int achetes = economie.acheterAnimal(fermeActuelle, typeAnimal, quantite, joueurActuel.getDifficulte());
+            if (achetes == quantite) {
+                System.out.println("Acheté " + quantite + " " + typeAnimal + "(s) pour " + (prixUnitaire * achetes) + " gold!");
+            } else if (achetes > 0) {
+                System.out.println("Pas assez de place: acheté " + achetes + " " + typeAnimal + "(s) sur " + quantite
+                        + " pour " + (prixUnitaire * achetes) + " gold!");
             } else {
-                fermeActuelle.setRevenu(fermeActuelle.getRevenu() + coutTotal);
                 System.out.println("Erreur lors de l'achat des animaux!");
             }
-        } else {
-            System.out.println("Pas assez d'argent! Coût: " + coutTotal + " gold");
-        }
+        });
     }
     
     private void acheterEquipements() {
@@ -782,23 +904,26 @@ public class GameConsole {
         String typeEquipement = typesEquipements.get(choix - 1);
         double prix = economie.getPrixAchat(typeEquipement, joueurActuel.getDifficulte());
         
+        double argent = lireFerme(fermeActuelle::getRevenu);
         System.out.println("Prix: " + prix + " gold");
-        System.out.println("Votre argent: " + fermeActuelle.getRevenu() + " gold");
+        System.out.println("Votre argent: " + argent + " gold");
         
-        if (fermeActuelle.getRevenu() >= prix) {
+        if (argent >= prix) {
             String confirmation = lireInput("Confirmer l'achat? (oui/non): ", "Confirmation achat equipement");
             
             if (confirmation.equalsIgnoreCase("oui") || confirmation.equalsIgnoreCase("o")) {
-                if (economie.acheterEquipement(fermeActuelle, typeEquipement, joueurActuel.getDifficulte())) {
-                    System.out.println("Equipement " + typeEquipement + " achete avec succes!");
-                } else {
-                    System.out.println("Erreur lors de l'achat de l'equipement!");
-                }
+                surFerme(() -> {
+                    if (economie.acheterEquipement(fermeActuelle, typeEquipement, joueurActuel.getDifficulte())) {
+                        System.out.println("Equipement " + typeEquipement + " achete avec succes!");
+                    } else {
+                        System.out.println("Erreur lors de l'achat de l'equipement!");
+                    }
+                });
             } else {
                 System.out.println("Achat annule.");
             }
         } else {
-            System.out.println("Pas assez d'argent! Il vous manque " + (prix - fermeActuelle.getRevenu()) + " gold.");
+            System.out.println("Pas assez d'argent! Il vous manque " + (prix - argent) + " gold.");
         }
     }
 
@@ -849,23 +974,26 @@ public class GameConsole {
             }
         }
         
-        System.out.println("Votre argent: " + fermeActuelle.getRevenu() + " gold");
+        double argent = lireFerme(fermeActuelle::getRevenu);
+        System.out.println("Votre argent: " + argent + " gold");
         
-        if (fermeActuelle.getRevenu() >= prix) {
+        if (argent >= prix) {
             String confirmation = lireInput("Confirmer l'achat? (oui/non): ", "Confirmation achat structure");
             
             if (confirmation.equalsIgnoreCase("oui") || confirmation.equalsIgnoreCase("o")) {
-                if (economie.acheterStructure(fermeActuelle, typeStructure, joueurActuel.getDifficulte())) {
-                    System.out.println("Structure " + typeStructure + " achetee avec succes!");
-                    System.out.println("Elle sera ajoutee a votre ferme.");
-                } else {
-                    System.out.println("Erreur lors de l'achat de la structure!");
-                }
+                surFerme(() -> {
+                    if (economie.acheterStructure(fermeActuelle, typeStructure, joueurActuel.getDifficulte())) {
+                        System.out.println("Structure " + typeStructure + " achetee avec succes!");
+                        System.out.println("Elle sera ajoutee a votre ferme.");
+                    } else {
+                        System.out.println("Erreur lors de l'achat de la structure!");
+                    }
+                });
             } else {
                 System.out.println("Achat annule.");
             }
         } else {
-            System.out.println("Pas assez d'argent! Il vous manque " + (prix - fermeActuelle.getRevenu()) + " gold.");
+            System.out.println("Pas assez d'argent! Il vous manque " + (prix - argent) + " gold.");
         }
     }
     
@@ -880,55 +1008,61 @@ public class GameConsole {
             }
         }
         
-        System.out.println("Prix d'un nouveau champ: 1000 gold");
-        System.out.println("Votre argent actuel: " + fermeActuelle.getRevenu() + " gold");
-        
-        if (fermeActuelle.getRevenu() >= 1000) {
-            Champ nouveauChamp = new Champ();
+        surFerme(() -> {
+            System.out.println("Prix d'un nouveau champ: 1000 gold");
+            System.out.println("Votre argent actuel: " + fermeActuelle.getRevenu() + " gold");
             
-            if (fermeActuelle.getChamps() == null) {
-                fermeActuelle.setChamps(new java.util.ArrayList<>());
-            }
+            if (fermeActuelle.getRevenu() >= 1000) {
+                Champ nouveauChamp = new Champ();
             
-            nouveauChamp.setNumero(fermeActuelle.getChamps().size() + 1);
-            nouveauChamp.setEtat(EtatChamp.STANDBY);
-            nouveauChamp.setFermeId(fermeActuelle.getId());
+                if (fermeActuelle.getChamps() == null) {
+                    fermeActuelle.setChamps(new java.util.ArrayList<>());
+                }
             
-            if (champDao.save(nouveauChamp) != null) {
-                fermeActuelle.getChamps().add(nouveauChamp);
-                fermeActuelle.setRevenu(fermeActuelle.getRevenu() - 1000);
-                fermeDao.update(fermeActuelle);
-                System.out.println("Nouveau champ acheté!");
+                nouveauChamp.setNumero(fermeActuelle.getChamps().size() + 1);
+                nouveauChamp.setEtat(EtatChamp.STANDBY);
+                nouveauChamp.setFermeId(fermeActuelle.getId());
+            
+                if (champDao.save(nouveauChamp) != null) {
+                    fermeActuelle.getChamps().add(nouveauChamp);
+                    fermeActuelle.setRevenu(fermeActuelle.getRevenu() - 1000);
+                    fermeDao.update(fermeActuelle);
+                    System.out.println("Nouveau champ acheté!");
+                } else {
+                    System.out.println("Erreur lors de l'achat du champ!");
+                }
             } else {
-                System.out.println("Erreur lors de l'achat du champ!");
+                System.out.println("Pas assez d'argent! Il vous faut 1000 gold.");
             }
-        } else {
-            System.out.println("Pas assez d'argent! Il vous faut 1000 gold.");
-        }
+        });
     }
     
     private void menuVendre() {
         System.out.println("\n=== VENTE ===");
         
-        Map<String, Integer> articles = fermeActuelle.getStockPrincipal().getArticles();
+        Map<String, Integer> articles = lireFerme(() -> {
+            Map<String, Integer> stock = fermeActuelle.getStockPrincipal().getArticles();
+            if (!stock.isEmpty()) {
+                System.out.println("Articles disponibles:");
+                int i = 0;
+                for (Map.Entry<String, Integer> article : stock.entrySet()) {
+                    double prixVente = economie.getPrixVente(article.getKey(), joueurActuel.getDifficulte());
+                    
+                    System.out.println((++i) + ". " + article.getKey() + " - " + article.getValue() + "L - " + 
+                                     prixVente + " gold/L");
+                }
+                System.out.println("Valeur totale du stock: " +
+                                 economie.evaluerStock(fermeActuelle.getStockPrincipal(), joueurActuel.getDifficulte()) + " gold");
+            }
+            return stock;
+        });
         
         if (articles.isEmpty()) {
             System.out.println("Aucun article en stock à vendre!");
             return;
         }
         
-        System.out.println("Articles disponibles:");
         String[] nomsArticles = articles.keySet().toArray(new String[0]);
-        
-        for (int i = 0; i < nomsArticles.length; i++) {
-            String article = nomsArticles[i];
-            int quantite = articles.get(article);
-            double prixVente = economie.getPrixVente(article, joueurActuel.getDifficulte());
-            
-            System.out.println((i + 1) + ". " + article + " - " + quantite + "L - " + 
-                             prixVente + " gold/L");
-        }
-        
         int choix = lireInt("Article à vendre: ", "Selection article") - 1;
         
         if (choix >= 0 && choix < nomsArticles.length) {
@@ -938,7 +1072,7 @@ public class GameConsole {
             int quantite = lireInt("Quantité à vendre (max " + stockDisponible + "): ", "Quantite vente");
             
             if (quantite > 0 && quantite <= stockDisponible) {
-                double revenu = economie.vendreArticle(fermeActuelle, article, quantite, joueurActuel.getDifficulte());
+                double revenu = lireFerme(() -> economie.vendreArticle(fermeActuelle, article, quantite, joueurActuel.getDifficulte()));
                 System.out.println("Vendu " + quantite + "L de " + article + " pour " + revenu + " gold!");
             } else {
                 System.out.println("Quantité invalide!");
@@ -949,31 +1083,33 @@ public class GameConsole {
     private void gererStockage() {
         System.out.println("\n=== STOCKAGE ===");
         
-        System.out.println("Stock Principal:");
-        System.out.println("  Capacité: " + fermeActuelle.getStockPrincipal().getCapaciteMax() + "L");
-        System.out.println("  Libre: " + fermeActuelle.getStockPrincipal().capaciteLibre() + "L");
-        
-        Map<String, Integer> articles = fermeActuelle.getStockPrincipal().getArticles();
-        if (!articles.isEmpty()) {
-            System.out.println("  Contenu:");
-            for (Map.Entry<String, Integer> entry : articles.entrySet()) {
-                System.out.println("    - " + entry.getKey() + ": " + entry.getValue() + "L");
-            }
-        }
-        
-        if (fermeActuelle.getEntrepot() != null) {
-            System.out.println("\nEntrepôt:");
-            System.out.println("  Capacité: " + fermeActuelle.getEntrepot().getCapaciteMax() + "L");
-            System.out.println("  Libre: " + fermeActuelle.getEntrepot().capaciteLibre() + "L");
+        surFerme(() -> {
+            System.out.println("Stock Principal:");
+            System.out.println("  Capacité: " + fermeActuelle.getStockPrincipal().getCapaciteMax() + "L");
+            System.out.println("  Libre: " + fermeActuelle.getStockPrincipal().capaciteLibre() + "L");
             
-            Map<String, Integer> articlesEntrepot = fermeActuelle.getEntrepot().getArticles();
-            if (!articlesEntrepot.isEmpty()) {
+            Map<String, Integer> articles = fermeActuelle.getStockPrincipal().getArticles();
+            if (!articles.isEmpty()) {
                 System.out.println("  Contenu:");
-                for (Map.Entry<String, Integer> entry : articlesEntrepot.entrySet()) {
+                for (Map.Entry<String, Integer> entry : articles.entrySet()) {
                     System.out.println("    - " + entry.getKey() + ": " + entry.getValue() + "L");
                 }
             }
-        }
+            
+            if (fermeActuelle.getEntrepot() != null) {
+                System.out.println("\nEntrepôt:");
+                System.out.println("  Capacité: " + fermeActuelle.getEntrepot().getCapaciteMax() + "L");
+                System.out.println("  Libre: " + fermeActuelle.getEntrepot().capaciteLibre() + "L");
+                
+                Map<String, Integer> articlesEntrepot = fermeActuelle.getEntrepot().getArticles();
+                if (!articlesEntrepot.isEmpty()) {
+                    System.out.println("  Contenu:");
+                    for (Map.Entry<String, Integer> entry : articlesEntrepot.entrySet()) {
+                        System.out.println("    - " + entry.getKey() + ": " + entry.getValue() + "L");
+                    }
+                }
+            }
+        });
         
         System.out.println("\nActions:");
         System.out.println("1. Transférer entre stockages");
@@ -1012,7 +1148,7 @@ public class GameConsole {
             return;
         }
         
-        Map<String, Integer> articlesSource = source.getArticles();
+        Map<String, Integer> articlesSource = lireFerme(source::getArticles);
         if (articlesSource.isEmpty()) {
             System.out.println("Aucun article à transférer!");
             return;
@@ -1036,15 +1172,17 @@ public class GameConsole {
             int quantite = lireInt("Quantité à transférer (max " + quantiteDisponible + "): ", "Quantite transfert");
             
             if (quantite > 0 && quantite <= quantiteDisponible) {
-                if (destination.peutStocker(article) && destination.capaciteLibre() >= quantite) {
-                    if (source.retirer(article, quantite) && destination.ajouter(article, quantite)) {
-                        System.out.println("Transfert réussi: " + quantite + "L de " + article);
+                surFerme(() -> {
+                    if (destination.peutStocker(article) && destination.capaciteLibre() >= quantite) {
+                        if (source.retirer(article, quantite) && destination.ajouter(article, quantite)) {
+                            System.out.println("Transfert réussi: " + quantite + "L de " + article);
+                        } else {
+                            System.out.println("Erreur lors du transfert!");
+                        }
                     } else {
-                        System.out.println("Erreur lors du transfert!");
+                        System.out.println("Impossible de stocker dans la destination!");
                     }
-                } else {
-                    System.out.println("Impossible de stocker dans la destination!");
-                }
+                });
             } else {
                 System.out.println("Quantité invalide!");
             }
@@ -1072,7 +1210,7 @@ public class GameConsole {
         String confirmation = lireInput("Êtes-vous sûr de vouloir vider ce stockage ? (oui/non): ", "Confirmation vidage");
         
         if (confirmation.toLowerCase().equals("oui") || confirmation.toLowerCase().equals("o")) {
-            stockage.getArticles().clear();
+            surFerme(stockage::vider);
             System.out.println("Stockage vidé!");
         } else {
             System.out.println("Opération annulée.");
@@ -1088,46 +1226,6 @@ public class GameConsole {
         }
     }
     
-    private void simulerTemps() {
-        long tempsCourant = System.currentTimeMillis();
-        
-        for (Champ champ : fermeActuelle.getChamps()) {
-            if (champ.getFermeAnimale() != null && champ.getFermeAnimale().getAnimaux() != null) {
-                for (Animal animal : champ.getFermeAnimale().getAnimaux()) {
-                    Map<String, Integer> production = animal.mettreAJour(tempsCourant, fermeActuelle.getReservoirEau());
-                    
-                    for (Map.Entry<String, Integer> produit : production.entrySet()) {
-                        String article = produit.getKey();
-                        int quantite = produit.getValue();
-                        
-                        if (!fermeActuelle.getStockPrincipal().ajouter(article, quantite)) {
-                            if (fermeActuelle.getEntrepot().peutStocker(article)) {
-                                fermeActuelle.getEntrepot().ajouter(article, quantite);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        
-        if (fermeActuelle.getReservoirEau() != null) {
-            fermeActuelle.getReservoirEau().remplir(tempsCourant);
-        }
-        
-        if (fermeActuelle.getStructures() != null) {
-            for (StructureProduction structure : fermeActuelle.getStructures()) {
-                if (structure.isActive() && !structure.isEnPause()) {
-                    try {
-                        structure.produire(tempsCourant, fermeActuelle.getReservoirEau(), 
-                                         fermeActuelle.getStockPrincipal());
-                    } catch (Exception e) {
-                        System.err.println("Erreur lors de la production de " + structure.getType() + ": " + e.getMessage());
-                    }
-                }
-            }
-        }
-    }
-    
     public void recupererSauvegarde() {
         System.out.println("=== RÉCUPÉRATION DE SAUVEGARDE ===");
         
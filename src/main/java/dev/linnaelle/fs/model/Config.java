@@ -23,14 +23,77 @@ public class Config {
     public static class DatabaseConfig {
         private String path;
         private boolean memoryMode;
+        private PerformanceConfig performance;
 
         public DatabaseConfig() {
             this.path = "./data/db.sqlite";
             this.memoryMode = false;
+            this.performance = new PerformanceConfig();
         }
 
         public String getPath() { return path; }
         public boolean isMemoryMode() { return memoryMode; }
+        public PerformanceConfig getPerformance() { return performance != null ? performance : new PerformanceConfig(); }
+    }
+
+    /**
+     * Réglages SQLite appliqués à chaque connexion du pool.
+     * Par défaut : journal WAL, où les lecteurs ne bloquent pas l'unique écrivain, et synchronisation NORMAL,
+     * sûre en WAL (une coupure peut perdre les dernières transactions, jamais corrompre la base).
+     */
+    public static class PerformanceConfig {
+        private String journalMode;
+        private String synchronous;
+        private int mmapSizeMb;
+        private int cacheSizeKb;
+        private String tempStore;
+        private int busyTimeoutMs;
+        private boolean foreignKeys;
+        // Connexions de lecture en plus de la connexion d'écriture, 0 pour un nombre adapté à la machine
+        private int readerConnections;
+        // Nombre maximal d'écritures en file regroupées dans une même transaction
+        private int writeBatchSize;
+
+        public PerformanceConfig() {
+            this.journalMode = "WAL";
+            this.synchronous = "NORMAL";
+            this.mmapSizeMb = 256;
+            this.cacheSizeKb = 16384;
+            this.tempStore = "MEMORY";
+            this.busyTimeoutMs = 5000;
+            this.foreignKeys = false;
+            this.readerConnections = 0;
+            this.writeBatchSize = 256;
+        }
+
+        public String getJournalMode() { return journalMode; }
+        public String getSynchronous() { return synchronous; }
+        public int getMmapSizeMb() { return mmapSizeMb; }
+        public int getCacheSizeKb() { return cacheSizeKb; }
+        public String getTempStore() { return tempStore; }
+        public int getBusyTimeoutMs() { return busyTimeoutMs; }
+        public boolean isForeignKeys() { return foreignKeys; }
+        public int getReaderConnections() { return readerConnections; }
+        public int getWriteBatchSize() { return writeBatchSize > 0 ? writeBatchSize : 256; }
+
+        /**
+         * Taille du pool de lecture. Au moins deux lecteurs, car certains DAO ouvrent une connexion
+         * pendant qu'ils en tiennent une autre.
+         */
+        public int getReaderPoolSize() {
+            int lecteurs = readerConnections > 0
+                    ? readerConnections
+                    : Math.min(4, Runtime.getRuntime().availableProcessors());
+            return Math.max(2, lecteurs);
+        }
+
+        /**
+         * Nombre total de connexions : les lecteurs plus l'unique connexion d'écriture.
+         * SQLite n'admet qu'un écrivain à la fois, d'autres connexions d'écriture ne feraient qu'attendre son verrou.
+         */
+        public int getPoolSize() {
+            return getReaderPoolSize() + 1;
+        }
     }
 
     public static class GameConfig {
@@ -44,6 +107,11 @@ public class Config {
         private double volume;
         private boolean autoSave;
         private int autoSaveIntervalMinutes;
+        private int simulationTickRate;
+        private int simulationMaxCatchUpTicks;
+        private int simulationParallelism;
+        private double simulationTimeScale;
+        private int writeBehindIntervalSeconds;
 
         public GameConfig() {
             this.fullscreen = false;
@@ -56,11 +124,21 @@ public class Config {
             this.volume = 0.7;
             this.autoSave = true;
             this.autoSaveIntervalMinutes = 5;
+            this.simulationTickRate = 1;
+            this.simulationMaxCatchUpTicks = 300;
+            this.simulationParallelism = 0;
+            this.simulationTimeScale = 1.0;
+            this.writeBehindIntervalSeconds = 10;
         }
 
         public int getWindowWidth() { return windowWidth; }
         public int getWindowHeight() { return windowHeight; }
         public int getAutoSaveIntervalMinutes() { return autoSaveIntervalMinutes; }
+        public int getSimulationTickRate() { return simulationTickRate; }
+        public int getSimulationMaxCatchUpTicks() { return simulationMaxCatchUpTicks; }
+        public int getSimulationParallelism() { return simulationParallelism; }
+        public double getSimulationTimeScale() { return simulationTimeScale; }
+        public int getWriteBehindIntervalSeconds() { return writeBehindIntervalSeconds; }
         public double getVolume() { return volume; }
         public boolean isAutoSave() { return autoSave; }
         public boolean isFullscreen() { return fullscreen; }
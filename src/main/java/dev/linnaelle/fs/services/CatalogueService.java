@@ -2,40 +2,240 @@ package dev.linnaelle.fs.services;
 
 import dev.linnaelle.fs.dao.CatalogueDao;
 import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.simulation.GrapheProduction;
+import dev.linnaelle.fs.simulation.GrapheProduction.Recette;
+import dev.linnaelle.fs.simulation.ProfilAnimal;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
+/**
+ * Catalogue du jeu, lu en base une fois puis servi depuis un instantané immuable.
+ * Un instantané contient tout le catalogue : un type absent de l'instantané est inconnu, sans relire la base.
+ * Un rechargement construit un nouvel instantané et le publie d'un coup ; les lectures, sans verrou,
+ * voient toujours un catalogue complet, l'ancien ou le nouveau.
+ * Chaque article, culture, animal, usine et équipement reçoit un identifiant entier dense : la simulation
+ * et les stockages travaillent sur ces identifiants, les noms ne servant qu'aux DAO et à l'affichage.
+ * Les objets achetables (animaux, équipements, cultures et usines) partagent en plus un même espace
+ * d'identifiants, celui des index de prix.
+ */
 public class CatalogueService {
     
-    private static CatalogueService instance;
+    // Volatile : une fois le catalogue créé, getInstance() se lit sans verrou
+    private static volatile CatalogueService instance;
     
-    private Map<String, CultureInfo> cultureCache;
-    private Map<String, AnimalInfo> animalCache;
-    private Map<String, UsineInfo> usineCache;
-    private Map<String, EquipementInfo> equipementCache;
-    private Map<String, ArticleInfo> articleCache;
+    /**
+     * Identifiants denses d'une sorte d'entrée du catalogue, attribués dans l'ordre du catalogue au chargement
+     * puis à la demande pour un nom inconnu. Un identifiant n'est jamais réattribué, même après un rechargement.
+     */
+    private static final class Symboles {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final List<String> noms = new CopyOnWriteArrayList<>();
+        
+        private int getId(String nom) {
+            Integer id = ids.get(nom);
+            return id != null ? id : -1;
+        }
+        
+        private synchronized int interner(String nom) {
+            Integer id = ids.get(nom);
+            if (id == null) {
+                id = noms.size();
+                noms.add(nom);
+                ids.put(nom, id);
+            }
+            return id;
+        }
+        
+        private String getNom(int id) {
+            return id >= 0 && id < noms.size() ? noms.get(id) : null;
+        }
+        
+        private int getTaille() {
+            return noms.size();
+        }
+        
+        /**
+         * Identifiant d'un type sans distinction de casse : un nom inconnu est interné en minuscules.
+         */
+        private int getIdSansCasse(String nom) {
+            if (nom == null) {
+                return -1;
+            }
+            int id = getId(nom);
+            return id >= 0 ? id : interner(nom.toLowerCase());
+        }
+    }
+    
+    /**
+     * Version immuable du catalogue. Les informations ne doivent pas être modifiées par leurs lecteurs.
+     */
+    private static final class Instantane {
+        private final int version;
+        private final Map<String, CultureInfo> cultures;
+        private final Map<String, AnimalInfo> animaux;
+        private final Map<String, UsineInfo> usines;
+        private final Map<String, EquipementInfo> equipements;
+        private final Map<String, ArticleInfo> articles;
+        // Noms dans l'ordre du catalogue, pour les menus
+        private final List<String> typesCultures;
+        private final List<String> typesAnimaux;
+        private final List<String> typesUsines;
+        private final List<String> typesEquipements;
+        private final List<ArticleInfo> listeArticles;
+        // Informations indexées par identifiant, null pour un identifiant attribué à un nom inconnu
+        private final CultureInfo[] culturesParId;
+        private final AnimalInfo[] animauxParId;
+        private final UsineInfo[] usinesParId;
+        private final EquipementInfo[] equipementsParId;
+        private final ArticleInfo[] articlesParId;
+        // Compilés au chargement : la simulation n'analyse aucune chaîne du catalogue
+        private final ProfilAnimal[] profilsParId;
+        private final GrapheProduction grapheProduction;
+        
+        private Instantane(int version, List<CultureInfo> cultures, List<AnimalInfo> animaux, List<UsineInfo> usines,
+                           List<EquipementInfo> equipements, List<ArticleInfo> articles, CatalogueService catalogue) {
+            this.version = version;
+            this.cultures = indexer(cultures, CultureInfo::getNom);
+            this.animaux = indexer(animaux, AnimalInfo::getNom);
+            this.usines = indexer(usines, UsineInfo::getNom);
+            this.equipements = indexer(equipements, EquipementInfo::getNom);
+            this.articles = indexer(articles, ArticleInfo::getNom);
+            this.typesCultures = noms(cultures, CultureInfo::getNom);
+            this.typesAnimaux = noms(animaux, AnimalInfo::getNom);
+            this.typesUsines = noms(usines, UsineInfo::getNom);
+            this.typesEquipements = noms(equipements, EquipementInfo::getNom);
+            this.listeArticles = List.copyOf(articles);
+            this.culturesParId = parId(this.cultures, catalogue.cultureIds, CultureInfo[]::new);
+            this.animauxParId = parId(this.animaux, catalogue.animalIds, AnimalInfo[]::new);
+            this.usinesParId = parId(this.usines, catalogue.usineIds, UsineInfo[]::new);
+            this.equipementsParId = parId(this.equipements, catalogue.equipementIds, EquipementInfo[]::new);
+            this.articlesParId = parIdExact(articles, catalogue.articleIds);
+            this.profilsParId = new ProfilAnimal[animauxParId.length];
+            for (int id = 0; id < animauxParId.length; id++) {
+                if (animauxParId[id] != null) {
+                    profilsParId[id] = new ProfilAnimal(animauxParId[id], catalogue);
+                }
+            }
+            this.grapheProduction = new GrapheProduction(usines, catalogue);
+        }
+        
+        private boolean isVide() {
+            return cultures.isEmpty() && animaux.isEmpty() && usines.isEmpty() && equipements.isEmpty() && articles.isEmpty();
+        }
+        
+        private static <T> Map<String, T> indexer(List<T> infos, Function<T, String> nom) {
+            Map<String, T> index = new HashMap<>();
+            for (T info : infos) {
+                index.put(nom.apply(info).toLowerCase(), info);
+            }
+            return Collections.unmodifiableMap(index);
+        }
+        
+        private static <T> T[] parId(Map<String, T> index, Symboles symboles, IntFunction<T[]> tableau) {
+            T[] parId = tableau.apply(symboles.getTaille());
+            for (Map.Entry<String, T> entree : index.entrySet()) {
+                int id = symboles.getId(entree.getKey());
+                if (id >= 0 && id < parId.length) {
+                    parId[id] = entree.getValue();
+                }
+            }
+            return parId;
+        }
+        
+        private static ArticleInfo[] parIdExact(List<ArticleInfo> articles, Symboles symboles) {
+            ArticleInfo[] parId = new ArticleInfo[symboles.getTaille()];
+            for (ArticleInfo article : articles) {
+                int id = symboles.getId(article.getNom());
+                if (id >= 0 && id < parId.length) {
+                    parId[id] = article;
+                }
+            }
+            return parId;
+        }
+        
+        private static <T> List<String> noms(List<T> infos, Function<T, String> nom) {
+            List<String> noms = new ArrayList<>(infos.size());
+            for (T info : infos) {
+                noms.add(nom.apply(info));
+            }
+            return Collections.unmodifiableList(noms);
+        }
+    }
+    
+    private volatile Instantane instantane;
+    
+    private final Symboles articleIds;
+    private final Symboles cultureIds;
+    private final Symboles animalIds;
+    private final Symboles usineIds;
+    private final Symboles equipementIds;
+    private final Symboles itemIds;
     
     private CatalogueDao catalogueDao;
     
     private CatalogueService() {
         this.catalogueDao = new CatalogueDao();
-        this.cultureCache = new HashMap<>();
-        this.animalCache = new HashMap<>();
-        this.usineCache = new HashMap<>();
-        this.equipementCache = new HashMap<>();
-        this.articleCache = new HashMap<>();
+        this.articleIds = new Symboles();
+        this.cultureIds = new Symboles();
+        this.animalIds = new Symboles();
+        this.usineIds = new Symboles();
+        this.equipementIds = new Symboles();
+        this.itemIds = new Symboles();
+        this.instantane = new Instantane(0, List.of(), List.of(), List.of(), List.of(), List.of(), this);
         
         loadCache();
     }
     
     public static CatalogueService getInstance() {
-        if (instance == null) {
-            instance = new CatalogueService();
+        CatalogueService courant = instance;
+        if (courant == null) {
+            synchronized (CatalogueService.class) {
+                courant = instance;
+                if (courant == null) {
+                    courant = new CatalogueService();
+                    instance = courant;
+                }
+            }
+        }
+        return courant;
+    }
+    
+    /**
+     * Recharge le catalogue s'il a déjà été chargé, après une mise à jour des tables du catalogue.
+     */
+    static synchronized void invalider() {
+        if (instance != null) {
+            instance.reloadCache();
+        }
+    }
+    
+    /**
+     * Instantané courant. Tant que le catalogue est vide (base pas encore remplie ou lecture échouée),
+     * chaque appel retente le chargement : un instantané vide ne fait pas foi.
+     */
+    private Instantane instantane() {
+        Instantane courant = instantane;
+        if (courant.isVide()) {
+            loadCache();
+            courant = instantane;
+        }
+        return courant;
+    }
+    
+    private static <T> T chercher(Map<String, T> index, String nom) {
+        if (nom == null || nom.isBlank()) {
+            return null;
         }
-        return instance;
+        T info = index.get(nom);
+        return info != null ? info : index.get(nom.toLowerCase());
     }
     
     /**
@@ -44,12 +244,7 @@ public class CatalogueService {
      * @return Les informations sur la culture, ou null si non trouvées
      */
     public CultureInfo getCultureInfo(String type) {
-        if (type == null || type.trim().isEmpty()) {
-            return null;
-        }
-        
-        return cultureCache.computeIfAbsent(type.toLowerCase(), 
-            key -> catalogueDao.getCultureInfo(key));
+        return chercher(instantane().cultures, type);
     }
     
     /**
@@ -58,12 +253,7 @@ public class CatalogueService {
      * @return Les informations sur l'animal, ou null si non trouvées
      */
     public AnimalInfo getAnimalInfo(String type) {
-        if (type == null || type.trim().isEmpty()) {
-            return null;
-        }
-        
-        return animalCache.computeIfAbsent(type.toLowerCase(), 
-            key -> catalogueDao.getAnimalInfo(key));
+        return chercher(instantane().animaux, type);
     }
     
     /**
@@ -72,12 +262,7 @@ public class CatalogueService {
      * @return Les informations sur l'usine, ou null si non trouvées
      */
     public UsineInfo getUsineInfo(String type) {
-        if (type == null || type.trim().isEmpty()) {
-            return null;
-        }
-        
-        return usineCache.computeIfAbsent(type.toLowerCase(), 
-            key -> catalogueDao.getUsineInfo(key));
+        return chercher(instantane().usines, type);
     }
     
     /**
@@ -86,12 +271,7 @@ public class CatalogueService {
      * @return Les informations sur l'équipement, ou null si non trouvées
      */
     public EquipementInfo getEquipementInfo(String type) {
-        if (type == null || type.trim().isEmpty()) {
-            return null;
-        }
-        
-        return equipementCache.computeIfAbsent(type.toLowerCase(), 
-            key -> catalogueDao.getEquipementInfo(key));
+        return chercher(instantane().equipements, type);
     }
     
     /**
@@ -100,32 +280,198 @@ public class CatalogueService {
      * @return Les informations sur l'article, ou null si non trouvées
      */
     public ArticleInfo getArticleInfo(String nom) {
-        if (nom == null || nom.trim().isEmpty()) {
-            return null;
+        return chercher(instantane().articles, nom);
+    }
+    
+    /**
+     * Version du catalogue, incrémentée à chaque chargement publié.
+     */
+    public int getVersion() {
+        return instantane.version;
+    }
+    
+    /**
+     * Identifiant entier d'un article, attribué dans l'ordre du catalogue au chargement.
+     * Un article absent du catalogue reçoit l'identifiant suivant. Les identifiants ne changent jamais.
+     * @param nom Le nom exact de l'article.
+     * @return L'identifiant de l'article, ou -1 pour un nom null.
+     */
+    public int getArticleId(String nom) {
+        if (nom == null) {
+            return -1;
         }
-        
-        return articleCache.computeIfAbsent(nom.toLowerCase(), 
-            key -> catalogueDao.getArticleInfo(key));
+        int id = articleIds.getId(nom);
+        return id >= 0 ? id : articleIds.interner(nom);
+    }
+    
+    /**
+     * Nom d'un article à partir de son identifiant.
+     * @param id L'identifiant de l'article.
+     * @return Le nom de l'article, ou null si l'identifiant n'a pas été attribué.
+     */
+    public String getArticleNom(int id) {
+        return articleIds.getNom(id);
+    }
+    
+    /**
+     * Nombre d'identifiants d'articles attribués.
+     */
+    public int getNombreArticles() {
+        return articleIds.getTaille();
+    }
+    
+    /**
+     * Identifiant entier d'un type de culture, sans distinction de casse. Comme pour les articles,
+     * un type inconnu reçoit l'identifiant suivant : {@link #getCultureInfo(int)} le dit inconnu.
+     * @param type Le type de culture.
+     * @return L'identifiant du type, ou -1 pour un type null.
+     */
+    public int getCultureId(String type) {
+        return cultureIds.getIdSansCasse(type);
+    }
+    
+    /**
+     * Identifiant entier d'un type d'animal, sans distinction de casse.
+     * @param type Le type d'animal.
+     * @return L'identifiant du type, ou -1 pour un type null.
+     */
+    public int getAnimalId(String type) {
+        return animalIds.getIdSansCasse(type);
+    }
+    
+    /**
+     * Identifiant entier d'un type d'usine, sans distinction de casse.
+     * @param type Le type d'usine.
+     * @return L'identifiant du type, ou -1 pour un type null.
+     */
+    public int getUsineId(String type) {
+        return usineIds.getIdSansCasse(type);
+    }
+    
+    /**
+     * Identifiant entier d'un type d'équipement, sans distinction de casse.
+     * @param type Le type d'équipement.
+     * @return L'identifiant du type, ou -1 pour un type null.
+     */
+    public int getEquipementId(String type) {
+        return equipementIds.getIdSansCasse(type);
+    }
+    
+    /**
+     * Identifiant entier d'un objet achetable, sans distinction de casse.
+     * Contrairement aux autres identifiants, un nom inconnu n'en reçoit pas : un objet s'achète au catalogue.
+     * @param nom Le nom de l'animal, de l'équipement, de la culture ou de l'usine.
+     * @return L'identifiant de l'objet, ou -1 s'il n'a jamais figuré au catalogue.
+     */
+    public int getItemId(String nom) {
+        if (nom == null) {
+            return -1;
+        }
+        int id = itemIds.getId(nom);
+        return id >= 0 ? id : itemIds.getId(nom.toLowerCase());
+    }
+    
+    /**
+     * @return Le nom d'un objet achetable à partir de son identifiant, en minuscules, ou null s'il n'a pas été attribué.
+     */
+    public String getItemNom(int id) {
+        return itemIds.getNom(id);
+    }
+    
+    /**
+     * Nombre d'identifiants d'objets achetables attribués.
+     */
+    public int getNombreItems() {
+        return itemIds.getTaille();
+    }
+    
+    /**
+     * @return Le nom d'un type d'animal à partir de son identifiant, ou null si l'identifiant n'a pas été attribué.
+     */
+    public String getAnimalNom(int id) {
+        return animalIds.getNom(id);
+    }
+    
+    /**
+     * @return Les informations sur une culture par son identifiant, ou null pour un nom inconnu du catalogue.
+     */
+    public CultureInfo getCultureInfo(int id) {
+        return parId(instantane().culturesParId, id);
+    }
+    
+    /**
+     * @return Les informations sur un animal par son identifiant, ou null pour un nom inconnu du catalogue.
+     */
+    public AnimalInfo getAnimalInfo(int id) {
+        return parId(instantane().animauxParId, id);
+    }
+    
+    /**
+     * @return Les informations sur une usine par son identifiant, ou null pour un nom inconnu du catalogue.
+     */
+    public UsineInfo getUsineInfo(int id) {
+        return parId(instantane().usinesParId, id);
+    }
+    
+    /**
+     * @return Les informations sur un équipement par son identifiant, ou null pour un nom inconnu du catalogue.
+     */
+    public EquipementInfo getEquipementInfo(int id) {
+        return parId(instantane().equipementsParId, id);
+    }
+    
+    /**
+     * @return Les informations sur un article par son identifiant, ou null pour un nom inconnu du catalogue.
+     */
+    public ArticleInfo getArticleInfo(int id) {
+        return parId(instantane().articlesParId, id);
+    }
+    
+    private static <T> T parId(T[] infos, int id) {
+        return id >= 0 && id < infos.length ? infos[id] : null;
+    }
+    
+    /**
+     * Besoins et production d'un type d'animal, compilés au chargement du catalogue.
+     * @param id L'identifiant du type d'animal.
+     * @return Le profil, ou null si le type est inconnu du catalogue.
+     */
+    public ProfilAnimal getProfilAnimal(int id) {
+        return parId(instantane().profilsParId, id);
+    }
+    
+    /**
+     * Recettes des usines du catalogue, compilées au chargement.
+     * @return Le graphe de production, recompilé à chaque rechargement du catalogue.
+     */
+    public GrapheProduction getGrapheProduction() {
+        return instantane().grapheProduction;
     }
     
     public List<String> getAllCultureTypes() {
-        return catalogueDao.getAllCultureTypes();
+        return instantane().typesCultures;
     }
     
     public List<String> getAllAnimalTypes() {
-        return catalogueDao.getAllAnimalTypes();
+        return instantane().typesAnimaux;
     }
     
     public List<String> getAllUsineTypes() {
-        return catalogueDao.getAllUsineTypes();
+        return instantane().typesUsines;
     }
     
     public List<String> getAllEquipementTypes() {
-        return catalogueDao.getAllEquipementTypes();
+        return instantane().typesEquipements;
     }
     
     public List<String> getArticlesByCategorie(String categorie) {
-        return catalogueDao.getArticlesByCategorie(categorie);
+        List<String> articles = new ArrayList<>();
+        for (ArticleInfo article : instantane().listeArticles) {
+            if (article.getCategorie() != null && article.getCategorie().equals(categorie)) {
+                articles.add(article.getNom());
+            }
+        }
+        return articles;
     }
     
     public boolean isCultureValid(String type) {
@@ -171,26 +517,11 @@ public class CatalogueService {
     /**
      * Récupérer les intrants requis pour une usine
      * @param typeUsine Le type d'usine
-     * @return Un map des articles et quantités requis, ou une map vide si aucun intrant n'est requis
+     * @return Un map non modifiable des articles et quantités requis, ou une map vide si aucun intrant n'est requis
      */
     public Map<String, Integer> getUsineIntrants(String typeUsine) {
-        UsineInfo info = getUsineInfo(typeUsine);
-        if (info != null && info.getIntrantsRequis() != null) {
-            Map<String, Integer> intrants = new HashMap<>();
-            String[] pairs = info.getIntrantsRequis().split(",");
-            for (String pair : pairs) {
-                String[] parts = pair.split(":");
-                if (parts.length == 2) {
-                    try {
-                        intrants.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
-                    } catch (NumberFormatException e) {
-                        System.err.println("[ERROR] Format invalide pour les intrants: " + pair);
-                    }
-                }
-            }
-            return intrants;
-        }
-        return new HashMap<>();
+        Recette recette = getGrapheProduction().getRecette(typeUsine);
+        return recette != null ? recette.getIntrants() : Map.of();
     }
     
     /**
@@ -243,39 +574,57 @@ public class CatalogueService {
         return info != null ? info.getArticlesProduits() : new ArrayList<>();
     }
     
-    private void loadCache() {
+    /**
+     * Lit tout le catalogue puis publie le nouvel instantané. Une lecture échouée garde l'instantané courant.
+     */
+    private synchronized void loadCache() {
         try {
             List<CultureInfo> cultures = catalogueDao.getAllCultures();
+            List<AnimalInfo> animaux = catalogueDao.getAllAnimaux();
+            List<UsineInfo> usines = catalogueDao.getAllUsines();
+            List<EquipementInfo> equipements = catalogueDao.getAllEquipements();
+            List<ArticleInfo> articles = catalogueDao.getAllArticles();
             for (CultureInfo culture : cultures) {
-                cultureCache.put(culture.getNom().toLowerCase(), culture);
+                cultureIds.interner(culture.getNom().toLowerCase());
             }
-            
-            List<AnimalInfo> animaux = catalogueDao.getAllAnimaux();
             for (AnimalInfo animal : animaux) {
-                animalCache.put(animal.getNom().toLowerCase(), animal);
+                animalIds.interner(animal.getNom().toLowerCase());
             }
-            
-            List<UsineInfo> usines = catalogueDao.getAllUsines();
             for (UsineInfo usine : usines) {
-                usineCache.put(usine.getNom().toLowerCase(), usine);
+                usineIds.interner(usine.getNom().toLowerCase());
             }
-            
-            List<EquipementInfo> equipements = catalogueDao.getAllEquipements();
             for (EquipementInfo equipement : equipements) {
-                equipementCache.put(equipement.getNom().toLowerCase(), equipement);
+                equipementIds.interner(equipement.getNom().toLowerCase());
             }
-            
-            List<ArticleInfo> articles = catalogueDao.getAllArticles();
             for (ArticleInfo article : articles) {
-                articleCache.put(article.getNom().toLowerCase(), article);
+                articleIds.interner(article.getNom());
+            }
+            // Un nom présent dans plusieurs tables n'est qu'un seul objet achetable
+            for (AnimalInfo animal : animaux) {
+                itemIds.interner(animal.getNom().toLowerCase());
+            }
+            for (EquipementInfo equipement : equipements) {
+                itemIds.interner(equipement.getNom().toLowerCase());
             }
+            for (CultureInfo culture : cultures) {
+                itemIds.interner(culture.getNom().toLowerCase());
+            }
+            for (UsineInfo usine : usines) {
+                itemIds.interner(usine.getNom().toLowerCase());
+            }
+            
+            Instantane charge = new Instantane(instantane.version + 1, cultures, animaux, usines, equipements, articles, this);
+            if (charge.isVide()) {
+                return;
+            }
+            instantane = charge;
             
             System.out.println("[INFO] Catalogue chargé avec succès (" + 
-                cultureCache.size() + " cultures, " +
-                animalCache.size() + " animaux, " +
-                usineCache.size() + " usines, " +
-                equipementCache.size() + " équipements, " +
-                articleCache.size() + " articles)");
+                charge.cultures.size() + " cultures, " +
+                charge.animaux.size() + " animaux, " +
+                charge.usines.size() + " usines, " +
+                charge.equipements.size() + " équipements, " +
+                charge.articles.size() + " articles)");
                 
         } catch (Exception e) {
             System.err.println("[ERROR] Erreur lors du chargement du catalogue: " + e.getMessage());
@@ -283,24 +632,24 @@ public class CatalogueService {
     }
     
     public void reloadCache() {
-        clearCache();
         loadCache();
     }
     
-    public void clearCache() {
-        cultureCache.clear();
-        animalCache.clear();
-        usineCache.clear();
-        equipementCache.clear();
-        articleCache.clear();
+    /**
+     * Publie un catalogue vide : le prochain accès relit la base.
+     */
+    public synchronized void clearCache() {
+        instantane = new Instantane(instantane.version + 1, List.of(), List.of(), List.of(), List.of(), List.of(), this);
     }
     
     public void printCacheStats() {
+        Instantane courant = instantane;
         System.out.println("=== STATISTIQUES DU CATALOGUE ===");
-        System.out.println("Cultures en cache: " + cultureCache.size());
-        System.out.println("Animaux en cache: " + animalCache.size());
-        System.out.println("Usines en cache: " + usineCache.size());
-        System.out.println("Équipements en cache: " + equipementCache.size());
-        System.out.println("Articles en cache: " + articleCache.size());
+        System.out.println("Version: " + courant.version);
+        System.out.println("Cultures en cache: " + courant.cultures.size());
+        System.out.println("Animaux en cache: " + courant.animaux.size());
+        System.out.println("Usines en cache: " + courant.usines.size());
+        System.out.println("Équipements en cache: " + courant.equipements.size());
+        System.out.println("Articles en cache: " + courant.articles.size());
     }
 }
\ No newline at end of file
@@ -1,35 +1,21 @@
 package dev.linnaelle.fs.services;
 
 import dev.linnaelle.fs.utils.DatabaseManager;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import java.sql.SQLException;
+import java.util.HexFormat;
 
 public class DataInitializer {
-    /**
-     * Initialise les données de la base de données en insérant des informations
-     */
-    public static void initializeData() {
-        try (Connection conn = DatabaseManager.get();
-             Statement stmt = conn.createStatement()) {
-
-            insertCultureData(stmt);
-            insertAnimalData(stmt);
-            insertUsineData(stmt);
-            insertEquipementData(stmt);
-            insertArticleData(stmt);
-            insertDifficulteData(stmt);
 
-            System.out.println("Initialisation du catalogue terminée avec succès.");
-
-        } catch (SQLException e) {
-            System.err.println("Erreur lors de l'initialisation du catalogue: " + e.getMessage());
-            throw new RuntimeException("Échec de l'initialisation du catalogue", e);
-        }
-    }
+    private static final String CLE_EMPREINTE = "empreinte_catalogue";
 
-    private static void insertCultureData(Statement stmt) throws SQLException {
-        String insertCultureData = """
+    private static final String INSERT_CULTURE_DATA = """
             INSERT OR IGNORE INTO CultureInfo (nom, prix_achat, prix_vente, rendement, need_labour, article_produit, equipements) VALUES
             ('grains_ble', 0.5, 0.25, 1000, 1, 'ble', 'tracteur,semeuse,moissonneuse'),
             ('grains_orge', 0.5, 0.25, 1000, 1, 'orge', 'tracteur,semeuse,moissonneuse'),
@@ -52,23 +38,17 @@ public class DataInitializer {
             ('graines_pois', 1.5, 0.75, 7500, 1, 'pois', 'tracteur,semeuse,moissonneuse_pois'),
             ('graines_haricots_verts', 1.5, 0.75, 7500, 1, 'haricots_verts', 'tracteur,semeuse,moissonneuse_haricots');
             """;
-        stmt.execute(insertCultureData);
-        System.out.println("Données CultureInfo insérées.");
-    }
 
-    private static void insertAnimalData(Statement stmt) throws SQLException {
-        String insertAnimalData = """
-            INSERT OR IGNORE INTO AnimalInfo (nom, prix_achat, prix_vente, conso_eau, conso_herbe, stock_herbe, articles_produits) VALUES
-            ('vache', 10.0, 5.0, 3, 3, 10, 'lait,fumier'),
-            ('mouton', 5.0, 2.5, 2, 2, 10, 'laine,fumier'),
-            ('poule', 1.0, 0.5, 1, 1, 10, 'oeufs');
+    // Les quantités produites par seconde sont réécrites sur les bases remplies avant qu'elles n'y figurent
+    private static final String INSERT_ANIMAL_DATA = """
+            INSERT INTO AnimalInfo (nom, prix_achat, prix_vente, conso_eau, conso_herbe, stock_herbe, articles_produits) VALUES
+            ('vache', 10.0, 5.0, 3, 3, 10, 'lait:20,fumier:5'),
+            ('mouton', 5.0, 2.5, 2, 2, 10, 'laine:5,fumier:5'),
+            ('poule', 1.0, 0.5, 1, 1, 10, 'oeufs:1')
+            ON CONFLICT(nom) DO UPDATE SET articles_produits = excluded.articles_produits;
             """;
-        stmt.execute(insertAnimalData);
-        System.out.println("Données AnimalInfo insérées.");
-    }
 
-    private static void insertUsineData(Statement stmt) throws SQLException {
-        String insertUsineData = """
+    private static final String INSERT_USINE_DATA = """
             INSERT OR IGNORE INTO UsineInfo (nom, prix_achat, prix_vente, intrants_requis, multiplicateur, article_produit) VALUES
             ('moulin_a_huile', 25000.0, 20000.0, 'tournesol:100,olive:100,canola:100', 2.0, 'huile'),
             ('scierie', 30000.0, 24000.0, 'peuplier:100', 2.0, 'planches'),
@@ -86,12 +66,8 @@ public class DataInitializer {
             ('chocolaterie', 70000.0, 56000.0, 'cacao:100,sucre:100,lait:100', 2.0, 'chocolat'),
             ('serre', 40000.0, 32000.0, 'eau:15', 1.0, 'fraises');
             """;
-        stmt.execute(insertUsineData);
-        System.out.println("Données UsineInfo insérées.");
-    }
 
-    private static void insertEquipementData(Statement stmt) throws SQLException {
-        String insertEquipementData = """
+    private static final String INSERT_EQUIPEMENT_DATA = """
             INSERT OR IGNORE INTO EquipementInfo (nom, prix_achat, prix_vente, type) VALUES
             ('tracteur', 50000.0, 25000.0, 'tracteur'),
             ('remorque', 15000.0, 7500.0, 'remorque'),
@@ -116,12 +92,8 @@ public class DataInitializer {
             ('planteuse_legumes', 20000.0, 10000.0, 'planteuse_legumes'),
             ('semi_remorque', 40000.0, 20000.0, 'semi_remorque');
             """;
-        stmt.execute(insertEquipementData);
-        System.out.println("Données EquipementInfo insérées.");
-    }
 
-    private static void insertArticleData(Statement stmt) throws SQLException {
-        String insertArticleData = """
+    private static final String INSERT_ARTICLE_DATA = """
             INSERT OR IGNORE INTO ArticleInfo (nom, categorie, prix_vente) VALUES
             ('ble', 'cereale', 1.0),
             ('orge', 'cereale', 1.0),
@@ -164,19 +136,95 @@ public class DataInitializer {
             ('pois', 'legume', 3.0),
             ('haricots_verts', 'legume', 3.0);
             """;
-        stmt.execute(insertArticleData);
-        System.out.println("Données ArticleInfo insérées.");
-    }
 
-    private static void insertDifficulteData(Statement stmt) throws SQLException {
-        String insertDifficultesData = """
+    private static final String INSERT_DIFFICULTES_DATA = """
             INSERT OR IGNORE INTO Difficulte (nom, goldDepart, multiplicateurAchat, multiplicateurVente) VALUES
             ('facile', 200000, 0.75, 1.25),
             ('normal', 150000, 1.0, 1.0),
             ('difficile', 100000, 1.25, 0.75),
             ('expert', 75000, 1.5, 0.5);
             """;
-        stmt.execute(insertDifficultesData);
-        System.out.println("Données Difficultes insérées.");
+
+    // Table remplie et insertion, dans l'ordre d'insertion
+    private static final String[][] CATALOGUE = {
+        { "CultureInfo", INSERT_CULTURE_DATA },
+        { "AnimalInfo", INSERT_ANIMAL_DATA },
+        { "UsineInfo", INSERT_USINE_DATA },
+        { "EquipementInfo", INSERT_EQUIPEMENT_DATA },
+        { "ArticleInfo", INSERT_ARTICLE_DATA },
+        { "Difficultes", INSERT_DIFFICULTES_DATA }
+    };
+
+    /**
+     * Initialise les données de la base de données en insérant des informations.
+     * Une base dont l'empreinte du catalogue correspond à celui du jeu est déjà remplie :
+     * l'insertion est alors ignorée, au prix d'une seule lecture.
+     * @return true si le catalogue a été inséré, false si la base était déjà à jour.
+     */
+    public static boolean initializeData() {
+        long debut = System.nanoTime();
+        String empreinte = calculerEmpreinte();
+        try {
+            boolean insere = DatabaseManager.ecrire(conn -> {
+                if (empreinte.equals(lireEmpreinte(conn))) {
+                    return false;
+                }
+                try (Statement stmt = conn.createStatement()) {
+                    for (String[] donnees : CATALOGUE) {
+                        stmt.execute(donnees[1]);
+                        System.out.println("Données " + donnees[0] + " insérées.");
+                    }
+                }
+                enregistrerEmpreinte(conn, empreinte);
+                return true;
+            });
+
+            double dureeMs = (System.nanoTime() - debut) / 1_000_000.0;
+            if (insere) {
+                // Un catalogue déjà chargé décrit l'ancienne version des tables
+                CatalogueService.invalider();
+                System.out.println(String.format("Initialisation du catalogue terminée avec succès en %.1f ms.", dureeMs));
+            } else {
+                System.out.println(String.format("Catalogue déjà à jour, initialisation ignorée en %.1f ms.", dureeMs));
+            }
+            return insere;
+
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'initialisation du catalogue: " + e.getMessage());
+            throw new RuntimeException("Échec de l'initialisation du catalogue", e);
+        }
+    }
+
+    /**
+     * Empreinte SHA-256 des insertions du catalogue : elle change dès qu'une donnée du catalogue change.
+     */
+    static String calculerEmpreinte() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String[] donnees : CATALOGUE) {
+                digest.update(donnees[1].getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static String lireEmpreinte(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT valeur FROM Parametre WHERE cle = ?")) {
+            stmt.setString(1, CLE_EMPREINTE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void enregistrerEmpreinte(Connection conn, String empreinte) throws SQLException {
+        String sql = "INSERT INTO Parametre (cle, valeur) VALUES (?, ?) ON CONFLICT(cle) DO UPDATE SET valeur = excluded.valeur";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, CLE_EMPREINTE);
+            stmt.setString(2, empreinte);
+            stmt.executeUpdate();
+        }
     }
 }
\ No newline at end of file
@@ -2,6 +2,13 @@ package dev.linnaelle.fs.services;
 
 import dev.linnaelle.fs.dao.*;
 import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.utils.Horloge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class EconomieService {
     
@@ -13,7 +20,8 @@ public class EconomieService {
     private AnimalDao animalDao;
     private EquipementDao equipementDao;
     private StructureProductionDao structureDao;
-    private StockageDao stockageDao;
+    // Un index par nom de difficulté, reconstruit quand le catalogue ou les multiplicateurs changent
+    private final Map<String, IndexPrix> indexPrix = new ConcurrentHashMap<>();
     
     private EconomieService() {
         this.catalogueService = CatalogueService.getInstance();
@@ -22,7 +30,6 @@ public class EconomieService {
         this.animalDao = new AnimalDao();
         this.equipementDao = new EquipementDao();
         this.structureDao = new StructureProductionDao();
-        this.stockageDao = new StockageDao();
     }
     
     public static EconomieService getInstance() {
@@ -32,6 +39,22 @@ public class EconomieService {
         return instance;
     }
     
+    /**
+     * Index des prix d'une difficulté, construit au premier besoin puis reconstruit
+     * après un rechargement du catalogue ou un changement des multiplicateurs.
+     * @param difficulte La difficulté actuelle
+     * @return L'index des prix, à jour
+     */
+    public IndexPrix getIndexPrix(Difficulte difficulte) {
+        int version = catalogueService.getVersion();
+        IndexPrix index = indexPrix.get(difficulte.getNom());
+        if (index == null || !index.correspond(version, difficulte)) {
+            index = new IndexPrix(catalogueService, difficulte);
+            indexPrix.put(difficulte.getNom(), index);
+        }
+        return index;
+    }
+    
     /**
      * Obtient le prix de vente d'un article selon la difficulté
      * @param article L'article à vendre
@@ -39,14 +62,12 @@ public class EconomieService {
      * @return Le prix de vente de l'article
      */
     public double getPrixVente(String article, Difficulte difficulte) {
-        ArticleInfo info = catalogueService.getArticleInfo(article);
-        if (info == null) {
+        double prix = getIndexPrix(difficulte).getPrixVente(catalogueService.getArticleId(article));
+        if (Double.isNaN(prix)) {
             System.err.println("[ERROR] Article introuvable: " + article);
             return 0.0;
         }
-        
-        double prixBase = info.getPrixVente();
-        return prixBase * difficulte.getMultiplicateurVente();
+        return prix;
     }
     
     /**
@@ -56,28 +77,43 @@ public class EconomieService {
      * @return Le prix d'achat de l'item
      */
     public double getPrixAchat(String item, Difficulte difficulte) {
-        AnimalInfo animalInfo = catalogueService.getAnimalInfo(item);
-        if (animalInfo != null) {
-            return animalInfo.getPrixAchat() * difficulte.getMultiplicateurAchat();
-        }
-        
-        EquipementInfo equipInfo = catalogueService.getEquipementInfo(item);
-        if (equipInfo != null) {
-            return equipInfo.getPrixAchat() * difficulte.getMultiplicateurAchat();
-        }
-        
-        CultureInfo cultureInfo = catalogueService.getCultureInfo(item);
-        if (cultureInfo != null) {
-            return cultureInfo.getPrixAchat() * difficulte.getMultiplicateurAchat();
+        double prix = getIndexPrix(difficulte).getPrixAchat(catalogueService.getItemId(item));
+        if (Double.isNaN(prix)) {
+            System.err.println("[ERROR] Item introuvable pour l'achat: " + item);
+            return 0.0;
         }
-        
-        UsineInfo usineInfo = catalogueService.getUsineInfo(item);
-        if (usineInfo != null) {
-            return usineInfo.getPrixAchat() * difficulte.getMultiplicateurAchat();
+        return prix;
+    }
+    
+    /**
+     * Obtient le prix total d'une liste d'achats selon la difficulté
+     * @param achats Les items à acheter et leur quantité
+     * @param difficulte La difficulté actuelle
+     * @return Le prix total, sans les items introuvables
+     */
+    public double getPrixAchat(Map<String, Integer> achats, Difficulte difficulte) {
+        int[] items = new int[achats.size()];
+        int[] quantites = new int[achats.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> achat : achats.entrySet()) {
+            items[i] = catalogueService.getItemId(achat.getKey());
+            if (items[i] < 0) {
+                System.err.println("[ERROR] Item introuvable pour l'achat: " + achat.getKey());
+                continue;
+            }
+            quantites[i++] = achat.getValue();
         }
-        
-        System.err.println("[ERROR] Item introuvable pour l'achat: " + item);
-        return 0.0;
+        return getIndexPrix(difficulte).getPrixAchat(Arrays.copyOf(items, i), Arrays.copyOf(quantites, i));
+    }
+    
+    /**
+     * Estime la valeur de vente de tout le contenu d'un stockage selon la difficulté
+     * @param stockage Le stockage à estimer
+     * @param difficulte La difficulté actuelle
+     * @return La valeur de vente du stock
+     */
+    public double evaluerStock(Stockage stockage, Difficulte difficulte) {
+        return getIndexPrix(difficulte).evaluer(stockage);
     }
     
     /**
@@ -115,67 +151,78 @@ public class EconomieService {
     }
     
     /**
-     * Achète un animal pour la ferme
+     * Achète des animaux pour la ferme et les loge dans les enclos de leur type ayant de la place.
+     * Le placement se fait en un seul passage sur les champs ; les animaux sont insérés et le revenu débité
+     * en une transaction, puis les animaux rejoignent les troupeaux en mémoire.
+     * Faute de place pour toute la commande, seuls les animaux logés sont achetés et payés.
      * @param ferme La ferme où acheter l'animal
      * @param type Le type d'animal à acheter
      * @param quantite La quantité d'animaux à acheter
      * @param difficulte La difficulté actuelle
-     * @return true si l'achat a réussi, false sinon
+     * @return Le nombre d'animaux achetés et débités, 0 si aucun
      */
-    public boolean acheterAnimal(Ferme ferme, String type, int quantite, Difficulte difficulte) {
-        if (!catalogueService.isAnimalValid(type)) {
+    public int acheterAnimal(Ferme ferme, String type, int quantite, Difficulte difficulte) {
+        AnimalInfo info = catalogueService.getAnimalInfo(type);
+        if (info == null) {
             System.err.println("[ERROR] Type d'animal invalide: " + type);
-            return false;
+            return 0;
         }
         
-        double prixUnitaire = getPrixAchat(type, difficulte);
-        double prixTotal = prixUnitaire * quantite;
-        
-        if (ferme.getRevenu() >= prixTotal) {
-            int animauxAchetes = 0;
+        // Chaque enclos du type reçoit autant d'animaux que sa capacité libre le permet
+        int typeId = catalogueService.getAnimalId(type);
+        List<FermeAnimale> enclos = new ArrayList<>();
+        List<Animal> achetes = new ArrayList<>(Math.max(quantite, 0));
+        for (Champ champ : ferme.getChamps()) {
+            if (achetes.size() >= quantite) {
+                break;
+            }
+            FermeAnimale troupeau = champ.getFermeAnimale();
+            if (troupeau == null || troupeau.getTypeAnimalId() != typeId) {
+                continue;
+            }
             
-            for (int i = 0; i < quantite; i++) {
-                boolean place = false;
-                for (Champ champ : ferme.getChamps()) {
-                    if (champ.getFermeAnimale() != null && 
-                        champ.getFermeAnimale().getTypeAnimal().equals(type) &&
-                        champ.getFermeAnimale().getAnimaux().size() < champ.getFermeAnimale().getCapaciteMax()) {
-                        
-                        Animal animal = new Animal();
-                        animal.setType(type);
-                        animal.setVivant(true);
-                        animal.setDeficit(false);
-                        
-                        AnimalInfo info = catalogueService.getAnimalInfo(type);
-                        animal.setStockHerbe(info.getStockHerbe());
-                        
-                        if (animalDao.save(animal) != null) {
-                            animauxAchetes++;
-                            place = true;
-                            break;
-                        }
-                    }
-                }
-                
-                if (!place) {
-                    System.err.println("[ERROR] Pas de place pour loger l'animal " + type);
-                    break;
+            int places = Math.min(quantite - achetes.size(), troupeau.getCapaciteMax() - troupeau.getNombreAnimaux());
+            if (places > 0) {
+                enclos.add(troupeau);
+                for (int i = 0; i < places; i++) {
+                    achetes.add(new Animal(troupeau.getId(), troupeau.getTypeAnimal(), info.getStockHerbe()));
                 }
             }
-            
-            if (animauxAchetes > 0) {
-                double prixReel = prixUnitaire * animauxAchetes;
-                ferme.setRevenu(ferme.getRevenu() - prixReel);
-                fermeDao.update(ferme);
-                
-                System.out.println("[INFO] " + animauxAchetes + " " + type + "(s) acheté(s) pour " + prixReel + "€");
-                return animauxAchetes == quantite;
+        }
+        
+        if (achetes.size() < quantite) {
+            System.err.println("[ERROR] Pas de place pour loger " + (quantite - achetes.size()) + " " + type + "(s)");
+        }
+        if (achetes.isEmpty()) {
+            return 0;
+        }
+        
+        // Seuls les animaux logés sont payés : c'est leur prix qui doit être couvert
+        double prixUnitaire = getPrixAchat(type, difficulte);
+        double prixReel = prixUnitaire * achetes.size();
+        double revenu = ferme.getRevenu();
+        if (revenu < prixReel) {
+            System.err.println("[ERROR] Fonds insuffisants pour acheter " + achetes.size() + " " + type + "(s) (prix: " + prixReel + "€, disponible: " + revenu + "€)");
+            return 0;
+        }
+        
+        ferme.setRevenu(revenu - prixReel);
+        if (!fermeDao.saveAnimaux(ferme, achetes)) {
+            ferme.setRevenu(revenu);
+            return 0;
+        }
+        
+        // Les animaux ont été créés enclos par enclos : chacun se remplit à nouveau jusqu'à sa capacité
+        int suivant = 0;
+        for (FermeAnimale troupeau : enclos) {
+            int places = Math.min(achetes.size() - suivant, troupeau.getCapaciteMax() - troupeau.getNombreAnimaux());
+            for (int i = 0; i < places; i++) {
+                troupeau.addAnimal(achetes.get(suivant++));
             }
-        } else {
-            System.err.println("[ERROR] Fonds insuffisants pour acheter " + quantite + " " + type + "(s) (prix: " + prixTotal + "€, disponible: " + ferme.getRevenu() + "€)");
         }
         
-        return false;
+        System.out.println("[INFO] " + achetes.size() + " " + type + "(s) acheté(s) pour " + prixReel + "€");
+        return achetes.size();
     }
     
     /**
@@ -243,6 +290,7 @@ public class EconomieService {
             champ.setTempsAction(0);
             
             if (champDao.save(champ) != null) {
+                ferme.getChamps().add(champ);
                 ferme.setRevenu(ferme.getRevenu() - prixChamp);
                 fermeDao.update(ferme);
                 
@@ -273,11 +321,11 @@ public class EconomieService {
         double prix = getPrixAchat(typeCulture, difficulte);
         
         if (ferme.getRevenu() >= prix) {
-            Champ champ = champDao.findById(champId);
+            Champ champ = trouverChamp(ferme, champId);
             if (champ != null && champ.getEtat() == EtatChamp.LABOURE) {
                 champ.setTypeCulture(typeCulture);
                 champ.setEtat(EtatChamp.SEME);
-                champ.setTempsAction(System.currentTimeMillis());
+                champ.setTempsAction(Horloge.getInstance().maintenant());
                 
                 if (champDao.update(champ)) {
                     ferme.setRevenu(ferme.getRevenu() - prix);
@@ -296,6 +344,22 @@ public class EconomieService {
         return false;
     }
     
+    /**
+     * Champ de la ferme en mémoire, celui que fait pousser la simulation : le relire en base
+     * donnerait une copie dont les changements seraient perdus.
+     * @param ferme La ferme du champ
+     * @param champId L'ID du champ
+     * @return Le champ, cherché par le DAO s'il manque à la ferme, ou null
+     */
+    private Champ trouverChamp(Ferme ferme, int champId) {
+        for (Champ champ : ferme.getChamps()) {
+            if (champ.getId() == champId) {
+                return champ;
+            }
+        }
+        return champDao.findById(champId);
+    }
+    
     /**
      * Vendre un article de la ferme
      * @param ferme La ferme où vendre l'article
@@ -312,7 +376,7 @@ public class EconomieService {
             if (ferme.getStockPrincipal().retirer(article, quantite)) {
                 ferme.setRevenu(ferme.getRevenu() + gain);
                 fermeDao.update(ferme);
-                stockageDao.updateArticles(ferme.getStockPrincipal().getId(), ferme.getStockPrincipal().getArticles());
+                EcritureDiffereeService.getInstance().marquer(ferme.getStockPrincipal());
                 
                 System.out.println("[INFO] Vendu " + quantite + " " + article + " pour " + gain + "€");
                 return gain;
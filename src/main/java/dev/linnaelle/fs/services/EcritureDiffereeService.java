@@ -0,0 +1,483 @@
+package dev.linnaelle.fs.services;
+
+import dev.linnaelle.fs.dao.*;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Écriture différée des stockages, réservoirs, champs, animaux et structures.
+ * Les entités se marquent modifiées quand elles changent ; le service écrit toutes les entités modifiées
+ * à intervalle régulier et à l'arrêt, par l'écrivain de la base qui les valide ensemble. Le volume d'écriture dépend ainsi
+ * de la fréquence des vidages et non de celle des événements : dix ventes entre deux vidages
+ * ne réécrivent le stock qu'une fois.
+ *
+ * Les fermes suivies sont parcourues à chaque vidage ; les entités qui n'appartiennent à aucune ferme suivie
+ * sont signalées avec {@link #marquer(Stockage)} et ses variantes. Tant que le service n'est pas démarré,
+ * ces signalements sont écrits immédiatement, comme avant.
+ *
+ * Un vidage n'attend une ferme que {@value #DELAI_ACCES_MILLIS} ms : une ferme encore occupée est écrite
+ * au vidage suivant, et le vidage de l'arrêt de la JVM ne peut pas bloquer l'arrêt.
+ */
+public class EcritureDiffereeService {
+
+    private static final long DELAI_ACCES_MILLIS = 2_000;
+
+    private static EcritureDiffereeService instance;
+
+    private final StockageDao stockageDao;
+    private final ReservoirEauDao reservoirDao;
+    private final ChampDao champDao;
+    private final AnimalDao animalDao;
+    private final StructureProductionDao structureDao;
+
+    // Fermes suivies, avec l'accès qui les protège de la simulation pendant leur écriture
+    private final Map<Ferme, AccesFerme> fermes;
+    // Entités signalées hors des fermes suivies, une seule par ligne en base
+    private final Map<Integer, Stockage> stockages;
+    private final Map<Integer, Champ> champs;
+    private final Map<Integer, Animal> animaux;
+    private final Map<Integer, StructureProduction> structures;
+
+    // Un seul vidage à la fois, distinct du verrou du service
+    private final Object verrouVidage = new Object();
+    private Timer timer;
+    private Thread crochetArret;
+    private boolean demarre;
+    private long vidages;
+    private long lignesEcrites;
+
+    private EcritureDiffereeService() {
+        this.stockageDao = new StockageDao();
+        this.reservoirDao = new ReservoirEauDao();
+        this.champDao = new ChampDao();
+        this.animalDao = new AnimalDao();
+        this.structureDao = new StructureProductionDao();
+        this.fermes = new IdentityHashMap<>();
+        this.stockages = new LinkedHashMap<>();
+        this.champs = new LinkedHashMap<>();
+        this.animaux = new LinkedHashMap<>();
+        this.structures = new LinkedHashMap<>();
+    }
+
+    public static synchronized EcritureDiffereeService getInstance() {
+        if (instance == null) {
+            instance = new EcritureDiffereeService();
+        }
+        return instance;
+    }
+
+    /**
+     * Suit une ferme qui n'est modifiée que par le thread appelant.
+     */
+    public void suivre(Ferme ferme) {
+        suivre(ferme, (action, delaiMillis) -> {
+            action.run();
+            return true;
+        });
+    }
+
+    /**
+     * Suit une ferme : ses entités modifiées seront écrites à chaque vidage.
+     * @param ferme La ferme à suivre.
+     * @param acces Exécute une action en excluant la simulation de la ferme,
+     *              par exemple {@code moteur::executer}.
+     */
+    public synchronized void suivre(Ferme ferme, AccesFerme acces) {
+        fermes.put(ferme, acces);
+    }
+
+    /**
+     * Arrête de suivre une ferme. Ses changements non encore écrits sont abandonnés :
+     * appeler {@link #vider()} avant si besoin.
+     */
+    public synchronized void oublier(Ferme ferme) {
+        fermes.remove(ferme);
+    }
+
+    /**
+     * Démarre les vidages périodiques.
+     * @param intervalleSecondes L'intervalle entre deux vidages, ou 0 pour des vidages uniquement
+     *                           à la demande et à l'arrêt.
+     */
+    public synchronized void demarrer(long intervalleSecondes) {
+        if (demarre) {
+            return;
+        }
+
+        demarre = true;
+        if (intervalleSecondes > 0) {
+            long periode = intervalleSecondes * 1000;
+            timer = new Timer("ecriture-differee", true);
+            // À délai fixe : un vidage retardé ne déclenche pas de rafale de vidages pour rattraper les autres
+            timer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    vider();
+                }
+            }, periode, periode);
+        }
+
+        crochetArret = new Thread(this::vider, "ecriture-differee-arret");
+        Runtime.getRuntime().addShutdownHook(crochetArret);
+        System.out.println("[INFO] Écriture différée démarrée (vidage toutes les " + intervalleSecondes + " s)");
+    }
+
+    /**
+     * Arrête les vidages périodiques après un dernier vidage.
+     */
+    public void arreter() {
+        synchronized (this) {
+            if (!demarre) {
+                return;
+            }
+            demarre = false;
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+            try {
+                Runtime.getRuntime().removeShutdownHook(crochetArret);
+            } catch (IllegalStateException e) {
+                // Arrêt de la JVM déjà en cours : le crochet fera le dernier vidage
+            }
+            crochetArret = null;
+        }
+        vider();
+    }
+
+    /**
+     * Signale un stockage modifié hors d'une ferme suivie. Un réservoir d'eau est aussi un stockage.
+     */
+    public void marquer(Stockage stockage) {
+        if (stockage == null || stockage.getId() == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            if (demarre) {
+                stockages.put(stockage.getId(), stockage);
+                return;
+            }
+        }
+
+        boolean ecrit = stockage instanceof ReservoirEau
+                ? reservoirDao.update((ReservoirEau) stockage)
+                : stockageDao.updateArticles(stockage);
+        if (ecrit) {
+            stockage.marquerEnregistre();
+        }
+    }
+
+    public void marquer(Champ champ) {
+        if (champ == null || champ.getId() == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            if (demarre) {
+                champs.put(champ.getId(), champ);
+                return;
+            }
+        }
+
+        champDao.update(champ);
+        champ.marquerEnregistre();
+    }
+
+    public void marquer(Animal animal) {
+        if (animal == null || animal.getId() == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            if (demarre) {
+                animaux.put(animal.getId(), animal);
+                return;
+            }
+        }
+
+        animalDao.update(animal);
+        animal.marquerEnregistre();
+    }
+
+    public void marquer(StructureProduction structure) {
+        if (structure == null || structure.getId() == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            if (demarre) {
+                structures.put(structure.getId(), structure);
+                return;
+            }
+        }
+
+        if (structure instanceof Serre) {
+            structureDao.updateSerre((Serre) structure);
+        } else if (structure instanceof Usine) {
+            structureDao.updateUsine((Usine) structure);
+        }
+        structure.marquerEnregistre();
+    }
+
+    /**
+     * Stockage signalé et pas encore écrit qui a le même identifiant, pour qu'une relecture en base
+     * ne fasse pas perdre ses changements.
+     * @param stockage Le stockage relu en base.
+     * @return Le stockage en attente d'écriture, ou celui donné s'il n'y en a pas.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends Stockage> T enAttente(T stockage) {
+        if (stockage == null) {
+            return null;
+        }
+        Stockage attente = stockages.get(stockage.getId());
+        return attente != null && attente.getClass() == stockage.getClass() ? (T) attente : stockage;
+    }
+
+    /**
+     * Écrit toutes les entités modifiées des fermes suivies et toutes les entités signalées.
+     * Chaque ferme est écrite sous son propre verrou par une écriture atomique de l'écrivain de la base,
+     * qui valide ensemble les écritures arrivées en même temps. Une ferme dont le verrou ne se libère pas
+     * à temps garde ses entités modifiées pour le vidage suivant. Le verrou d'une ferme n'est jamais pris
+     * sur le thread de l'écrivain : un thread qui tient la ferme peut lui-même attendre une écriture.
+     * Le verrou du service n'est pas tenu non plus, une action du joueur peut signaler des entités pendant un vidage.
+     * Les entités d'une écriture qui échoue restent à écrire au vidage suivant.
+     * @return Le nombre de lignes écrites.
+     */
+    public int vider() {
+        synchronized (verrouVidage) {
+            Map<Ferme, AccesFerme> suivies;
+            Map<Integer, Stockage> stockagesSignales;
+            Map<Integer, Champ> champsSignales;
+            Map<Integer, Animal> animauxSignales;
+            Map<Integer, StructureProduction> structuresSignalees;
+            synchronized (this) {
+                suivies = new IdentityHashMap<>(fermes);
+                stockagesSignales = prendre(stockages);
+                champsSignales = prendre(champs);
+                animauxSignales = prendre(animaux);
+                structuresSignalees = prendre(structures);
+            }
+
+            int lignes = 0;
+            for (Map.Entry<Ferme, AccesFerme> suivie : suivies.entrySet()) {
+                EcritureFerme ecriture = new EcritureFerme(suivie.getKey());
+                if (!suivie.getValue().executer(ecriture, DELAI_ACCES_MILLIS)) {
+                    System.err.println("[WARN] Ferme " + suivie.getKey().getName()
+                            + " occupée, écriture différée reportée au prochain vidage");
+                } else if (ecriture.erreur != null) {
+                    System.err.println("[ERROR] Erreur lors de l'écriture différée de la ferme "
+                            + suivie.getKey().getName() + ": " + ecriture.erreur.getMessage());
+                }
+                lignes += ecriture.lignes;
+            }
+
+            try {
+                lignes += DatabaseManager.ecrire(conn -> ecrireSignales(conn, stockagesSignales.values(),
+                        champsSignales.values(), animauxSignales.values(), structuresSignalees.values()));
+            } catch (SQLException e) {
+                System.err.println("[ERROR] Erreur lors de l'écriture différée: " + e.getMessage());
+                // Les articles changés ont pu être oubliés avant l'échec du commit : tout le contenu sera réécrit
+                for (Stockage stockage : stockagesSignales.values()) {
+                    stockage.marquerModifie();
+                }
+                synchronized (this) {
+                    // Un signalement plus récent que l'échec garde la priorité
+                    rendre(stockages, stockagesSignales);
+                    rendre(champs, champsSignales);
+                    rendre(animaux, animauxSignales);
+                    rendre(structures, structuresSignalees);
+                }
+            }
+
+            synchronized (this) {
+                vidages++;
+                lignesEcrites += lignes;
+            }
+            return lignes;
+        }
+    }
+
+    private int ecrireSignales(Connection conn, Collection<Stockage> stockagesSignales, Collection<Champ> champsSignales,
+                               Collection<Animal> animauxSignales, Collection<StructureProduction> structuresSignalees)
+            throws SQLException {
+        int lignes = 0;
+        List<ReservoirEau> reservoirs = new ArrayList<>();
+        for (Stockage stockage : stockagesSignales) {
+            if (stockage instanceof ReservoirEau) {
+                reservoirs.add((ReservoirEau) stockage);
+            } else {
+                lignes += stockageDao.updateArticles(conn, stockage);
+            }
+        }
+        lignes += reservoirDao.updateAll(conn, reservoirs);
+        lignes += champDao.updateAll(conn, champsSignales);
+        lignes += animalDao.updateAll(conn, animauxSignales);
+        lignes += structureDao.updateAll(conn, structuresSignalees);
+
+        for (Stockage stockage : stockagesSignales) {
+            stockage.marquerEnregistre();
+        }
+        for (Champ champ : champsSignales) {
+            champ.marquerEnregistre();
+        }
+        for (Animal animal : animauxSignales) {
+            animal.marquerEnregistre();
+        }
+        for (StructureProduction structure : structuresSignalees) {
+            structure.marquerEnregistre();
+        }
+        return lignes;
+    }
+
+    private static <T> Map<Integer, T> prendre(Map<Integer, T> file) {
+        Map<Integer, T> pris = new LinkedHashMap<>(file);
+        file.clear();
+        return pris;
+    }
+
+    private static <T> void rendre(Map<Integer, T> file, Map<Integer, T> pris) {
+        for (Map.Entry<Integer, T> entree : pris.entrySet()) {
+            file.putIfAbsent(entree.getKey(), entree.getValue());
+        }
+    }
+
+    public synchronized long getVidages() {
+        return vidages;
+    }
+
+    public synchronized long getLignesEcrites() {
+        return lignesEcrites;
+    }
+
+    /**
+     * Accès exclusif à une ferme suivie, dont l'attente est bornée.
+     */
+    @FunctionalInterface
+    public interface AccesFerme {
+        /**
+         * @param action L'action à exécuter en excluant la simulation de la ferme.
+         * @param delaiMillis L'attente maximale de la ferme, en millisecondes.
+         * @return true si l'action a été exécutée, false si la ferme est restée occupée.
+         */
+        boolean executer(Runnable action, long delaiMillis);
+    }
+
+    /**
+     * Écrit les entités modifiées d'une ferme, sous l'accès exclusif de la ferme.
+     */
+    private class EcritureFerme implements Runnable {
+        private final Ferme ferme;
+        private final List<Object> ecrites;
+        private int lignes;
+        private SQLException erreur;
+
+        EcritureFerme(Ferme ferme) {
+            this.ferme = ferme;
+            this.ecrites = new ArrayList<>();
+        }
+
+        @Override
+        public void run() {
+            try {
+                lignes = DatabaseManager.ecrire(this::ecrire);
+            } catch (SQLException e) {
+                erreur = e;
+                remarquer();
+            }
+        }
+
+        private int ecrire(Connection conn) throws SQLException {
+            int lignes = 0;
+            List<Stockage> stockagesModifies = new ArrayList<>();
+            for (Stockage stockage : new Stockage[] { ferme.getStockPrincipal(), ferme.getEntrepot() }) {
+                if (stockage != null && stockage.isModifie()) {
+                    // Noté tout de suite : ses articles changés sont oubliés, il sera réécrit en entier en cas d'échec
+                    ecrites.add(stockage);
+                    lignes += stockageDao.updateArticles(conn, stockage);
+                    stockagesModifies.add(stockage);
+                }
+            }
+
+            ReservoirEau reservoir = ferme.getReservoirEau();
+            if (reservoir != null && reservoir.isModifie()) {
+                lignes += reservoirDao.updateAll(conn, List.of(reservoir));
+                stockagesModifies.add(reservoir);
+            }
+
+            List<Champ> champsModifies = new ArrayList<>();
+            List<FermeAnimale> troupeauxModifies = new ArrayList<>();
+            for (Champ champ : ferme.getChamps()) {
+                if (champ.isModifie()) {
+                    champsModifies.add(champ);
+                }
+
+                FermeAnimale troupeau = champ.getFermeAnimale();
+                if (troupeau != null && troupeau.isModifie()) {
+                    troupeauxModifies.add(troupeau);
+                }
+            }
+
+            List<StructureProduction> structuresModifiees = new ArrayList<>();
+            for (StructureProduction structure : ferme.getStructures()) {
+                if (structure.isModifie()) {
+                    structuresModifiees.add(structure);
+                }
+            }
+
+            lignes += champDao.updateAll(conn, champsModifies);
+            for (FermeAnimale troupeau : troupeauxModifies) {
+                lignes += animalDao.updateAll(conn, troupeau, true);
+            }
+            lignes += structureDao.updateAll(conn, structuresModifiees);
+
+            for (Stockage stockage : stockagesModifies) {
+                stockage.marquerEnregistre();
+            }
+            for (Champ champ : champsModifies) {
+                champ.marquerEnregistre();
+            }
+            for (FermeAnimale troupeau : troupeauxModifies) {
+                troupeau.marquerEnregistre();
+            }
+            for (StructureProduction structure : structuresModifiees) {
+                structure.marquerEnregistre();
+            }
+            ecrites.clear();
+            ecrites.addAll(stockagesModifies);
+            ecrites.addAll(champsModifies);
+            ecrites.addAll(troupeauxModifies);
+            ecrites.addAll(structuresModifiees);
+            return lignes;
+        }
+
+        /**
+         * Remarque modifiées les entités écrites par une transaction annulée.
+         */
+        void remarquer() {
+            for (Object entite : ecrites) {
+                if (entite instanceof Stockage) {
+                    ((Stockage) entite).marquerModifie();
+                } else if (entite instanceof Champ) {
+                    ((Champ) entite).marquerModifie();
+                } else if (entite instanceof FermeAnimale) {
+                    ((FermeAnimale) entite).marquerModifie();
+                } else if (entite instanceof StructureProduction) {
+                    ((StructureProduction) entite).marquerModifie();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package dev.linnaelle.fs.services;
+
+import dev.linnaelle.fs.entities.*;
+
+/**
+ * Prix d'achat et de vente pour une difficulté, multiplicateurs déjà appliqués.
+ * Les prix d'achat sont indexés par identifiant d'objet achetable, les prix de vente par identifiant d'article :
+ * chiffrer une liste d'achats ou estimer tout un stock est un simple parcours de tableaux.
+ * L'index est immuable et construit pour une version du catalogue : {@link EconomieService} le reconstruit
+ * quand le catalogue est rechargé ou que les multiplicateurs de la difficulté changent.
+ */
+public final class IndexPrix {
+
+    private final int versionCatalogue;
+    private final double multiplicateurAchat;
+    private final double multiplicateurVente;
+    // NaN pour un identifiant attribué à un nom absent du catalogue
+    private final double[] prixAchat;
+    private final double[] prixVente;
+
+    /**
+     * Construit l'index à partir du catalogue courant.
+     * @param catalogue Le catalogue.
+     * @param difficulte La difficulté dont les multiplicateurs sont appliqués.
+     */
+    IndexPrix(CatalogueService catalogue, Difficulte difficulte) {
+        // Lue avant les prix : un rechargement pendant la construction rendra l'index périmé
+        this.versionCatalogue = catalogue.getVersion();
+        this.multiplicateurAchat = difficulte.getMultiplicateurAchat();
+        this.multiplicateurVente = difficulte.getMultiplicateurVente();
+
+        this.prixAchat = new double[catalogue.getNombreItems()];
+        for (int item = 0; item < prixAchat.length; item++) {
+            prixAchat[item] = prixAchatBase(catalogue, catalogue.getItemNom(item)) * multiplicateurAchat;
+        }
+
+        this.prixVente = new double[catalogue.getNombreArticles()];
+        for (int article = 0; article < prixVente.length; article++) {
+            ArticleInfo info = catalogue.getArticleInfo(article);
+            prixVente[article] = info != null ? info.getPrixVente() * multiplicateurVente : Double.NaN;
+        }
+    }
+
+    /**
+     * Prix d'achat de base d'un objet, cherché comme animal, puis équipement, culture et enfin usine.
+     */
+    private static double prixAchatBase(CatalogueService catalogue, String nom) {
+        AnimalInfo animalInfo = catalogue.getAnimalInfo(nom);
+        if (animalInfo != null) {
+            return animalInfo.getPrixAchat();
+        }
+
+        EquipementInfo equipInfo = catalogue.getEquipementInfo(nom);
+        if (equipInfo != null) {
+            return equipInfo.getPrixAchat();
+        }
+
+        CultureInfo cultureInfo = catalogue.getCultureInfo(nom);
+        if (cultureInfo != null) {
+            return cultureInfo.getPrixAchat();
+        }
+
+        UsineInfo usineInfo = catalogue.getUsineInfo(nom);
+        return usineInfo != null ? usineInfo.getPrixAchat() : Double.NaN;
+    }
+
+    /**
+     * @return true si l'index a été construit pour cette version du catalogue et ces multiplicateurs.
+     */
+    boolean correspond(int versionCatalogue, Difficulte difficulte) {
+        return this.versionCatalogue == versionCatalogue
+                && multiplicateurAchat == difficulte.getMultiplicateurAchat()
+                && multiplicateurVente == difficulte.getMultiplicateurVente();
+    }
+
+    /**
+     * @param item L'identifiant de l'objet, voir {@link CatalogueService#getItemId(String)}.
+     * @return Le prix d'achat, ou NaN si l'objet est inconnu du catalogue.
+     */
+    public double getPrixAchat(int item) {
+        return item >= 0 && item < prixAchat.length ? prixAchat[item] : Double.NaN;
+    }
+
+    /**
+     * @param article L'identifiant de l'article, voir {@link CatalogueService#getArticleId(String)}.
+     * @return Le prix de vente unitaire, ou NaN si l'article est inconnu du catalogue.
+     */
+    public double getPrixVente(int article) {
+        return article >= 0 && article < prixVente.length ? prixVente[article] : Double.NaN;
+    }
+
+    /**
+     * Prix total d'une liste d'achats.
+     * @param items Les identifiants des objets.
+     * @param quantites La quantité de chaque objet, au même indice.
+     * @return Le prix total, ou NaN si un objet est inconnu du catalogue.
+     */
+    public double getPrixAchat(int[] items, int[] quantites) {
+        if (items.length != quantites.length) {
+            throw new IllegalArgumentException(items.length + " objets pour " + quantites.length + " quantités");
+        }
+        double total = 0.0;
+        for (int i = 0; i < items.length; i++) {
+            total += getPrixAchat(items[i]) * quantites[i];
+        }
+        return total;
+    }
+
+    /**
+     * Valeur de vente de tout le contenu d'un stockage. Les articles inconnus du catalogue ne valent rien.
+     * @param stockage Le stockage à estimer.
+     * @return La somme des quantités stockées multipliées par leur prix de vente.
+     */
+    public double evaluer(Stockage stockage) {
+        double valeur = 0.0;
+        for (int article = 0; article < prixVente.length; article++) {
+            int quantite = stockage.getQuantite(article);
+            if (quantite != 0 && !Double.isNaN(prixVente[article])) {
+                valeur += prixVente[article] * quantite;
+            }
+        }
+        return valeur;
+    }
+
+    public int getVersionCatalogue() {
+        return versionCatalogue;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexPrix{" +
+                "versionCatalogue=" + versionCatalogue +
+                ", multiplicateurAchat=" + multiplicateurAchat +
+                ", multiplicateurVente=" + multiplicateurVente +
+                ", objets=" + prixAchat.length +
+                ", articles=" + prixVente.length +
+                '}';
+    }
+}
\ No newline at end of file
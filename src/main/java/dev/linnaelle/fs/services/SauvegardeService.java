@@ -2,11 +2,15 @@ package dev.linnaelle.fs.services;
 
 import dev.linnaelle.fs.dao.*;
 import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.utils.DatabaseManager;
+import dev.linnaelle.fs.utils.Horloge;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Timer;
@@ -27,6 +31,10 @@ public class SauvegardeService {
     private StockageDao stockageDao;
     private ReservoirEauDao reservoirDao;
     private StructureProductionDao structureDao;
+    private AnimalDao animalDao;
+    
+    private long derniereDureeNanos;
+    private int dernieresLignes;
     
     private SauvegardeService() {
         this.cheminSauvegardes = "saves/";
@@ -37,6 +45,7 @@ public class SauvegardeService {
         this.stockageDao = new StockageDao();
         this.reservoirDao = new ReservoirEauDao();
         this.structureDao = new StructureProductionDao();
+        this.animalDao = new AnimalDao();
         
         creerDossierSauvegardes();
     }
@@ -80,8 +89,7 @@ public class SauvegardeService {
     
     private boolean sauvegarderEnBase(Joueur joueur) {
         try {
-            joueur.setTempsJeu(System.currentTimeMillis() - joueur.getTempsJeu());
-            boolean joueurSaved = joueurDao.update(joueur);
+            joueur.setTempsJeu(Horloge.getInstance().maintenant() - joueur.getTempsJeu());
             Ferme ferme = fermeDao.findByJoueurId(joueur.getId());
 
             if (ferme == null) {
@@ -89,10 +97,7 @@ public class SauvegardeService {
                 return false;
             }
             
-            boolean fermeSaved = fermeDao.update(ferme);
-            boolean composantsSaved = sauvegarderComposantsFerme(ferme);
-            
-            return joueurSaved && fermeSaved && composantsSaved;
+            return ecrireEnBase(joueur, ferme, true);
         } catch (Exception e) {
             System.err.println("[ERROR] Erreur lors de la sauvegarde en base: " + e.getMessage());
             return false;
@@ -100,58 +105,111 @@ public class SauvegardeService {
     }
     
     /**
-     * Sauvegarde les composants de la ferme (champs, structures, stockage, etc.)
+     * Sauvegarde la ferme et tous ses composants en une seule transaction.
+     * @param ferme La ferme à sauvegarder
+     * @return true si la sauvegarde a réussi, false sinon
+     */
+    public boolean sauvegarderFerme(Ferme ferme) {
+        return ecrireEnBase(null, ferme, true);
+    }
+    
+    /**
+     * Sauvegarde les composants de la ferme (champs, structures, stockage, etc.) en une seule transaction
      * @param ferme La ferme à sauvegarder
      * @return true si la sauvegarde a réussi, false sinon
      */
     public boolean sauvegarderComposantsFerme(Ferme ferme) {
+        return ecrireEnBase(null, ferme, false);
+    }
+    
+    /**
+     * Écrit le joueur, la ligne de la ferme et ses composants en une seule écriture atomique de l'écrivain de la base,
+     * avec un lot JDBC par table. Rien n'est écrit si une requête échoue.
+     * @param joueur Le joueur à écrire, ou null
+     * @param ferme La ferme dont les composants sont écrits
+     * @param ligneFerme true pour écrire aussi la ligne de la ferme
+     * @return true si la transaction a été validée, false sinon
+     */
+    private boolean ecrireEnBase(Joueur joueur, Ferme ferme, boolean ligneFerme) {
+        long debut = System.nanoTime();
+        int lignes;
+        
         try {
-            boolean success = true;
-            
-            if (ferme.getStockPrincipal() != null) {
-                success &= stockageDao.updateArticles(ferme.getStockPrincipal().getId(), ferme.getStockPrincipal().getArticles());
-            }
-            
-            if (ferme.getEntrepot() != null) {
-                success &= stockageDao.updateArticles(ferme.getEntrepot().getId(), ferme.getEntrepot().getArticles());
-            }
-            
-            if (ferme.getReservoirEau() != null) {
-                success &= reservoirDao.update(ferme.getReservoirEau());
-            }
-            
-            if (ferme.getChamps() != null) {
-                for (Champ champ : ferme.getChamps()) {
-                    success &= champDao.update(champ);
-                    
-                    if (champ.getFermeAnimale() != null && champ.getFermeAnimale().getAnimaux() != null) {
-                        AnimalDao animalDao = new AnimalDao();
-                        for (Animal animal : champ.getFermeAnimale().getAnimaux()) {
-                            if (ferme.getReservoirEau() != null) {
-                                animal.mettreAJour(System.currentTimeMillis(), ferme.getReservoirEau());
-                            }
-                            success &= animalDao.update(animal);
-                        }
-                    }
+            lignes = DatabaseManager.ecrire(conn -> {
+                int ecrites = 0;
+                if (joueur != null) {
+                    ecrites += joueurDao.update(conn, joueur);
                 }
-            }
-            
-            if (ferme.getStructures() != null) {
-                for (StructureProduction structure : ferme.getStructures()) {
-                    if (structure instanceof Serre) {
-                        success &= structureDao.updateSerre((Serre) structure);
-                    } else if (structure instanceof Usine) {
-                        success &= structureDao.updateUsine((Usine) structure);
-                    }
+                if (ligneFerme) {
+                    ecrites += fermeDao.update(conn, ferme);
                 }
-            }
+                return ecrites + ecrireComposants(conn, ferme);
+            });
             
-            return success;
-        } catch (Exception e) {
+        } catch (SQLException e) {
             System.err.println("[ERROR] Erreur lors de la sauvegarde des composants: " + e.getMessage());
-            e.printStackTrace();
             return false;
         }
+        
+        long duree = System.nanoTime() - debut;
+        synchronized (this) {
+            derniereDureeNanos = duree;
+            dernieresLignes = lignes;
+        }
+        System.out.println(String.format("[INFO] Ferme %s sauvegardée: %d lignes en %.1f ms",
+                ferme.getName(), lignes, duree / 1_000_000.0));
+        return true;
+    }
+    
+    private int ecrireComposants(Connection conn, Ferme ferme) throws SQLException {
+        List<Stockage> stockages = new ArrayList<>();
+        if (ferme.getStockPrincipal() != null) {
+            stockages.add(ferme.getStockPrincipal());
+        }
+        if (ferme.getEntrepot() != null) {
+            stockages.add(ferme.getEntrepot());
+        }
+        
+        List<ReservoirEau> reservoirs = new ArrayList<>();
+        if (ferme.getReservoirEau() != null) {
+            reservoirs.add(ferme.getReservoirEau());
+        }
+        
+        List<Champ> champs = ferme.getChamps() != null ? ferme.getChamps() : new ArrayList<>();
+        
+        List<StructureProduction> structures = new ArrayList<>();
+        if (ferme.getStructures() != null) {
+            for (StructureProduction structure : ferme.getStructures()) {
+                if (structure instanceof Serre || structure instanceof Usine) {
+                    structures.add(structure);
+                }
+            }
+        }
+        
+        int lignes = stockageDao.updateAllArticles(conn, stockages);
+        lignes += reservoirDao.updateAll(conn, reservoirs);
+        lignes += champDao.updateAll(conn, champs);
+        for (Champ champ : champs) {
+            if (champ.getFermeAnimale() != null) {
+                lignes += animalDao.updateAll(conn, champ.getFermeAnimale(), false);
+            }
+        }
+        lignes += structureDao.updateAll(conn, structures);
+        return lignes;
+    }
+    
+    /**
+     * @return La durée de la dernière sauvegarde en base réussie, en millisecondes.
+     */
+    public synchronized double getDerniereDureeMs() {
+        return derniereDureeNanos / 1_000_000.0;
+    }
+    
+    /**
+     * @return Le nombre de lignes écrites par la dernière sauvegarde en base réussie.
+     */
+    public synchronized int getDernieresLignes() {
+        return dernieresLignes;
     }
     
     private boolean sauvegarderEnFichier(Joueur joueur) {
@@ -209,7 +267,7 @@ public class SauvegardeService {
                                      "," + (champ.getTypeCulture() != null ? champ.getTypeCulture() : "vide"));
                         if (champ.getFermeAnimale() != null) {
                             FermeAnimale fermeAnimale = champ.getFermeAnimale();
-                            int nbAnimaux = fermeAnimale.getAnimaux() != null ? fermeAnimale.getAnimaux().size() : 0;
+                            int nbAnimaux = fermeAnimale.getNombreAnimaux();
                             writer.println("champ_" + champ.getNumero() + "_animaux=" + 
                                          fermeAnimale.getTypeAnimal() + "," + 
                                          nbAnimaux + "/" + fermeAnimale.getCapaciteMax());
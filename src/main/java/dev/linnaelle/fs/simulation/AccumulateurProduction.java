@@ -0,0 +1,251 @@
+package dev.linnaelle.fs.simulation;
+
+import dev.linnaelle.fs.entities.Stockage;
+import dev.linnaelle.fs.services.CatalogueService;
+
+import java.util.Arrays;
+
+/**
+ * Production d'un pas de simulation, indexée par identifiant d'article du catalogue.
+ * Animaux et structures y déposent leur production, qui n'est rangée dans les stockages qu'une fois, en fin de pas.
+ * Les lectures ({@link #getQuantitePrincipal}, {@link #capaciteLibrePrincipal}...) tiennent compte de ce qui est
+ * en attente, si bien qu'un pas donne exactement le même résultat qu'en rangeant chaque dépôt immédiatement.
+ * Les tableaux sont réutilisés d'un pas à l'autre : en régime établi, accumuler n'alloue rien.
+ */
+public class AccumulateurProduction {
+
+    private Stockage stockPrincipal;
+    private Stockage entrepot;
+
+    // Production animale : lots de taille identique, le surplus du stock principal allant à l'entrepôt
+    private int[] lots;
+    private int[] tailleLots;
+    private boolean lotsEnAttente;
+
+    // Production des structures : quantités dont la place a déjà été vérifiée
+    private int[] quantitesPrincipal;
+    private int[] quantitesEntrepot;
+    private int enAttentePrincipal;
+    private int enAttenteEntrepot;
+
+    private int[] articlesModifies;
+    private int nombreModifies;
+    private boolean[] modifies;
+
+    public AccumulateurProduction() {
+        int taille = Math.max(16, CatalogueService.getInstance().getNombreArticles());
+        this.lots = new int[taille];
+        this.tailleLots = new int[taille];
+        this.quantitesPrincipal = new int[taille];
+        this.quantitesEntrepot = new int[taille];
+        this.articlesModifies = new int[taille];
+        this.modifies = new boolean[taille];
+    }
+
+    /**
+     * Prépare un pas de simulation pour une ferme.
+     * @param stockPrincipal Le stock principal qui reçoit la production.
+     * @param entrepot L'entrepôt qui reçoit les produits transformés et le surplus du stock principal.
+     */
+    public void commencer(Stockage stockPrincipal, Stockage entrepot) {
+        this.stockPrincipal = stockPrincipal;
+        this.entrepot = entrepot;
+    }
+
+    /**
+     * Dépose des lots identiques de production animale.
+     * Chaque lot va au stock principal s'il y tient, sinon à l'entrepôt s'il peut le recevoir, sinon il est perdu.
+     * @param article L'identifiant de l'article.
+     * @param quantite La quantité d'un lot.
+     * @param nombre Le nombre de lots.
+     */
+    public void deposerLots(int article, int quantite, int nombre) {
+        if (quantite <= 0 || nombre <= 0) {
+            return;
+        }
+
+        assurerCapacite(article);
+        if (lots[article] > 0 && tailleLots[article] != quantite) {
+            // Taille de lot différente : on range d'abord les lots en attente pour garder l'ordre des dépôts
+            rangerLots(article);
+        }
+
+        lots[article] += nombre;
+        tailleLots[article] = quantite;
+        lotsEnAttente = true;
+        marquer(article);
+    }
+
+    /**
+     * Dépose une quantité dans le stock principal. La place doit avoir été vérifiée avec {@link #capaciteLibrePrincipal()}.
+     * @param article L'identifiant de l'article.
+     * @param quantite La quantité déposée.
+     */
+    public void ajouterPrincipal(int article, int quantite) {
+        if (quantite <= 0) {
+            return;
+        }
+
+        resoudreLots();
+        assurerCapacite(article);
+        quantitesPrincipal[article] += quantite;
+        enAttentePrincipal += quantite;
+        marquer(article);
+    }
+
+    /**
+     * Dépose une quantité dans l'entrepôt. La place doit avoir été vérifiée avec {@link #capaciteLibreEntrepot()}.
+     * @param article L'identifiant de l'article.
+     * @param quantite La quantité déposée.
+     */
+    public void ajouterEntrepot(int article, int quantite) {
+        if (quantite <= 0) {
+            return;
+        }
+
+        resoudreLots();
+        assurerCapacite(article);
+        quantitesEntrepot[article] += quantite;
+        enAttenteEntrepot += quantite;
+        marquer(article);
+    }
+
+    /**
+     * Retire une quantité du stock principal, en prenant d'abord sur ce qui est en attente.
+     * @param article L'identifiant de l'article.
+     * @param quantite La quantité à retirer.
+     * @return true si le retrait a réussi, false si la quantité est insuffisante.
+     */
+    public boolean retirerPrincipal(int article, int quantite) {
+        if (getQuantitePrincipal(article) < quantite) {
+            return false;
+        }
+
+        int enAttente = article < quantitesPrincipal.length ? quantitesPrincipal[article] : 0;
+        int pris = Math.min(enAttente, quantite);
+        if (pris > 0) {
+            quantitesPrincipal[article] -= pris;
+            enAttentePrincipal -= pris;
+        }
+        return pris == quantite || stockPrincipal.retirer(article, quantite - pris);
+    }
+
+    /**
+     * Quantité d'un article dans le stock principal, production en attente comprise.
+     */
+    public int getQuantitePrincipal(int article) {
+        resoudreLots();
+        int enAttente = article < quantitesPrincipal.length ? quantitesPrincipal[article] : 0;
+        return stockPrincipal.getQuantite(article) + enAttente;
+    }
+
+    /**
+     * Capacité libre du stock principal, production en attente déduite.
+     */
+    public int capaciteLibrePrincipal() {
+        resoudreLots();
+        return stockPrincipal.capaciteLibre() - enAttentePrincipal;
+    }
+
+    /**
+     * Capacité libre de l'entrepôt, production en attente déduite.
+     */
+    public int capaciteLibreEntrepot() {
+        resoudreLots();
+        return entrepot.capaciteLibre() - enAttenteEntrepot;
+    }
+
+    /**
+     * Range toute la production du pas dans les stockages et remet l'accumulateur à zéro.
+     */
+    public void vider() {
+        for (int i = 0; i < nombreModifies; i++) {
+            int article = articlesModifies[i];
+
+            if (lots[article] > 0) {
+                rangerLots(article);
+            }
+
+            if (quantitesPrincipal[article] > 0) {
+                stockPrincipal.ajouter(article, quantitesPrincipal[article]);
+                quantitesPrincipal[article] = 0;
+            }
+
+            if (quantitesEntrepot[article] > 0) {
+                entrepot.ajouter(article, quantitesEntrepot[article]);
+                quantitesEntrepot[article] = 0;
+            }
+
+            modifies[article] = false;
+        }
+
+        nombreModifies = 0;
+        lotsEnAttente = false;
+        enAttentePrincipal = 0;
+        enAttenteEntrepot = 0;
+    }
+
+    /**
+     * Range les lots de production animale en attente : leur destination dépend de l'état des stockages,
+     * qui doit être connu avant toute lecture.
+     */
+    private void resoudreLots() {
+        if (!lotsEnAttente) {
+            return;
+        }
+
+        for (int i = 0; i < nombreModifies; i++) {
+            int article = articlesModifies[i];
+            if (lots[article] > 0) {
+                rangerLots(article);
+            }
+        }
+        lotsEnAttente = false;
+    }
+
+    private void rangerLots(int article) {
+        int quantite = tailleLots[article];
+        int restants = lots[article] - ajouterLots(stockPrincipal, article, quantite, lots[article], quantitesPrincipal[article]);
+
+        if (restants > 0 && entrepot != null && entrepot.peutStocker(article)) {
+            ajouterLots(entrepot, article, quantite, restants, quantitesEntrepot[article]);
+        }
+
+        lots[article] = 0;
+    }
+
+    /**
+     * Ajoute autant de lots que le stockage peut en recevoir, sa capacité étant limitée article par article.
+     * Équivaut à ajouter les lots un par un.
+     * @return Le nombre de lots ajoutés.
+     */
+    private int ajouterLots(Stockage stockage, int article, int quantite, int nombre, int enAttente) {
+        int places = Math.max(0, (stockage.getCapaciteMax() - stockage.getQuantite(article) - enAttente) / quantite);
+        int ajoutes = Math.min(nombre, places);
+        if (ajoutes > 0) {
+            stockage.ajouter(article, ajoutes * quantite);
+        }
+        return ajoutes;
+    }
+
+    private void marquer(int article) {
+        if (!modifies[article]) {
+            modifies[article] = true;
+            articlesModifies[nombreModifies++] = article;
+        }
+    }
+
+    private void assurerCapacite(int article) {
+        if (article < lots.length) {
+            return;
+        }
+
+        int taille = Math.max(article + 1, lots.length * 2);
+        lots = Arrays.copyOf(lots, taille);
+        tailleLots = Arrays.copyOf(tailleLots, taille);
+        quantitesPrincipal = Arrays.copyOf(quantitesPrincipal, taille);
+        quantitesEntrepot = Arrays.copyOf(quantitesEntrepot, taille);
+        articlesModifies = Arrays.copyOf(articlesModifies, taille);
+        modifies = Arrays.copyOf(modifies, taille);
+    }
+}
@@ -0,0 +1,287 @@
+package dev.linnaelle.fs.simulation;
+
+import dev.linnaelle.fs.entities.Ferme;
+import dev.linnaelle.fs.utils.ConfigManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exécute les pas de simulation de nombreuses fermes hébergées dans la même JVM.
+ * Les fermes sont réparties entre les threads d'un {@link ForkJoinPool} par découpage récursif,
+ * le vol de tâches équilibrant les fermes plus lourdes que les autres.
+ * Chaque ferme a son propre simulateur et son propre verrou : deux fermes ne partagent aucun état modifiable,
+ * et une ferme n'est jamais simulée par deux threads à la fois.
+ */
+public class ExecuteurFermes {
+
+    private final ForkJoinPool pool;
+    private final List<Ferme> fermes;
+    private final List<SimulateurFerme> simulateurs;
+    private final List<ReentrantLock> verrous;
+
+    // Latences par ferme, à l'indice de la ferme
+    private long[] dernieresDureesNanos;
+    private long[] dureesMaxNanos;
+    private long[] dureesTotalesNanos;
+
+    private long ticksExecutes;
+    private long dureeDernierTickNanos;
+    private final AtomicLong erreurs;
+
+    public ExecuteurFermes() {
+        this(ConfigManager.getSimulationParallelism());
+    }
+
+    /**
+     * @param parallelisme Le nombre de threads de simulation, ou 0 pour un thread par cœur.
+     */
+    public ExecuteurFermes(int parallelisme) {
+        int threads = parallelisme > 0 ? parallelisme : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.fermes = new ArrayList<>();
+        this.simulateurs = new ArrayList<>();
+        this.verrous = new ArrayList<>();
+        this.erreurs = new AtomicLong();
+        this.dernieresDureesNanos = new long[0];
+        this.dureesMaxNanos = new long[0];
+        this.dureesTotalesNanos = new long[0];
+    }
+
+    /**
+     * Ajoute une ferme à simuler. Ne doit pas être appelé pendant un pas.
+     * @param ferme La ferme à ajouter.
+     * @return L'indice de la ferme, à utiliser avec {@link #executer(int, Runnable)}.
+     */
+    public synchronized int ajouterFerme(Ferme ferme) {
+        synchronized (verrous) {
+            fermes.add(ferme);
+            simulateurs.add(new SimulateurFerme());
+            verrous.add(new ReentrantLock());
+        }
+
+        int taille = fermes.size();
+        dernieresDureesNanos = Arrays.copyOf(dernieresDureesNanos, taille);
+        dureesMaxNanos = Arrays.copyOf(dureesMaxNanos, taille);
+        dureesTotalesNanos = Arrays.copyOf(dureesTotalesNanos, taille);
+        return taille - 1;
+    }
+
+    /**
+     * Exécute une action sur une ferme en excluant ses pas de simulation.
+     * Peut être appelé pendant un pas : l'action attend alors la fin du pas de cette ferme seulement.
+     * @param indice L'indice de la ferme.
+     * @param action L'action à exécuter.
+     */
+    public void executer(int indice, Runnable action) {
+        ReentrantLock verrou;
+        SimulateurFerme simulateur;
+        synchronized (verrous) {
+            verrou = verrous.get(indice);
+            simulateur = simulateurs.get(indice);
+        }
+
+        verrou.lock();
+        try {
+            action.run();
+        } finally {
+            simulateur.invaliderPlanification();
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Exécute une action sur une ferme si son pas se termine à temps.
+     * @param indice L'indice de la ferme.
+     * @param action L'action à exécuter.
+     * @param delaiMillis L'attente maximale du verrou de la ferme, en millisecondes.
+     * @return true si l'action a été exécutée, false si la ferme est restée occupée ou si l'attente a été interrompue.
+     */
+    public boolean executer(int indice, Runnable action, long delaiMillis) {
+        ReentrantLock verrou;
+        SimulateurFerme simulateur;
+        synchronized (verrous) {
+            verrou = verrous.get(indice);
+            simulateur = simulateurs.get(indice);
+        }
+
+        try {
+            if (!verrou.tryLock(delaiMillis, TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        try {
+            action.run();
+            return true;
+        } finally {
+            simulateur.invaliderPlanification();
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Fait avancer toutes les fermes d'un pas et attend la fin de tous les pas.
+     * Une erreur dans une ferme est journalisée sans interrompre les autres.
+     * @param tempsCourant Le temps simulé du pas, en millisecondes.
+     */
+    public synchronized void executerTick(long tempsCourant) {
+        if (fermes.isEmpty()) {
+            return;
+        }
+
+        long debut = System.nanoTime();
+        int seuil = Math.max(1, fermes.size() / (pool.getParallelism() * 8));
+        pool.invoke(new TickFermes(tempsCourant, 0, fermes.size(), seuil));
+        dureeDernierTickNanos = System.nanoTime() - debut;
+        ticksExecutes++;
+    }
+
+    /**
+     * Arrête les threads de simulation.
+     */
+    public void arreter() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void simulerFerme(int indice, long tempsCourant) {
+        Ferme ferme = fermes.get(indice);
+        ReentrantLock verrou = verrous.get(indice);
+
+        verrou.lock();
+        try {
+            long debut = System.nanoTime();
+            simulateurs.get(indice).simuler(ferme, tempsCourant);
+            ferme.setDerniereSimulation(tempsCourant);
+            long duree = System.nanoTime() - debut;
+
+            dernieresDureesNanos[indice] = duree;
+            dureesTotalesNanos[indice] += duree;
+            if (duree > dureesMaxNanos[indice]) {
+                dureesMaxNanos[indice] = duree;
+            }
+        } catch (Exception e) {
+            erreurs.incrementAndGet();
+            System.err.println("[ERROR] Erreur dans la simulation de la ferme " + ferme.getId() + ": " + e.getMessage());
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Découpe récursivement une plage de fermes jusqu'au seuil, puis simule la plage sur le thread courant.
+     */
+    private class TickFermes extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long tempsCourant;
+        private final int debut;
+        private final int fin;
+        private final int seuil;
+
+        TickFermes(long tempsCourant, int debut, int fin, int seuil) {
+            this.tempsCourant = tempsCourant;
+            this.debut = debut;
+            this.fin = fin;
+            this.seuil = seuil;
+        }
+
+        @Override
+        protected void compute() {
+            if (fin - debut <= seuil) {
+                for (int i = debut; i < fin; i++) {
+                    simulerFerme(i, tempsCourant);
+                }
+                return;
+            }
+
+            int milieu = (debut + fin) >>> 1;
+            invokeAll(new TickFermes(tempsCourant, debut, milieu, seuil),
+                      new TickFermes(tempsCourant, milieu, fin, seuil));
+        }
+    }
+
+    public synchronized int getNombreFermes() {
+        return fermes.size();
+    }
+
+    public int getParallelisme() {
+        return pool.getParallelism();
+    }
+
+    public synchronized long getTicksExecutes() {
+        return ticksExecutes;
+    }
+
+    public long getErreurs() {
+        return erreurs.get();
+    }
+
+    /**
+     * Durée murale du dernier pas, toutes fermes comprises.
+     * @return La durée en millisecondes.
+     */
+    public synchronized double getDureeDernierTickMs() {
+        return dureeDernierTickNanos / 1_000_000.0;
+    }
+
+    /**
+     * Durée du dernier pas d'une ferme.
+     * @param indice L'indice de la ferme, dans l'ordre d'ajout.
+     * @return La durée en millisecondes.
+     */
+    public synchronized double getDerniereDureeFermeMs(int indice) {
+        return dernieresDureesNanos[indice] / 1_000_000.0;
+    }
+
+    public synchronized double getDureeMoyenneFermeMs(int indice) {
+        return ticksExecutes == 0 ? 0.0 : dureesTotalesNanos[indice] / (double) ticksExecutes / 1_000_000.0;
+    }
+
+    public synchronized double getDureeMaxFermeMs(int indice) {
+        return dureesMaxNanos[indice] / 1_000_000.0;
+    }
+
+    /**
+     * Percentile des durées du dernier pas sur l'ensemble des fermes.
+     * @param percentile Le percentile voulu, entre 0 et 100.
+     * @return La durée en millisecondes.
+     */
+    public synchronized double getPercentileDerniersTicksMs(double percentile) {
+        if (dernieresDureesNanos.length == 0) {
+            return 0.0;
+        }
+
+        long[] triees = dernieresDureesNanos.clone();
+        Arrays.sort(triees);
+        int rang = (int) Math.ceil(percentile / 100.0 * triees.length) - 1;
+        return triees[Math.max(0, Math.min(rang, triees.length - 1))] / 1_000_000.0;
+    }
+
+    public void printStatistiques() {
+        System.out.println("=== STATISTIQUES DES FERMES ===");
+        System.out.println("Fermes: " + getNombreFermes() + " sur " + getParallelisme() + " threads");
+        System.out.println("Ticks exécutés: " + getTicksExecutes());
+        System.out.println("Erreurs: " + getErreurs());
+        System.out.println(String.format("Durée du dernier tick: %.3f ms", getDureeDernierTickMs()));
+        System.out.println(String.format("Latence par ferme (p50/p99/max): %.3f / %.3f / %.3f ms",
+                getPercentileDerniersTicksMs(50), getPercentileDerniersTicksMs(99), getPercentileDerniersTicksMs(100)));
+    }
+}
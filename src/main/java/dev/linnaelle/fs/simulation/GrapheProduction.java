@@ -0,0 +1,279 @@
+package dev.linnaelle.fs.simulation;
+
+import dev.linnaelle.fs.entities.UsineInfo;
+import dev.linnaelle.fs.services.CatalogueService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recettes des usines du catalogue, compilées une fois pour toutes.
+ * Chaque recette porte les identifiants d'articles déjà résolus et les quantités déjà calculées :
+ * traiter un cycle ne demande ni accès à la base ni analyse de chaîne.
+ * Les recettes sont classées par rang topologique : une usine dont un intrant est produit par une autre
+ * usine (scierie → planches → usine_jouets) a un rang plus élevé et passe après elle dans un pas de simulation.
+ * Le graphe est immuable.
+ */
+public final class GrapheProduction {
+
+    private final Map<String, Recette> recettes;
+    private final List<Recette> ordreTopologique;
+
+    /**
+     * Compile les recettes des usines données.
+     * @param usines Les usines du catalogue.
+     * @param catalogue Le catalogue, pour résoudre les identifiants d'articles.
+     */
+    public GrapheProduction(Iterable<UsineInfo> usines, CatalogueService catalogue) {
+        Map<String, Recette> compilees = new LinkedHashMap<>();
+        for (UsineInfo info : usines) {
+            compilees.put(info.getNom().toLowerCase(), compiler(info, catalogue));
+        }
+
+        // Les recettes sont recréées avec leur rang, une fois le tri terminé
+        List<Recette> ordre = new ArrayList<>(compilees.size());
+        for (Map.Entry<Recette, Integer> rang : trier(compilees).entrySet()) {
+            ordre.add(rang.getKey().avecRang(rang.getValue()));
+        }
+        this.ordreTopologique = Collections.unmodifiableList(ordre);
+        Map<String, Recette> parType = new HashMap<>();
+        for (Recette recette : ordre) {
+            parType.put(recette.getUsine(), recette);
+        }
+        this.recettes = Collections.unmodifiableMap(parType);
+    }
+
+    /**
+     * Recette d'un type d'usine.
+     * @param type Le type d'usine, sans distinction de casse.
+     * @return La recette, ou null si le type est inconnu du catalogue.
+     */
+    public Recette getRecette(String type) {
+        if (type == null) {
+            return null;
+        }
+        Recette recette = recettes.get(type);
+        return recette != null ? recette : recettes.get(type.toLowerCase());
+    }
+
+    /**
+     * Rang topologique d'un type d'usine.
+     * @param type Le type d'usine.
+     * @return Le rang, 0 pour une usine sans amont ou inconnue.
+     */
+    public int getRang(String type) {
+        Recette recette = getRecette(type);
+        return recette != null ? recette.getRang() : 0;
+    }
+
+    /**
+     * @return Les recettes de l'amont vers l'aval.
+     */
+    public List<Recette> getRecettes() {
+        return ordreTopologique;
+    }
+
+    private static Recette compiler(UsineInfo info, CatalogueService catalogue) {
+        // Même analyse et même quantité produite que le traitement historique des usines
+        Map<String, Integer> intrants = new HashMap<>();
+        String chaine = info.getIntrantsRequis();
+        if (chaine != null && !chaine.trim().isEmpty()) {
+            for (String paire : chaine.split(",")) {
+                String[] parties = paire.split(":");
+                if (parties.length == 2) {
+                    try {
+                        intrants.put(parties[0].trim(), Integer.parseInt(parties[1].trim()));
+                    } catch (NumberFormatException e) {
+                        System.err.println("[ERROR] Format intrants invalide: " + paire);
+                    }
+                }
+            }
+        }
+
+        int nombre = intrants.size();
+        String[] noms = new String[nombre];
+        int[] ids = new int[nombre];
+        int[] quantites = new int[nombre];
+        int i = 0;
+        for (Map.Entry<String, Integer> intrant : intrants.entrySet()) {
+            noms[i] = intrant.getKey();
+            ids[i] = catalogue.getArticleId(intrant.getKey());
+            quantites[i] = intrant.getValue();
+            i++;
+        }
+
+        String produit = info.getArticleProduit();
+        int quantiteBase = nombre > 0 ? quantites[0] : 0;
+        int quantiteTotale = 0;
+        for (int quantite : quantites) {
+            quantiteTotale += quantite;
+        }
+
+        return new Recette(info.getNom().toLowerCase(), Collections.unmodifiableMap(intrants), noms, ids, quantites,
+                produit, produit != null ? catalogue.getArticleId(produit) : -1,
+                (int) (quantiteBase * info.getMultiplicateur()), quantiteTotale, info.getMultiplicateur(), 0);
+    }
+
+    /**
+     * Tri topologique par niveaux (algorithme de Kahn) : une usine a le rang de son amont le plus lointain plus un.
+     * Les recettes prises dans un cycle sont placées après toutes les autres.
+     * @return Le rang de chaque recette, de l'amont vers l'aval.
+     */
+    private static Map<Recette, Integer> trier(Map<String, Recette> compilees) {
+        Map<Integer, List<Recette>> producteurs = new HashMap<>();
+        for (Recette recette : compilees.values()) {
+            producteurs.computeIfAbsent(recette.getProduit(), k -> new ArrayList<>()).add(recette);
+        }
+
+        Map<Recette, List<Recette>> avals = new HashMap<>();
+        Map<Recette, Integer> amontsRestants = new HashMap<>();
+        for (Recette recette : compilees.values()) {
+            int amonts = 0;
+            for (int intrant : recette.intrants) {
+                for (Recette producteur : producteurs.getOrDefault(intrant, Collections.emptyList())) {
+                    if (producteur != recette) {
+                        avals.computeIfAbsent(producteur, k -> new ArrayList<>()).add(recette);
+                        amonts++;
+                    }
+                }
+            }
+            amontsRestants.put(recette, amonts);
+        }
+
+        Map<Recette, Integer> ordre = new LinkedHashMap<>();
+        List<Recette> niveau = new ArrayList<>();
+        for (Recette recette : compilees.values()) {
+            if (amontsRestants.get(recette) == 0) {
+                niveau.add(recette);
+            }
+        }
+
+        int rang = 0;
+        while (!niveau.isEmpty()) {
+            List<Recette> suivant = new ArrayList<>();
+            for (Recette recette : niveau) {
+                ordre.put(recette, rang);
+                for (Recette aval : avals.getOrDefault(recette, Collections.emptyList())) {
+                    if (amontsRestants.merge(aval, -1, Integer::sum) == 0) {
+                        suivant.add(aval);
+                    }
+                }
+            }
+            niveau = suivant;
+            rang++;
+        }
+
+        for (Recette recette : compilees.values()) {
+            if (amontsRestants.get(recette) > 0) {
+                System.err.println("[ERROR] Cycle de production impliquant l'usine: " + recette.getUsine());
+                ordre.put(recette, rang);
+            }
+        }
+        return ordre;
+    }
+
+    /**
+     * Recette compilée d'un type d'usine.
+     */
+    public static final class Recette {
+        private final String usine;
+        private final Map<String, Integer> parIntrant;
+        private final String[] nomsIntrants;
+        private final int[] intrants;
+        private final int[] quantites;
+        private final String nomProduit;
+        private final int produit;
+        private final int quantiteProduite;
+        private final int quantiteTotaleIntrants;
+        private final double multiplicateur;
+        private final int rang;
+
+        private Recette(String usine, Map<String, Integer> parIntrant, String[] nomsIntrants, int[] intrants, int[] quantites,
+                        String nomProduit, int produit, int quantiteProduite, int quantiteTotaleIntrants,
+                        double multiplicateur, int rang) {
+            this.usine = usine;
+            this.parIntrant = parIntrant;
+            this.nomsIntrants = nomsIntrants;
+            this.intrants = intrants;
+            this.quantites = quantites;
+            this.nomProduit = nomProduit;
+            this.produit = produit;
+            this.quantiteProduite = quantiteProduite;
+            this.quantiteTotaleIntrants = quantiteTotaleIntrants;
+            this.multiplicateur = multiplicateur;
+            this.rang = rang;
+        }
+
+        private Recette avecRang(int rang) {
+            return new Recette(usine, parIntrant, nomsIntrants, intrants, quantites, nomProduit, produit,
+                    quantiteProduite, quantiteTotaleIntrants, multiplicateur, rang);
+        }
+
+        public String getUsine() {
+            return usine;
+        }
+
+        /**
+         * @return Les quantités requises par nom d'intrant, non modifiables.
+         */
+        public Map<String, Integer> getIntrants() {
+            return parIntrant;
+        }
+
+        public int getNombreIntrants() {
+            return intrants.length;
+        }
+
+        public int getIntrant(int i) {
+            return intrants[i];
+        }
+
+        public String getNomIntrant(int i) {
+            return nomsIntrants[i];
+        }
+
+        public int getQuantite(int i) {
+            return quantites[i];
+        }
+
+        public int getProduit() {
+            return produit;
+        }
+
+        public String getNomProduit() {
+            return nomProduit;
+        }
+
+        /**
+         * Quantité produite par cycle.
+         */
+        public int getQuantiteProduite() {
+            return quantiteProduite;
+        }
+
+        public int getQuantiteTotaleIntrants() {
+            return quantiteTotaleIntrants;
+        }
+
+        public double getMultiplicateur() {
+            return multiplicateur;
+        }
+
+        public int getRang() {
+            return rang;
+        }
+
+        @Override
+        public String toString() {
+            return "Recette{" +
+                    "usine='" + usine + '\'' +
+                    ", produit='" + nomProduit + '\'' +
+                    ", rang=" + rang +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package dev.linnaelle.fs.simulation;
+
+import dev.linnaelle.fs.entities.Ferme;
+import dev.linnaelle.fs.utils.ConfigManager;
+import dev.linnaelle.fs.utils.Horloge;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Moteur de simulation à cadence fixe, exécuté sur son propre thread.
+ * La ferme avance au rythme de l'{@link Horloge} du jeu indépendamment du menu console : les pas manqués
+ * (thread en retard, ferme verrouillée par une action) sont rattrapés au pas suivant. Au-delà de
+ * {@code maxTicksRattrapage} pas dus, le retard est confié à {@link RattrapageSimulation}, qui le simule
+ * par sauts au lieu de rejouer chaque pas.
+ * Un pas qui échoue est sauté ; après {@value #MAX_ECHECS_CONSECUTIFS} échecs consécutifs, le moteur s'arrête.
+ * Avec une horloge accélérée, le thread se réveille d'autant plus souvent.
+ */
+public class MoteurSimulation {
+
+    private static final int MAX_ECHECS_CONSECUTIFS = 5;
+
+    private final SimulateurFerme simulateur;
+    private final RattrapageSimulation rattrapage;
+    private final Ferme ferme;
+    private final long intervalleTickNanos;
+    private final long intervalleTickMillis;
+    private final int maxTicksRattrapage;
+    private final ReentrantLock verrou;
+    private final Horloge horloge;
+
+    private ScheduledExecutorService executor;
+    private long prochainTickMillis;
+    private int echecsConsecutifs;
+
+    private volatile long ticksExecutes;
+    private volatile long ticksRattrapes;
+    private volatile long ticksAbandonnes;
+    private volatile long ticksEchoues;
+    private volatile long dureeTotaleTicksNanos;
+    private volatile long derniereDureeTickNanos;
+    private volatile long dureeMaxTickNanos;
+    private volatile long retardMillis;
+
+    public MoteurSimulation(Ferme ferme) {
+        this(ferme, ConfigManager.getSimulationTickRate(), ConfigManager.getSimulationMaxCatchUpTicks());
+    }
+
+    public MoteurSimulation(Ferme ferme, int ticksParSeconde, int maxTicksRattrapage) {
+        this(ferme, ticksParSeconde, maxTicksRattrapage, Horloge.getInstance());
+    }
+
+    public MoteurSimulation(Ferme ferme, int ticksParSeconde, int maxTicksRattrapage, Horloge horloge) {
+        this.horloge = horloge;
+        this.simulateur = new SimulateurFerme();
+        this.rattrapage = new RattrapageSimulation();
+        this.ferme = ferme;
+        this.intervalleTickNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(ticksParSeconde, 1);
+        this.intervalleTickMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(intervalleTickNanos));
+        this.maxTicksRattrapage = Math.max(maxTicksRattrapage, 1);
+        this.verrou = new ReentrantLock();
+    }
+
+    /**
+     * Démarre le thread de simulation. Sans effet si le moteur tourne déjà.
+     */
+    public synchronized void demarrer() {
+        if (isDemarre()) {
+            return;
+        }
+
+        prochainTickMillis = horloge.maintenant();
+        echecsConsecutifs = 0;
+        // Une horloge accélérée demande des réveils plus fréquents, une horloge manuelle peut avancer à tout moment
+        long periodeReveilNanos = intervalleTickNanos;
+        if (horloge.getFacteur() > 1.0) {
+            periodeReveilNanos = Math.max(100_000L, (long) (intervalleTickNanos / horloge.getFacteur()));
+        } else if (horloge.getFacteur() <= 0.0) {
+            periodeReveilNanos = Math.min(intervalleTickNanos, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "MoteurSimulation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::executerTicksDus, 0, periodeReveilNanos, TimeUnit.NANOSECONDS);
+
+        System.out.println("[INFO] Moteur de simulation démarré (" + (1000 / Math.max(intervalleTickMillis, 1)) + " ticks/s"
+                + (horloge.getFacteur() > 1.0 ? ", temps accéléré x" + horloge.getFacteur() : "") + ")");
+    }
+
+    /**
+     * Arrête le thread de simulation et attend la fin du pas en cours.
+     */
+    public synchronized void arreter() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+
+        System.out.println("[INFO] Moteur de simulation arrêté");
+    }
+
+    /**
+     * Exécute une action sur la ferme en excluant les pas de simulation.
+     * Les pas qui tombent pendant l'action sont rattrapés ensuite.
+     * @param action L'action à exécuter.
+     */
+    public void executer(Runnable action) {
+        calculer(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Exécute une action sur la ferme si le verrou se libère à temps, sans risquer d'attendre indéfiniment.
+     * @param action L'action à exécuter.
+     * @param delaiMillis L'attente maximale du verrou, en millisecondes.
+     * @return true si l'action a été exécutée, false si la ferme est restée occupée ou si l'attente a été interrompue.
+     */
+    public boolean executer(Runnable action, long delaiMillis) {
+        try {
+            if (!verrou.tryLock(delaiMillis, TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        try {
+            action.run();
+            return true;
+        } finally {
+            simulateur.invaliderPlanification();
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Exécute une action sur la ferme en excluant les pas de simulation et rend son résultat.
+     * L'action ne doit pas attendre l'utilisateur : les pas sont suspendus tant qu'elle tient le verrou.
+     * @param action L'action à exécuter.
+     * @return Le résultat de l'action.
+     */
+    public <T> T calculer(Supplier<T> action) {
+        verrou.lock();
+        try {
+            return action.get();
+        } finally {
+            simulateur.invaliderPlanification();
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Signale que la ferme a été modifiée sous le verrou en dehors de {@link #executer(Runnable)}.
+     * Doit être appelé avant de rendre le verrou.
+     */
+    public void invaliderPlanification() {
+        simulateur.invaliderPlanification();
+    }
+
+    /**
+     * Exécute tous les pas arrivés à échéance depuis le dernier passage.
+     * Si l'interface tient la ferme, on ne bloque pas le thread : les pas seront rattrapés au prochain passage.
+     */
+    private void executerTicksDus() {
+        if (!verrou.tryLock()) {
+            return;
+        }
+
+        try {
+            long maintenant = horloge.maintenant();
+            if (maintenant < prochainTickMillis) {
+                return;
+            }
+
+            retardMillis = maintenant - prochainTickMillis;
+            long ticksDus = retardMillis / intervalleTickMillis + 1;
+
+            if (ticksDus > maxTicksRattrapage) {
+                ticksDus = rattraperRetard(maintenant, ticksDus);
+            }
+
+            if (ticksDus > 1) {
+                ticksRattrapes += ticksDus - 1;
+            }
+
+            for (long i = 0; i < ticksDus; i++) {
+                if (!executerTick()) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur dans le moteur de simulation: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Simule un long retard par sauts jusqu'au dernier pas dû, sans rejouer chaque pas.
+     * @return Le nombre de pas encore dus ensuite, au plus une seconde de jeu.
+     */
+    private long rattraperRetard(long maintenant, long ticksDus) {
+        long dernierTick = prochainTickMillis + (ticksDus - 1) * intervalleTickMillis;
+        // Le dernier pas exécuté ; avant le premier pas, celui qui l'aurait précédé
+        ferme.setDerniereSimulation(prochainTickMillis - intervalleTickMillis);
+        long avant = ferme.getDerniereSimulation();
+
+        if (rattrapage.rattraper(ferme, dernierTick) == 0) {
+            // Ferme que le rattrapage ne sait pas simuler : le retard au-delà de la limite est abandonné
+            long abandonnes = ticksDus - maxTicksRattrapage;
+            ticksAbandonnes += abandonnes;
+            prochainTickMillis += abandonnes * intervalleTickMillis;
+            return maxTicksRattrapage;
+        }
+
+        // Le rattrapage a modifié la ferme hors du simulateur, dont les échéances sont à recalculer
+        simulateur.invaliderPlanification();
+        ticksRattrapes += (ferme.getDerniereSimulation() - avant) / intervalleTickMillis;
+        prochainTickMillis = ferme.getDerniereSimulation() + intervalleTickMillis;
+        return maintenant < prochainTickMillis ? 0 : (maintenant - prochainTickMillis) / intervalleTickMillis + 1;
+    }
+
+    /**
+     * Exécute le prochain pas dû. Un pas qui échoue est sauté, pour ne pas le retenter à chaque passage.
+     * @return false si le moteur s'est arrêté après trop d'échecs consécutifs.
+     */
+    private boolean executerTick() {
+        long debut = System.nanoTime();
+        try {
+            simulateur.simuler(ferme, prochainTickMillis);
+            ferme.setDerniereSimulation(prochainTickMillis);
+            echecsConsecutifs = 0;
+        } catch (RuntimeException e) {
+            ticksEchoues++;
+            echecsConsecutifs++;
+            System.err.println("[ERROR] Pas de simulation " + prochainTickMillis + " sauté: " + e.getMessage());
+            e.printStackTrace();
+            // Le simulateur a pu s'interrompre au milieu de ses échéances
+            simulateur.invaliderPlanification();
+        } finally {
+            prochainTickMillis += intervalleTickMillis;
+        }
+
+        if (echecsConsecutifs >= MAX_ECHECS_CONSECUTIFS) {
+            System.err.println("[ERROR] Moteur de simulation arrêté après " + echecsConsecutifs + " pas en échec consécutifs");
+            executor.shutdown();
+            return false;
+        }
+
+        long duree = System.nanoTime() - debut;
+        ticksExecutes++;
+        dureeTotaleTicksNanos += duree;
+        derniereDureeTickNanos = duree;
+        if (duree > dureeMaxTickNanos) {
+            dureeMaxTickNanos = duree;
+        }
+        return true;
+    }
+
+    /**
+     * Verrou protégeant la ferme : tenu par le moteur pendant un pas de simulation.
+     * @return Le verrou de la ferme simulée.
+     */
+    public ReentrantLock getVerrou() {
+        return verrou;
+    }
+
+    /**
+     * @return true si le moteur tourne : démarré, ni arrêté ni mis hors service par des pas en échec.
+     */
+    public synchronized boolean isDemarre() {
+        return executor != null && !executor.isShutdown();
+    }
+
+    public Ferme getFerme() {
+        return ferme;
+    }
+
+    public long getIntervalleTickMillis() {
+        return intervalleTickMillis;
+    }
+
+    public long getTicksExecutes() {
+        return ticksExecutes;
+    }
+
+    public long getTicksRattrapes() {
+        return ticksRattrapes;
+    }
+
+    public long getTicksAbandonnes() {
+        return ticksAbandonnes;
+    }
+
+    public long getTicksEchoues() {
+        return ticksEchoues;
+    }
+
+    public double getDureeMoyenneTickMs() {
+        long ticks = ticksExecutes;
+        return ticks == 0 ? 0.0 : dureeTotaleTicksNanos / (double) ticks / 1_000_000.0;
+    }
+
+    public double getDerniereDureeTickMs() {
+        return derniereDureeTickNanos / 1_000_000.0;
+    }
+
+    public double getDureeMaxTickMs() {
+        return dureeMaxTickNanos / 1_000_000.0;
+    }
+
+    /**
+     * Retard du plus ancien pas dû sur son heure prévue, mesuré au dernier passage du moteur.
+     * @return Le retard en millisecondes de temps de jeu.
+     */
+    public double getRetardMs() {
+        return retardMillis;
+    }
+
+    public void printStatistiques() {
+        System.out.println("=== STATISTIQUES DE LA SIMULATION ===");
+        System.out.println("Ticks exécutés: " + ticksExecutes);
+        System.out.println("Ticks rattrapés: " + ticksRattrapes);
+        System.out.println("Ticks abandonnés: " + ticksAbandonnes);
+        System.out.println("Ticks en échec: " + ticksEchoues);
+        System.out.println(String.format("Durée tick (moy/dernier/max): %.3f / %.3f / %.3f ms",
+                getDureeMoyenneTickMs(), getDerniereDureeTickMs(), getDureeMaxTickMs()));
+        System.out.println(String.format("Retard: %.3f ms", getRetardMs()));
+    }
+}
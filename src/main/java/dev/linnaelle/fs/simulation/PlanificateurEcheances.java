@@ -0,0 +1,160 @@
+package dev.linnaelle.fs.simulation;
+
+import java.util.Arrays;
+
+/**
+ * File de priorité des prochaines échéances, indexée par élément.
+ * Chaque élément (un entier de 0 à n-1) a au plus une échéance : la replanifier met à jour son entrée
+ * au lieu d'en ajouter une seconde. Tas binaire sur tableaux primitifs, sans allocation une fois dimensionné.
+ */
+public class PlanificateurEcheances {
+
+    private long[] echeances;
+    private int[] tas;
+    // Position de chaque élément dans le tas, -1 s'il n'est pas planifié
+    private int[] positions;
+    private int taille;
+
+    public PlanificateurEcheances() {
+        this.echeances = new long[16];
+        this.tas = new int[16];
+        this.positions = new int[16];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Planifie ou replanifie un élément.
+     * @param element L'élément, entier positif.
+     * @param echeance Le temps à partir duquel l'élément est dû, en millisecondes.
+     */
+    public void planifier(int element, long echeance) {
+        assurerCapacite(element);
+        echeances[element] = echeance;
+
+        int position = positions[element];
+        if (position < 0) {
+            position = taille++;
+            tas[position] = element;
+            positions[element] = position;
+            monter(position);
+        } else {
+            monter(position);
+            descendre(positions[element]);
+        }
+    }
+
+    /**
+     * Retire la planification d'un élément. Sans effet s'il n'est pas planifié.
+     */
+    public void annuler(int element) {
+        if (element >= positions.length || positions[element] < 0) {
+            return;
+        }
+
+        int position = positions[element];
+        positions[element] = -1;
+        taille--;
+        if (position < taille) {
+            int deplace = tas[taille];
+            tas[position] = deplace;
+            positions[deplace] = position;
+            monter(position);
+            descendre(positions[deplace]);
+        }
+    }
+
+    /**
+     * Retire l'élément dont l'échéance est la plus proche, s'il est dû.
+     * @param tempsCourant Le temps courant en millisecondes.
+     * @return L'élément dû, ou -1 si aucun élément n'est dû.
+     */
+    public int retirerEchu(long tempsCourant) {
+        if (taille == 0 || echeances[tas[0]] > tempsCourant) {
+            return -1;
+        }
+
+        int element = tas[0];
+        annuler(element);
+        return element;
+    }
+
+    /**
+     * @return L'échéance la plus proche, ou {@link Long#MAX_VALUE} si rien n'est planifié.
+     */
+    public long prochaineEcheance() {
+        return taille == 0 ? Long.MAX_VALUE : echeances[tas[0]];
+    }
+
+    public boolean estPlanifie(int element) {
+        return element < positions.length && positions[element] >= 0;
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    /**
+     * Retire toutes les planifications.
+     */
+    public void vider() {
+        for (int i = 0; i < taille; i++) {
+            positions[tas[i]] = -1;
+        }
+        taille = 0;
+    }
+
+    private void monter(int position) {
+        int element = tas[position];
+        long echeance = echeances[element];
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (echeances[tas[parent]] <= echeance) {
+                break;
+            }
+            tas[position] = tas[parent];
+            positions[tas[position]] = position;
+            position = parent;
+        }
+
+        tas[position] = element;
+        positions[element] = position;
+    }
+
+    private void descendre(int position) {
+        int element = tas[position];
+        long echeance = echeances[element];
+
+        while (true) {
+            int enfant = 2 * position + 1;
+            if (enfant >= taille) {
+                break;
+            }
+            if (enfant + 1 < taille && echeances[tas[enfant + 1]] < echeances[tas[enfant]]) {
+                enfant++;
+            }
+            if (echeance <= echeances[tas[enfant]]) {
+                break;
+            }
+            tas[position] = tas[enfant];
+            positions[tas[position]] = position;
+            position = enfant;
+        }
+
+        tas[position] = element;
+        positions[element] = position;
+    }
+
+    private void assurerCapacite(int element) {
+        if (element < positions.length) {
+            return;
+        }
+
+        int nouvelleTaille = Math.max(element + 1, positions.length * 2);
+        int ancienneTaille = positions.length;
+        echeances = Arrays.copyOf(echeances, nouvelleTaille);
+        tas = Arrays.copyOf(tas, nouvelleTaille);
+        positions = Arrays.copyOf(positions, nouvelleTaille);
+        Arrays.fill(positions, ancienneTaille, nouvelleTaille, -1);
+    }
+}
@@ -0,0 +1,106 @@
+package dev.linnaelle.fs.simulation;
+
+import dev.linnaelle.fs.entities.AnimalInfo;
+import dev.linnaelle.fs.services.CatalogueService;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Besoins et production d'un type d'animal, résolus une fois au chargement du catalogue.
+ * Les articles produits portent leurs identifiants déjà résolus : nourrir et faire produire un troupeau
+ * ne demande ni analyse de chaîne ni test sur le nom du type.
+ * Le profil est immuable.
+ */
+public final class ProfilAnimal {
+
+    private final String type;
+    private final int consoEau;
+    private final int consoHerbe;
+    private final int[] articles;
+    private final int[] quantites;
+    private final Map<String, Integer> production;
+
+    /**
+     * Compile le profil d'un animal du catalogue.
+     * @param info L'animal du catalogue.
+     * @param catalogue Le catalogue, pour résoudre les identifiants d'articles.
+     */
+    public ProfilAnimal(AnimalInfo info, CatalogueService catalogue) {
+        this.type = info.getNom().toLowerCase();
+        this.consoEau = info.getConsoEau();
+        this.consoHerbe = info.getConsoHerbe();
+
+        // Un animal du catalogue sans quantités produit une unité de chaque article par seconde
+        Map<String, Integer> parArticle = new LinkedHashMap<>();
+        if (info.getProduction() != null) {
+            parArticle.putAll(info.getProduction());
+        } else if (info.getArticlesProduits() != null) {
+            for (String article : info.getArticlesProduits()) {
+                parArticle.put(article, 1);
+            }
+        }
+
+        this.articles = new int[parArticle.size()];
+        this.quantites = new int[parArticle.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> produit : parArticle.entrySet()) {
+            articles[i] = catalogue.getArticleId(produit.getKey());
+            quantites[i] = produit.getValue();
+            i++;
+        }
+        this.production = Collections.unmodifiableMap(parArticle);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Consommation d'eau par seconde d'un animal, en litres.
+     */
+    public int getConsoEau() {
+        return consoEau;
+    }
+
+    /**
+     * Consommation d'herbe par seconde d'un animal.
+     */
+    public int getConsoHerbe() {
+        return consoHerbe;
+    }
+
+    public int getNombreProduits() {
+        return articles.length;
+    }
+
+    /**
+     * Identifiant du i-ème article produit.
+     */
+    public int getArticle(int i) {
+        return articles[i];
+    }
+
+    /**
+     * Quantité du i-ème article produite par seconde par un animal en bonne santé.
+     */
+    public int getQuantite(int i) {
+        return quantites[i];
+    }
+
+    /**
+     * @return La production par seconde par nom d'article, pour l'affichage et le rattrapage ; non modifiable.
+     */
+    public Map<String, Integer> getProduction() {
+        return production;
+    }
+
+    @Override
+    public String toString() {
+        return "ProfilAnimal{" +
+                "type='" + type + '\'' +
+                ", production=" + production +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,574 @@
+package dev.linnaelle.fs.simulation;
+
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.simulation.GrapheProduction.Recette;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rattrapage du temps écoulé hors ligne, au pas d'une seconde du jeu.
+ *
+ * Plutôt que de rejouer chaque seconde, on cherche à chaque étape le plus long intervalle pendant lequel
+ * chaque entité se comporte de façon uniforme (tous les animaux boivent ou aucun, un animal reste productif
+ * ou improductif, aucune serre ni usine ne se met en pause, aucun stock ne sature) et on l'applique en une
+ * seule fois. Les remplissages du réservoir, les récoltes des serres et les cycles des usines qui tombent dans
+ * l'intervalle sont comptés directement, sans le couper. Les secondes charnières sont rejouées avec
+ * {@link SimulateurFerme}, ce qui garantit le même résultat qu'une simulation pas à pas.
+ *
+ * Lorsque plus rien ne peut produire, chaque période de remplissage du réservoir est identique à la précédente :
+ * on en simule une seule et on reporte ses effets sur toutes les périodes restantes.
+ */
+public class RattrapageSimulation {
+
+    public static final long PAS_MILLIS = 1000;
+    private static final long PAS_PAR_PERIODE = ReservoirEau.INTERVALLE_REMPLISSAGE / PAS_MILLIS;
+    private static final long PAS_PAR_RECOLTE = Serre.INTERVALLE_RECOLTE / PAS_MILLIS;
+    private static final String ARTICLE_RECOLTE = "fraises";
+
+    private final SimulateurFerme simulateur;
+
+    private long pasExacts;
+    private long pasSautes;
+    private long sauts;
+    private long periodesRepliees;
+
+    public RattrapageSimulation() {
+        this.simulateur = new SimulateurFerme();
+    }
+
+    /**
+     * Fait avancer la ferme depuis sa dernière simulation jusqu'au temps donné.
+     * Seules les secondes entières sont simulées, le reste est laissé au prochain rattrapage.
+     * @param ferme La ferme à rattraper.
+     * @param jusqua Le temps à atteindre, en millisecondes.
+     * @return Le nombre de secondes simulées.
+     */
+    public long rattraper(Ferme ferme, long jusqua) {
+        if (ferme == null || jusqua - ferme.getDerniereSimulation() < PAS_MILLIS) {
+            return 0;
+        }
+
+        if (ferme.getStockPrincipal() == null || ferme.getEntrepot() == null) {
+            System.err.println("[ERROR] Ferme incomplète, rattrapage impossible: " + ferme.getName());
+            return 0;
+        }
+
+        long debut = ferme.getDerniereSimulation();
+        long total = (jusqua - debut) / PAS_MILLIS;
+        long temps = debut;
+        long restants = total;
+
+        while (restants > 0) {
+            long avance = avancer(ferme, temps, restants);
+            temps += avance * PAS_MILLIS;
+            restants -= avance;
+
+            if (restants >= 2 * PAS_PAR_PERIODE && estRemplissage(ferme, temps) && estRegimeStable(ferme, temps)) {
+                long replie = replierPeriodes(ferme, temps, restants);
+                temps += replie * PAS_MILLIS;
+                restants -= replie;
+            }
+        }
+
+        ferme.setDerniereSimulation(temps);
+        return total;
+    }
+
+    /**
+     * Avance d'un saut si possible, sinon d'un pas exact.
+     * @return Le nombre de secondes avancées.
+     */
+    private long avancer(Ferme ferme, long temps, long restants) {
+        long saut = essayerSaut(ferme, temps, restants);
+        if (saut > 0) {
+            // Le saut modifie la ferme hors du simulateur, dont les échéances sont à recalculer
+            simulateur.invaliderPlanification();
+            pasSautes += saut;
+            sauts++;
+            return saut;
+        }
+
+        simulateur.simuler(ferme, temps + PAS_MILLIS);
+        pasExacts++;
+        return 1;
+    }
+
+    /**
+     * Cherche le plus long intervalle uniforme à partir de {@code temps} et l'applique.
+     * @return Le nombre de secondes sautées, 0 si la seconde suivante doit être rejouée pas à pas.
+     */
+    private long essayerSaut(Ferme ferme, long temps, long restants) {
+        ReservoirEau reservoir = ferme.getReservoirEau();
+        long horizon = restants;
+
+        List<Serre> serres = new ArrayList<>();
+        List<Usine> usines = new ArrayList<>();
+        if (ferme.getStructures() != null) {
+            for (StructureProduction structure : ferme.getStructures()) {
+                if (!structure.isActive() || structure.isEnPause()) {
+                    continue;
+                }
+                if (structure instanceof Serre) {
+                    if (reservoir == null) {
+                        return 0;
+                    }
+                    serres.add((Serre) structure);
+                } else if (structure instanceof Usine) {
+                    usines.add((Usine) structure);
+                } else {
+                    return 0;
+                }
+            }
+        }
+
+        // Les animaux ne sont simulés qu'en présence d'un réservoir
+        List<Animal> actifs = new ArrayList<>();
+        List<Animal> enAttente = new ArrayList<>();
+        long demandeAnimaux = 0;
+        long demandeSerres = (long) Serre.CONSO_EAU * serres.size();
+        int consoEauMin = Integer.MAX_VALUE;
+
+        if (reservoir != null) {
+            for (Animal animal : animauxVivants(ferme)) {
+                boolean eauPrete = animal.getDernierPrelevementEau() <= temps;
+                boolean herbePrete = animal.getDernierPrelevementHerbe() <= temps;
+
+                if (eauPrete && herbePrete) {
+                    actifs.add(animal);
+                    int consoEau = animal.getConsoEauParSeconde();
+                    demandeAnimaux += consoEau;
+                    consoEauMin = Math.min(consoEauMin, consoEau);
+                } else if (!eauPrete && !herbePrete) {
+                    // Ni eau ni herbe avant la fin de l'attente : l'animal produit selon son dernier état
+                    enAttente.add(animal);
+                    long finAttente = Math.min(animal.getDernierPrelevementEau(), animal.getDernierPrelevementHerbe()) + PAS_MILLIS;
+                    horizon = Math.min(horizon, pasAvant(temps, finAttente) - 1);
+                } else {
+                    return 0;
+                }
+            }
+        }
+
+        long demandeEau = demandeAnimaux + demandeSerres;
+        boolean boivent;
+        if (demandeEau == 0 || reservoir.getQuantite() >= demandeEau) {
+            boivent = true;
+            horizon = Math.min(horizon, limiteEau(reservoir, temps, demandeAnimaux, demandeSerres));
+        } else if (serres.isEmpty() && reservoir.getQuantite() < consoEauMin) {
+            // Personne ne boit jusqu'au prochain remplissage
+            boivent = false;
+            horizon = Math.min(horizon, pasAvant(temps, prochainRemplissage(reservoir)) - 1);
+        } else {
+            return 0;
+        }
+
+        Map<Animal, Boolean> productifs = new HashMap<>();
+        Map<String, Long> debits = new LinkedHashMap<>();
+        Map<String, Integer> morceauxMin = new HashMap<>();
+
+        for (Animal animal : actifs) {
+            boolean productif = false;
+            if (boivent) {
+                int consoHerbe = animal.getConsoHerbeParSeconde();
+                productif = animal.getStockHerbe() >= consoHerbe;
+                if (productif && consoHerbe > 0) {
+                    horizon = Math.min(horizon, animal.getStockHerbe() / consoHerbe);
+                }
+            }
+            productifs.put(animal, productif);
+            if (productif) {
+                ajouterDebits(animal, debits, morceauxMin);
+            }
+        }
+
+        for (Animal animal : enAttente) {
+            if (!animal.isDeficit()) {
+                ajouterDebits(animal, debits, morceauxMin);
+            }
+        }
+
+        Map<String, Stockage> destinations = new HashMap<>();
+        for (Map.Entry<String, Long> debit : debits.entrySet()) {
+            String article = debit.getKey();
+            long quantite = debit.getValue();
+            int morceauMin = morceauxMin.get(article);
+
+            Stockage stock = ferme.getStockPrincipal();
+            long libre = stock.getCapaciteMax() - stock.getQuantite(article);
+            if (quantite <= libre) {
+                destinations.put(article, stock);
+                horizon = Math.min(horizon, libre / quantite);
+            } else if (morceauMin > libre) {
+                Entrepot entrepot = ferme.getEntrepot();
+                if (entrepot.peutStocker(article)) {
+                    long libreEntrepot = entrepot.getCapaciteMax() - entrepot.getQuantite(article);
+                    if (quantite <= libreEntrepot) {
+                        destinations.put(article, entrepot);
+                        horizon = Math.min(horizon, libreEntrepot / quantite);
+                    } else if (morceauMin <= libreEntrepot) {
+                        return 0;
+                    }
+                }
+            } else {
+                return 0;
+            }
+        }
+
+        // Les récoltes changeraient la place libre d'un article produit par les animaux
+        if (debits.containsKey(ARTICLE_RECOLTE)) {
+            for (Serre serre : serres) {
+                horizon = Math.min(horizon, pasAvant(temps, serre.getDernierRecolte() + Serre.INTERVALLE_RECOLTE) - 1);
+            }
+        }
+
+        List<Usine> reguliers = new ArrayList<>();
+        for (Usine usine : usines) {
+            if (estReguliere(ferme, usine, !serres.isEmpty(), debits, destinations)) {
+                reguliers.add(usine);
+            } else {
+                horizon = Math.min(horizon, pasAvant(temps, usine.prochainCycleActif(temps + PAS_MILLIS)) - 1);
+            }
+        }
+
+        if (horizon >= 2 && !structuresTiennent(ferme, temps, horizon, serres, reguliers, debits, destinations)) {
+            // Les contraintes des structures ne font que se resserrer avec l'horizon : recherche dichotomique
+            long valide = 0;
+            long invalide = horizon;
+            while (invalide - valide > 1) {
+                long milieu = valide + (invalide - valide) / 2;
+                if (structuresTiennent(ferme, temps, milieu, serres, reguliers, debits, destinations)) {
+                    valide = milieu;
+                } else {
+                    invalide = milieu;
+                }
+            }
+            horizon = valide;
+        }
+
+        if (horizon < 2) {
+            return 0;
+        }
+
+        long tempsFin = temps + horizon * PAS_MILLIS;
+
+        for (Animal animal : actifs) {
+            if (!boivent) {
+                animal.setDeficit(true);
+                continue;
+            }
+
+            animal.setStockHerbe((int) (animal.getStockHerbe() - horizon * animal.getConsoHerbeParSeconde()));
+            animal.setDernierPrelevementEau(tempsFin);
+            if (productifs.get(animal)) {
+                animal.setDernierPrelevementHerbe(tempsFin);
+                animal.setDeficit(false);
+            } else {
+                animal.setDeficit(true);
+            }
+        }
+
+        if (reservoir != null) {
+            long remplissage = pasAvant(temps, prochainRemplissage(reservoir));
+            if (horizon >= remplissage) {
+                // Seule compte la consommation qui suit le dernier remplissage
+                long dernier = remplissage + (horizon - remplissage) / PAS_PAR_PERIODE * PAS_PAR_PERIODE;
+                reservoir.remplir(temps + dernier * PAS_MILLIS);
+                reservoir.setQuantite((int) (reservoir.getQuantite() - demandeSerres - (horizon - dernier) * demandeEau));
+            } else if (boivent && demandeEau > 0) {
+                reservoir.setQuantite((int) (reservoir.getQuantite() - horizon * demandeEau));
+            }
+        }
+
+        for (Map.Entry<String, Stockage> destination : destinations.entrySet()) {
+            String article = destination.getKey();
+            destination.getValue().ajouter(article, (int) (debits.get(article) * horizon));
+        }
+
+        for (Serre serre : serres) {
+            long recoltes = compterRecoltes(serre, temps, horizon);
+            if (recoltes > 0) {
+                long premiere = pasAvant(temps, serre.getDernierRecolte() + Serre.INTERVALLE_RECOLTE);
+                ferme.getStockPrincipal().ajouter(ARTICLE_RECOLTE, (int) (recoltes * Serre.QUANTITE_RECOLTE));
+                serre.setDernierRecolte(temps + (premiere + (recoltes - 1) * PAS_PAR_RECOLTE) * PAS_MILLIS);
+            }
+        }
+
+        for (Usine usine : reguliers) {
+            long cycles = usine.compterPasActifs(temps, PAS_MILLIS, horizon);
+            if (cycles > 0) {
+                Recette recette = usine.getRecette();
+                for (int i = 0; i < recette.getNombreIntrants(); i++) {
+                    ferme.getStockPrincipal().retirer(recette.getIntrant(i), (int) (cycles * recette.getQuantite(i)));
+                }
+                ferme.getEntrepot().ajouter(recette.getProduit(), (int) (cycles * recette.getQuantiteProduite()));
+            }
+        }
+
+        mettreAJourChamps(ferme, tempsFin);
+        return horizon;
+    }
+
+    /**
+     * Nombre de pas pendant lesquels le réservoir suffit à tous, remplissages compris.
+     * Au pas d'un remplissage, les animaux boivent avant le remplissage et les serres après.
+     * @return Le nombre de pas, {@link Long#MAX_VALUE} si le réservoir ne manque jamais.
+     */
+    private static long limiteEau(ReservoirEau reservoir, long temps, long demandeAnimaux, long demandeSerres) {
+        long demande = demandeAnimaux + demandeSerres;
+        if (reservoir == null || demande == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        long quantite = reservoir.getQuantite();
+        long remplissage = pasAvant(temps, prochainRemplissage(reservoir));
+        if (quantite - (remplissage - 1) * demande < demandeAnimaux) {
+            return Math.min(remplissage - 1, quantite / demande);
+        }
+
+        long apresRemplissage = reservoir.getCapacite() - demandeSerres;
+        if (apresRemplissage < 0) {
+            return remplissage - 1;
+        }
+        if (reservoir.getCapacite() >= PAS_PAR_PERIODE * demande) {
+            return Long.MAX_VALUE;
+        }
+        return remplissage + apresRemplissage / demande;
+    }
+
+    /**
+     * Une usine est régulière si chacun de ses cycles produit jusqu'à épuisement des stocks, sans changer
+     * la destination de la production animale : ses intrants déjà produits par les animaux vont au stock principal,
+     * son produit n'en fait pas partie et aucun intrant n'est récolté par une serre.
+     */
+    private boolean estReguliere(Ferme ferme, Usine usine, boolean recoltes, Map<String, Long> debits, Map<String, Stockage> destinations) {
+        Recette recette = usine.getRecette();
+        if (recette == null || recette.getNombreIntrants() == 0 || !ferme.getEntrepot().peutStocker(recette.getProduit())
+                || debits.containsKey(recette.getNomProduit())) {
+            return false;
+        }
+
+        for (int i = 0; i < recette.getNombreIntrants(); i++) {
+            String intrant = recette.getNomIntrant(i);
+            if (recoltes && ARTICLE_RECOLTE.equals(intrant)) {
+                return false;
+            }
+            if (debits.containsKey(intrant) && destinations.get(intrant) != ferme.getStockPrincipal()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Vérifie que toutes les récoltes et tous les cycles d'usine des {@code horizon} prochains pas trouvent
+     * leurs intrants et la place nécessaire. Les conditions sont suffisantes et ne font que se resserrer
+     * lorsque l'horizon augmente.
+     */
+    private boolean structuresTiennent(Ferme ferme, long temps, long horizon, List<Serre> serres, List<Usine> usines,
+                                       Map<String, Long> debits, Map<String, Stockage> destinations) {
+        Stockage stock = ferme.getStockPrincipal();
+        Entrepot entrepot = ferme.getEntrepot();
+
+        long debitPrincipal = 0;
+        long debitEntrepot = 0;
+        for (Map.Entry<String, Stockage> destination : destinations.entrySet()) {
+            if (destination.getValue() == stock) {
+                debitPrincipal += debits.get(destination.getKey());
+            } else {
+                debitEntrepot += debits.get(destination.getKey());
+            }
+        }
+
+        long recoltes = 0;
+        for (Serre serre : serres) {
+            recoltes += compterRecoltes(serre, temps, horizon);
+        }
+        if (recoltes > 0 && horizon * debitPrincipal + recoltes * Serre.QUANTITE_RECOLTE > stock.capaciteLibre()) {
+            return false;
+        }
+
+        long produits = 0;
+        Map<String, Long> consommes = new HashMap<>();
+        Map<String, Long> consoParPas = new HashMap<>();
+        for (Usine usine : usines) {
+            long cycles = usine.compterPasActifs(temps, PAS_MILLIS, horizon);
+            Recette recette = usine.getRecette();
+            produits += cycles * recette.getQuantiteProduite();
+            for (int i = 0; i < recette.getNombreIntrants(); i++) {
+                consommes.merge(recette.getNomIntrant(i), cycles * recette.getQuantite(i), Long::sum);
+                consoParPas.merge(recette.getNomIntrant(i), (long) recette.getQuantite(i), Long::sum);
+            }
+        }
+        if (produits > 0 && produits + horizon * debitEntrepot > entrepot.capaciteLibre()) {
+            return false;
+        }
+
+        for (Map.Entry<String, Long> consomme : consommes.entrySet()) {
+            String intrant = consomme.getKey();
+            long disponible = stock.getQuantite(intrant);
+            long apport = destinations.get(intrant) == stock ? debits.get(intrant) : 0;
+            // Soit le stock couvre tous les cycles, soit il couvre un cycle à chaque pas, apport des animaux compris
+            if (consomme.getValue() > disponible && horizon * (consoParPas.get(intrant) - apport) > disponible) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Nombre de récoltes d'une serre pendant les {@code horizon} prochains pas.
+     */
+    private static long compterRecoltes(Serre serre, long temps, long horizon) {
+        long premiere = pasAvant(temps, serre.getDernierRecolte() + Serre.INTERVALLE_RECOLTE);
+        return horizon >= premiere ? 1 + (horizon - premiere) / PAS_PAR_RECOLTE : 0;
+    }
+
+    private static long prochainRemplissage(ReservoirEau reservoir) {
+        return reservoir.getDernierRemplissage() + ReservoirEau.INTERVALLE_REMPLISSAGE;
+    }
+
+    /**
+     * Simule une période de remplissage complète puis reporte son effet sur les périodes suivantes.
+     * Appelé juste après un remplissage, quand plus aucune entité ne peut produire.
+     * @return Le nombre de secondes avancées.
+     */
+    private long replierPeriodes(Ferme ferme, long temps, long restants) {
+        List<Animal> animaux = animauxVivants(ferme);
+        int[] stocksHerbe = new int[animaux.size()];
+        long[] prelevementsEau = new long[animaux.size()];
+        long[] prelevementsHerbe = new long[animaux.size()];
+        for (int i = 0; i < animaux.size(); i++) {
+            stocksHerbe[i] = animaux.get(i).getStockHerbe();
+            prelevementsEau[i] = animaux.get(i).getDernierPrelevementEau();
+            prelevementsHerbe[i] = animaux.get(i).getDernierPrelevementHerbe();
+        }
+
+        long t = temps;
+        long reste = PAS_PAR_PERIODE;
+        while (reste > 0) {
+            long avance = avancer(ferme, t, reste);
+            t += avance * PAS_MILLIS;
+            reste -= avance;
+        }
+
+        long periodes = (restants - PAS_PAR_PERIODE) / PAS_PAR_PERIODE;
+        long decalage = periodes * ReservoirEau.INTERVALLE_REMPLISSAGE;
+
+        for (int i = 0; i < animaux.size(); i++) {
+            Animal animal = animaux.get(i);
+            animal.setStockHerbe((int) (animal.getStockHerbe() + periodes * (animal.getStockHerbe() - stocksHerbe[i])));
+            if (animal.getDernierPrelevementEau() != prelevementsEau[i]) {
+                animal.setDernierPrelevementEau(animal.getDernierPrelevementEau() + decalage);
+            }
+            if (animal.getDernierPrelevementHerbe() != prelevementsHerbe[i]) {
+                animal.setDernierPrelevementHerbe(animal.getDernierPrelevementHerbe() + decalage);
+            }
+        }
+
+        ReservoirEau reservoir = ferme.getReservoirEau();
+        reservoir.setDernierRemplissage(reservoir.getDernierRemplissage() + decalage);
+
+        mettreAJourChamps(ferme, t + decalage);
+        simulateur.invaliderPlanification();
+        periodesRepliees += periodes;
+        pasSautes += periodes * PAS_PAR_PERIODE;
+        return PAS_PAR_PERIODE + periodes * PAS_PAR_PERIODE;
+    }
+
+    private boolean estRemplissage(Ferme ferme, long temps) {
+        return ferme.getReservoirEau() != null && ferme.getReservoirEau().getDernierRemplissage() == temps;
+    }
+
+    /**
+     * Vérifie que plus rien ne peut produire ni changer de comportement : aucune structure active,
+     * et des animaux qui ont épuisé leur herbe (elle ne fait que baisser hors ligne).
+     */
+    private boolean estRegimeStable(Ferme ferme, long temps) {
+        if (ferme.getStructures() != null) {
+            for (StructureProduction structure : ferme.getStructures()) {
+                if (structure.isActive() && !structure.isEnPause()) {
+                    return false;
+                }
+            }
+        }
+
+        for (Animal animal : animauxVivants(ferme)) {
+            if (animal.getDernierPrelevementEau() > temps || animal.getDernierPrelevementHerbe() > temps) {
+                return false;
+            }
+            int consoHerbe = animal.getConsoHerbeParSeconde();
+            if (consoHerbe <= 0 || animal.getStockHerbe() >= consoHerbe) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void ajouterDebits(Animal animal, Map<String, Long> debits, Map<String, Integer> morceauxMin) {
+        for (Map.Entry<String, Integer> produit : animal.getProductionNominale().entrySet()) {
+            debits.merge(produit.getKey(), (long) produit.getValue(), Long::sum);
+            morceauxMin.merge(produit.getKey(), produit.getValue(), Math::min);
+        }
+    }
+
+    private List<Animal> animauxVivants(Ferme ferme) {
+        List<Animal> animaux = new ArrayList<>();
+        if (ferme.getChamps() == null || ferme.getReservoirEau() == null) {
+            return animaux;
+        }
+
+        for (Champ champ : ferme.getChamps()) {
+            if (champ.getFermeAnimale() != null && champ.getFermeAnimale().getAnimaux() != null) {
+                for (Animal animal : champ.getFermeAnimale().getAnimaux()) {
+                    if (animal.isVivant()) {
+                        animaux.add(animal);
+                    }
+                }
+            }
+        }
+        return animaux;
+    }
+
+    private void mettreAJourChamps(Ferme ferme, long temps) {
+        if (ferme.getChamps() != null) {
+            for (Champ champ : ferme.getChamps()) {
+                champ.mettreAJour(temps);
+            }
+        }
+    }
+
+    /**
+     * Rang du premier pas de simulation, après {@code temps}, qui atteint l'instant donné.
+     */
+    private static long pasAvant(long temps, long instant) {
+        return Math.max(1, -Math.floorDiv(temps - instant, PAS_MILLIS));
+    }
+
+    public long getPasExacts() {
+        return pasExacts;
+    }
+
+    public long getPasSautes() {
+        return pasSautes;
+    }
+
+    public long getSauts() {
+        return sauts;
+    }
+
+    public long getPeriodesRepliees() {
+        return periodesRepliees;
+    }
+
+    public void printStatistiques() {
+        System.out.println("=== STATISTIQUES DU RATTRAPAGE ===");
+        System.out.println("Pas rejoués: " + pasExacts);
+        System.out.println("Pas sautés: " + pasSautes + " (" + sauts + " sauts)");
+        System.out.println("Périodes repliées: " + periodesRepliees);
+    }
+}
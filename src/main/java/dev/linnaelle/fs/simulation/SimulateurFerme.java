@@ -0,0 +1,199 @@
+package dev.linnaelle.fs.simulation;
+
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.services.CatalogueService;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Logique d'un pas de simulation pour une ferme.
+ * Fait consommer et produire les animaux, remplit le réservoir, fait tourner les structures de production
+ * et fait mûrir les champs.
+ *
+ * Le remplissage du réservoir, les structures et les champs ne sont touchés que lorsque leur prochaine échéance
+ * est passée : chacun est planifié dans un {@link PlanificateurEcheances}, et un pas ne coûte que les troupeaux
+ * et les entités dues. La planification, qui repère aussi les enclos, est recalculée au premier pas, quand la ferme change, et après
+ * {@link #invaliderPlanification()}, à appeler dès que la ferme est modifiée en dehors de la simulation.
+ */
+public class SimulateurFerme {
+
+    private final AccumulateurProduction production = new AccumulateurProduction();
+
+    // Structure i : élément 2i, champ j : élément 2j + 1
+    private final PlanificateurEcheances planificateur = new PlanificateurEcheances();
+    // Structures dues du pas, clé (rang topologique << 32 | indice) pour les traiter de l'amont vers l'aval
+    private long[] structuresDues = new long[8];
+    private int[] rangsStructures = new int[8];
+    private int[] champsEnclos = new int[8];
+    private int nombreEnclos;
+    private Ferme fermePlanifiee;
+    private int structuresPlanifiees;
+    private int champsPlanifies;
+    private long echeanceRemplissage;
+    private boolean planificationValide;
+
+    /**
+     * Fait avancer la ferme d'un pas de simulation.
+     * Toute la production du pas est accumulée puis rangée en une fois à la fin du pas.
+     * @param ferme La ferme à simuler.
+     * @param tempsCourant Le temps simulé du pas, en millisecondes.
+     */
+    public void simuler(Ferme ferme, long tempsCourant) {
+        if (ferme == null) {
+            return;
+        }
+
+        production.commencer(ferme.getStockPrincipal(), ferme.getEntrepot());
+        try {
+            simulerPas(ferme, tempsCourant);
+        } finally {
+            production.vider();
+        }
+    }
+
+    /**
+     * Signale que la ferme a été modifiée hors simulation (action du joueur, saut de rattrapage...) :
+     * les échéances seront recalculées au prochain pas.
+     */
+    public void invaliderPlanification() {
+        planificationValide = false;
+    }
+
+    private void simulerPas(Ferme ferme, long tempsCourant) {
+        List<Champ> champs = ferme.getChamps();
+        List<StructureProduction> structures = ferme.getStructures();
+        ReservoirEau reservoir = ferme.getReservoirEau();
+
+        if (!planificationValide || fermePlanifiee != ferme
+                || structuresPlanifiees != taille(structures) || champsPlanifies != taille(champs)) {
+            planifier(ferme, tempsCourant);
+        }
+
+        if (reservoir != null) {
+            for (int i = 0; i < nombreEnclos; i++) {
+                FermeAnimale troupeau = champs.get(champsEnclos[i]).getFermeAnimale();
+                if (troupeau != null && troupeau.getNombreAnimaux() > 0) {
+                    int productifs = troupeau.simuler(tempsCourant, reservoir);
+
+                    if (productifs > 0) {
+                        ProfilAnimal profil = CatalogueService.getInstance().getProfilAnimal(troupeau.getTypeAnimalId());
+                        for (int p = 0; profil != null && p < profil.getNombreProduits(); p++) {
+                            production.deposerLots(profil.getArticle(p), profil.getQuantite(p), productifs);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (reservoir != null && tempsCourant >= echeanceRemplissage) {
+            reservoir.remplir(tempsCourant);
+            echeanceRemplissage = reservoir.getDernierRemplissage() + ReservoirEau.INTERVALLE_REMPLISSAGE;
+        }
+
+        // Les structures dues sont traitées par rang topologique puis dans l'ordre de la ferme,
+        // les champs dans n'importe quel ordre
+        int nombreDues = 0;
+        for (int element = planificateur.retirerEchu(tempsCourant); element >= 0;
+                element = planificateur.retirerEchu(tempsCourant)) {
+            if ((element & 1) == 0) {
+                if (nombreDues == structuresDues.length) {
+                    structuresDues = Arrays.copyOf(structuresDues, nombreDues * 2);
+                }
+                int indice = element >>> 1;
+                structuresDues[nombreDues++] = ((long) rangsStructures[indice] << 32) | indice;
+            } else {
+                champs.get(element >>> 1).mettreAJour(tempsCourant);
+                planifierChamp(element >>> 1, champs.get(element >>> 1));
+            }
+        }
+        Arrays.sort(structuresDues, 0, nombreDues);
+
+        for (int i = 0; i < nombreDues; i++) {
+            int indice = (int) structuresDues[i];
+            StructureProduction structure = structures.get(indice);
+            if (structure.isActive() && !structure.isEnPause()) {
+                try {
+                    if (structure instanceof Usine) {
+                        ((Usine) structure).produire(tempsCourant, ferme.getEntrepot(), production);
+                    } else if (structure instanceof Serre) {
+                        ((Serre) structure).produire(tempsCourant, reservoir, production);
+                    } else {
+                        structure.produire(tempsCourant, reservoir, ferme.getStockPrincipal());
+                    }
+                } catch (Exception e) {
+                    System.err.println("Erreur lors de la production de " + structure.getType() + ": " + e.getMessage());
+                }
+            }
+            planifierStructure(indice, structure, tempsCourant + 1);
+        }
+    }
+
+    /**
+     * Recalcule toutes les échéances de la ferme.
+     */
+    private void planifier(Ferme ferme, long tempsCourant) {
+        planificateur.vider();
+        fermePlanifiee = ferme;
+        structuresPlanifiees = taille(ferme.getStructures());
+        champsPlanifies = taille(ferme.getChamps());
+
+        ReservoirEau reservoir = ferme.getReservoirEau();
+        echeanceRemplissage = reservoir != null
+                ? reservoir.getDernierRemplissage() + ReservoirEau.INTERVALLE_REMPLISSAGE
+                : Long.MAX_VALUE;
+
+        GrapheProduction graphe = CatalogueService.getInstance().getGrapheProduction();
+        if (rangsStructures.length < structuresPlanifiees) {
+            rangsStructures = new int[structuresPlanifiees];
+        }
+        for (int i = 0; i < structuresPlanifiees; i++) {
+            StructureProduction structure = ferme.getStructures().get(i);
+            rangsStructures[i] = graphe.getRang(structure.getType());
+            planifierStructure(i, structure, tempsCourant);
+        }
+        nombreEnclos = 0;
+        for (int j = 0; j < champsPlanifies; j++) {
+            Champ champ = ferme.getChamps().get(j);
+            planifierChamp(j, champ);
+            if (champ.getFermeAnimale() != null) {
+                if (nombreEnclos == champsEnclos.length) {
+                    champsEnclos = Arrays.copyOf(champsEnclos, nombreEnclos * 2);
+                }
+                champsEnclos[nombreEnclos++] = j;
+            }
+        }
+
+        planificationValide = true;
+    }
+
+    /**
+     * Une structure à l'arrêt n'a pas d'échéance. Une serre en marche consomme de l'eau à chaque pas ;
+     * une usine n'est due qu'au début de son prochain cycle de traitement.
+     * @param aPartirDe Le premier temps auquel la structure peut être due.
+     */
+    private void planifierStructure(int indice, StructureProduction structure, long aPartirDe) {
+        if (!structure.isActive() || structure.isEnPause()) {
+            planificateur.annuler(2 * indice);
+        } else if (structure instanceof Usine) {
+            planificateur.planifier(2 * indice, ((Usine) structure).prochainCycleActif(aPartirDe));
+        } else {
+            planificateur.planifier(2 * indice, aPartirDe);
+        }
+    }
+
+    /**
+     * Un champ n'est dû qu'à la fin de sa semence ou de sa fertilisation.
+     */
+    private void planifierChamp(int indice, Champ champ) {
+        if (champ.getEtat() == EtatChamp.SEME || champ.getEtat() == EtatChamp.FERTILISE) {
+            planificateur.planifier(2 * indice + 1, champ.getTempsAction());
+        } else {
+            planificateur.annuler(2 * indice + 1);
+        }
+    }
+
+    private static int taille(List<?> liste) {
+        return liste != null ? liste.size() : 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package dev.linnaelle.fs.test;
+
+import com.google.gson.Gson;
+import dev.linnaelle.fs.model.Config;
+
+import java.io.File;
+
+/**
+ * Outils communs aux bancs d'essai : base fichier neuve, vérifications et affichage des mesures.
+ */
+final class BancDeTest {
+
+    private BancDeTest() {
+    }
+
+    /**
+     * Supprime une base de test et ses fichiers WAL, pour repartir d'une base vide.
+     * @param chemin Le chemin de la base.
+     * @return La configuration d'une base fichier à ce chemin, avec le profil de performance par défaut.
+     */
+    static Config.DatabaseConfig baseNeuve(String chemin) {
+        for (String suffixe : new String[] { "", "-wal", "-shm" }) {
+            new File(chemin + suffixe).delete();
+        }
+        return new Gson().fromJson("{path: '" + chemin + "'}", Config.DatabaseConfig.class);
+    }
+
+    /**
+     * @throws RuntimeException Si la condition est fausse, avec le cas vérifié.
+     */
+    static void verifier(boolean condition, String cas) {
+        if (!condition) {
+            throw new RuntimeException("Echec: " + cas);
+        }
+    }
+
+    /**
+     * Affiche la durée totale d'une mesure et sa durée par opération.
+     * @param cas Le nom de la variante mesurée.
+     * @param nanos La durée totale, en nanosecondes.
+     * @param operations Le nombre d'opérations mesurées.
+     * @param operation Le nom d'une opération, par exemple "recherche".
+     */
+    static void afficher(String cas, long nanos, int operations, String operation) {
+        System.out.println(String.format("  - %-14s %8.2f ms (%7.3f us/%s)",
+                cas, nanos / 1_000_000.0, nanos / 1000.0 / operations, operation));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.dao.*;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.model.Config;
+import dev.linnaelle.fs.services.CatalogueService;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.services.EconomieService;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Achat groupé d'animaux : placement en un passage sur les enclos, une transaction,
+ * un seul débit du revenu, et des animaux rattachés aux troupeaux en mémoire.
+ */
+public class TestAchatAnimaux {
+
+    private static final String CHEMIN = "data/bench-achat-animaux.sqlite";
+    private static final int CAPACITE = 50;
+
+    public static void main(String[] args) {
+        int animaux = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+
+        Config.DatabaseConfig dbConfig = BancDeTest.baseNeuve(CHEMIN);
+
+        System.out.println("=== ACHAT D'ANIMAUX ===\n");
+        try {
+            DatabaseManager.getInstance().initializeDatabase(dbConfig);
+            DataInitializer.initializeData();
+            EconomieService economie = EconomieService.getInstance();
+            Difficulte normal = new DifficulteDao().findByNom("normal");
+            double prix = economie.getPrixAchat("poule", normal);
+            int enclos = 2 * animaux / CAPACITE;
+
+            // Avant l'achat groupé, chaque animal rescannait les champs et s'insérait seul
+            Ferme unParUn = creerFerme("Ferme un par un", enclos);
+            long debut = System.nanoTime();
+            acheterUnParUn(unParUn, "poule", animaux);
+            long sequentiel = System.nanoTime() - debut;
+
+            Ferme ferme = creerFerme("Ferme groupee", enclos);
+            double revenu = ferme.getRevenu();
+            debut = System.nanoTime();
+            BancDeTest.verifier(economie.acheterAnimal(ferme, "poule", animaux, normal) == animaux, "l'achat groupé");
+            long groupe = System.nanoTime() - debut;
+
+            BancDeTest.verifier(ferme.getRevenu() == revenu - prix * animaux, "le revenu débité une fois");
+            BancDeTest.verifier(compter(ferme) == animaux, "les animaux rattachés aux troupeaux");
+            Set<Integer> ids = new HashSet<>();
+            for (Champ champ : ferme.getChamps()) {
+                for (Animal animal : champ.getFermeAnimale().getAnimaux()) {
+                    BancDeTest.verifier(animal.getId() > 0 && animal.getFermeAnimaleId() == champ.getFermeAnimale().getId(),
+                            "l'ID et l'enclos de l'animal");
+                    ids.add(animal.getId());
+                }
+            }
+            BancDeTest.verifier(ids.size() == animaux, "des IDs distincts");
+
+            Ferme relue = new FermeDao().findById(ferme.getId());
+            BancDeTest.verifier(compter(relue) == animaux && relue.getRevenu() == ferme.getRevenu(), "l'achat relu en base");
+            System.out.println("[ACHAT] " + animaux + " poules dans " + (animaux + CAPACITE - 1) / CAPACITE
+                    + " enclos, revenu " + revenu + " -> " + ferme.getRevenu());
+
+            // Une commande plus grande que la place libre n'achète et ne débite que les animaux logés,
+            // même si les fonds ne couvriraient pas toute la commande
+            int libres = enclos * CAPACITE - animaux;
+            ferme.setRevenu(prix * libres);
+            revenu = ferme.getRevenu();
+            BancDeTest.verifier(economie.acheterAnimal(ferme, "poule", libres + 10, normal) == libres, "l'achat sans assez de place");
+            BancDeTest.verifier(compter(ferme) == enclos * CAPACITE && ferme.getRevenu() == revenu - prix * libres, "l'achat partiel");
+            BancDeTest.verifier(economie.acheterAnimal(ferme, "poule", 1, normal) == 0 && ferme.getRevenu() == revenu - prix * libres,
+                    "l'achat dans des enclos pleins");
+            System.out.println("[PLACE] " + libres + " poules logees sur " + (libres + 10) + " commandees");
+
+            System.out.println("\n[BENCH] Commande de " + animaux + " poules sur " + enclos + " enclos");
+            BancDeTest.afficher("un par un", sequentiel, animaux, "animal");
+            BancDeTest.afficher("groupe", groupe, animaux, "animal");
+
+            System.out.println("\n[SUCCESS] Tests de l'achat d'animaux termines !");
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    /**
+     * Achat tel qu'il se faisait avant : pour chaque animal, un parcours des champs et une insertion.
+     */
+    private static void acheterUnParUn(Ferme ferme, String type, int quantite) {
+        AnimalDao animalDao = new AnimalDao();
+        int stockHerbe = CatalogueService.getInstance().getAnimalInfo(type).getStockHerbe();
+        for (int i = 0; i < quantite; i++) {
+            for (Champ champ : ferme.getChamps()) {
+                FermeAnimale troupeau = champ.getFermeAnimale();
+                if (troupeau != null && troupeau.getTypeAnimal().equals(type)
+                        && troupeau.getAnimaux().size() < troupeau.getCapaciteMax()) {
+                    Animal animal = new Animal(troupeau.getId(), type, stockHerbe);
+                    animalDao.save(animal);
+                    troupeau.addAnimal(animal);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int compter(Ferme ferme) {
+        int animaux = 0;
+        for (Champ champ : ferme.getChamps()) {
+            animaux += champ.getFermeAnimale().getNombreAnimaux();
+        }
+        return animaux;
+    }
+
+    private static Ferme creerFerme(String nom, int enclos) {
+        Joueur joueur = new Joueur(nom, new DifficulteDao().findByNom("normal"));
+        new JoueurDao().save(joueur);
+        Ferme ferme = new Ferme(nom, joueur.getId());
+        ferme.setRevenu(1_000_000);
+        new FermeDao().save(ferme);
+
+        ChampDao champDao = new ChampDao();
+        FermeAnimaleDao troupeauDao = new FermeAnimaleDao();
+        for (int numero = 1; numero <= enclos; numero++) {
+            Champ champ = new Champ(ferme.getId(), numero);
+            champDao.save(champ);
+            troupeauDao.save(new FermeAnimale(champ.getId(), "poule", CAPACITE));
+        }
+        return new FermeDao().findById(ferme.getId());
+    }
+}
\ No newline at end of file
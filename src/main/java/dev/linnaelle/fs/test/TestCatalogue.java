@@ -0,0 +1,140 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.dao.CatalogueDao;
+import dev.linnaelle.fs.model.Config;
+import dev.linnaelle.fs.services.CatalogueService;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.simulation.ProfilAnimal;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Instantané du catalogue : les recherches d'un type inconnu ne relisent pas la base,
+ * et des lecteurs concurrents voient toujours un catalogue complet pendant les rechargements.
+ */
+public class TestCatalogue {
+
+    private static final String CHEMIN = "data/bench-catalogue.sqlite";
+
+    public static void main(String[] args) {
+        int recherches = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        Config.DatabaseConfig dbConfig = BancDeTest.baseNeuve(CHEMIN);
+
+        System.out.println("=== CATALOGUE ===\n");
+        try {
+            DatabaseManager.getInstance().initializeDatabase(dbConfig);
+            DataInitializer.initializeData();
+            CatalogueService catalogue = CatalogueService.getInstance();
+            CatalogueDao catalogueDao = new CatalogueDao();
+
+            BancDeTest.verifier(catalogue.getCultureInfo("grains_ble") != null, "une culture connue");
+            BancDeTest.verifier(catalogue.getCultureInfo("GRAINS_BLE") != null, "une culture sans distinction de casse");
+            BancDeTest.verifier(catalogue.getCultureInfo("ble") == null, "une culture inconnue");
+            BancDeTest.verifier(catalogue.getArticlesByCategorie("cereale").equals(catalogueDao.getArticlesByCategorie("cereale")), "les articles d'une categorie");
+            BancDeTest.verifier(catalogue.getAllUsineTypes().equals(catalogueDao.getAllUsineTypes()), "les types d'usines");
+            verifierProfils(catalogue);
+
+            // Avant l'instantané, chaque type inconnu relisait sa table
+            mesurerBase(catalogueDao, recherches);
+            long base = mesurerBase(catalogueDao, recherches);
+            mesurer(catalogue, recherches);
+            long instantane = mesurer(catalogue, recherches);
+            System.out.println("[BENCH] " + recherches + " recherches d'un type inconnu");
+            BancDeTest.afficher("en base", base, recherches, "recherche");
+            BancDeTest.afficher("instantane", instantane, recherches, "recherche");
+
+            rechargerPendantLectures(catalogue, 4, 50);
+            System.out.println("\n[SUCCESS] Tests du catalogue termines !");
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    /**
+     * Des lecteurs parcourent le catalogue pendant que le fil principal le recharge :
+     * aucun ne doit voir un type connu disparaître ni un graphe de production vide.
+     */
+    private static void rechargerPendantLectures(CatalogueService catalogue, int lecteurs, int rechargements) throws InterruptedException {
+        AtomicBoolean actif = new AtomicBoolean(true);
+        AtomicReference<String> echec = new AtomicReference<>();
+        long[] lectures = new long[lecteurs];
+        List<Thread> fils = new ArrayList<>();
+        for (int i = 0; i < lecteurs; i++) {
+            int numero = i;
+            Thread fil = new Thread(() -> {
+                while (actif.get() && echec.get() == null) {
+                    if (catalogue.getAnimalInfo("vache") == null || catalogue.getUsineInfo("laiterie") == null
+                            || catalogue.getArticleInfo("lait") == null) {
+                        echec.set("un type connu manquant");
+                    } else if (catalogue.getGrapheProduction().getRecette("laiterie") == null) {
+                        echec.set("une recette manquante");
+                    } else if (catalogue.getAnimalInfo("licorne") != null) {
+                        echec.set("un type inconnu trouve");
+                    }
+                    lectures[numero]++;
+                }
+            });
+            fils.add(fil);
+            fil.start();
+        }
+
+        int version = catalogue.getVersion();
+        for (int i = 0; i < rechargements; i++) {
+            catalogue.reloadCache();
+        }
+        actif.set(false);
+        long total = 0;
+        for (int i = 0; i < lecteurs; i++) {
+            fils.get(i).join();
+            total += lectures[i];
+        }
+
+        BancDeTest.verifier(echec.get() == null, "les lectures concurrentes: " + echec.get());
+        BancDeTest.verifier(catalogue.getVersion() == version + rechargements, "la version apres rechargement");
+        System.out.println("\n[CONCURRENCE] " + rechargements + " rechargements pendant " + total + " lectures de "
+                + lecteurs + " fils, version " + catalogue.getVersion());
+    }
+
+    /**
+     * Chaque animal du catalogue produit des articles vendables du catalogue.
+     */
+    private static void verifierProfils(CatalogueService catalogue) {
+        for (String type : catalogue.getAllAnimalTypes()) {
+            ProfilAnimal profil = catalogue.getProfilAnimal(catalogue.getAnimalId(type));
+            BancDeTest.verifier(profil != null && profil.getNombreProduits() > 0, "le profil de " + type);
+            for (int p = 0; p < profil.getNombreProduits(); p++) {
+                BancDeTest.verifier(catalogue.getArticleInfo(profil.getArticle(p)) != null && profil.getQuantite(p) > 0,
+                        "un article produit par " + type);
+            }
+        }
+        System.out.println("[PROFILS] " + catalogue.getProfilAnimal(catalogue.getAnimalId("poule")));
+    }
+
+    private static long mesurerBase(CatalogueDao catalogueDao, int recherches) {
+        long debut = System.nanoTime();
+        for (int i = 0; i < recherches; i++) {
+            if (catalogueDao.getCultureInfo("ble") != null) {
+                throw new RuntimeException("Culture inconnue trouvee");
+            }
+        }
+        return System.nanoTime() - debut;
+    }
+
+    private static long mesurer(CatalogueService catalogue, int recherches) {
+        long debut = System.nanoTime();
+        for (int i = 0; i < recherches; i++) {
+            if (catalogue.getCultureInfo("ble") != null) {
+                throw new RuntimeException("Culture inconnue trouvee");
+            }
+        }
+        return System.nanoTime() - debut;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.dao.DifficulteDao;
+import dev.linnaelle.fs.dao.JoueurDao;
+import dev.linnaelle.fs.entities.Joueur;
+import dev.linnaelle.fs.model.Config;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+/**
+ * Temps de démarrage de la base : base neuve, base à jour, puis base créée avant les migrations,
+ * qui reprend toutes les migrations sans perdre ses données.
+ */
+public class TestDemarrage {
+
+    private static final String CHEMIN = "data/bench-demarrage.sqlite";
+
+    public static void main(String[] args) {
+        int redemarrages = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        Config.DatabaseConfig dbConfig = BancDeTest.baseNeuve(CHEMIN);
+
+        System.out.println("=== DEMARRAGE ===\n");
+        try {
+            double[] neuve = demarrer(dbConfig);
+            int joueurId = creerJoueur();
+            DatabaseManager.closeInstance();
+            verifier(neuve, 3, true, "base neuve", true);
+
+            // Une base d'une version précédente du jeu a ses tables remplies, sans version ni empreinte :
+            // elle refait tout le travail de démarrage d'avant les migrations
+            double[] ajour = new double[2];
+            double[] ancienne = new double[2];
+            for (int i = 0; i < redemarrages; i++) {
+                boolean premier = i == 0;
+                ajouter(ajour, demarrer(dbConfig), 0, false, "base a jour", premier);
+
+                try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + CHEMIN);
+                     Statement stmt = conn.createStatement()) {
+                    stmt.execute("DROP TABLE schema_version");
+                    stmt.execute("DROP TABLE Parametre");
+                }
+                ajouter(ancienne, demarrer(dbConfig), 3, true, "base sans version", premier);
+            }
+            demarrer(dbConfig);
+            if (new JoueurDao().findById(joueurId) == null) {
+                throw new RuntimeException("Les migrations ont perdu les donnees d'une ancienne base");
+            }
+            DatabaseManager.closeInstance();
+
+            System.out.println("\n[BENCH] Demarrage (schema + catalogue)");
+            afficher("base neuve", neuve[0], neuve[1]);
+            afficher("base sans version (moyenne)", ancienne[0] / redemarrages, ancienne[1] / redemarrages);
+            afficher("base a jour (moyenne)", ajour[0] / redemarrages, ajour[1] / redemarrages);
+
+            System.out.println("\n[SUCCESS] Tests du demarrage termines !");
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    /**
+     * @return {durée du schéma en ms, durée du catalogue en ms, migrations appliquées, catalogue inséré (1 ou 0)}.
+     */
+    private static double[] demarrer(Config.DatabaseConfig dbConfig) {
+        DatabaseManager manager = DatabaseManager.getInstance();
+        manager.initializeDatabase(dbConfig);
+        long debut = System.nanoTime();
+        boolean insere = DataInitializer.initializeData();
+        double catalogue = (System.nanoTime() - debut) / 1_000_000.0;
+        return new double[] { manager.getDureeInitialisationMs(), catalogue, manager.getMigrationsAppliquees(), insere ? 1 : 0 };
+    }
+
+    /**
+     * Vérifie un démarrage arrêté, puis ajoute ses durées aux totaux.
+     */
+    private static void ajouter(double[] totaux, double[] demarrage, int migrations, boolean insere, String cas, boolean afficher) {
+        DatabaseManager.closeInstance();
+        verifier(demarrage, migrations, insere, cas, afficher);
+        totaux[0] += demarrage[0];
+        totaux[1] += demarrage[1];
+    }
+
+    private static void verifier(double[] demarrage, int migrations, boolean insere, String cas, boolean afficher) {
+        if ((int) demarrage[2] != migrations || (demarrage[3] == 1) != insere) {
+            throw new RuntimeException(cas + ": " + (int) demarrage[2] + " migrations appliquees (attendu " + migrations
+                    + "), catalogue " + (demarrage[3] == 1 ? "insere" : "ignore"));
+        }
+        if (afficher) {
+            System.out.println("[" + cas.toUpperCase() + "] " + migrations + " migrations, catalogue " + (insere ? "insere" : "ignore"));
+        }
+    }
+
+    private static int creerJoueur() {
+        Joueur joueur = new Joueur("Joueur du demarrage", new DifficulteDao().findByNom("normal"));
+        new JoueurDao().save(joueur);
+        return joueur.getId();
+    }
+
+    private static void afficher(String cas, double schemaMs, double catalogueMs) {
+        System.out.println(String.format("  - %-32s %7.2f ms + %6.2f ms", cas, schemaMs, catalogueMs));
+    }
+}
\ No newline at end of file
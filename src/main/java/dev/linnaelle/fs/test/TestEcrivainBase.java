@@ -0,0 +1,262 @@
+package dev.linnaelle.fs.test;
+
+import com.google.gson.Gson;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.linnaelle.fs.dao.*;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.model.Config;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.utils.DatabaseManager;
+import dev.linnaelle.fs.utils.EcrivainBase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Écritures concurrentes de plusieurs threads sur une base fichier : chaque thread ouvre sa propre connexion
+ * comme avant l'écrivain unique, puis les mêmes écritures passent par la file de l'écrivain.
+ */
+public class TestEcrivainBase {
+
+    private static final String CHEMIN = "data/bench-ecrivain.sqlite";
+    private static final String SQL = "UPDATE Animal SET stock_herbe = ?, vivant = ?, deficit = ? WHERE id = ?";
+
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int ecrituresParThread = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        Config.DatabaseConfig dbConfig = BancDeTest.baseNeuve(CHEMIN);
+
+        System.out.println("=== ECRIVAIN UNIQUE ===\n");
+        try {
+            DatabaseManager.getInstance().initializeDatabase(dbConfig);
+            DataInitializer.initializeData();
+            List<Animal> animaux = creerAnimaux(threads * ecrituresParThread);
+
+            benchConnexionsConcurrentes(dbConfig, animaux, threads, ecrituresParThread);
+            benchEcrivain(animaux, threads, ecrituresParThread);
+            benchSoumission(animaux);
+            testAtomicite(animaux.get(0));
+            DatabaseManager.closeInstance();
+
+            testLecturesEnMemoire();
+
+            System.out.println("\n[SUCCESS] Tests de l'ecrivain termines !");
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    /**
+     * Ancien fonctionnement : chaque écriture prend une connexion du pool et valide seule,
+     * les threads se disputant le verrou d'écriture de SQLite.
+     */
+    private static void benchConnexionsConcurrentes(Config.DatabaseConfig dbConfig, List<Animal> animaux,
+                                                    int threads, int ecrituresParThread) throws Exception {
+        System.out.println("[BENCH] " + threads + " threads, une connexion par ecriture");
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:sqlite:" + dbConfig.getPath());
+        config.setMaximumPoolSize(threads);
+        config.addDataSourceProperty("busy_timeout", "3000");
+
+        AtomicLong occupe = new AtomicLong();
+        try (HikariDataSource pool = new HikariDataSource(config)) {
+            double duree = lancer(threads, t -> {
+                for (int i = 0; i < ecrituresParThread; i++) {
+                    Animal animal = animaux.get(t * ecrituresParThread + i);
+                    try (Connection conn = pool.getConnection();
+                         PreparedStatement stmt = conn.prepareStatement(SQL)) {
+                        lier(stmt, animal, i);
+                        stmt.executeUpdate();
+                    } catch (SQLException e) {
+                        occupe.incrementAndGet();
+                    }
+                }
+            });
+            afficher(threads * ecrituresParThread, duree, threads * ecrituresParThread - occupe.get());
+            System.out.println("  - ecritures refusees (SQLITE_BUSY): " + occupe.get());
+        }
+    }
+
+    private static void benchEcrivain(List<Animal> animaux, int threads, int ecrituresParThread) throws Exception {
+        System.out.println("[BENCH] " + threads + " threads, ecritures attendues par l'ecrivain");
+        EcrivainBase ecrivain = DatabaseManager.getInstance().getEcrivain();
+        long transactions = ecrivain.getTransactions();
+
+        AtomicLong echecs = new AtomicLong();
+        double duree = lancer(threads, t -> {
+            for (int i = 0; i < ecrituresParThread; i++) {
+                Animal animal = animaux.get(t * ecrituresParThread + i);
+                int passe = i;
+                try {
+                    DatabaseManager.ecrire(conn -> {
+                        try (PreparedStatement stmt = conn.prepareStatement(SQL)) {
+                            lier(stmt, animal, passe);
+                            return stmt.executeUpdate();
+                        }
+                    });
+                } catch (SQLException e) {
+                    echecs.incrementAndGet();
+                }
+            }
+        });
+        afficher(threads * ecrituresParThread, duree, ecrivain.getTransactions() - transactions);
+        System.out.println("  - echecs: " + echecs.get());
+    }
+
+    /**
+     * Un seul thread met toutes les écritures en file sans attendre, puis attend leurs futurs.
+     */
+    private static void benchSoumission(List<Animal> animaux) {
+        System.out.println("[BENCH] " + animaux.size() + " ecritures soumises sans attente");
+        EcrivainBase ecrivain = DatabaseManager.getInstance().getEcrivain();
+        long transactions = ecrivain.getTransactions();
+
+        long debut = System.nanoTime();
+        List<CompletableFuture<Integer>> futurs = new ArrayList<>();
+        for (Animal animal : animaux) {
+            futurs.add(DatabaseManager.soumettre(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(SQL)) {
+                    lier(stmt, animal, 7);
+                    return stmt.executeUpdate();
+                }
+            }));
+        }
+        int lignes = 0;
+        for (CompletableFuture<Integer> futur : futurs) {
+            lignes += futur.join();
+        }
+        afficher(lignes, (System.nanoTime() - debut) / 1_000_000_000.0, ecrivain.getTransactions() - transactions);
+    }
+
+    /**
+     * Une écriture qui échoue est annulée sans défaire celles validées dans la même transaction.
+     */
+    private static void testAtomicite(Animal animal) {
+        CompletableFuture<Integer> valide = DatabaseManager.soumettre(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE Animal SET stock_herbe = 4242 WHERE id = ?")) {
+                stmt.setInt(1, animal.getId());
+                return stmt.executeUpdate();
+            }
+        });
+        CompletableFuture<Integer> echouee = DatabaseManager.soumettre(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE Animal SET stock_herbe = 0 WHERE id = ?")) {
+                stmt.setInt(1, animal.getId());
+                stmt.executeUpdate();
+            }
+            throw new SQLException("echec volontaire");
+        });
+
+        valide.join();
+        boolean refusee = echouee.handle((lignes, erreur) -> erreur != null).join();
+        Animal relu = new AnimalDao().findById(animal.getId());
+        if (!refusee || relu == null || relu.getStockHerbe() != 4242) {
+            throw new RuntimeException("L'echec d'une ecriture a touche les autres ecritures du lot");
+        }
+        System.out.println("[ATOMICITE] Ecriture en echec annulee, ecriture voisine conservee");
+    }
+
+    /**
+     * Base en mémoire : une lecture pendant une transaction d'écriture attend son commit
+     * et ne voit jamais de données non validées.
+     */
+    private static void testLecturesEnMemoire() throws Exception {
+        DatabaseManager.getInstance().initializeDatabase(new Gson().fromJson("{memoryMode: true}", Config.DatabaseConfig.class));
+        DataInitializer.initializeData();
+        Animal animal = creerAnimaux(1).get(0);
+
+        CountDownLatch ecrit = new CountDownLatch(1);
+        CompletableFuture<Integer> ecriture = DatabaseManager.soumettre(conn -> {
+            int lignes;
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE Animal SET stock_herbe = 4242 WHERE id = ?")) {
+                stmt.setInt(1, animal.getId());
+                lignes = stmt.executeUpdate();
+            }
+            ecrit.countDown();
+            try {
+                // Transaction laissée ouverte pendant la lecture
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return lignes;
+        });
+
+        ecrit.await();
+        Animal relu = new AnimalDao().findById(animal.getId());
+        boolean valide = ecriture.isDone();
+        ecriture.join();
+        if (relu == null || (relu.getStockHerbe() == 4242 && !valide)) {
+            throw new RuntimeException("Une lecture en memoire a vu une ecriture non validee");
+        }
+        System.out.println("[MEMOIRE] Lecture pendant une ecriture: " + (relu.getStockHerbe() == 4242 ? "apres" : "avant")
+                + " le commit, jamais de donnees non validees");
+    }
+
+    private interface Tache {
+        void executer(int thread) throws Exception;
+    }
+
+    private static double lancer(int threads, Tache tache) throws InterruptedException {
+        List<Thread> lances = new ArrayList<>();
+        long debut = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int indice = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    tache.executer(indice);
+                } catch (Exception e) {
+                    System.err.println("[ERROR] " + e.getMessage());
+                }
+            });
+            lances.add(thread);
+            thread.start();
+        }
+        for (Thread thread : lances) {
+            thread.join();
+        }
+        return (System.nanoTime() - debut) / 1_000_000_000.0;
+    }
+
+    private static void lier(PreparedStatement stmt, Animal animal, int passe) throws SQLException {
+        stmt.setInt(1, animal.getStockHerbe() + passe);
+        stmt.setBoolean(2, animal.isVivant());
+        stmt.setBoolean(3, animal.isDeficit());
+        stmt.setInt(4, animal.getId());
+    }
+
+    private static void afficher(long ecritures, double secondes, long commits) {
+        System.out.println(String.format("  - %d ecritures en %.2f s: %.0f ecritures/s, %d commits (%.1f ecritures par commit)",
+                ecritures, secondes, ecritures / secondes, commits, commits > 0 ? (double) ecritures / commits : 0.0));
+    }
+
+    private static List<Animal> creerAnimaux(int nombre) {
+        Joueur joueur = new Joueur("Bench ecrivain", new DifficulteDao().findByNom("normal"));
+        new JoueurDao().save(joueur);
+        Ferme ferme = new Ferme("Ferme de l'ecrivain", joueur.getId());
+        new FermeDao().save(ferme);
+        Champ champ = new Champ(ferme.getId(), 1);
+        new ChampDao().save(champ);
+        FermeAnimale troupeau = new FermeAnimale(champ.getId(), "vache", nombre);
+        new FermeAnimaleDao().save(troupeau);
+
+        List<Animal> animaux = new ArrayList<>();
+        AnimalDao animalDao = new AnimalDao();
+        for (int i = 0; i < nombre; i++) {
+            Animal animal = new Animal(troupeau.getId(), "vache", 100);
+            animalDao.save(animal);
+            animaux.add(animal);
+        }
+        return animaux;
+    }
+}
\ No newline at end of file
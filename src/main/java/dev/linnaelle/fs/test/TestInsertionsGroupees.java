@@ -0,0 +1,119 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.dao.*;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.model.Config;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coût d'un achat de troupeau : des animaux sauvegardés un par un, chacun dans sa transaction,
+ * puis par AnimalDao.saveAll, en une requête par lot de 500 lignes dans une seule transaction.
+ * Vérifie aussi que chaque animal reçoit l'ID de sa propre ligne.
+ */
+public class TestInsertionsGroupees {
+
+    private static final String CHEMIN = "data/bench-insertions.sqlite";
+
+    public static void main(String[] args) {
+        int animaux = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+
+        Config.DatabaseConfig dbConfig = BancDeTest.baseNeuve(CHEMIN);
+
+        System.out.println("=== INSERTIONS GROUPEES ===\n");
+        try {
+            DatabaseManager.getInstance().initializeDatabase(dbConfig);
+            DataInitializer.initializeData();
+            FermeAnimale poulailler = creerPoulailler(animaux * 6);
+            AnimalDao animalDao = new AnimalDao();
+
+            for (int passe = 0; passe < 2; passe++) {
+                boolean mesure = passe == 1;
+                if (mesure) {
+                    System.out.println("[BENCH] " + animaux + " poules par cas");
+                }
+
+                List<Animal> unParUn = creerPoules(poulailler, animaux);
+                long debut = System.nanoTime();
+                for (Animal poule : unParUn) {
+                    if (animalDao.save(poule) == null) {
+                        throw new RuntimeException("Echec de la sauvegarde d'une poule");
+                    }
+                }
+                afficher(mesure, "AnimalDao.save un par un", animaux, System.nanoTime() - debut);
+                verifier(animalDao, unParUn);
+
+                List<Animal> groupees = creerPoules(poulailler, animaux);
+                debut = System.nanoTime();
+                if (!animalDao.saveAll(groupees)) {
+                    throw new RuntimeException("Echec de la sauvegarde groupee");
+                }
+                afficher(mesure, "AnimalDao.saveAll", animaux, System.nanoTime() - debut);
+                verifier(animalDao, groupees);
+
+                // Lots de 500 lignes complets puis un reste : les deux formes de la requête
+                List<Animal> restes = creerPoules(poulailler, animaux + 7);
+                if (!animalDao.saveAll(restes)) {
+                    throw new RuntimeException("Echec de la sauvegarde groupee avec un lot incomplet");
+                }
+                verifier(animalDao, restes);
+            }
+
+            System.out.println("\n[SUCCESS] Tests des insertions groupees termines !");
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    /**
+     * Les IDs sont distincts, croissants dans l'ordre de la liste, et chacun désigne la ligne de son animal.
+     */
+    private static void verifier(AnimalDao animalDao, List<Animal> poules) {
+        int precedent = 0;
+        for (Animal poule : poules) {
+            if (poule.getId() <= precedent) {
+                throw new RuntimeException("IDs non croissants: " + poule.getId() + " apres " + precedent);
+            }
+            precedent = poule.getId();
+
+            Animal relue = animalDao.findById(poule.getId());
+            if (relue == null || relue.getStockHerbe() != poule.getStockHerbe()) {
+                throw new RuntimeException("L'ID " + poule.getId() + " ne designe pas la ligne de sa poule");
+            }
+        }
+    }
+
+    private static List<Animal> creerPoules(FermeAnimale poulailler, int nombre) {
+        List<Animal> poules = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            // Un stock propre à chaque poule, pour reconnaître sa ligne à la relecture
+            poules.add(new Animal(poulailler.getId(), "poule", i));
+        }
+        return poules;
+    }
+
+    private static void afficher(boolean mesure, String cas, int animaux, long nanos) {
+        if (mesure) {
+            System.out.println(String.format("  - %-26s %8.2f ms (%6.1f us/animal)", cas, nanos / 1_000_000.0, nanos / 1000.0 / animaux));
+        }
+    }
+
+    private static FermeAnimale creerPoulailler(int capacite) {
+        Joueur joueur = new Joueur("Bench insertions", new DifficulteDao().findByNom("normal"));
+        new JoueurDao().save(joueur);
+        Ferme ferme = new Ferme("Ferme des insertions", joueur.getId());
+        new FermeDao().save(ferme);
+
+        Champ enclos = new Champ(ferme.getId(), 1);
+        new ChampDao().save(enclos);
+        FermeAnimale poulailler = new FermeAnimale(enclos.getId(), "poule", capacite);
+        new FermeAnimaleDao().save(poulailler);
+        return poulailler;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,343 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.dao.*;
+import dev.linnaelle.fs.utils.DatabaseManager;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.services.*;
+import dev.linnaelle.fs.simulation.ExecuteurFermes;
+import dev.linnaelle.fs.simulation.SimulateurFerme;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class TestPerformance {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    public static void main(String[] args) {
+        try {
+            System.out.println("=== TESTS DE PERFORMANCE ===\n");
+
+            System.out.println("Initialisation de la base de donnees...");
+            DatabaseManager.getInstance().initializeDatabase();
+            DataInitializer.initializeData();
+            CatalogueService.getInstance();
+
+            System.out.println("\n=== TROUPEAUX ===\n");
+
+            benchMemoireTroupeau(1_000_000);
+            benchDebitTroupeau(100_000, 200);
+
+            System.out.println("\n=== PAS DE SIMULATION ===\n");
+
+            benchAllocationPas(100, 2000);
+            benchAllocationPas(100_000, 2000);
+
+            benchChampsPlanifies(10, 2000);
+            benchChampsPlanifies(10_000, 2000);
+
+            System.out.println("\n=== FERMES MULTIPLES ===\n");
+
+            benchMultiFermes(1, 2000);
+            benchMultiFermes(100, 2000);
+            benchMultiFermes(10_000, 100);
+
+            System.out.println("\n=== CHARGEMENT DE FERMES ===\n");
+
+            benchChargementFerme(5, 20, 50);
+            benchChargementFerme(20, 200, 50);
+            benchChargementFerme(100, 2000, 20);
+
+            System.out.println("\n=== SAUVEGARDE DE FERMES ===\n");
+
+            benchSauvegardeFerme(5, 20);
+            benchSauvegardeFerme(100, 2000);
+
+            System.out.println("\n[SUCCESS] Tests de performance termines !");
+
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    private static void benchMemoireTroupeau(int nombre) {
+        System.out.println("[BENCH] Empreinte memoire de " + nombre + " animaux");
+
+        long avant = memoireUtilisee();
+        List<Animal> objets = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            objets.add(new Animal(1, "poule", 10));
+        }
+        long memoireObjets = memoireUtilisee() - avant;
+        System.out.println("  - Un objet par animal: " + (memoireObjets / nombre) + " octets/animal (" + objets.size() + ")");
+        objets = null;
+
+        avant = memoireUtilisee();
+        FermeAnimale troupeau = new FermeAnimale(1, "poule", nombre);
+        troupeau.ajouterAnimaux(nombre, 10, T0);
+        long memoireColonnes = memoireUtilisee() - avant;
+        System.out.println("  - Colonnes du troupeau: " + (memoireColonnes / nombre) + " octets/animal (" + troupeau.getNombreAnimaux() + ")");
+        System.out.println();
+    }
+
+    private static void benchDebitTroupeau(int nombre, int pas) {
+        System.out.println("[BENCH] Debit de mise a jour, " + nombre + " vaches sur " + pas + " pas");
+
+        ReservoirEau reservoir = new ReservoirEau(1, Integer.MAX_VALUE);
+        StockPrincipal stock = new StockPrincipal(1);
+        stock.setCapaciteMax(Integer.MAX_VALUE);
+
+        List<Animal> objets = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            Animal animal = new Animal(1, "vache", Integer.MAX_VALUE / 2);
+            animal.setDernierPrelevementEau(T0);
+            animal.setDernierPrelevementHerbe(T0);
+            objets.add(animal);
+        }
+
+        long debut = System.nanoTime();
+        for (int p = 1; p <= pas; p++) {
+            long temps = T0 + p * 1000L;
+            for (Animal animal : objets) {
+                for (Map.Entry<String, Integer> produit : animal.mettreAJour(temps, reservoir).entrySet()) {
+                    stock.ajouter(produit.getKey(), produit.getValue());
+                }
+            }
+        }
+        double dureeObjets = (System.nanoTime() - debut) / 1_000_000.0;
+
+        reservoir.setQuantite(Integer.MAX_VALUE);
+        FermeAnimale troupeau = new FermeAnimale(1, "vache", nombre);
+        troupeau.ajouterAnimaux(nombre, Integer.MAX_VALUE / 2, T0);
+
+        debut = System.nanoTime();
+        long productions = 0;
+        for (int p = 1; p <= pas; p++) {
+            productions += troupeau.simuler(T0 + p * 1000L, reservoir);
+        }
+        double dureeColonnes = (System.nanoTime() - debut) / 1_000_000.0;
+
+        long miseAJour = (long) nombre * pas;
+        System.out.println(String.format("  - Un objet par animal: %.1f ms (%.1f M animaux/s)",
+                dureeObjets, miseAJour / dureeObjets / 1000.0));
+        System.out.println(String.format("  - Colonnes du troupeau: %.1f ms (%.1f M animaux/s, %d productions)",
+                dureeColonnes, miseAJour / dureeColonnes / 1000.0, productions));
+        System.out.println();
+    }
+
+    private static void benchAllocationPas(int nombre, int pas) {
+        System.out.println("[BENCH] Allocations par pas, ferme de " + nombre + " vaches sur " + pas + " pas");
+
+        Ferme ferme = creerFermeBench(nombre);
+        StockPrincipal stock = ferme.getStockPrincipal();
+
+        SimulateurFerme simulateur = new SimulateurFerme();
+        // Échauffement : remplit les caches et alloue les entrées des stockages
+        for (int p = 1; p <= 100; p++) {
+            simulateur.simuler(ferme, T0 + p * 1000L);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long avant = threads.getThreadAllocatedBytes(thread);
+        long debut = System.nanoTime();
+        for (int p = 101; p <= 100 + pas; p++) {
+            simulateur.simuler(ferme, T0 + p * 1000L);
+        }
+        double duree = (System.nanoTime() - debut) / 1_000_000.0;
+        long alloue = threads.getThreadAllocatedBytes(thread) - avant;
+
+        System.out.println(String.format("  - %.1f octets alloues/pas, %.3f ms/pas (lait: %d)",
+                (double) alloue / pas, duree / pas, stock.getQuantite("lait")));
+        System.out.println();
+    }
+
+    private static void benchChampsPlanifies(int nombre, int pas) {
+        System.out.println("[BENCH] Cout d'un pas, ferme de " + nombre + " champs dont 1% en croissance");
+
+        Ferme ferme = creerFermeBench(0);
+        for (int i = 0; i < nombre; i++) {
+            Champ champ = new Champ(1, i + 2);
+            if (i % 100 == 0) {
+                champ.labourer(T0);
+                champ.semer("ble", T0 + i * 1000L);
+            }
+            ferme.getChamps().add(champ);
+        }
+
+        SimulateurFerme simulateur = new SimulateurFerme();
+        simulateur.simuler(ferme, T0);
+        long debut = System.nanoTime();
+        for (int p = 1; p <= pas; p++) {
+            simulateur.simuler(ferme, T0 + p * 1000L);
+        }
+        double duree = (System.nanoTime() - debut) / 1_000_000.0;
+
+        long prets = ferme.getChamps().stream().filter(c -> c.getEtat() == EtatChamp.READY).count();
+        System.out.println(String.format("  - %.4f ms/pas (%d champs prets)", duree / pas, prets));
+        System.out.println();
+    }
+
+    private static void benchMultiFermes(int nombreFermes, int pas) {
+        System.out.println("[BENCH] " + nombreFermes + " fermes de 50 vaches sur " + pas + " pas");
+
+        // Au moins deux threads, pour exercer le découpage même sur une machine à un cœur
+        for (int parallelisme : new int[] { 1, Math.max(2, Runtime.getRuntime().availableProcessors()) }) {
+            ExecuteurFermes executeur = new ExecuteurFermes(parallelisme);
+            for (int i = 0; i < nombreFermes; i++) {
+                executeur.ajouterFerme(creerFermeBench(50));
+            }
+
+            for (int p = 1; p <= 10; p++) {
+                executeur.executerTick(T0 + p * 1000L);
+            }
+
+            long debut = System.nanoTime();
+            for (int p = 11; p <= 10 + pas; p++) {
+                executeur.executerTick(T0 + p * 1000L);
+            }
+            double duree = (System.nanoTime() - debut) / 1_000_000.0;
+
+            System.out.println(String.format("  - %d thread(s): %.1f ticks/s, %.0f fermes-ticks/s, latence ferme p50/p99: %.4f / %.4f ms",
+                    parallelisme, pas / duree * 1000.0, (double) nombreFermes * pas / duree * 1000.0,
+                    executeur.getPercentileDerniersTicksMs(50), executeur.getPercentileDerniersTicksMs(99)));
+            executeur.arreter();
+        }
+        System.out.println();
+    }
+
+    private static void benchChargementFerme(int champs, int animaux, int iterations) {
+        System.out.println("[BENCH] Chargement d'une ferme de " + champs + " champs et " + animaux + " animaux");
+
+        Ferme ferme = creerFermePersistee(champs, animaux);
+        FermeDao fermeDao = new FermeDao();
+        StockageDao stockageDao = new StockageDao();
+        StructureProductionDao structureDao = new StructureProductionDao();
+        ChampDao champDao = new ChampDao();
+        FermeAnimaleDao fermeAnimaleDao = new FermeAnimaleDao();
+        GestionnaireEquipementDao gestionnaireDao = new GestionnaireEquipementDao();
+
+        // Ancien chargement : une requête par partie, par stockage et par enclos
+        int animauxParParties = 0;
+        long debut = 0;
+        for (int i = -5; i < iterations; i++) {
+            if (i == 0) {
+                debut = System.nanoTime();
+            }
+            stockageDao.findStockPrincipalByFermeId(ferme.getId());
+            stockageDao.findEntrepotByFermeId(ferme.getId());
+            stockageDao.findReservoirEauByFermeId(ferme.getId());
+            structureDao.findAllByFermeId(ferme.getId());
+            gestionnaireDao.findByFermeId(ferme.getId());
+            animauxParParties = 0;
+            for (Champ champ : champDao.findByFermeId(ferme.getId())) {
+                FermeAnimale troupeau = fermeAnimaleDao.findByChampId(champ.getId());
+                if (troupeau != null) {
+                    animauxParParties += troupeau.getNombreAnimaux();
+                }
+            }
+        }
+        double dureeParParties = (System.nanoTime() - debut) / 1_000_000.0 / iterations;
+
+        Ferme chargee = null;
+        for (int i = -5; i < iterations; i++) {
+            if (i == 0) {
+                debut = System.nanoTime();
+            }
+            chargee = fermeDao.findById(ferme.getId());
+        }
+        double dureeGraphe = (System.nanoTime() - debut) / 1_000_000.0 / iterations;
+
+        int animauxGraphe = 0;
+        for (Champ champ : chargee.getChamps()) {
+            if (champ.getFermeAnimale() != null) {
+                animauxGraphe += champ.getFermeAnimale().getNombreAnimaux();
+            }
+        }
+        System.out.println(String.format("  - par parties: %.3f ms (%d animaux), graphe: %.3f ms (%d animaux, %d champs)",
+                dureeParParties, animauxParParties, dureeGraphe, animauxGraphe, chargee.getChamps().size()));
+        System.out.println();
+    }
+
+    private static void benchSauvegardeFerme(int champs, int animaux) {
+        System.out.println("[BENCH] Sauvegarde d'une ferme de " + champs + " champs et " + animaux + " animaux");
+
+        Ferme ferme = new FermeDao().findById(creerFermePersistee(champs, animaux).getId());
+        SauvegardeService sauvegarde = SauvegardeService.getInstance();
+        for (int i = 0; i < 3; i++) {
+            sauvegarde.sauvegarderFerme(ferme);
+        }
+
+        System.out.println(String.format("  - %.3f ms, %d lignes en une transaction",
+                sauvegarde.getDerniereDureeMs(), sauvegarde.getDernieresLignes()));
+        System.out.println();
+    }
+
+    /**
+     * Ferme enregistrée en base : des enclos de 50 vaches au plus, puis des champs de blé jusqu'au nombre demandé.
+     */
+    private static Ferme creerFermePersistee(int champs, int animaux) {
+        Joueur joueur = new Joueur("Bench chargement", new DifficulteDao().findByNom("normal"));
+        new JoueurDao().save(joueur);
+        Ferme ferme = new Ferme("Ferme de chargement", joueur.getId());
+        new FermeDao().save(ferme);
+
+        ChampDao champDao = new ChampDao();
+        FermeAnimaleDao fermeAnimaleDao = new FermeAnimaleDao();
+        AnimalDao animalDao = new AnimalDao();
+        int restants = animaux;
+        for (int numero = 1; numero <= champs; numero++) {
+            Champ champ = new Champ(ferme.getId(), numero);
+            if (restants == 0) {
+                champ.labourer(T0);
+                champ.semer("ble", T0);
+            }
+            champDao.save(champ);
+
+            if (restants > 0) {
+                int taille = Math.min(50, restants);
+                FermeAnimale troupeau = new FermeAnimale(champ.getId(), "vache", taille);
+                fermeAnimaleDao.save(troupeau);
+                for (int i = 0; i < taille; i++) {
+                    animalDao.save(new Animal(troupeau.getId(), "vache", 100));
+                }
+                restants -= taille;
+            }
+        }
+        return ferme;
+    }
+
+    private static Ferme creerFermeBench(int vaches) {
+        Ferme ferme = new Ferme("Ferme de bench", 1);
+        StockPrincipal stock = new StockPrincipal(1);
+        stock.setCapaciteMax(Integer.MAX_VALUE);
+        ferme.setStockPrincipal(stock);
+        Entrepot entrepot = new Entrepot(1);
+        entrepot.setCapaciteMax(Integer.MAX_VALUE);
+        ferme.setEntrepot(entrepot);
+        ReservoirEau reservoir = new ReservoirEau(1, Integer.MAX_VALUE);
+        reservoir.setDernierRemplissage(T0);
+        ferme.setReservoirEau(reservoir);
+
+        FermeAnimale troupeau = new FermeAnimale(1, "vache", vaches);
+        troupeau.ajouterAnimaux(vaches, Integer.MAX_VALUE / 2, T0);
+        Champ champ = new Champ(1, 1);
+        champ.setFermeAnimale(troupeau);
+        ferme.getChamps().add(champ);
+        return ferme;
+    }
+
+    private static long memoireUtilisee() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
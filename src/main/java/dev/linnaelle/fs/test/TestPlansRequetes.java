@@ -0,0 +1,145 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Vérifie le plan de chaque requête des DAO avec EXPLAIN QUERY PLAN.
+ * Les requêtes sont relevées dans les sources du paquet dao, les nouvelles sont donc vérifiées d'office.
+ * Une requête filtrée (WHERE) ne doit parcourir aucune table : chaque table doit être atteinte par un index
+ * ou par sa clé. Les listes complètes, sans WHERE, peuvent parcourir leur table.
+ * Une requête qui ne compile pas sur le schéma actuel compte aussi comme une régression.
+ * Le programme se termine en erreur si une requête parcourt une table, pour servir de garde en intégration continue.
+ *
+ * Le relevé se fait par expressions régulières sur les littéraux : une requête construite par concaténation
+ * de chaînes n'est pas relevée, et son plan n'est donc pas vérifié.
+ *
+ * Usage : {@code TestPlansRequetes [dossierDao=src/main/java/dev/linnaelle/fs/dao]}
+ */
+public class TestPlansRequetes {
+
+    private static final Pattern BLOC_TEXTE = Pattern.compile("\"\"\"\\s*\\n(.*?)\"\"\"", Pattern.DOTALL);
+    private static final Pattern CHAINE = Pattern.compile("\"((?:SELECT|UPDATE|DELETE) [^\"]*)\"");
+    private static final Pattern REQUETE = Pattern.compile("^\\s*(SELECT|UPDATE|DELETE)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHERE = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+
+    public static void main(String[] args) {
+        Path dossier = Paths.get(args.length > 0 ? args[0] : "src/main/java/dev/linnaelle/fs/dao");
+        int regressions = 0;
+
+        System.out.println("=== PLANS DES REQUETES ===\n");
+        try {
+            DatabaseManager.getInstance().initializeDatabase();
+            DataInitializer.initializeData();
+
+            List<String[]> requetes = releverRequetes(dossier);
+            if (requetes.isEmpty()) {
+                throw new IllegalStateException("Aucune requete trouvee dans " + dossier.toAbsolutePath());
+            }
+
+            int listes = 0;
+            int invalides = 0;
+            try (Connection conn = DatabaseManager.get()) {
+                for (String[] requete : requetes) {
+                    List<String> plan;
+                    try {
+                        plan = expliquer(conn, requete[1]);
+                    } catch (SQLException e) {
+                        invalides++;
+                        System.err.println("[ERROR] " + requete[0] + " ne compile pas (" + e.getMessage() + "):\n    "
+                                + requete[1].strip().replaceAll("\\s+", " "));
+                        continue;
+                    }
+                    if (!WHERE.matcher(requete[1]).find()) {
+                        listes++;
+                        continue;
+                    }
+                    for (String etape : plan) {
+                        if (parcourtTable(etape)) {
+                            regressions++;
+                            System.err.println("[ERROR] " + requete[0] + " parcourt une table (" + etape + "):\n    "
+                                    + requete[1].strip().replaceAll("\\s+", " "));
+                        }
+                    }
+                }
+            }
+
+            System.out.println("[PLANS] " + requetes.size() + " requetes verifiees, dont " + listes
+                    + " listes completes et " + invalides + " invalides, " + regressions + " parcours de table");
+            regressions += invalides;
+            if (regressions == 0) {
+                System.out.println("\n[SUCCESS] Aucune requete filtree ne parcourt de table !");
+            }
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+            regressions++;
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Relève les requêtes SELECT, UPDATE et DELETE écrites en chaînes ou en blocs de texte.
+     * @return Des paires {fichier, requête}.
+     */
+    private static List<String[]> releverRequetes(Path dossier) throws IOException {
+        List<String[]> requetes = new ArrayList<>();
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            for (Path fichier : (Iterable<Path>) fichiers.filter(f -> f.toString().endsWith(".java")).sorted()::iterator) {
+                String source = Files.readString(fichier, StandardCharsets.UTF_8);
+                String nom = fichier.getFileName().toString();
+
+                Matcher bloc = BLOC_TEXTE.matcher(source);
+                while (bloc.find()) {
+                    if (REQUETE.matcher(bloc.group(1)).find()) {
+                        requetes.add(new String[] { nom, bloc.group(1) });
+                    }
+                }
+                Matcher chaine = CHAINE.matcher(BLOC_TEXTE.matcher(source).replaceAll(""));
+                while (chaine.find()) {
+                    requetes.add(new String[] { nom, chaine.group(1) });
+                }
+            }
+        }
+        return requetes;
+    }
+
+    private static List<String> expliquer(Connection conn, String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        // Les paramètres non liés valent NULL, ce qui ne change pas le choix des index
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                plan.add(rs.getString("detail"));
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Un parcours lit toute la table ou tout un index ; une recherche n'en lit que les lignes visées.
+     */
+    private static boolean parcourtTable(String etape) {
+        return etape.startsWith("SCAN ") && !etape.equals("SCAN CONSTANT ROW");
+    }
+}
\ No newline at end of file
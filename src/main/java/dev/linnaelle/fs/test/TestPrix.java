@@ -0,0 +1,162 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.dao.DifficulteDao;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.model.Config;
+import dev.linnaelle.fs.services.CatalogueService;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.services.EconomieService;
+import dev.linnaelle.fs.services.IndexPrix;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index des prix : mêmes prix que les recherches successives dans le catalogue,
+ * reconstruit après un rechargement ou un changement de difficulté.
+ */
+public class TestPrix {
+
+    private static final String CHEMIN = "data/bench-prix.sqlite";
+
+    public static void main(String[] args) {
+        int achats = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        Config.DatabaseConfig dbConfig = BancDeTest.baseNeuve(CHEMIN);
+
+        System.out.println("=== PRIX ===\n");
+        try {
+            DatabaseManager.getInstance().initializeDatabase(dbConfig);
+            DataInitializer.initializeData();
+            CatalogueService catalogue = CatalogueService.getInstance();
+            EconomieService economie = EconomieService.getInstance();
+
+            List<String> items = new ArrayList<>();
+            items.addAll(catalogue.getAllAnimalTypes());
+            items.addAll(catalogue.getAllEquipementTypes());
+            items.addAll(catalogue.getAllCultureTypes());
+            items.addAll(catalogue.getAllUsineTypes());
+
+            for (Difficulte difficulte : new DifficulteDao().findAll()) {
+                for (String item : items) {
+                    BancDeTest.verifier(economie.getPrixAchat(item, difficulte) == prixAchatCatalogue(catalogue, item, difficulte),
+                            "le prix d'achat de " + item + " en " + difficulte.getNom());
+                }
+                for (String article : catalogue.getArticlesByCategorie("cereale")) {
+                    BancDeTest.verifier(economie.getPrixVente(article, difficulte)
+                            == catalogue.getArticleInfo(article).getPrixVente() * difficulte.getMultiplicateurVente(),
+                            "le prix de vente de " + article + " en " + difficulte.getNom());
+                }
+            }
+            Difficulte normal = new DifficulteDao().findByNom("normal");
+            BancDeTest.verifier(economie.getPrixAchat("VACHE", normal) == economie.getPrixAchat("vache", normal), "un item sans distinction de casse");
+            System.out.println("[PRIX] " + items.size() + " items identiques aux recherches dans le catalogue");
+
+            verifierReconstruction(catalogue, economie, normal);
+
+            StockPrincipal stock = new StockPrincipal(0);
+            int quantite = 1;
+            for (String article : catalogue.getArticlesByCategorie("cereale")) {
+                stock.ajouter(article, quantite++);
+            }
+            double valeur = 0.0;
+            for (Map.Entry<String, Integer> article : stock.getArticles().entrySet()) {
+                valeur += economie.getPrixVente(article.getKey(), normal) * article.getValue();
+            }
+            BancDeTest.verifier(Math.abs(economie.evaluerStock(stock, normal) - valeur) < 1e-6, "la valeur du stock");
+            System.out.println("[STOCK] Valeur de " + stock.getArticles().size() + " articles: " + valeur + " gold");
+
+            // Avant l'index, chaque prix d'achat enchaînait jusqu'à quatre recherches dans le catalogue
+            String[] liste = new String[achats];
+            int[] ids = new int[achats];
+            int[] quantites = new int[achats];
+            for (int i = 0; i < achats; i++) {
+                liste[i] = items.get(i % items.size());
+                ids[i] = catalogue.getItemId(liste[i]);
+                quantites[i] = 1 + i % 10;
+            }
+            mesurerCatalogue(catalogue, liste, quantites, normal);
+            long recherches = mesurerCatalogue(catalogue, liste, quantites, normal);
+            IndexPrix index = economie.getIndexPrix(normal);
+            mesurerIndex(index, ids, quantites);
+            long parcours = mesurerIndex(index, ids, quantites);
+            BancDeTest.verifier(Math.abs(index.getPrixAchat(ids, quantites) - prixCatalogue(catalogue, liste, quantites, normal)) < 1e-3,
+                    "le prix de la liste d'achats");
+            System.out.println("\n[BENCH] Liste de " + achats + " achats");
+            BancDeTest.afficher("catalogue", recherches, achats, "achat");
+            BancDeTest.afficher("index", parcours, achats, "achat");
+
+            System.out.println("\n[SUCCESS] Tests des prix termines !");
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    /**
+     * L'index est gardé tant que rien ne change, puis reconstruit après un rechargement du catalogue
+     * ou un changement des multiplicateurs de la difficulté.
+     */
+    private static void verifierReconstruction(CatalogueService catalogue, EconomieService economie, Difficulte normal) {
+        IndexPrix index = economie.getIndexPrix(normal);
+        BancDeTest.verifier(economie.getIndexPrix(normal) == index, "l'index gardé");
+
+        catalogue.reloadCache();
+        IndexPrix recharge = economie.getIndexPrix(normal);
+        BancDeTest.verifier(recharge != index && recharge.getVersionCatalogue() == catalogue.getVersion(), "l'index après rechargement");
+
+        Difficulte modifiee = new Difficulte(normal.getNom(), normal.getGoldDepart(),
+                normal.getMultiplicateurAchat() * 2, normal.getMultiplicateurVente());
+        BancDeTest.verifier(economie.getPrixAchat("vache", modifiee) == 2 * economie.getPrixAchat("vache", normal), "l'index d'une difficulté modifiée");
+        System.out.println("[INDEX] Reconstruit apres rechargement (version " + recharge.getVersionCatalogue()
+                + ") et changement de multiplicateur");
+    }
+
+    /**
+     * Prix d'achat tel que le calculait EconomieService avant l'index.
+     */
+    private static double prixAchatCatalogue(CatalogueService catalogue, String item, Difficulte difficulte) {
+        AnimalInfo animalInfo = catalogue.getAnimalInfo(item);
+        if (animalInfo != null) {
+            return animalInfo.getPrixAchat() * difficulte.getMultiplicateurAchat();
+        }
+        EquipementInfo equipInfo = catalogue.getEquipementInfo(item);
+        if (equipInfo != null) {
+            return equipInfo.getPrixAchat() * difficulte.getMultiplicateurAchat();
+        }
+        CultureInfo cultureInfo = catalogue.getCultureInfo(item);
+        if (cultureInfo != null) {
+            return cultureInfo.getPrixAchat() * difficulte.getMultiplicateurAchat();
+        }
+        UsineInfo usineInfo = catalogue.getUsineInfo(item);
+        return usineInfo != null ? usineInfo.getPrixAchat() * difficulte.getMultiplicateurAchat() : 0.0;
+    }
+
+    private static double prixCatalogue(CatalogueService catalogue, String[] liste, int[] quantites, Difficulte difficulte) {
+        double total = 0.0;
+        for (int i = 0; i < liste.length; i++) {
+            total += prixAchatCatalogue(catalogue, liste[i], difficulte) * quantites[i];
+        }
+        return total;
+    }
+
+    private static long mesurerCatalogue(CatalogueService catalogue, String[] liste, int[] quantites, Difficulte difficulte) {
+        long debut = System.nanoTime();
+        if (prixCatalogue(catalogue, liste, quantites, difficulte) <= 0) {
+            throw new RuntimeException("Liste gratuite");
+        }
+        return System.nanoTime() - debut;
+    }
+
+    private static long mesurerIndex(IndexPrix index, int[] ids, int[] quantites) {
+        long debut = System.nanoTime();
+        if (index.getPrixAchat(ids, quantites) <= 0) {
+            throw new RuntimeException("Liste gratuite");
+        }
+        return System.nanoTime() - debut;
+    }
+}
\ No newline at end of file
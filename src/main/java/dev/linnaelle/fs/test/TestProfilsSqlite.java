@@ -0,0 +1,107 @@
+package dev.linnaelle.fs.test;
+
+import com.google.gson.Gson;
+import dev.linnaelle.fs.BatchSimulation;
+import dev.linnaelle.fs.dao.*;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.model.Config;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.services.SauvegardeService;
+import dev.linnaelle.fs.utils.DatabaseManager;
+import dev.linnaelle.fs.utils.Horloge;
+import dev.linnaelle.fs.utils.HorlogePasFixe;
+
+import java.io.File;
+
+/**
+ * Compare les profils SQLite sur une base fichier : sauvegardes complètes d'une grosse ferme,
+ * puis simulation batch avec écritures différées.
+ */
+public class TestProfilsSqlite {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    // Réglages d'origine : journal DELETE, synchronisation FULL, caches par défaut et 10 connexions
+    private static final String SANS_REGLAGE = "{path: 'data/bench-sans-reglage.sqlite', performance: {"
+            + "journalMode: 'DELETE', synchronous: 'FULL', mmapSizeMb: 0, cacheSizeKb: 2000,"
+            + " tempStore: 'DEFAULT', busyTimeoutMs: 3000, readerConnections: 9}}";
+    private static final String PERFORMANCE = "{path: 'data/bench-performance.sqlite'}";
+
+    public static void main(String[] args) {
+        int sauvegardes = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int fermes = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        System.out.println("=== PROFILS SQLITE ===\n");
+        try {
+            benchProfil("sans reglage", SANS_REGLAGE, sauvegardes, fermes);
+            benchProfil("performance", PERFORMANCE, sauvegardes, fermes);
+            System.out.println("\n[SUCCESS] Comparaison des profils terminee !");
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void benchProfil(String nom, String json, int sauvegardes, int fermes) {
+        Config.DatabaseConfig dbConfig = new Gson().fromJson(json, Config.DatabaseConfig.class);
+        for (String suffixe : new String[] { "", "-wal", "-shm", "-journal" }) {
+            new File(dbConfig.getPath() + suffixe).delete();
+        }
+
+        HorlogePasFixe horloge = new HorlogePasFixe(T0, 1000L);
+        Horloge.setInstance(horloge);
+        DatabaseManager.getInstance().initializeDatabase(dbConfig);
+        DataInitializer.initializeData();
+        try {
+            System.out.println("\n[BENCH] Profil " + nom + " (pool de " + dbConfig.getPerformance().getPoolSize() + " connexions)");
+
+            Ferme ferme = new FermeDao().findById(creerFerme(100, 2000).getId());
+            SauvegardeService sauvegarde = SauvegardeService.getInstance();
+            sauvegarde.sauvegarderFerme(ferme);
+            long debut = System.nanoTime();
+            for (int i = 0; i < sauvegardes; i++) {
+                sauvegarde.sauvegarderFerme(ferme);
+            }
+            double dureeSauvegarde = (System.nanoTime() - debut) / 1_000_000.0 / sauvegardes;
+
+            debut = System.nanoTime();
+            new BatchSimulation(fermes, 1, 0, 1).executer(horloge);
+            double dureeBatch = (System.nanoTime() - debut) / 1_000_000_000.0;
+
+            System.out.println(String.format("[RESULTAT] %s: sauvegarde %.2f ms (%d lignes), batch %d fermes x 1 h: %.2f s",
+                    nom, dureeSauvegarde, sauvegarde.getDernieresLignes(), fermes, dureeBatch));
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    /**
+     * Ferme enregistrée en base : des enclos de 50 vaches au plus, puis des champs vides jusqu'au nombre demandé.
+     */
+    private static Ferme creerFerme(int champs, int animaux) {
+        Joueur joueur = new Joueur("Bench profil", new DifficulteDao().findByNom("normal"));
+        new JoueurDao().save(joueur);
+        Ferme ferme = new Ferme("Ferme de profil", joueur.getId());
+        new FermeDao().save(ferme);
+
+        ChampDao champDao = new ChampDao();
+        FermeAnimaleDao fermeAnimaleDao = new FermeAnimaleDao();
+        AnimalDao animalDao = new AnimalDao();
+        int restants = animaux;
+        for (int numero = 1; numero <= champs; numero++) {
+            Champ champ = new Champ(ferme.getId(), numero);
+            champDao.save(champ);
+
+            if (restants > 0) {
+                int taille = Math.min(50, restants);
+                FermeAnimale troupeau = new FermeAnimale(champ.getId(), "vache", taille);
+                fermeAnimaleDao.save(troupeau);
+                for (int i = 0; i < taille; i++) {
+                    animalDao.save(new Animal(troupeau.getId(), "vache", 100));
+                }
+                restants -= taille;
+            }
+        }
+        return ferme;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.dao.*;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.model.Config;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Coût d'une mise à jour d'animal et de champ selon que la requête est compilée à chaque appel,
+ * comme avant le cache des DAO, ou reprise du cache par connexion.
+ * Chaque cas s'exécute sur la connexion de l'écrivain, après une passe de chauffe.
+ */
+public class TestRequetesPreparees {
+
+    private static final String CHEMIN = "data/bench-requetes.sqlite";
+    private static final String SQL_ANIMAL = "UPDATE Animal SET stock_herbe = ?, vivant = ?, deficit = ? WHERE id = ?";
+    private static final String SQL_CHAMP = "UPDATE Champ SET name = ?, type_culture = ?, temps_action = ?, etat = ?, prix_achat = ? WHERE id = ?";
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        Config.DatabaseConfig dbConfig = BancDeTest.baseNeuve(CHEMIN);
+
+        System.out.println("=== REQUETES PREPAREES ===\n");
+        try {
+            DatabaseManager.getInstance().initializeDatabase(dbConfig);
+            DataInitializer.initializeData();
+            Ferme ferme = creerFerme(100);
+            List<Animal> animaux = ferme.getChamps().get(0).getFermeAnimale().getAnimaux();
+            List<Champ> champs = ferme.getChamps();
+            AnimalDao animalDao = new AnimalDao();
+            ChampDao champDao = new ChampDao();
+
+            for (int passe = 0; passe < 2; passe++) {
+                boolean mesure = passe == 1;
+                if (mesure) {
+                    System.out.println("[BENCH] " + iterations + " mises a jour par cas, dans une transaction");
+                }
+                afficher(mesure, "animal, prepare a chaque appel", iterations, mesurer(iterations, (conn, i) -> {
+                    Animal animal = animaux.get(i % animaux.size());
+                    try (PreparedStatement stmt = conn.prepareStatement(SQL_ANIMAL)) {
+                        stmt.setInt(1, animal.getStockHerbe() + i);
+                        stmt.setBoolean(2, animal.isVivant());
+                        stmt.setBoolean(3, animal.isDeficit());
+                        stmt.setInt(4, animal.getId());
+                        stmt.addBatch();
+                        stmt.executeBatch();
+                    }
+                }));
+                afficher(mesure, "animal, AnimalDao.updateAll en cache", iterations, mesurer(iterations, (conn, i) -> {
+                    Animal animal = animaux.get(i % animaux.size());
+                    animal.setStockHerbe(animal.getStockHerbe() + 1);
+                    animalDao.updateAll(conn, List.of(animal));
+                }));
+                afficher(mesure, "champ, prepare a chaque appel", iterations, mesurer(iterations, (conn, i) -> {
+                    Champ champ = champs.get(i % champs.size());
+                    try (PreparedStatement stmt = conn.prepareStatement(SQL_CHAMP)) {
+                        stmt.setString(1, champ.getName());
+                        stmt.setString(2, champ.getTypeCulture());
+                        stmt.setLong(3, champ.getTempsAction() + i);
+                        stmt.setString(4, champ.getEtat().name());
+                        stmt.setDouble(5, champ.getPrixAchat());
+                        stmt.setInt(6, champ.getId());
+                        stmt.addBatch();
+                        stmt.executeBatch();
+                    }
+                }));
+                afficher(mesure, "champ, ChampDao.updateAll en cache", iterations, mesurer(iterations, (conn, i) -> {
+                    Champ champ = champs.get(i % champs.size());
+                    champDao.updateAll(conn, List.of(champ));
+                }));
+            }
+
+            verifierLectures(animalDao, animaux);
+            System.out.println("\n[SUCCESS] Tests des requetes preparees termines !");
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    /**
+     * Les lectures répétées reprennent la requête en cache sur les connexions du pool
+     * et rendent toujours la dernière valeur écrite.
+     */
+    private static void verifierLectures(AnimalDao animalDao, List<Animal> animaux) {
+        for (int i = 0; i < 1000; i++) {
+            Animal animal = animaux.get(i % animaux.size());
+            Animal relu = animalDao.findById(animal.getId());
+            if (relu == null || relu.getStockHerbe() != animal.getStockHerbe()) {
+                throw new RuntimeException("Lecture incoherente pour l'animal " + animal.getId());
+            }
+        }
+        if (new CatalogueDao().getCultureInfo("grains_ble") == null || new CatalogueDao().getCultureInfo("inconnue") != null) {
+            throw new RuntimeException("Recherche du catalogue incoherente");
+        }
+        System.out.println("[LECTURES] 1000 relectures et recherches du catalogue coherentes");
+    }
+
+    private interface Appel {
+        void executer(Connection conn, int i) throws SQLException;
+    }
+
+    private static long mesurer(int iterations, Appel appel) throws SQLException {
+        // Une transaction pour tout le cas : la mesure porte sur la préparation, pas sur les commits
+        return DatabaseManager.ecrire(conn -> {
+            long debut = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                appel.executer(conn, i);
+            }
+            return System.nanoTime() - debut;
+        });
+    }
+
+    private static void afficher(boolean mesure, String cas, int iterations, long nanos) {
+        if (mesure) {
+            System.out.println(String.format("  - %-38s %8.0f ns/op", cas, (double) nanos / iterations));
+        }
+    }
+
+    private static Ferme creerFerme(int animaux) {
+        Joueur joueur = new Joueur("Bench requetes", new DifficulteDao().findByNom("normal"));
+        new JoueurDao().save(joueur);
+        Ferme ferme = new Ferme("Ferme des requetes", joueur.getId());
+        new FermeDao().save(ferme);
+
+        ChampDao champDao = new ChampDao();
+        Champ enclos = new Champ(ferme.getId(), 1);
+        champDao.save(enclos);
+        FermeAnimale troupeau = new FermeAnimale(enclos.getId(), "vache", animaux);
+        new FermeAnimaleDao().save(troupeau);
+        AnimalDao animalDao = new AnimalDao();
+        for (int i = 0; i < animaux; i++) {
+            Animal animal = new Animal(troupeau.getId(), "vache", 100);
+            animalDao.save(animal);
+            troupeau.addAnimal(animal);
+        }
+        enclos.setFermeAnimale(troupeau);
+        ferme.getChamps().add(enclos);
+
+        for (int numero = 2; numero <= 20; numero++) {
+            Champ champ = new Champ(ferme.getId(), numero);
+            champDao.save(champ);
+            ferme.getChamps().add(champ);
+        }
+        return ferme;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.dao.*;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.model.Config;
+import dev.linnaelle.fs.services.DataInitializer;
+import dev.linnaelle.fs.services.EconomieService;
+import dev.linnaelle.fs.utils.DatabaseManager;
+
+import java.util.List;
+
+/**
+ * Session de jeu : une ligne n'a qu'une instance vivante tant que la session est ouverte,
+ * les recherches d'entités chargées ne relisent pas la base, et la validation écrit les entités modifiées.
+ */
+public class TestSession {
+
+    private static final String CHEMIN = "data/bench-session.sqlite";
+
+    public static void main(String[] args) {
+        int recherches = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        Config.DatabaseConfig dbConfig = BancDeTest.baseNeuve(CHEMIN);
+
+        System.out.println("=== SESSION ===\n");
+        try {
+            DatabaseManager.getInstance().initializeDatabase(dbConfig);
+            DataInitializer.initializeData();
+            Joueur joueur = creerPartie(50);
+
+            FermeDao fermeDao = new FermeDao();
+            ChampDao champDao = new ChampDao();
+            AnimalDao animalDao = new AnimalDao();
+            StockageDao stockageDao = new StockageDao();
+
+            Ferme horsSession = fermeDao.findByJoueurId(joueur.getId());
+            mesurer(champDao, horsSession, recherches);
+            long sansSession = mesurer(champDao, horsSession, recherches);
+
+            int champId;
+            int animalId;
+            try (Session session = Session.ouvrir()) {
+                Ferme ferme = fermeDao.findByJoueurId(joueur.getId());
+                Champ champ = ferme.getChamps().get(1);
+                Animal animal = ferme.getChamps().get(0).getFermeAnimale().getAnimaux().get(3);
+                champId = champ.getId();
+                animalId = animal.getId();
+
+                BancDeTest.verifier(fermeDao.findByJoueurId(joueur.getId()) == ferme, "la ferme relue par joueur");
+                BancDeTest.verifier(fermeDao.findById(ferme.getId()) == ferme, "la ferme relue par ID");
+                BancDeTest.verifier(champDao.findById(champId) == champ, "le champ relu par ID");
+                BancDeTest.verifier(champDao.findByFermeId(ferme.getId()).get(1) == champ, "le champ d'une liste relue");
+                BancDeTest.verifier(animalDao.findById(animalId) == animal, "l'animal relu par ID");
+                BancDeTest.verifier(session.trouver(Animal.class, animalId) == null, "l'animal suivi par son troupeau seulement");
+                BancDeTest.verifier(stockageDao.findEntrepotByFermeId(ferme.getId()) == ferme.getEntrepot(), "l'entrepot relu par ferme");
+                BancDeTest.verifier(new ReservoirEauDao().findByFermeId(ferme.getId()) == ferme.getReservoirEau(), "le reservoir relu par ferme");
+                BancDeTest.verifier(new JoueurDao().findById(joueur.getId()) == new JoueurDao().findByName(joueur.getName()), "le joueur relu");
+                System.out.println("[IDENTITE] Une seule instance par ligne pour la ferme, ses champs, animaux et stockages");
+
+                // Le semis modifie le champ de la ferme en mémoire, pas une copie relue en base
+                ferme.setRevenu(1000);
+                champ.setEtat(EtatChamp.LABOURE);
+                BancDeTest.verifier(EconomieService.getInstance().acheterCulture(ferme, "grains_ble", champId, joueur.getDifficulte()), "l'achat de culture");
+                BancDeTest.verifier(champ.getEtat() == EtatChamp.SEME && "grains_ble".equals(champ.getTypeCulture()), "le semis du champ de la ferme");
+
+                animal.setStockHerbe(4242);
+                ferme.getReservoirEau().setQuantite(1234);
+                int lignes = session.valider();
+                BancDeTest.verifier(lignes > 0 && !animal.isModifie() && !ferme.getReservoirEau().isModifie(), "la validation de la session");
+
+                long avecSession = mesurer(champDao, ferme, recherches);
+                System.out.println("[UNITE DE TRAVAIL] " + lignes + " lignes ecrites en une transaction, "
+                        + session.getTaille() + " entites suivies");
+                System.out.println("\n[BENCH] " + recherches + " ChampDao.findById");
+                BancDeTest.afficher("sans session", sansSession, recherches, "recherche");
+                BancDeTest.afficher("avec session", avecSession, recherches, "recherche");
+                System.out.println("  - " + session.getLecturesEvitees() + " lectures servies par la session");
+            }
+
+            BancDeTest.verifier(Session.courante() == null, "la fermeture de la session");
+            Champ relu = champDao.findById(champId);
+            BancDeTest.verifier(relu.getEtat() == EtatChamp.SEME, "le semis relu en base");
+            BancDeTest.verifier(animalDao.findById(animalId).getStockHerbe() == 4242, "le stock d'herbe relu en base");
+            BancDeTest.verifier(stockageDao.findReservoirEauByFermeId(relu.getFermeId()).getQuantite() == 1234, "le reservoir relu en base");
+            BancDeTest.verifier(champDao.findById(champId) != relu, "la relecture hors session");
+
+            System.out.println("\n[SUCCESS] Tests de la session termines !");
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    private static long mesurer(ChampDao champDao, Ferme ferme, int recherches) {
+        List<Champ> champs = ferme.getChamps();
+        long debut = System.nanoTime();
+        for (int i = 0; i < recherches; i++) {
+            if (champDao.findById(champs.get(i % champs.size()).getId()) == null) {
+                throw new RuntimeException("Champ introuvable");
+            }
+        }
+        return System.nanoTime() - debut;
+    }
+
+    private static Joueur creerPartie(int animaux) {
+        Joueur joueur = new Joueur("Joueur de la session", new DifficulteDao().findByNom("normal"));
+        new JoueurDao().save(joueur);
+        Ferme ferme = new Ferme("Ferme de la session", joueur.getId());
+        new FermeDao().save(ferme);
+
+        ChampDao champDao = new ChampDao();
+        Champ enclos = new Champ(ferme.getId(), 1);
+        champDao.save(enclos);
+        FermeAnimale troupeau = new FermeAnimale(enclos.getId(), "vache", animaux);
+        new FermeAnimaleDao().save(troupeau);
+        AnimalDao animalDao = new AnimalDao();
+        for (int i = 0; i < animaux; i++) {
+            animalDao.save(new Animal(troupeau.getId(), "vache", 100));
+        }
+
+        for (int numero = 2; numero <= 20; numero++) {
+            champDao.save(new Champ(ferme.getId(), numero));
+        }
+        return joueur;
+    }
+}
\ No newline at end of file
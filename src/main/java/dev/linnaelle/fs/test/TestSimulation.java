@@ -0,0 +1,451 @@
+package dev.linnaelle.fs.test;
+
+import dev.linnaelle.fs.utils.DatabaseManager;
+import dev.linnaelle.fs.utils.HorlogeDilatee;
+import dev.linnaelle.fs.utils.HorlogePasFixe;
+import dev.linnaelle.fs.entities.*;
+import dev.linnaelle.fs.services.*;
+import dev.linnaelle.fs.simulation.*;
+
+import java.util.TreeMap;
+
+public class TestSimulation {
+
+    private static final long T0 = 1_700_000_000_123L;
+    private static boolean succes = true;
+
+    public static void main(String[] args) {
+        try {
+            System.out.println("=== TEST DE LA SIMULATION ===\n");
+
+            System.out.println("Initialisation de la base de donnees...");
+            DatabaseManager.getInstance().initializeDatabase();
+            DataInitializer.initializeData();
+
+            System.out.println("\n=== RATTRAPAGE HORS LIGNE / PAS A PAS ===\n");
+
+            testRattrapage("Ferme complete, 1 heure", 3600, 20000, 100000);
+            testRattrapage("Reservoir limite, 3 heures", 3 * 3600, 400, 100000);
+            testRattrapage("Stock sature, 2 heures", 2 * 3600, 20000, 1200);
+            testRattrapage("Ferme complete, 2 jours", 2 * 86400, 20000, 100000);
+            testRattrapageAnimauxRecharges();
+            testRattrapageStructuresActives("Structures actives, 1 jour", 86400, 20000);
+            testRattrapageStructuresActives("Structures actives et reservoir limite, 3 heures", 3 * 3600, 6000);
+
+            System.out.println("\n=== HORLOGE DU JEU ===\n");
+
+            testMoteurHorlogePasFixe();
+            testMoteurGrandRetard();
+            testMoteurHorlogeDilatee();
+
+            System.out.println("\n=== GRAPHE DE PRODUCTION ===\n");
+
+            testGrapheProduction();
+
+            System.out.println("\n=== PLANIFICATION DES ECHEANCES ===\n");
+
+            testPlanificateur();
+
+            System.out.println("\n=== PERFORMANCE DU RATTRAPAGE ===\n");
+
+            testPerformanceRattrapage("Rattrapage d'une semaine pour 1000 animaux", false);
+            testPerformanceRattrapage("Rattrapage d'une semaine pour 1000 animaux, serre et usines actives", true);
+
+            if (succes) {
+                System.out.println("\n[SUCCESS] Tous les tests de simulation reussis !");
+            } else {
+                System.err.println("\n[ERROR] Des tests de simulation ont echoue");
+            }
+
+        } catch (Exception e) {
+            System.err.println("[ERROR] Erreur lors du test: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.closeInstance();
+        }
+    }
+
+    private static void testRattrapage(String nom, long secondes, int capaciteEau, int capaciteStock) {
+        System.out.println("[TEST] " + nom);
+
+        Ferme pasAPas = creerFerme(capaciteEau, capaciteStock);
+        Ferme rattrapee = creerFerme(capaciteEau, capaciteStock);
+        comparer(pasAPas, rattrapee, secondes);
+    }
+
+    private static void testRattrapageAnimauxRecharges() {
+        System.out.println("[TEST] Animaux recharges avec des prelevements recents, 1 heure");
+
+        Ferme pasAPas = creerFerme(20000, 100000);
+        Ferme rattrapee = creerFerme(20000, 100000);
+        for (Ferme ferme : new Ferme[] { pasAPas, rattrapee }) {
+            for (Champ champ : ferme.getChamps()) {
+                if (champ.getFermeAnimale() != null) {
+                    for (Animal animal : champ.getFermeAnimale().getAnimaux()) {
+                        animal.setDernierPrelevementEau(T0 + 600000);
+                        animal.setDernierPrelevementHerbe(T0 + 600000);
+                    }
+                }
+            }
+        }
+        comparer(pasAPas, rattrapee, 3600);
+    }
+
+    private static void testRattrapageStructuresActives(String nom, long secondes, int capaciteEau) {
+        System.out.println("[TEST] " + nom);
+
+        Ferme pasAPas = creerFerme(capaciteEau, 100000);
+        Ferme rattrapee = creerFerme(capaciteEau, 100000);
+        approvisionner(pasAPas);
+        approvisionner(rattrapee);
+        comparer(pasAPas, rattrapee, secondes);
+    }
+
+    private static void comparer(Ferme pasAPas, Ferme rattrapee, long secondes) {
+        SimulateurFerme simulateur = new SimulateurFerme();
+        long debut = System.nanoTime();
+        for (long i = 1; i <= secondes; i++) {
+            simulateur.simuler(pasAPas, T0 + i * 1000);
+        }
+        double dureePasAPas = (System.nanoTime() - debut) / 1_000_000.0;
+
+        RattrapageSimulation rattrapage = new RattrapageSimulation();
+        rattrapee.setDerniereSimulation(T0);
+        debut = System.nanoTime();
+        rattrapage.rattraper(rattrapee, T0 + secondes * 1000 + 500);
+        double dureeRattrapage = (System.nanoTime() - debut) / 1_000_000.0;
+
+        String attendu = decrire(pasAPas);
+        String obtenu = decrire(rattrapee);
+
+        if (attendu.equals(obtenu) && rattrapee.getDerniereSimulation() == T0 + secondes * 1000) {
+            System.out.println("  - Etat identique a la simulation pas a pas: OK");
+        } else {
+            succes = false;
+            System.err.println("  [ERROR] Etats differents");
+            System.err.println("    attendu: " + attendu);
+            System.err.println("    obtenu:  " + obtenu);
+        }
+        System.out.println(String.format("    Pas a pas: %.1f ms, rattrapage: %.1f ms (%d pas rejoues, %d sautes, %d periodes repliees)",
+                dureePasAPas, dureeRattrapage, rattrapage.getPasExacts(), rattrapage.getPasSautes(),
+                rattrapage.getPeriodesRepliees()));
+        System.out.println();
+    }
+
+    private static void testPerformanceRattrapage(String nom, boolean structuresActives) {
+        System.out.println("[TEST] " + nom);
+
+        Ferme ferme = creerFerme(20000, 100000);
+        if (structuresActives) {
+            approvisionner(ferme);
+        }
+        FermeAnimale enclos = new FermeAnimale(0, "vache", 1000);
+        for (int i = 0; i < 1000; i++) {
+            enclos.addAnimal(creerAnimal("vache", 100 + i));
+        }
+        Champ champ = new Champ(1, 10);
+        champ.setFermeAnimale(enclos);
+        ferme.getChamps().add(champ);
+
+        RattrapageSimulation rattrapage = new RattrapageSimulation();
+        ferme.setDerniereSimulation(T0);
+        long debut = System.nanoTime();
+        long secondes = rattrapage.rattraper(ferme, T0 + 7 * 86400 * 1000L);
+        double duree = (System.nanoTime() - debut) / 1_000_000.0;
+
+        System.out.println(String.format("  - %d s rattrapees en %.1f ms", secondes, duree));
+        rattrapage.printStatistiques();
+        System.out.println();
+    }
+
+    private static void testMoteurHorlogePasFixe() throws InterruptedException {
+        System.out.println("[TEST] Moteur sur horloge a pas fixe, 10 minutes");
+
+        Ferme ferme = creerFerme(20000, 100000);
+        HorlogePasFixe horloge = new HorlogePasFixe(T0, 1000);
+        MoteurSimulation moteur = new MoteurSimulation(ferme, 1, 300, horloge);
+        moteur.demarrer();
+        // Le moteur prend son premier pas au temps de démarrage : la référence commence un pas plus tard
+        while (moteur.getTicksExecutes() < 1) {
+            Thread.sleep(1);
+        }
+        for (int i = 0; i < 60; i++) {
+            horloge.avancer(10_000);
+            while (moteur.getTicksExecutes() < 11 + 10L * i) {
+                Thread.sleep(1);
+            }
+        }
+        moteur.arreter();
+
+        Ferme attendue = creerFerme(20000, 100000);
+        SimulateurFerme simulateur = new SimulateurFerme();
+        for (long i = 0; i <= 600; i++) {
+            simulateur.simuler(attendue, T0 + i * 1000);
+        }
+
+        if (decrire(attendue).equals(decrire(ferme)) && moteur.getTicksAbandonnes() == 0) {
+            System.out.println("  - Etat identique a la simulation pas a pas: OK (" + moteur.getTicksExecutes() + " ticks)");
+        } else {
+            succes = false;
+            System.err.println("  [ERROR] Etats differents");
+            System.err.println("    attendu: " + decrire(attendue));
+            System.err.println("    obtenu:  " + decrire(ferme));
+        }
+        System.out.println();
+    }
+
+    private static void testMoteurGrandRetard() throws InterruptedException {
+        System.out.println("[TEST] Moteur en retard de 2 heures, au-dela de la limite de rattrapage");
+
+        Ferme ferme = creerFerme(20000, 100000);
+        HorlogePasFixe horloge = new HorlogePasFixe(T0, 1000);
+        MoteurSimulation moteur = new MoteurSimulation(ferme, 1, 300, horloge);
+        moteur.demarrer();
+        while (moteur.getTicksExecutes() < 1) {
+            Thread.sleep(1);
+        }
+        // Le retard est confié au rattrapage hors ligne au lieu d'être abandonné
+        horloge.avancer(7200_000);
+        while (ferme.getDerniereSimulation() < T0 + 7200_000) {
+            Thread.sleep(1);
+        }
+        moteur.arreter();
+
+        Ferme attendue = creerFerme(20000, 100000);
+        SimulateurFerme simulateur = new SimulateurFerme();
+        for (long i = 0; i <= 7200; i++) {
+            simulateur.simuler(attendue, T0 + i * 1000);
+        }
+
+        if (decrire(attendue).equals(decrire(ferme)) && moteur.getTicksAbandonnes() == 0) {
+            System.out.println("  - Etat identique a la simulation pas a pas: OK (" + moteur.getTicksExecutes() + " ticks, "
+                    + moteur.getTicksRattrapes() + " rattrapes)");
+        } else {
+            succes = false;
+            System.err.println("  [ERROR] Etats differents (" + moteur.getTicksAbandonnes() + " ticks abandonnes)");
+            System.err.println("    attendu: " + decrire(attendue));
+            System.err.println("    obtenu:  " + decrire(ferme));
+        }
+        System.out.println();
+    }
+
+    private static void testMoteurHorlogeDilatee() throws InterruptedException {
+        System.out.println("[TEST] Moteur sur horloge acceleree x1000, 2 secondes reelles");
+
+        Ferme ferme = creerFerme(20000, 100000);
+        MoteurSimulation moteur = new MoteurSimulation(ferme, 1, 300, new HorlogeDilatee(1000, T0));
+        long debut = System.nanoTime();
+        moteur.demarrer();
+        Thread.sleep(2000);
+        moteur.arreter();
+        double duree = (System.nanoTime() - debut) / 1_000_000_000.0;
+
+        long ticks = moteur.getTicksExecutes();
+        if (ticks >= 1000 * duree * 0.5) {
+            System.out.println(String.format("  - %d s de jeu en %.2f s reelles: OK", ticks, duree));
+        } else {
+            succes = false;
+            System.err.println(String.format("  [ERROR] Seulement %d ticks en %.2f s", ticks, duree));
+        }
+        System.out.println();
+    }
+
+    private static void testGrapheProduction() {
+        System.out.println("[TEST] Recettes compilees et ordre topologique");
+
+        CatalogueService catalogue = CatalogueService.getInstance();
+        GrapheProduction graphe = catalogue.getGrapheProduction();
+        GrapheProduction.Recette scierie = graphe.getRecette("scierie");
+        GrapheProduction.Recette jouets = graphe.getRecette("usine_jouets");
+        GrapheProduction.Recette boulangerie = graphe.getRecette("boulangerie");
+
+        boolean ok = scierie != null && jouets != null && boulangerie != null
+                && scierie.getProduit() == catalogue.getArticleId("planches")
+                && jouets.getIntrant(0) == catalogue.getArticleId("planches")
+                && scierie.getQuantiteProduite() == 200
+                && scierie.getRang() < jouets.getRang()
+                && graphe.getRang("moulin_a_huile") < graphe.getRang("usine_chips")
+                && graphe.getRang("chocolaterie") < boulangerie.getRang()
+                && graphe.getRang("serre") < boulangerie.getRang();
+
+        int precedent = -1;
+        for (GrapheProduction.Recette recette : graphe.getRecettes()) {
+            ok &= recette.getRang() >= precedent;
+            precedent = recette.getRang();
+        }
+
+        // Une usine reprend la recette du graphe recompilé après un rechargement du catalogue
+        Usine usine = new Usine(1, "scierie", 0);
+        ok &= usine.getRecette() == scierie;
+        catalogue.reloadCache();
+        ok &= usine.getRecette() != scierie && usine.getRecette() == catalogue.getGrapheProduction().getRecette("scierie");
+
+        if (ok) {
+            System.out.println("  - " + graphe.getRecettes().size() + " recettes, amont avant aval, recettes rechargees: OK");
+        } else {
+            succes = false;
+            System.err.println("  [ERROR] Graphe incorrect: " + graphe.getRecettes());
+        }
+        System.out.println();
+    }
+
+    private static void testPlanificateur() {
+        System.out.println("[TEST] File des echeances contre une recherche lineaire");
+
+        PlanificateurEcheances planificateur = new PlanificateurEcheances();
+        long[] attendues = new long[200];
+        java.util.Arrays.fill(attendues, Long.MAX_VALUE);
+        java.util.Random aleatoire = new java.util.Random(42);
+        boolean ok = true;
+
+        for (int operation = 0; operation < 20000 && ok; operation++) {
+            int element = aleatoire.nextInt(attendues.length);
+            int choix = aleatoire.nextInt(3);
+            if (choix == 0) {
+                long echeance = aleatoire.nextInt(100000);
+                planificateur.planifier(element, echeance);
+                attendues[element] = echeance;
+            } else if (choix == 1) {
+                planificateur.annuler(element);
+                attendues[element] = Long.MAX_VALUE;
+            } else {
+                long temps = aleatoire.nextInt(100000);
+                int retire = planificateur.retirerEchu(temps);
+                long minimum = Long.MAX_VALUE;
+                for (long echeance : attendues) {
+                    minimum = Math.min(minimum, echeance);
+                }
+                if (minimum > temps) {
+                    ok = retire == -1;
+                } else {
+                    ok = retire >= 0 && attendues[retire] == minimum;
+                    if (retire >= 0) {
+                        attendues[retire] = Long.MAX_VALUE;
+                    }
+                }
+            }
+        }
+
+        if (ok) {
+            System.out.println("  - Echeances retirees dans l'ordre: OK");
+        } else {
+            succes = false;
+            System.err.println("  [ERROR] Echeance retiree dans le desordre");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Construit une ferme déterministe : troupeaux aux réserves d'herbe variées, serre, usines et champs en croissance.
+     */
+    private static Ferme creerFerme(int capaciteEau, int capaciteStock) {
+        Ferme ferme = new Ferme("Ferme de test", 1);
+        ferme.setDerniereSimulation(T0);
+
+        StockPrincipal stock = new StockPrincipal(1);
+        stock.setCapaciteMax(capaciteStock);
+        stock.ajouter("lait", Math.min(600, capaciteStock));
+        ferme.setStockPrincipal(stock);
+
+        Entrepot entrepot = new Entrepot(1);
+        entrepot.setCapaciteMax(50000);
+        ferme.setEntrepot(entrepot);
+
+        ReservoirEau reservoir = new ReservoirEau(1, capaciteEau);
+        reservoir.setDernierRemplissage(T0 - 42000);
+        ferme.setReservoirEau(reservoir);
+
+        ferme.getChamps().add(creerEnclos(1, "vache", new int[] { 0, 10, 90, 300, 1200 }));
+        ferme.getChamps().add(creerEnclos(2, "mouton", new int[] { 5, 40, 400 }));
+        ferme.getChamps().add(creerEnclos(3, "poule", new int[] { 0, 1, 2, 3, 50, 600, 2000 }));
+
+        Champ seme = new Champ(1, 4);
+        seme.labourer(T0 - 60000);
+        seme.semer("ble", T0 - 10000);
+        ferme.getChamps().add(seme);
+
+        Champ fertilise = new Champ(1, 5);
+        fertilise.labourer(T0);
+        fertilise.semer("orge", T0 + 20000);
+        fertilise.fertiliser(T0 + 7200000);
+        ferme.getChamps().add(fertilise);
+
+        Serre serre = new Serre(1, "serre", 40000.0);
+        serre.setId(1);
+        serre.setDernierRecolte(T0 - 250000);
+        serre.demarrer();
+        ferme.getStructures().add(serre);
+
+        Usine laiterie = new Usine(1, "laiterie", 30000.0);
+        laiterie.setId(3);
+        laiterie.demarrer();
+        ferme.getStructures().add(laiterie);
+
+        Usine scierie = new Usine(1, "scierie", 30000.0);
+        scierie.setId(4);
+        scierie.demarrer();
+        ferme.getStructures().add(scierie);
+
+        return ferme;
+    }
+
+    /**
+     * Agrandit les stockages et les remplit d'intrants, pour que la serre et les usines restent actives plusieurs jours.
+     */
+    private static void approvisionner(Ferme ferme) {
+        ferme.getStockPrincipal().setCapaciteMax(40_000_000);
+        ferme.getStockPrincipal().ajouter("lait", 6_000_000);
+        ferme.getStockPrincipal().ajouter("peuplier", 6_000_000);
+        ferme.getEntrepot().setCapaciteMax(40_000_000);
+    }
+
+    private static Champ creerEnclos(int numero, String type, int[] stocksHerbe) {
+        FermeAnimale enclos = new FermeAnimale(numero, type, stocksHerbe.length);
+        for (int stockHerbe : stocksHerbe) {
+            enclos.addAnimal(creerAnimal(type, stockHerbe));
+        }
+        Champ champ = new Champ(1, numero);
+        champ.setFermeAnimale(enclos);
+        return champ;
+    }
+
+    private static Animal creerAnimal(String type, int stockHerbe) {
+        Animal animal = new Animal(0, type, stockHerbe);
+        animal.setDernierPrelevementEau(T0 - 5000);
+        animal.setDernierPrelevementHerbe(T0 - 5000);
+        return animal;
+    }
+
+    private static String decrire(Ferme ferme) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("stock=").append(new TreeMap<>(ferme.getStockPrincipal().getArticles()));
+        sb.append(" entrepot=").append(new TreeMap<>(ferme.getEntrepot().getArticles()));
+        sb.append(" eau=").append(ferme.getReservoirEau().getQuantite())
+          .append('@').append(ferme.getReservoirEau().getDernierRemplissage());
+
+        for (Champ champ : ferme.getChamps()) {
+            sb.append(" champ").append(champ.getNumero()).append('=').append(champ.getEtat().name());
+            if (champ.getFermeAnimale() != null) {
+                for (Animal animal : champ.getFermeAnimale().getAnimaux()) {
+                    sb.append(" [").append(animal.getType())
+                      .append(' ').append(animal.getStockHerbe())
+                      .append(' ').append(animal.isVivant())
+                      .append(' ').append(animal.isDeficit())
+                      .append(' ').append(animal.getDernierPrelevementEau())
+                      .append(' ').append(animal.getDernierPrelevementHerbe()).append(']');
+                }
+            }
+        }
+
+        for (StructureProduction structure : ferme.getStructures()) {
+            sb.append(' ').append(structure.getType())
+              .append(structure.isActive() ? " active" : " arretee")
+              .append(structure.isEnPause() ? " en pause" : "");
+            if (structure instanceof Serre) {
+                sb.append(" recolte@").append(((Serre) structure).getDernierRecolte());
+            }
+        }
+
+        return sb.toString();
+    }
+}
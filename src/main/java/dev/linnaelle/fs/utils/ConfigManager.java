@@ -65,6 +65,11 @@ public class ConfigManager {
     public static double getVolume() { return getConfig().getGameConfig().getVolume(); }
     public static boolean isAutoSave() { return getConfig().getGameConfig().isAutoSave(); }
     public static int getAutoSaveIntervalMinutes() { return getConfig().getGameConfig().getAutoSaveIntervalMinutes(); }
+    public static int getSimulationTickRate() { return getConfig().getGameConfig().getSimulationTickRate(); }
+    public static int getSimulationMaxCatchUpTicks() { return getConfig().getGameConfig().getSimulationMaxCatchUpTicks(); }
+    public static int getSimulationParallelism() { return getConfig().getGameConfig().getSimulationParallelism(); }
+    public static double getSimulationTimeScale() { return getConfig().getGameConfig().getSimulationTimeScale(); }
+    public static int getWriteBehindIntervalSeconds() { return getConfig().getGameConfig().getWriteBehindIntervalSeconds(); }
     public static String getDefaultPlayerName() { return getConfig().getPlayerConfig().getDefaultName(); }
     public static int getStartMoney() { return getConfig().getPlayerConfig().getStartMoney(); }
     public static String getDatabasePath() { return getConfig().getDatabaseConfig().getPath(); }
@@ -5,11 +5,22 @@ import com.zaxxer.hikari.HikariDataSource;
 import dev.linnaelle.fs.model.Config;
 import java.sql.*;
 import java.io.File;
+import java.util.concurrent.CompletableFuture;
 
 public class DatabaseManager {
     private static DatabaseManager instance;
     private HikariDataSource dataSource;
+    private HikariDataSource ecritureSource;
+    private EcrivainBase ecrivain;
     private String dbPath;
+    private int migrationsAppliquees;
+    private double dureeInitialisationMs;
+
+    // Ordre définitif : une migration publiée ne change plus, une évolution du schéma en ajoute une
+    private final Migrations migrations = new Migrations()
+            .ajouter(1, "Tables du jeu et du catalogue", this::createTables)
+            .ajouter(2, "Index des clés étrangères et des filtres des DAO", this::createIndexes)
+            .ajouter(3, "Table des paramètres de la base", this::createParametreTable);
 
     private DatabaseManager() {}
 
@@ -18,17 +29,47 @@ public class DatabaseManager {
         return instance;
     }
 
+    /**
+     * Connexion du pool de lecture. Ses connexions refusent toute écriture :
+     * les écritures passent par {@link #ecrire(EcrivainBase.Travail)} ou {@link #soumettre(EcrivainBase.Travail)}.
+     */
     public static Connection get() throws SQLException { 
         return getInstance().getConnection(); 
     }
+
+    /**
+     * Exécute une écriture sur la connexion d'écriture et attend son commit.
+     * @param travail L'écriture, exécutée atomiquement.
+     * @return La valeur rendue par l'écriture.
+     * @throws SQLException Si l'écriture ou son commit a échoué.
+     */
+    public static <T> T ecrire(EcrivainBase.Travail<T> travail) throws SQLException {
+        return getInstance().ecrivain.executer(travail);
+    }
+
+    /**
+     * Met une écriture en file sans attendre : elle sera validée avec les autres écritures en attente.
+     * @param travail L'écriture, exécutée atomiquement.
+     * @return Un futur complété après le commit.
+     */
+    public static <T> CompletableFuture<T> soumettre(EcrivainBase.Travail<T> travail) {
+        return getInstance().ecrivain.soumettre(travail);
+    }
     
     /**
      * Initialise le pool de connexions à la base de données et crée les tables si elles n'existent pas.
      * Cette méthode doit être appelée une fois au démarrage de l'application.
      */
     public void initializeDatabase() {
-        Config.DatabaseConfig dbConfig = ConfigManager.getConfig().getDatabaseConfig();
+        initializeDatabase(ConfigManager.getConfig().getDatabaseConfig());
+    }
 
+    /**
+     * Initialise le pool avec une configuration donnée, par exemple pour comparer des profils de performance.
+     * @param dbConfig La configuration de la base de données.
+     */
+    public void initializeDatabase(Config.DatabaseConfig dbConfig) {
+        long debut = System.nanoTime();
         if (!dbConfig.isMemoryMode()) {
             File dbFile = new File(dbConfig.getPath());
             File parentDir = dbFile.getParentFile();
@@ -42,30 +83,87 @@ public class DatabaseManager {
             }
         }
 
-        HikariConfig config = new HikariConfig();
-        dbPath = dbConfig.isMemoryMode() ? "jdbc:sqlite::memory:" : "jdbc:sqlite:" + dbConfig.getPath();
-        config.setJdbcUrl(dbPath);
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
-        config.setConnectionTimeout(30000);
-        config.setIdleTimeout(600000);
-        config.setMaxLifetime(1800000);
+        Config.PerformanceConfig performance = dbConfig.getPerformance();
+        // En mémoire, toutes les connexions partagent la même base tant que l'une d'elles reste ouverte.
+        // memdb plutôt que le cache partagé : une lecture ne voit que des données validées et attend
+        // la fin d'une transaction d'écriture (busy_timeout) au lieu d'échouer sur une table verrouillée
+        dbPath = dbConfig.isMemoryMode() ? "jdbc:sqlite:file:/farmsim?vfs=memdb" : "jdbc:sqlite:" + dbConfig.getPath();
+
+        // L'écrivain garde sa connexion pour lui : elle n'est jamais recyclée
+        HikariConfig ecriture = creerConfig(performance, 1);
+        ecriture.setMaxLifetime(0);
+        ecriture.setIdleTimeout(0);
+
+        HikariConfig lecture = creerConfig(performance, performance.getReaderPoolSize());
+        lecture.setConnectionInitSql("PRAGMA query_only = 1");
 
         try {
-            dataSource = new HikariDataSource(config);
-            System.out.println("Pool de connexions HikariCP pour SQLite initialisé.");
-            createTables();
+            ecritureSource = new HikariDataSource(ecriture);
+            ecrivain = new EcrivainBase(ecritureSource, performance.getWriteBatchSize());
+            migrationsAppliquees = ecrire(migrations::appliquer);
+            dataSource = new HikariDataSource(lecture);
+            dureeInitialisationMs = (System.nanoTime() - debut) / 1_000_000.0;
+            System.out.println(String.format("Pool de connexions HikariCP pour SQLite initialisé en %.1f ms (schéma en version %d, %d migrations appliquées).",
+                    dureeInitialisationMs, migrations.getVersionCible(), migrationsAppliquees));
         } catch (Exception e) {
             System.err.println("Erreur lors de l'initialisation de la base de données: " + e.getMessage());
             throw new RuntimeException("Échec de l'initialisation de la base de données", e);
         }
     }
 
+    private HikariConfig creerConfig(Config.PerformanceConfig performance, int taille) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(dbPath);
+        config.setMaximumPoolSize(taille);
+        config.setMinimumIdle(Math.min(2, taille));
+        appliquerPragmas(config, performance);
+        config.setConnectionTimeout(30000);
+        config.setIdleTimeout(600000);
+        config.setMaxLifetime(1800000);
+        return config;
+    }
+
+    /**
+     * Passe les pragmas du profil au pilote SQLite, qui les applique à l'ouverture de chaque connexion du pool.
+     */
+    private static void appliquerPragmas(HikariConfig config, Config.PerformanceConfig performance) {
+        config.addDataSourceProperty("journal_mode", performance.getJournalMode());
+        config.addDataSourceProperty("synchronous", performance.getSynchronous());
+        config.addDataSourceProperty("mmap_size", String.valueOf(performance.getMmapSizeMb() * 1024L * 1024L));
+        // Une taille négative est exprimée en Kio plutôt qu'en pages
+        config.addDataSourceProperty("cache_size", String.valueOf(-performance.getCacheSizeKb()));
+        config.addDataSourceProperty("temp_store", performance.getTempStore());
+        config.addDataSourceProperty("busy_timeout", String.valueOf(performance.getBusyTimeoutMs()));
+        config.addDataSourceProperty("foreign_keys", String.valueOf(performance.isForeignKeys()));
+    }
+
     public Connection getConnection() throws SQLException { 
         return dataSource.getConnection(); 
     }
 
+    public EcrivainBase getEcrivain() {
+        return ecrivain;
+    }
+
+    /**
+     * @return Le nombre de migrations appliquées au dernier démarrage, 0 pour une base déjà à jour.
+     */
+    public int getMigrationsAppliquees() {
+        return migrationsAppliquees;
+    }
+
+    /**
+     * @return La durée du dernier démarrage de la base, migrations et ouverture des pools comprises.
+     */
+    public double getDureeInitialisationMs() {
+        return dureeInitialisationMs;
+    }
+
     public static void closeInstance() {
+        if (instance != null && instance.ecrivain != null) {
+            instance.ecrivain.arreter();
+            instance.ecritureSource.close();
+        }
         if (instance != null && instance.dataSource != null && !instance.dataSource.isClosed()) {
             instance.dataSource.close();
             System.out.println("Instance fermée.");
@@ -75,9 +173,8 @@ public class DatabaseManager {
         instance = null;
     }
 
-    private void createTables() {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
+    private void createTables(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
 
             String createDifficulteTable = """
                 CREATE TABLE IF NOT EXISTS Difficulte (
@@ -108,10 +205,12 @@ public class DatabaseManager {
                     joueur_id INTEGER NOT NULL,
                     name TEXT NOT NULL,
                     revenu REAL DEFAULT 0.0,
+                    derniere_simulation INTEGER DEFAULT 0,
                     FOREIGN KEY (joueur_id) REFERENCES Joueur(id) ON DELETE CASCADE
                 );
                 """;
             stmt.execute(createFermeTable);
+            ajouterColonneSiAbsente(stmt, "Ferme", "derniere_simulation", "INTEGER DEFAULT 0");
             System.out.println("Table 'Ferme' créée.");
 
             String createStockageTable = """
@@ -360,4 +459,68 @@ public class DatabaseManager {
             throw new RuntimeException("Échec de la création des tables de la base de données", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Crée les index des clés étrangères et des filtres des DAO.
+     */
+    private void createIndexes(Connection conn) throws SQLException {
+        // Une recherche par parent parcourait toute la table, partagée par tous les joueurs.
+        // Les index composites suivent les filtres des DAO, l'id final restant implicite.
+        String[] createIndexes = {
+            "CREATE INDEX IF NOT EXISTS idx_joueur_name ON Joueur(name)",
+            "CREATE INDEX IF NOT EXISTS idx_ferme_joueur ON Ferme(joueur_id)",
+            "CREATE INDEX IF NOT EXISTS idx_stockage_ferme ON Stockage(ferme_id)",
+            "CREATE INDEX IF NOT EXISTS idx_reservoir_stockage ON ReservoirEau(stockage_id)",
+            "CREATE INDEX IF NOT EXISTS idx_champ_ferme ON Champ(ferme_id, numero)",
+            "CREATE INDEX IF NOT EXISTS idx_champ_ferme_etat ON Champ(ferme_id, etat, temps_action)",
+            "CREATE INDEX IF NOT EXISTS idx_ferme_animale_champ ON FermeAnimale(champ_id)",
+            "CREATE INDEX IF NOT EXISTS idx_animal_ferme_animale ON Animal(ferme_animale_id)",
+            "CREATE INDEX IF NOT EXISTS idx_gestionnaire_ferme ON GestionnaireEquipement(ferme_id)",
+            "CREATE INDEX IF NOT EXISTS idx_equipement_gestionnaire ON Equipement(gestionnaire_id, type, en_utilisation)",
+            "CREATE INDEX IF NOT EXISTS idx_structure_ferme ON StructureProduction(ferme_id, type)",
+            "CREATE INDEX IF NOT EXISTS idx_economie_joueur ON Economie(joueur_id)",
+            "CREATE INDEX IF NOT EXISTS idx_sauvegarde_joueur ON Sauvegarde(joueur_id)",
+            "CREATE INDEX IF NOT EXISTS idx_article_info_categorie ON ArticleInfo(categorie, nom)"
+        };
+        try (Statement stmt = conn.createStatement()) {
+            for (String createIndex : createIndexes) {
+                stmt.execute(createIndex);
+            }
+        }
+        System.out.println("Index créés.");
+    }
+
+    /**
+     * Crée la table des paramètres de la base, dont l'empreinte du catalogue inséré.
+     */
+    private void createParametreTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            String createParametreTable = """
+                CREATE TABLE IF NOT EXISTS Parametre (
+                    cle TEXT PRIMARY KEY,
+                    valeur TEXT NOT NULL
+                );
+                """;
+            stmt.execute(createParametreTable);
+            System.out.println("Table 'Parametre' créée.");
+        }
+    }
+
+    /**
+     * Ajoute une colonne à une table créée par une version précédente du jeu.
+     * @param stmt Le statement à utiliser.
+     * @param table La table à compléter.
+     * @param colonne Le nom de la colonne.
+     * @param definition Le type et la valeur par défaut de la colonne.
+     */
+    private void ajouterColonneSiAbsente(Statement stmt, String table, String colonne, String definition) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (colonne.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + colonne + " " + definition);
+    }
+}
@@ -0,0 +1,225 @@
+package dev.linnaelle.fs.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * Unique écrivain de la base. Un thread dédié tient la seule connexion d'écriture et exécute les écritures
+ * mises en file : celles arrivées pendant la transaction précédente sont regroupées et validées ensemble,
+ * en un seul commit. Les threads ne se disputent donc plus le verrou d'écriture de SQLite.
+ * Chaque travail est atomique : il s'exécute dans un point de sauvegarde, annulé s'il échoue
+ * sans défaire les autres travaux du lot.
+ */
+public class EcrivainBase {
+
+    /**
+     * Écriture exécutée sur la connexion de l'écrivain. Elle ne doit ni fermer la connexion
+     * ni gérer elle-même la transaction.
+     */
+    @FunctionalInterface
+    public interface Travail<T> {
+        T executer(Connection conn) throws SQLException;
+    }
+
+    private static class Demande<T> {
+        private final Travail<T> travail;
+        private final CompletableFuture<T> resultat = new CompletableFuture<>();
+        private T valeur;
+        private Throwable erreur;
+
+        Demande(Travail<T> travail) {
+            this.travail = travail;
+        }
+
+        void executer(Connection conn) {
+            try {
+                valeur = executerAtomique(conn, travail);
+            } catch (SQLException | RuntimeException e) {
+                erreur = e;
+            }
+        }
+
+        void terminer() {
+            if (erreur != null) {
+                resultat.completeExceptionally(erreur);
+            } else {
+                resultat.complete(valeur);
+            }
+        }
+    }
+
+    private final DataSource source;
+    private final int tailleLotMax;
+    private final BlockingQueue<Demande<?>> file;
+    private final Thread thread;
+    private volatile boolean actif;
+    private boolean ferme;
+    private Connection connexion;
+
+    private long transactions;
+    private long travaux;
+
+    /**
+     * Démarre le thread d'écriture.
+     * @param source La source de l'unique connexion d'écriture, ouverte par le thread d'écriture lui-même.
+     * @param tailleLotMax Le nombre maximal de travaux validés par une même transaction.
+     */
+    EcrivainBase(DataSource source, int tailleLotMax) {
+        this.source = source;
+        this.tailleLotMax = Math.max(1, tailleLotMax);
+        this.file = new LinkedBlockingQueue<>();
+        this.actif = true;
+        this.thread = new Thread(this::boucle, "ecrivain-sqlite");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Met une écriture en file sans attendre.
+     * @param travail L'écriture à exécuter.
+     * @return Un futur complété après le commit de la transaction qui contient l'écriture,
+     *         ou en erreur si l'écriture ou le commit a échoué.
+     */
+    public <T> CompletableFuture<T> soumettre(Travail<T> travail) {
+        Demande<T> demande = new Demande<>(travail);
+        synchronized (this) {
+            if (ferme) {
+                demande.resultat.completeExceptionally(new SQLException("L'écrivain de la base est arrêté"));
+                return demande.resultat;
+            }
+            file.add(demande);
+        }
+        return demande.resultat;
+    }
+
+    /**
+     * Exécute une écriture et attend son commit. Appelée depuis une écriture en cours,
+     * elle s'exécute directement dans la transaction de celle-ci.
+     * @param travail L'écriture à exécuter.
+     * @return La valeur rendue par l'écriture.
+     * @throws SQLException Si l'écriture ou le commit a échoué.
+     */
+    public <T> T executer(Travail<T> travail) throws SQLException {
+        if (Thread.currentThread() == thread) {
+            return executerAtomique(connexion, travail);
+        }
+
+        try {
+            return soumettre(travail).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Attente d'écriture interrompue", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException(cause);
+        }
+    }
+
+    /**
+     * Termine les écritures déjà en file, puis arrête le thread et rend la connexion.
+     */
+    void arreter() {
+        actif = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized long getTransactions() {
+        return transactions;
+    }
+
+    public synchronized long getTravaux() {
+        return travaux;
+    }
+
+    private static <T> T executerAtomique(Connection conn, Travail<T> travail) throws SQLException {
+        Savepoint point = conn.setSavepoint();
+        try {
+            T valeur = travail.executer(conn);
+            conn.releaseSavepoint(point);
+            return valeur;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback(point);
+            throw e;
+        }
+    }
+
+    private void boucle() {
+        try (Connection conn = source.getConnection()) {
+            conn.setAutoCommit(false);
+            connexion = conn;
+
+            List<Demande<?>> lot = new ArrayList<>();
+            while (actif || !file.isEmpty()) {
+                Demande<?> premiere = file.poll(50, TimeUnit.MILLISECONDS);
+                if (premiere == null) {
+                    continue;
+                }
+                lot.add(premiere);
+                file.drainTo(lot, tailleLotMax - 1);
+                executerLot(conn, lot);
+                lot.clear();
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("[ERROR] Écrivain de la base arrêté: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connexion = null;
+            List<Demande<?>> restantes = new ArrayList<>();
+            synchronized (this) {
+                ferme = true;
+                file.drainTo(restantes);
+            }
+            for (Demande<?> demande : restantes) {
+                demande.resultat.completeExceptionally(new SQLException("L'écrivain de la base est arrêté"));
+            }
+        }
+    }
+
+    private void executerLot(Connection conn, List<Demande<?>> lot) {
+        for (Demande<?> demande : lot) {
+            demande.executer(conn);
+        }
+
+        try {
+            conn.commit();
+        } catch (SQLException e) {
+            System.err.println("[ERROR] Erreur lors du commit d'un lot d'écritures: " + e.getMessage());
+            try {
+                conn.rollback();
+            } catch (SQLException ignoree) {
+                // La transaction est déjà perdue, les demandes reçoivent l'erreur du commit
+            }
+            for (Demande<?> demande : lot) {
+                demande.erreur = e;
+            }
+        }
+
+        synchronized (this) {
+            transactions++;
+            travaux += lot.size();
+        }
+        for (Demande<?> demande : lot) {
+            demande.terminer();
+        }
+    }
+}
\ No newline at end of file
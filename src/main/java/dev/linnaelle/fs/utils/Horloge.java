@@ -0,0 +1,47 @@
+package dev.linnaelle.fs.utils;
+
+/**
+ * Source du temps du jeu, en millisecondes.
+ * Toute l'application lit l'heure via {@link #getInstance()} plutôt que {@link System#currentTimeMillis()},
+ * ce qui permet d'accélérer le temps ou de le faire avancer pas à pas pour les tests et les mesures.
+ * Par défaut, l'horloge suit le temps réel, accéléré du facteur {@code simulationTimeScale} de la configuration.
+ */
+public abstract class Horloge {
+
+    private static volatile Horloge instance;
+
+    /**
+     * @return Le temps courant du jeu en millisecondes.
+     */
+    public abstract long maintenant();
+
+    /**
+     * Nombre de millisecondes de jeu écoulées par milliseconde réelle.
+     * @return Le facteur d'accélération, 1 pour le temps réel, 0 pour une horloge qui n'avance pas seule.
+     */
+    public double getFacteur() {
+        return 1.0;
+    }
+
+    public static Horloge getInstance() {
+        Horloge horloge = instance;
+        if (horloge == null) {
+            synchronized (Horloge.class) {
+                if (instance == null) {
+                    double facteur = ConfigManager.getSimulationTimeScale();
+                    instance = facteur == 1.0 || facteur <= 0 ? new HorlogeReelle() : new HorlogeDilatee(facteur);
+                }
+                horloge = instance;
+            }
+        }
+        return horloge;
+    }
+
+    /**
+     * Remplace l'horloge du jeu, à faire avant de créer les entités ou de démarrer la simulation.
+     * @param horloge La nouvelle horloge.
+     */
+    public static void setInstance(Horloge horloge) {
+        instance = horloge;
+    }
+}
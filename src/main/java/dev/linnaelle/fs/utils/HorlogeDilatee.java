@@ -0,0 +1,39 @@
+package dev.linnaelle.fs.utils;
+
+/**
+ * Horloge accélérée (ou ralentie) : le temps du jeu avance de {@code facteur} millisecondes par milliseconde réelle,
+ * à partir de l'heure réelle de sa création. Avec un facteur 1000, une semaine de jeu dure un peu plus de 10 minutes.
+ */
+public class HorlogeDilatee extends Horloge {
+
+    private final double facteur;
+    private final long origineMillis;
+    private final long origineNanos;
+
+    public HorlogeDilatee(double facteur) {
+        this(facteur, System.currentTimeMillis());
+    }
+
+    /**
+     * @param facteur Le facteur d'accélération, strictement positif.
+     * @param origineMillis Le temps du jeu à la création de l'horloge.
+     */
+    public HorlogeDilatee(double facteur, long origineMillis) {
+        if (facteur <= 0) {
+            throw new IllegalArgumentException("Facteur d'accélération invalide: " + facteur);
+        }
+        this.facteur = facteur;
+        this.origineMillis = origineMillis;
+        this.origineNanos = System.nanoTime();
+    }
+
+    @Override
+    public long maintenant() {
+        return origineMillis + (long) ((System.nanoTime() - origineNanos) / 1_000_000.0 * facteur);
+    }
+
+    @Override
+    public double getFacteur() {
+        return facteur;
+    }
+}
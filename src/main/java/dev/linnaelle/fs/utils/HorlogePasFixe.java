@@ -0,0 +1,52 @@
+package dev.linnaelle.fs.utils;
+
+/**
+ * Horloge manuelle, qui n'avance que lorsqu'on le lui demande.
+ * Rend les tests et les mesures reproductibles, indépendamment de la vitesse de la machine.
+ */
+public class HorlogePasFixe extends Horloge {
+
+    private final long pas;
+    private volatile long temps;
+
+    /**
+     * @param origineMillis Le temps initial du jeu.
+     * @param pas L'avance par défaut de {@link #avancer()}, en millisecondes.
+     */
+    public HorlogePasFixe(long origineMillis, long pas) {
+        this.temps = origineMillis;
+        this.pas = pas;
+    }
+
+    @Override
+    public long maintenant() {
+        return temps;
+    }
+
+    @Override
+    public double getFacteur() {
+        return 0.0;
+    }
+
+    /**
+     * Avance l'horloge d'un pas.
+     * @return Le nouveau temps.
+     */
+    public synchronized long avancer() {
+        return avancer(pas);
+    }
+
+    /**
+     * Avance l'horloge d'une durée donnée.
+     * @param duree La durée en millisecondes.
+     * @return Le nouveau temps.
+     */
+    public synchronized long avancer(long duree) {
+        temps += duree;
+        return temps;
+    }
+
+    public long getPas() {
+        return pas;
+    }
+}
@@ -0,0 +1,21 @@
+package dev.linnaelle.fs.utils;
+
+/**
+ * Horloge en temps réel. Calée sur {@link System#currentTimeMillis()} à sa création puis avancée
+ * avec {@link System#nanoTime()}, elle ne recule pas si l'heure du système est modifiée.
+ */
+public class HorlogeReelle extends Horloge {
+
+    private final long origineMillis;
+    private final long origineNanos;
+
+    public HorlogeReelle() {
+        this.origineMillis = System.currentTimeMillis();
+        this.origineNanos = System.nanoTime();
+    }
+
+    @Override
+    public long maintenant() {
+        return origineMillis + (System.nanoTime() - origineNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,133 @@
+package dev.linnaelle.fs.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migrations du schéma, numérotées et appliquées dans l'ordre. La table {@code schema_version} garde
+ * une ligne par migration appliquée : au démarrage, une base à jour ne coûte qu'une lecture de version,
+ * sans aucune instruction DDL.
+ */
+public class Migrations {
+
+    /**
+     * Modification du schéma. Elle s'exécute sur la connexion de l'écrivain, dans la transaction
+     * qui enregistre sa version.
+     */
+    @FunctionalInterface
+    public interface Etape {
+        void appliquer(Connection conn) throws SQLException;
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final Etape etape;
+
+        Migration(int version, String description, Etape etape) {
+            this.version = version;
+            this.description = description;
+            this.etape = etape;
+        }
+    }
+
+    private final List<Migration> migrations = new ArrayList<>();
+
+    /**
+     * Ajoute une migration à la suite des précédentes.
+     * @param version Le numéro de version, supérieur à celui de la migration précédente.
+     * @param description La description enregistrée avec la version.
+     * @param etape La modification du schéma.
+     * @return Cette liste, pour enchaîner les ajouts.
+     */
+    public Migrations ajouter(int version, String description, Etape etape) {
+        if (version <= getVersionCible()) {
+            throw new IllegalArgumentException("Migration " + version + " déclarée après la version " + getVersionCible());
+        }
+        migrations.add(new Migration(version, description, etape));
+        return this;
+    }
+
+    /**
+     * @return La version du schéma une fois toutes les migrations appliquées.
+     */
+    public int getVersionCible() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version;
+    }
+
+    /**
+     * Applique les migrations dont la version dépasse celle de la base, chacune enregistrée avec sa durée.
+     * À exécuter par l'écrivain : un échec annule toutes les migrations de l'appel.
+     * @param conn La connexion d'écriture.
+     * @return Le nombre de migrations appliquées.
+     * @throws SQLException Si une migration échoue.
+     */
+    public int appliquer(Connection conn) throws SQLException {
+        int version = lireVersion(conn);
+        if (version > getVersionCible()) {
+            System.err.println("[WARN] La base est en version " + version + ", plus récente que le jeu (" + getVersionCible() + ")");
+        }
+        if (version >= getVersionCible()) {
+            return 0;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applique_le INTEGER NOT NULL,
+                    duree_ms REAL NOT NULL
+                );
+                """);
+        }
+
+        int appliquees = 0;
+        String sql = "INSERT INTO schema_version (version, description, applique_le, duree_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Migration migration : migrations) {
+                if (migration.version <= version) {
+                    continue;
+                }
+                long debut = System.nanoTime();
+                migration.etape.appliquer(conn);
+                double dureeMs = (System.nanoTime() - debut) / 1_000_000.0;
+
+                stmt.setInt(1, migration.version);
+                stmt.setString(2, migration.description);
+                stmt.setLong(3, System.currentTimeMillis());
+                stmt.setDouble(4, dureeMs);
+                stmt.executeUpdate();
+                appliquees++;
+                System.out.println(String.format("Migration %d appliquée en %.1f ms : %s", migration.version, dureeMs, migration.description));
+            }
+        }
+        return appliquees;
+    }
+
+    /**
+     * Lit la version du schéma. Une base créée avant les migrations, sans table {@code schema_version},
+     * est en version 0 : toutes les migrations s'y appliquent, et leurs instructions {@code IF NOT EXISTS}
+     * laissent en place ce qui existe déjà.
+     * @param conn Une connexion à la base.
+     * @return La dernière version appliquée, ou 0.
+     * @throws SQLException Si la lecture échoue.
+     */
+    public static int lireVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'schema_version'")) {
+                if (!rs.next()) {
+                    return 0;
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+}
\ No newline at end of file